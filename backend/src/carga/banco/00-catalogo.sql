@@ -0,0 +1,50 @@
+-- ==============================================================================
+-- Esquema e catálogo de temas mínimos para o teste de carga
+-- ------------------------------------------------------------------------------
+-- Em produção as tabelas tema e grupo pertencem ao SiCAR; aqui entram apenas os
+-- grupos do quadro de áreas e os temas usados pelos imóveis sintéticos.
+-- ==============================================================================
+
+CREATE EXTENSION IF NOT EXISTS postgis;
+CREATE EXTENSION IF NOT EXISTS unaccent;
+
+CREATE SCHEMA IF NOT EXISTS usr_geocar_aplicacao;
+
+CREATE TABLE IF NOT EXISTS usr_geocar_aplicacao.grupo (
+  idt_grupo  BIGINT PRIMARY KEY,
+  nom_grupo  VARCHAR(255) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS usr_geocar_aplicacao.tema (
+  idt_tema       BIGINT PRIMARY KEY,
+  idt_grupo      BIGINT NOT NULL REFERENCES usr_geocar_aplicacao.grupo (idt_grupo),
+  cod_tema       VARCHAR(100) NOT NULL UNIQUE,
+  nom_tema       VARCHAR(255) NOT NULL,
+  ind_tipo_tema  VARCHAR(1)
+);
+
+INSERT INTO usr_geocar_aplicacao.grupo (idt_grupo, nom_grupo) VALUES
+  (1, 'Área do Imóvel'),
+  (2, 'Cobertura do Solo'),
+  (3, 'Servidão Administrativa'),
+  (4, 'Área de Preservação Permanente'),
+  (5, 'Reserva Legal')
+ON CONFLICT DO NOTHING;
+
+INSERT INTO usr_geocar_aplicacao.tema (idt_tema, idt_grupo, cod_tema, nom_tema, ind_tipo_tema) VALUES
+  (1, 1, 'AREA_IMOVEL', 'Área do Imóvel', 'P'),
+  (2, 1, 'AREA_IMOVEL_LIQUIDA', 'Área Líquida do Imóvel', 'C'),
+  (3, 2, 'VEGETACAO_NATIVA', 'Remanescente de Vegetação Nativa', 'P'),
+  (4, 2, 'AREA_CONSOLIDADA', 'Área Consolidada', 'P'),
+  (5, 2, 'AREA_POUSIO', 'Área de Pousio', 'P'),
+  (6, 2, 'AREA_NAO_CLASSIFICADA', 'Área Não Classificada', 'C'),
+  (7, 3, 'AREA_UTILIDADE_PUBLICA', 'Área de Utilidade Pública', 'P'),
+  (8, 3, 'AREA_INFRAESTRUTURA_PUBLICA', 'Infraestrutura Pública', 'P'),
+  (9, 3, 'AREA_SERVIDAO_ADMINISTRATIVA_TOTAL', 'Servidão Administrativa Total', 'C'),
+  (10, 4, 'APP_RIO_ATE_10', 'APP de Rio até 10 metros', 'P'),
+  (11, 4, 'APP_NASCENTE_OLHO_DAGUA', 'APP de Nascente ou Olho d''Água', 'P'),
+  (12, 4, 'APP_A_RECUPERAR', 'APP a Recuperar', 'C'),
+  (13, 5, 'ARL_PROPOSTA', 'Reserva Legal Proposta', 'P'),
+  (14, 5, 'ARL_AVERBADA', 'Reserva Legal Averbada', 'P'),
+  (15, 5, 'ARL_TOTAL', 'Reserva Legal Total', 'C')
+ON CONFLICT DO NOTHING;
@@ -0,0 +1,169 @@
+package br.vegamonitoramento.caronline.carga;
+
+import br.vegamonitoramento.caronline.geometry.GeoJsonGeometryWriter;
+import br.vegamonitoramento.caronline.geometry.Geometrias;
+import br.vegamonitoramento.caronline.model.Municipio;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Imóveis sintéticos do CAR dentro dos municípios de SP: o perímetro do imóvel e, aninhadas
+ * nele, feições de cobertura do solo, APP, servidão administrativa e reserva legal. As
+ * coberturas e a servidão ocupam setores distintos do imóvel, portanto não se sobrepõem; a
+ * APP e a reserva legal ficam sobre a vegetação nativa, como num cadastro real.
+ */
+public class GeradorImoveis {
+
+    // Metros por grau de latitude, suficiente para dimensionar os polígonos
+    private static final double METROS_POR_GRAU = 111_320.0;
+
+    private static final String[] COBERTURAS = {"VEGETACAO_NATIVA", "AREA_CONSOLIDADA", "AREA_POUSIO"};
+    private static final String[] APPS = {"APP_RIO_ATE_10", "APP_NASCENTE_OLHO_DAGUA"};
+    private static final String[] SERVIDOES = {"AREA_UTILIDADE_PUBLICA", "AREA_INFRAESTRUTURA_PUBLICA"};
+
+    private final ObjectMapper objectMapper;
+    private final int verticesImovel;
+    private final int coberturas;
+    private final double raioMetros;
+
+    /**
+     * @param verticesImovel vértices do perímetro; as feições internas têm um décimo disso (mínimo 8)
+     * @param coberturas     feições de cobertura do solo por imóvel
+     * @param raioMetros     raio médio do imóvel, reduzido quando não cabe no município
+     */
+    public GeradorImoveis(ObjectMapper objectMapper, int verticesImovel, int coberturas, double raioMetros) {
+        if (verticesImovel < 4 || coberturas < 1 || raioMetros <= 0) {
+            throw new IllegalArgumentException("vértices >= 4, coberturas >= 1 e raio positivo");
+        }
+        this.objectMapper = objectMapper;
+        this.verticesImovel = verticesImovel;
+        this.coberturas = coberturas;
+        this.raioMetros = raioMetros;
+    }
+
+    /**
+     * FeatureCollection GeoJSON (WGS84) de um imóvel inteiramente dentro do município
+     */
+    public byte[] gerar(Random aleatorio, Municipio municipio) {
+        PreparedGeometry limite = PreparedGeometryFactory.prepare(municipio.getGeometria());
+        Coordinate centro = pontoInterno(aleatorio, municipio.getGeometria(), limite);
+
+        double raio = raioMetros;
+        Polygon imovel = poligono(aleatorio, centro, raio, verticesImovel);
+        // Municípios pequenos ou centros perto da divisa: encolhe até caber
+        for (int tentativa = 0; tentativa < 8 && !limite.containsProperly(imovel); tentativa++) {
+            raio /= 2;
+            imovel = poligono(aleatorio, centro, raio, verticesImovel);
+        }
+
+        List<Feicao> feicoes = new ArrayList<>();
+        feicoes.add(new Feicao("AREA_IMOVEL", imovel));
+
+        int verticesInternos = Math.max(8, verticesImovel / 10);
+        // Um setor por cobertura e um para a servidão; o raio de cada feição é menor que a
+        // metade da distância entre centros vizinhos, para não haver sobreposição
+        int setores = coberturas + 1;
+        double distancia = raio * 0.45;
+        double raioFeicao = Math.min(raio * 0.15, distancia * Math.sin(Math.PI / setores) * 0.9);
+        for (int i = 0; i < setores; i++) {
+            Coordinate centroSetor = deslocar(centro, 2 * Math.PI * i / setores, distancia);
+            if (i == setores - 1) {
+                feicoes.add(new Feicao(SERVIDOES[aleatorio.nextInt(SERVIDOES.length)],
+                        poligono(aleatorio, centroSetor, raioFeicao, verticesInternos)));
+                continue;
+            }
+            String cobertura = i == 0 ? COBERTURAS[0] : COBERTURAS[1 + aleatorio.nextInt(COBERTURAS.length - 1)];
+            feicoes.add(new Feicao(cobertura, poligono(aleatorio, centroSetor, raioFeicao, verticesInternos)));
+            if (i == 0) {
+                // Reserva legal e APP sobre a vegetação nativa do primeiro setor
+                feicoes.add(new Feicao("ARL_PROPOSTA",
+                        poligono(aleatorio, centroSetor, raioFeicao * 0.5, verticesInternos)));
+                feicoes.add(new Feicao(APPS[aleatorio.nextInt(APPS.length)],
+                        poligono(aleatorio, deslocar(centroSetor, 0, raioFeicao * 0.5), raioFeicao * 0.3,
+                                verticesInternos)));
+            }
+        }
+        return serializar(feicoes);
+    }
+
+    /**
+     * Polígono estrelado em torno do centro (sempre simples), com raio médio em metros
+     */
+    static Polygon poligono(Random aleatorio, Coordinate centro, double raio, int vertices) {
+        double[] angulos = new double[vertices];
+        for (int i = 0; i < vertices; i++) {
+            angulos[i] = aleatorio.nextDouble() * 2 * Math.PI;
+        }
+        Arrays.sort(angulos);
+
+        Coordinate[] anel = new Coordinate[vertices + 1];
+        for (int i = 0; i < vertices; i++) {
+            // Borda recortada como a de um talhão ou fragmento de mata
+            anel[i] = deslocar(centro, angulos[i], raio * (0.7 + 0.3 * aleatorio.nextDouble()));
+        }
+        anel[vertices] = anel[0].copy();
+        return Geometrias.FACTORY.createPolygon(anel);
+    }
+
+    private static Coordinate deslocar(Coordinate origem, double angulo, double metros) {
+        double graus = metros / METROS_POR_GRAU;
+        return new Coordinate(
+                origem.x + Math.cos(angulo) * graus / Math.cos(Math.toRadians(origem.y)),
+                origem.y + Math.sin(angulo) * graus);
+    }
+
+    private static Coordinate pontoInterno(Random aleatorio, Geometry municipio, PreparedGeometry limite) {
+        Envelope extensao = municipio.getEnvelopeInternal();
+        for (int tentativa = 0; tentativa < 50; tentativa++) {
+            Point ponto = Geometrias.FACTORY.createPoint(new Coordinate(
+                    extensao.getMinX() + aleatorio.nextDouble() * extensao.getWidth(),
+                    extensao.getMinY() + aleatorio.nextDouble() * extensao.getHeight()));
+            if (limite.containsProperly(ponto)) {
+                return ponto.getCoordinate();
+            }
+        }
+        return municipio.getInteriorPoint().getCoordinate();
+    }
+
+    private byte[] serializar(List<Feicao> feicoes) {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        try (JsonGenerator gerador = objectMapper.getFactory().createGenerator(saida)) {
+            gerador.writeStartObject();
+            gerador.writeStringField("type", "FeatureCollection");
+            gerador.writeArrayFieldStart("features");
+            for (Feicao feicao : feicoes) {
+                gerador.writeStartObject();
+                gerador.writeStringField("type", "Feature");
+                gerador.writeFieldName("geometry");
+                GeoJsonGeometryWriter.write(feicao.geometria(), gerador);
+                gerador.writeObjectFieldStart("properties");
+                gerador.writeStringField("codTema", feicao.codTema());
+                gerador.writeEndObject();
+                gerador.writeEndObject();
+            }
+            gerador.writeEndArray();
+            gerador.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return saida.toByteArray();
+    }
+
+    private record Feicao(String codTema, Polygon geometria) {
+    }
+}
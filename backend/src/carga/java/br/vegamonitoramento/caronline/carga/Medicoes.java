@@ -0,0 +1,66 @@
+package br.vegamonitoramento.caronline.carga;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Latências e falhas de uma operação. Guarda todas as amostras (em microssegundos) para que
+ * os percentis sejam exatos; uma execução de alguns minutos cabe folgadamente em memória.
+ */
+class Medicoes {
+
+    private final ReentrantLock trava = new ReentrantLock();
+    private long[] amostras = new long[4096];
+    private int quantidade;
+    private long erros;
+    // Falhas por status HTTP, ou pelo nome da exceção quando não houve resposta
+    private final Map<String, Long> errosPorCausa = new TreeMap<>();
+
+    void registrar(long micros, String erro) {
+        trava.lock();
+        try {
+            if (quantidade == amostras.length) {
+                amostras = Arrays.copyOf(amostras, quantidade * 2);
+            }
+            amostras[quantidade++] = micros;
+            if (erro != null) {
+                erros++;
+                errosPorCausa.merge(erro, 1L, Long::sum);
+            }
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    Resumo resumir(String operacao, double segundos) {
+        trava.lock();
+        try {
+            long[] ordenadas = Arrays.copyOf(amostras, quantidade);
+            Arrays.sort(ordenadas);
+            return new Resumo(operacao, quantidade, quantidade / segundos, erros,
+                    quantidade == 0 ? 0.0 : (double) erros / quantidade,
+                    percentil(ordenadas, 0.50), percentil(ordenadas, 0.95), percentil(ordenadas, 0.99),
+                    quantidade == 0 ? 0.0 : ordenadas[quantidade - 1] / 1000.0,
+                    Map.copyOf(errosPorCausa));
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /**
+     * Percentil pelo método do posto mais próximo, em milissegundos
+     */
+    private static double percentil(long[] ordenadas, double fracao) {
+        if (ordenadas.length == 0) {
+            return 0.0;
+        }
+        int posicao = (int) Math.ceil(fracao * ordenadas.length) - 1;
+        return ordenadas[Math.max(0, posicao)] / 1000.0;
+    }
+
+    record Resumo(String operacao, long requisicoes, double vazao, long erros, double taxaErro,
+                  double p50Ms, double p95Ms, double p99Ms, double maximoMs, Map<String, Long> errosPorCausa) {
+    }
+}
@@ -0,0 +1,284 @@
+package br.vegamonitoramento.caronline.carga;
+
+import br.vegamonitoramento.caronline.model.Municipio;
+import br.vegamonitoramento.caronline.repository.MunicipioRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Teste de carga de ponta a ponta contra um backend já em execução. Cada usuário virtual
+ * fica com um município de SP e um imóvel sintético; grava o imóvel uma vez e depois repete,
+ * até o fim do tempo, operações sorteadas conforme a mistura: catálogo de temas, gravação,
+ * carga, validação e exportação. As requisições do aquecimento não entram no relatório.
+ * <p>
+ * Parâmetros no formato nome=valor (veja {@link Configuracao#de}); o relatório por operação
+ * (vazão, p50/p95/p99 e taxa de erro) é impresso e gravado em JSON.
+ */
+public final class TesteCarga {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private TesteCarga() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Configuracao configuracao = Configuracao.de(args);
+        List<UsuarioVirtual> usuarios = criarUsuarios(configuracao);
+
+        HttpClient cliente = HttpClient.newBuilder()
+                // HTTP/1.1, como o navegador fala com o servidor sem TLS
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        try {
+            HttpResponse<Void> resposta = cliente.send(requisicao(configuracao, Operacao.CATALOGO, usuarios.get(0)),
+                    HttpResponse.BodyHandlers.discarding());
+            System.out.printf(Locale.ROOT, "Backend em %s respondeu %d ao catálogo%n", configuracao.url(),
+                    resposta.statusCode());
+        } catch (IOException e) {
+            System.err.println("Backend indisponível em " + configuracao.url() + ": " + e);
+            System.exit(1);
+        }
+
+        Map<Operacao, Medicoes> medicoes = new EnumMap<>(Operacao.class);
+        for (Operacao operacao : Operacao.values()) {
+            medicoes.put(operacao, new Medicoes());
+        }
+
+        long inicio = System.nanoTime();
+        long inicioMedicao = inicio + configuracao.aquecimento().toNanos();
+        long fim = inicioMedicao + configuracao.duracao().toNanos();
+        System.out.printf(Locale.ROOT, "%d usuários, aquecimento de %ds e medição de %ds%n",
+                usuarios.size(), configuracao.aquecimento().toSeconds(), configuracao.duracao().toSeconds());
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (UsuarioVirtual usuario : usuarios) {
+                executor.submit(() -> {
+                    Operacao operacao = Operacao.SALVAR;
+                    while (System.nanoTime() < fim) {
+                        executar(cliente, configuracao, operacao, usuario, inicioMedicao, medicoes.get(operacao));
+                        if (configuracao.pausaMs() > 0) {
+                            Thread.sleep(configuracao.pausaMs());
+                        }
+                        operacao = configuracao.sortear(usuario.aleatorio());
+                    }
+                    return null;
+                });
+            }
+        }
+
+        double segundos = configuracao.duracao().toMillis() / 1000.0;
+        List<Medicoes.Resumo> resumos = new ArrayList<>();
+        for (Map.Entry<Operacao, Medicoes> entrada : medicoes.entrySet()) {
+            resumos.add(entrada.getValue().resumir(entrada.getKey().getDescricao(), segundos));
+        }
+        imprimir(resumos);
+        gravar(configuracao, resumos);
+    }
+
+    private static List<UsuarioVirtual> criarUsuarios(Configuracao configuracao) throws IOException {
+        List<Municipio> municipios = new ArrayList<>(new MunicipioRepository(new DefaultResourceLoader(),
+                OBJECT_MAPPER, "classpath:dados/geojs-35-mun-amostra.json",
+                "classpath:dados/uf-35-amostra.json").findAllMunicipios());
+        municipios.sort(Comparator.comparing(Municipio::getCodMunicipio));
+        // Municípios embaralhados pela semente: execuções com a mesma semente são comparáveis
+        Collections.shuffle(municipios, new Random(configuracao.semente()));
+
+        GeradorImoveis gerador = new GeradorImoveis(OBJECT_MAPPER, configuracao.vertices(),
+                configuracao.coberturas(), configuracao.raioMetros());
+        List<UsuarioVirtual> usuarios = new ArrayList<>(configuracao.usuarios());
+        for (int i = 0; i < configuracao.usuarios(); i++) {
+            Random aleatorio = new Random(configuracao.semente() + i);
+            // Com mais usuários que municípios, alguns dividem o município (e disputam a gravação)
+            Municipio municipio = municipios.get(i % municipios.size());
+            String imovel = new String(gerador.gerar(aleatorio, municipio), StandardCharsets.UTF_8);
+            String corpo = "{\"municipalityId\":" + municipio.getCodMunicipio() + ",\"geoJson\":" + imovel + "}";
+            usuarios.add(new UsuarioVirtual(municipio.getCodMunicipio(), corpo, aleatorio));
+        }
+        return usuarios;
+    }
+
+    private static void executar(HttpClient cliente, Configuracao configuracao, Operacao operacao,
+                                 UsuarioVirtual usuario, long inicioMedicao, Medicoes medicoes)
+            throws InterruptedException {
+        HttpRequest requisicao = requisicao(configuracao, operacao, usuario);
+        long inicio = System.nanoTime();
+        String erro;
+        try {
+            // O tempo inclui a leitura do corpo inteiro, como no navegador
+            HttpResponse<Void> resposta = cliente.send(requisicao, HttpResponse.BodyHandlers.discarding());
+            erro = resposta.statusCode() >= 400 ? "HTTP " + resposta.statusCode() : null;
+        } catch (IOException e) {
+            erro = e.getClass().getSimpleName();
+        }
+        if (inicio >= inicioMedicao) {
+            medicoes.registrar((System.nanoTime() - inicio) / 1000, erro);
+        }
+    }
+
+    private static HttpRequest requisicao(Configuracao configuracao, Operacao operacao, UsuarioVirtual usuario) {
+        String municipio = "municipalityId=" + usuario.codMunicipio();
+        HttpRequest.Builder construtor = switch (operacao) {
+            case CATALOGO -> HttpRequest.newBuilder(configuracao.endereco("/api/temas-grupos")).GET();
+            case SALVAR -> HttpRequest.newBuilder(configuracao.endereco("/api/camadas/salvar"))
+                    .POST(HttpRequest.BodyPublishers.ofString(usuario.corpo()));
+            // Carga para exibição no zoom típico de edição do imóvel
+            case CARREGAR -> HttpRequest.newBuilder(
+                    configuracao.endereco("/api/camadas/" + usuario.codMunicipio() + "?zoom=14")).GET();
+            case VALIDAR -> HttpRequest.newBuilder(configuracao.endereco("/api/validacoes"))
+                    .POST(HttpRequest.BodyPublishers.ofString(usuario.corpo()));
+            case EXPORTAR -> HttpRequest.newBuilder(
+                    configuracao.endereco("/api/camadas/exportar?format=shp&" + municipio)).GET();
+        };
+        return construtor
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(60))
+                .build();
+    }
+
+    private static void imprimir(List<Medicoes.Resumo> resumos) {
+        System.out.println();
+        System.out.printf(Locale.ROOT, "%-34s %9s %9s %8s %9s %9s %9s %9s%n",
+                "Operação", "Req.", "Req/s", "Erros", "p50 ms", "p95 ms", "p99 ms", "Máx. ms");
+        for (Medicoes.Resumo resumo : resumos) {
+            System.out.printf(Locale.ROOT, "%-34s %9d %9.1f %7.2f%% %9.1f %9.1f %9.1f %9.1f%n",
+                    resumo.operacao(), resumo.requisicoes(), resumo.vazao(), resumo.taxaErro() * 100,
+                    resumo.p50Ms(), resumo.p95Ms(), resumo.p99Ms(), resumo.maximoMs());
+            resumo.errosPorCausa().forEach((causa, quantidade) ->
+                    System.out.printf(Locale.ROOT, "    %s: %d%n", causa, quantidade));
+        }
+    }
+
+    private static void gravar(Configuracao configuracao, List<Medicoes.Resumo> resumos) throws IOException {
+        Map<String, Object> relatorio = new LinkedHashMap<>();
+        relatorio.put("configuracao", configuracao.descrever());
+        relatorio.put("operacoes", resumos);
+        Files.createDirectories(configuracao.saida().toAbsolutePath().getParent());
+        OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValue(configuracao.saida().toFile(), relatorio);
+        System.out.println();
+        System.out.println("Relatório gravado em " + configuracao.saida());
+    }
+
+    enum Operacao {
+        CATALOGO("GET /api/temas-grupos"),
+        SALVAR("POST /api/camadas/salvar"),
+        CARREGAR("GET /api/camadas/{municipio}"),
+        VALIDAR("POST /api/validacoes"),
+        EXPORTAR("GET /api/camadas/exportar"),
+        ;
+
+        private final String descricao;
+
+        Operacao(String descricao) {
+            this.descricao = descricao;
+        }
+
+        String getDescricao() {
+            return descricao;
+        }
+    }
+
+    private record UsuarioVirtual(long codMunicipio, String corpo, Random aleatorio) {
+    }
+
+    /**
+     * @param mistura peso de cada operação no sorteio
+     */
+    record Configuracao(URI url, int usuarios, Duration aquecimento, Duration duracao, long pausaMs,
+                        int vertices, int coberturas, double raioMetros, long semente,
+                        Map<Operacao, Integer> mistura, Path saida) {
+
+        /**
+         * Lê os parâmetros nome=valor; os ausentes ficam com o padrão:
+         * url=http://localhost:9291/car-online usuarios=50 aquecimento=30 duracao=120 (segundos)
+         * pausa-ms=0 vertices=200 coberturas=3 raio-metros=800 semente=42
+         * mistura=catalogo=20,salvar=15,carregar=25,validar=25,exportar=15 saida=target/carga-resultado.json
+         */
+        static Configuracao de(String[] args) {
+            Map<String, String> parametros = new LinkedHashMap<>();
+            for (String arg : args) {
+                int separador = arg.indexOf('=');
+                if (separador <= 0) {
+                    throw new IllegalArgumentException("Parâmetro fora do formato nome=valor: " + arg);
+                }
+                parametros.put(arg.substring(0, separador), arg.substring(separador + 1));
+            }
+
+            Map<Operacao, Integer> mistura = new EnumMap<>(Operacao.class);
+            for (String peso : parametros.getOrDefault("mistura",
+                    "catalogo=20,salvar=15,carregar=25,validar=25,exportar=15").split(",")) {
+                String[] partes = peso.split("=");
+                mistura.put(Operacao.valueOf(partes[0].trim().toUpperCase(Locale.ROOT)), Integer.parseInt(partes[1].trim()));
+            }
+            if (mistura.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+                throw new IllegalArgumentException("A mistura precisa de ao menos uma operação com peso positivo");
+            }
+
+            String url = parametros.getOrDefault("url", "http://localhost:9291/car-online");
+            return new Configuracao(
+                    URI.create(url.endsWith("/") ? url.substring(0, url.length() - 1) : url),
+                    Integer.parseInt(parametros.getOrDefault("usuarios", "50")),
+                    Duration.ofSeconds(Long.parseLong(parametros.getOrDefault("aquecimento", "30"))),
+                    Duration.ofSeconds(Long.parseLong(parametros.getOrDefault("duracao", "120"))),
+                    Long.parseLong(parametros.getOrDefault("pausa-ms", "0")),
+                    Integer.parseInt(parametros.getOrDefault("vertices", "200")),
+                    Integer.parseInt(parametros.getOrDefault("coberturas", "3")),
+                    Double.parseDouble(parametros.getOrDefault("raio-metros", "800")),
+                    Long.parseLong(parametros.getOrDefault("semente", "42")),
+                    mistura,
+                    Path.of(parametros.getOrDefault("saida", "target/carga-resultado.json")));
+        }
+
+        URI endereco(String caminho) {
+            return URI.create(url + caminho);
+        }
+
+        Operacao sortear(Random aleatorio) {
+            int total = mistura.values().stream().mapToInt(Integer::intValue).sum();
+            int sorteio = aleatorio.nextInt(total);
+            for (Map.Entry<Operacao, Integer> entrada : mistura.entrySet()) {
+                sorteio -= entrada.getValue();
+                if (sorteio < 0) {
+                    return entrada.getKey();
+                }
+            }
+            throw new IllegalStateException("Mistura vazia");
+        }
+
+        Map<String, Object> descrever() {
+            Map<String, Object> descricao = new LinkedHashMap<>();
+            descricao.put("url", url.toString());
+            descricao.put("usuarios", usuarios);
+            descricao.put("aquecimentoSegundos", aquecimento.toSeconds());
+            descricao.put("duracaoSegundos", duracao.toSeconds());
+            descricao.put("pausaMs", pausaMs);
+            descricao.put("vertices", vertices);
+            descricao.put("coberturas", coberturas);
+            descricao.put("raioMetros", raioMetros);
+            descricao.put("semente", semente);
+            descricao.put("mistura", mistura);
+            return descricao;
+        }
+    }
+}
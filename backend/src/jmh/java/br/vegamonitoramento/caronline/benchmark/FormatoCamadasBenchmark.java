@@ -0,0 +1,121 @@
+package br.vegamonitoramento.caronline.benchmark;
+
+import br.vegamonitoramento.caronline.export.CamadasTwkb;
+import br.vegamonitoramento.caronline.export.ExportadorCamadas;
+import br.vegamonitoramento.caronline.export.FormatoExportacao;
+import br.vegamonitoramento.caronline.metrics.MetricasGeometria;
+import br.vegamonitoramento.caronline.model.FeicaoCamada;
+import br.vegamonitoramento.caronline.model.dto.TemaGrupoDTO;
+import br.vegamonitoramento.caronline.repository.TemaGrupoRepository;
+import br.vegamonitoramento.caronline.service.CamadaGeoJsonParser;
+import br.vegamonitoramento.caronline.service.NormalizadorGeometrias;
+import br.vegamonitoramento.caronline.service.TemaGrupoService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.locationtech.jts.geom.Coordinate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * GeoJSON e formato binário (TWKB) das camadas: tempo de escrita e leitura de um imóvel com
+ * vinte feições. Os tamanhos, com e sem gzip, são impressos na preparação.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class FormatoCamadasBenchmark {
+
+    @Param({"200", "5000"})
+    private int verticesImovel;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private List<FeicaoCamada> feicoes;
+    private CamadaGeoJsonParser parser;
+    private byte[] geoJson;
+    private byte[] twkb;
+
+    @Setup
+    public void preparar() throws Exception {
+        Random aleatorio = new Random(42);
+        Coordinate centro = new Coordinate(-46.79, -23.61);
+        feicoes = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            feicoes.add(new FeicaoCamada(null, null, i == 0 ? "AREA_IMOVEL" : "VEGETACAO_NATIVA", null,
+                    new BigDecimal("12.3456"), ImoveisSinteticos.poligono(aleatorio, centro, i == 0 ? 800 : 150,
+                    i == 0 ? verticesImovel : Math.max(8, verticesImovel / 10)),
+                    OffsetDateTime.now(), OffsetDateTime.now(), "feicao-" + i, null, null));
+        }
+
+        TemaGrupoService catalogoVazio = new TemaGrupoService(new TemaGrupoRepository(null, null) {
+            @Override
+            public List<TemaGrupoDTO> findAllTemasGrupos() {
+                return List.of();
+            }
+        }, objectMapper);
+        parser = new CamadaGeoJsonParser(catalogoVazio, objectMapper, new NormalizadorGeometrias(
+                NormalizadorGeometrias.ESCALA_PADRAO, new MetricasGeometria(new SimpleMeterRegistry())));
+
+        geoJson = escrever(FormatoExportacao.GEOJSON);
+        twkb = escrever(FormatoExportacao.TWKB);
+        System.out.printf("%nvertices=%d geojson=%d bytes (gzip %d), twkb=%d bytes (gzip %d)%n",
+                verticesImovel, geoJson.length, gzip(geoJson), twkb.length, gzip(twkb));
+    }
+
+    @Benchmark
+    public byte[] escreverGeoJson() throws IOException {
+        return escrever(FormatoExportacao.GEOJSON);
+    }
+
+    @Benchmark
+    public byte[] escreverTwkb() throws IOException {
+        return escrever(FormatoExportacao.TWKB);
+    }
+
+    @Benchmark
+    public List<FeicaoCamada> lerGeoJson() throws IOException {
+        return parser.parse(objectMapper.readTree(geoJson));
+    }
+
+    @Benchmark
+    public List<FeicaoCamada> lerTwkb() throws IOException {
+        return CamadasTwkb.ler(new ByteArrayInputStream(twkb), Map.of());
+    }
+
+    private byte[] escrever(FormatoExportacao formato) throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        try (ExportadorCamadas exportador = formato.criarExportador(saida, null)) {
+            for (FeicaoCamada feicao : feicoes) {
+                exportador.escrever(feicao);
+            }
+            exportador.finalizar();
+        }
+        return saida.toByteArray();
+    }
+
+    private static int gzip(byte[] dados) throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        try (GZIPOutputStream compactado = new GZIPOutputStream(saida)) {
+            compactado.write(dados);
+        }
+        return saida.size();
+    }
+}
@@ -0,0 +1,143 @@
+package br.vegamonitoramento.caronline.benchmark;
+
+import br.vegamonitoramento.caronline.geometry.AreaGeodesica;
+import br.vegamonitoramento.caronline.geometry.GeoJsonGeometryReader;
+import br.vegamonitoramento.caronline.metrics.MetricasGeometria;
+import br.vegamonitoramento.caronline.model.dto.TemaGrupoDTO;
+import br.vegamonitoramento.caronline.model.dto.ValidacaoRequestDTO;
+import br.vegamonitoramento.caronline.model.dto.ValidacaoResponseDTO;
+import br.vegamonitoramento.caronline.repository.MunicipioRepository;
+import br.vegamonitoramento.caronline.repository.TemaGrupoRepository;
+import br.vegamonitoramento.caronline.service.CamadaGeoJsonParser;
+import br.vegamonitoramento.caronline.service.GeometriaReferenciaService;
+import br.vegamonitoramento.caronline.service.NormalizadorGeometrias;
+import br.vegamonitoramento.caronline.service.TemaGrupoService;
+import br.vegamonitoramento.caronline.service.ValidacaoService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leitura de GeoJSON e operações JTS usadas nas validações, sobre imóveis sintéticos
+ * dentro de Taboão da Serra
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class GeometriaBenchmark {
+
+    private static final long TABOAO_DA_SERRA = 3552809L;
+
+    // Imóvel desenhado à mão (200) e imóvel vetorizado de imagem ou importado de shapefile (5000)
+    @Param({"200", "5000"})
+    private int verticesImovel;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final GeoJsonGeometryReader geometryReader = new GeoJsonGeometryReader();
+
+    private String imovelTexto;
+    private JsonNode imovelArvore;
+    private Polygon imovel;
+    private PreparedGeometry imovelPreparado;
+    private Polygon vegetacao;
+    private Geometry municipio;
+    private PreparedGeometry municipioPreparado;
+    private ValidacaoService validacaoService;
+    private ValidacaoRequestDTO validacao;
+
+    @Setup
+    public void preparar() throws Exception {
+        GeometriaReferenciaService referencias = new GeometriaReferenciaService(new MunicipioRepository(
+                new DefaultResourceLoader(), objectMapper, "classpath:dados/geojs-35-mun-amostra.json",
+                "classpath:dados/uf-35-amostra.json"), 1);
+        referencias.recarregar();
+        GeometriaReferenciaService.MunicipioPreparado taboao = referencias.getMunicipio(TABOAO_DA_SERRA);
+        municipio = taboao.municipio().getGeometria();
+        municipioPreparado = taboao.geometria();
+
+        Coordinate centro = municipio.getInteriorPoint().getCoordinate();
+        Random aleatorio = new Random(42);
+        imovel = ImoveisSinteticos.poligono(aleatorio, centro, 800, verticesImovel);
+        imovelPreparado = PreparedGeometryFactory.prepare(imovel);
+        vegetacao = ImoveisSinteticos.poligono(aleatorio, centro, 300, Math.max(8, verticesImovel / 10));
+
+        imovelTexto = ImoveisSinteticos.geometria(imovel);
+        imovelArvore = objectMapper.readTree(imovelTexto);
+
+        TemaGrupoService catalogoVazio = new TemaGrupoService(new TemaGrupoRepository(null, null) {
+            @Override
+            public List<TemaGrupoDTO> findAllTemasGrupos() {
+                return List.of();
+            }
+        }, objectMapper);
+        MetricasGeometria metricas = new MetricasGeometria(new SimpleMeterRegistry());
+        CamadaGeoJsonParser parser = new CamadaGeoJsonParser(catalogoVazio, objectMapper,
+                new NormalizadorGeometrias(NormalizadorGeometrias.ESCALA_PADRAO, metricas));
+        validacaoService = new ValidacaoService(parser, referencias, metricas);
+        validacao = new ValidacaoRequestDTO(objectMapper.readTree(ImoveisSinteticos.featureCollection(
+                new Random(7), centro, 800, verticesImovel, 20)), TABOAO_DA_SERRA);
+    }
+
+    @Benchmark
+    public Geometry lerGeoJsonTexto() throws Exception {
+        return geometryReader.read(objectMapper.readTree(imovelTexto));
+    }
+
+    @Benchmark
+    public Geometry lerGeoJsonArvore() {
+        return geometryReader.read(imovelArvore);
+    }
+
+    @Benchmark
+    public boolean intersectsMunicipio() {
+        return municipio.intersects(imovel);
+    }
+
+    @Benchmark
+    public boolean intersectsMunicipioPreparado() {
+        return municipioPreparado.intersects(imovel);
+    }
+
+    @Benchmark
+    public boolean withinImovel() {
+        return vegetacao.within(imovel);
+    }
+
+    @Benchmark
+    public boolean coversImovelPreparado() {
+        return imovelPreparado.covers(vegetacao);
+    }
+
+    @Benchmark
+    public Geometry diferencaImovelVegetacao() {
+        return imovel.difference(vegetacao);
+    }
+
+    @Benchmark
+    public double areaGeodesica() {
+        return AreaGeodesica.hectares(imovel);
+    }
+
+    @Benchmark
+    public ValidacaoResponseDTO validarColecao() {
+        return validacaoService.validar(validacao);
+    }
+}
@@ -0,0 +1,87 @@
+package br.vegamonitoramento.caronline.benchmark;
+
+import br.vegamonitoramento.caronline.geometry.Geometrias;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Polygon;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Geometrias sintéticas com a forma de imóveis do CAR: polígonos irregulares (estrelados em
+ * torno de um centro, portanto sempre simples) com a densidade de vértices de um desenho
+ * vetorizado sobre imagem. A semente fixa deixa as execuções comparáveis entre si.
+ */
+public final class ImoveisSinteticos {
+
+    // Metros por grau de latitude, suficiente para dimensionar os polígonos
+    private static final double METROS_POR_GRAU = 111_320.0;
+
+    private ImoveisSinteticos() {
+    }
+
+    /**
+     * Polígono irregular com raio médio em metros e a quantidade de vértices informada
+     */
+    public static Polygon poligono(Random aleatorio, Coordinate centro, double raioMetros, int vertices) {
+        double[] angulos = new double[vertices];
+        for (int i = 0; i < vertices; i++) {
+            angulos[i] = aleatorio.nextDouble() * 2 * Math.PI;
+        }
+        Arrays.sort(angulos);
+
+        double grausLat = raioMetros / METROS_POR_GRAU;
+        double grausLon = grausLat / Math.cos(Math.toRadians(centro.y));
+
+        Coordinate[] anel = new Coordinate[vertices + 1];
+        for (int i = 0; i < vertices; i++) {
+            // Borda recortada como a de um talhão ou fragmento de mata
+            double fator = 0.7 + 0.3 * aleatorio.nextDouble();
+            anel[i] = new Coordinate(
+                    centro.x + Math.cos(angulos[i]) * grausLon * fator,
+                    centro.y + Math.sin(angulos[i]) * grausLat * fator);
+        }
+        anel[vertices] = anel[0].copy();
+        return Geometrias.FACTORY.createPolygon(anel);
+    }
+
+    /**
+     * Imóvel e feições internas (vegetação nativa, área consolidada) em FeatureCollection GeoJSON
+     */
+    public static String featureCollection(Random aleatorio, Coordinate centro, double raioMetros,
+                                           int verticesImovel, int feicoesInternas) {
+        StringBuilder json = new StringBuilder("{\"type\":\"FeatureCollection\",\"features\":[");
+        json.append(feature("area_imovel", poligono(aleatorio, centro, raioMetros, verticesImovel)));
+
+        for (int i = 0; i < feicoesInternas; i++) {
+            // Feições menores, espalhadas dentro do núcleo do imóvel
+            double angulo = aleatorio.nextDouble() * 2 * Math.PI;
+            double distancia = aleatorio.nextDouble() * raioMetros * 0.4 / METROS_POR_GRAU;
+            Coordinate centroFeicao = new Coordinate(
+                    centro.x + Math.cos(angulo) * distancia / Math.cos(Math.toRadians(centro.y)),
+                    centro.y + Math.sin(angulo) * distancia);
+            String codTema = i % 2 == 0 ? "vegetacao_nativa" : "area_consolidada";
+            json.append(',').append(feature(codTema,
+                    poligono(aleatorio, centroFeicao, raioMetros * 0.15, Math.max(8, verticesImovel / 10))));
+        }
+        return json.append("]}").toString();
+    }
+
+    public static String geometria(Polygon poligono) {
+        StringBuilder json = new StringBuilder("{\"type\":\"Polygon\",\"coordinates\":[[");
+        Coordinate[] coordenadas = poligono.getExteriorRing().getCoordinates();
+        for (int i = 0; i < coordenadas.length; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(String.format(Locale.ROOT, "[%.8f,%.8f]", coordenadas[i].x, coordenadas[i].y));
+        }
+        return json.append("]]}").toString();
+    }
+
+    private static String feature(String codTema, Polygon poligono) {
+        return "{\"type\":\"Feature\",\"geometry\":" + geometria(poligono)
+                + ",\"properties\":{\"codTema\":\"" + codTema + "\"}}";
+    }
+}
@@ -0,0 +1,100 @@
+package br.vegamonitoramento.caronline.repository;
+
+import br.vegamonitoramento.caronline.model.dto.TemaGrupoDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapeamento das linhas do catálogo de temas e agrupamento por "codOrdem_nomGrupo"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class CatalogoTemaGrupoBenchmark {
+
+    private static final String[] GRUPOS = {
+            "IMOVEL", "COBERTURA_DO_SOLO", "SERVIDAO_ADMINISTRATIVA", "APP_E_USO_RESTRITO", "RESERVA_LEGAL"};
+
+    // O catálogo real tem pouco mais de cem temas
+    @Param({"120", "1000"})
+    private int quantidadeTemas;
+
+    private Object[][] linhas;
+    private List<TemaGrupoDTO> temas;
+    private final TemaGrupoRepository.TemaGrupoRowMapper rowMapper = new TemaGrupoRepository.TemaGrupoRowMapper();
+
+    @Setup
+    public void preparar() throws SQLException {
+        linhas = new Object[quantidadeTemas][];
+        for (int i = 0; i < quantidadeTemas; i++) {
+            int grupo = i % GRUPOS.length;
+            linhas[i] = new Object[]{
+                    (long) i + 1, grupo + 1, GRUPOS[grupo], "Grupo " + GRUPOS[grupo],
+                    "TEMA_" + i, "Tema sintético " + i, "P", i % 7 != 0};
+        }
+        temas = mapearLinhas();
+    }
+
+    @Benchmark
+    public List<TemaGrupoDTO> mapearLinhas() throws SQLException {
+        ResultSet rs = resultSet(linhas);
+        List<TemaGrupoDTO> resultado = new ArrayList<>(linhas.length);
+        int linha = 0;
+        while (rs.next()) {
+            resultado.add(rowMapper.mapRow(rs, linha++));
+        }
+        return resultado;
+    }
+
+    @Benchmark
+    public Map<String, List<TemaGrupoDTO>> agruparPorOrdemEGrupo() {
+        return TemaGrupoRepository.agruparPorOrdemEGrupo(temas);
+    }
+
+    /**
+     * ResultSet em memória com as colunas da consulta do catálogo. O custo do proxy entra
+     * igualmente em todas as execuções, então não atrapalha a comparação entre versões.
+     */
+    private static ResultSet resultSet(Object[][] linhas) {
+        int[] atual = {-1};
+        return (ResultSet) Proxy.newProxyInstance(
+                ResultSet.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class},
+                (proxy, metodo, argumentos) -> switch (metodo.getName()) {
+                    case "next" -> ++atual[0] < linhas.length;
+                    case "getLong", "getObject", "getString", "getBoolean" ->
+                            linhas[atual[0]][coluna((String) argumentos[0])];
+                    case "wasNull" -> false;
+                    case "close" -> null;
+                    default -> throw new UnsupportedOperationException(metodo.getName());
+                });
+    }
+
+    private static int coluna(String nome) {
+        return switch (nome) {
+            case "idt_tema" -> 0;
+            case "cod_ordem" -> 1;
+            case "nom_grupo" -> 2;
+            case "des_grupo" -> 3;
+            case "cod_tema" -> 4;
+            case "nom_tema" -> 5;
+            case "ind_tipo_tema" -> 6;
+            case "fl_visivel_mapa" -> 7;
+            default -> throw new IllegalArgumentException(nome);
+        };
+    }
+}
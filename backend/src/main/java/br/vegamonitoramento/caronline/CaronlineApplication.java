@@ -1,9 +1,14 @@
 package br.vegamonitoramento.caronline;
 
+import br.vegamonitoramento.caronline.config.CaronlineRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
+@ImportRuntimeHints(CaronlineRuntimeHints.class)
 public class CaronlineApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,22 @@
+package br.vegamonitoramento.caronline.config;
+
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+import java.sql.Connection;
+
+/**
+ * Recursos e proxies usados em tempo de execução que a análise AOT não descobre sozinha,
+ * necessários na imagem nativa.
+ */
+public class CaronlineRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        // pom.xml do jar, lido pelo ExampleController para informar as versões. A malha municipal
+        // vem do banco ou de um arquivo externo (caronline.municipios.geojson), não do classpath
+        hints.resources().registerPattern("META-INF/maven/br.vegamonitoramento/caronline/pom.xml");
+        // Conexão que devolve a permissão do semáforo (ConexaoLimitadaDataSource)
+        hints.proxies().registerJdkProxy(Connection.class);
+    }
+}
@@ -0,0 +1,80 @@
+package br.vegamonitoramento.caronline.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Envolve o pool primário do Hikari num {@link ConexaoLimitadaDataSource} com o mesmo número de
+ * permissões que o pool tem de conexões. Com spring.threads.virtual.enabled as requisições
+ * rodam em virtual threads, e as que excedem o pool esperam no semáforo sem ocupar threads
+ * de plataforma. O pool da réplica não passa pelo semáforo: com timeout curto, uma réplica
+ * saturada ou fora do ar faz a leitura recorrer ao primário ({@link ReplicaComFallbackDataSource}).
+ */
+@Slf4j
+@Configuration
+public class ConcorrenciaBancoConfig {
+
+    @Bean
+    public static BeanPostProcessor limiteConexoesPostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof HikariDataSource hikari)
+                        || !RoteamentoBancoConfig.DATA_SOURCE_PRIMARIO.equals(beanName)
+                        || !environment.getProperty("caronline.banco.limitar-conexoes", Boolean.class, true)) {
+                    return bean;
+                }
+
+                int limite = environment.getProperty("caronline.banco.limite-conexoes", Integer.class,
+                        hikari.getMaximumPoolSize());
+                long espera = environment.getProperty("caronline.banco.espera-conexao-ms", Long.class,
+                        hikari.getConnectionTimeout());
+                log.info("Conexões simultâneas limitadas a {} (espera máxima de {} ms)", limite, espera);
+                return new ConexaoLimitadaDataSource(hikari, limite, espera);
+            }
+        };
+    }
+
+    /**
+     * Permissões livres e requisições na fila do semáforo, ao lado das métricas hikaricp.*
+     */
+    @Bean
+    public MeterBinder limiteConexoesMetricas(ObjectProvider<DataSource> dataSource) {
+        return registry -> {
+            ConexaoLimitadaDataSource limitado = limitado(dataSource.getIfAvailable());
+            if (limitado != null) {
+                Gauge.builder("caronline.db.semaforo.disponiveis", limitado,
+                                ConexaoLimitadaDataSource::getPermissoesDisponiveis)
+                        .description("Permissões de conexão livres")
+                        .register(registry);
+                Gauge.builder("caronline.db.semaforo.aguardando", limitado,
+                                ConexaoLimitadaDataSource::getThreadsAguardando)
+                        .description("Requisições aguardando uma permissão de conexão")
+                        .register(registry);
+            }
+        };
+    }
+
+    /**
+     * O semáforo fica por trás do DataSource de roteamento
+     */
+    private static ConexaoLimitadaDataSource limitado(DataSource dataSource) {
+        try {
+            return dataSource != null && dataSource.isWrapperFor(ConexaoLimitadaDataSource.class)
+                    ? dataSource.unwrap(ConexaoLimitadaDataSource.class)
+                    : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package br.vegamonitoramento.caronline.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Limita o número de conexões em uso ao mesmo tempo com um semáforo justo.
+ * Com virtual threads cada requisição tem sua própria thread, e a espera por uma
+ * conexão passa a ser só uma virtual thread estacionada no semáforo, em fila, em vez de
+ * uma disputa de milhares de threads dentro do pool.
+ */
+public class ConexaoLimitadaDataSource extends DelegatingDataSource {
+
+    private final Semaphore permissoes;
+    private final long esperaMaximaMs;
+
+    public ConexaoLimitadaDataSource(DataSource dataSource, int limiteConexoes, long esperaMaximaMs) {
+        super(dataSource);
+        this.permissoes = new Semaphore(limiteConexoes, true);
+        this.esperaMaximaMs = esperaMaximaMs;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        adquirir();
+        try {
+            return liberarAoFechar(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permissoes.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        adquirir();
+        try {
+            return liberarAoFechar(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permissoes.release();
+            throw e;
+        }
+    }
+
+    public int getPermissoesDisponiveis() {
+        return permissoes.availablePermits();
+    }
+
+    public int getThreadsAguardando() {
+        return permissoes.getQueueLength();
+    }
+
+    private void adquirir() throws SQLException {
+        try {
+            if (!permissoes.tryAcquire(esperaMaximaMs, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException(
+                        "Nenhuma conexão disponível após " + esperaMaximaMs + " ms ("
+                                + permissoes.getQueueLength() + " requisições na fila)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrompido aguardando conexão", e);
+        }
+    }
+
+    /**
+     * Devolve a permissão uma única vez, no primeiro close() da conexão
+     */
+    private Connection liberarAoFechar(Connection conexao) {
+        AtomicBoolean fechada = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, metodo, argumentos) -> {
+                    if ("close".equals(metodo.getName()) && metodo.getParameterCount() == 0) {
+                        try {
+                            conexao.close();
+                        } finally {
+                            if (fechada.compareAndSet(false, true)) {
+                                permissoes.release();
+                            }
+                        }
+                        return null;
+                    }
+                    if ("unwrap".equals(metodo.getName()) && Connection.class.equals(argumentos[0])) {
+                        return proxy;
+                    }
+                    try {
+                        return metodo.invoke(conexao, argumentos);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+}
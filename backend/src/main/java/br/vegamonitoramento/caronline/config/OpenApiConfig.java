@@ -6,12 +6,15 @@ import io.swagger.v3.oas.models.info.Info;
 import io.swagger.v3.oas.models.info.License;
 import io.swagger.v3.oas.models.servers.Server;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.util.List;
 
+// O springdoc só está presente no perfil Maven de desenvolvimento
 @Configuration
+@ConditionalOnClass(name = "org.springdoc.core.configuration.SpringDocConfiguration")
 public class OpenApiConfig {
 
     @Value("${server.servlet.context-path}")
@@ -1,17 +0,0 @@
-package br.vegamonitoramento.caronline.config;
-
-import org.hibernate.dialect.PostgreSQLDialect;
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
-
-
-@Configuration
-public class PostgresConfig {
-
-    @Bean
-    public HibernatePropertiesCustomizer hibernatePropertiesCustomizer() {
-        return hibernateProperties -> 
-            hibernateProperties.put("hibernate.dialect", PostgreSQLDialect.class.getName());
-    }
-}
\ No newline at end of file
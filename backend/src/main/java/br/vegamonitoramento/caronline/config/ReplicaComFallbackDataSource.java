@@ -0,0 +1,54 @@
+package br.vegamonitoramento.caronline.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * DataSource das transações somente leitura: usa o pool da réplica e, se ele não entregar
+ * uma conexão, recorre ao primário. Depois de uma falha a réplica fica de fora durante a
+ * pausa configurada, para que cada leitura não espere o timeout de conexão da réplica.
+ */
+@Slf4j
+public class ReplicaComFallbackDataSource extends DelegatingDataSource {
+
+    private final DataSource primario;
+    private final long pausaAposFalhaMs;
+
+    private volatile long replicaIndisponivelAte;
+
+    public ReplicaComFallbackDataSource(DataSource replica, DataSource primario, long pausaAposFalhaMs) {
+        super(replica);
+        this.primario = primario;
+        this.pausaAposFalhaMs = pausaAposFalhaMs;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!isReplicaDisponivel()) {
+            return primario.getConnection();
+        }
+
+        try {
+            return obtainTargetDataSource().getConnection();
+        } catch (SQLException e) {
+            replicaIndisponivelAte = System.currentTimeMillis() + pausaAposFalhaMs;
+            log.warn("Réplica indisponível, leituras seguem para o primário por {} ms: {}",
+                    pausaAposFalhaMs, e.getMessage());
+            return primario.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // Credenciais explícitas não são usadas pela aplicação; vão direto ao primário
+        return primario.getConnection(username, password);
+    }
+
+    public boolean isReplicaDisponivel() {
+        return System.currentTimeMillis() >= replicaIndisponivelAte;
+    }
+}
@@ -0,0 +1,71 @@
+package br.vegamonitoramento.caronline.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+/**
+ * Dois pools: o primário (spring.datasource.*), para escrita, e o da réplica
+ * (caronline.banco.replica.*), para as transações somente leitura, como catálogo e exportações.
+ * Por padrão a réplica aponta para o mesmo banco, o que já separa os pools e impede que
+ * leituras longas esgotem as conexões das gravações.
+ * <p>
+ * O DataSource usado pela aplicação adia a obtenção da conexão física até o primeiro comando,
+ * quando o readOnly da transação já foi aplicado, e só então escolhe o pool.
+ */
+@Configuration
+public class RoteamentoBancoConfig {
+
+    public static final String DATA_SOURCE_PRIMARIO = "dataSourcePrimario";
+
+    @Bean(DATA_SOURCE_PRIMARIO)
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSourcePrimario(DataSourceProperties properties) {
+        return criarPool(properties);
+    }
+
+    // Fora da injeção por tipo, que continua recebendo as propriedades de spring.datasource
+    @Bean(defaultCandidate = false)
+    @ConfigurationProperties("caronline.banco.replica")
+    public DataSourceProperties replicaDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties("caronline.banco.replica.hikari")
+    public HikariDataSource dataSourceReplica(
+            @Qualifier("replicaDataSourceProperties") DataSourceProperties properties) {
+        return criarPool(properties);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier(DATA_SOURCE_PRIMARIO) DataSource primario,
+                                 @Qualifier("dataSourceReplica") DataSource replica,
+                                 @Value("${caronline.banco.replica.pausa-apos-falha-ms:30000}") long pausaAposFalhaMs) {
+        LazyConnectionDataSourceProxy roteamento = new LazyConnectionDataSourceProxy(primario);
+        roteamento.setReadOnlyDataSource(new ReplicaComFallbackDataSource(replica, primario, pausaAposFalhaMs));
+        // Padrões do PostgreSQL e do Hikari, informados para que o proxy não abra uma conexão só para descobri-los
+        roteamento.setDefaultAutoCommit(true);
+        roteamento.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return roteamento;
+    }
+
+    private static HikariDataSource criarPool(DataSourceProperties properties) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        if (StringUtils.hasText(properties.getName())) {
+            pool.setPoolName(properties.getName());
+        }
+        return pool;
+    }
+}
@@ -0,0 +1,57 @@
+package br.vegamonitoramento.caronline.controller;
+
+import br.vegamonitoramento.caronline.job.FilaJobsCheiaException;
+import br.vegamonitoramento.caronline.job.JobNaoEncontradoException;
+import br.vegamonitoramento.caronline.service.RevisaoDesatualizadaException;
+import br.vegamonitoramento.caronline.service.SessaoValidacaoNaoEncontradaException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Traduz erros de entrada em respostas 400 (conflitos de revisão em 409, tarefas e sessões de
+ * validação inexistentes em 404 e fila de tarefas cheia em 503) com o campo "message" lido pelo frontend
+ */
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleIllegalArgument(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(Map.of("message", mensagem(e, "Requisição inválida")));
+    }
+
+    @ExceptionHandler(RevisaoDesatualizadaException.class)
+    public ResponseEntity<Map<String, Object>> handleRevisaoDesatualizada(RevisaoDesatualizadaException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("message", mensagem(e, "Revisão desatualizada"), "revisaoAtual", e.getRevisaoAtual()));
+    }
+
+    @ExceptionHandler(JobNaoEncontradoException.class)
+    public ResponseEntity<Map<String, String>> handleJobNaoEncontrado(JobNaoEncontradoException e) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", mensagem(e, "Tarefa não encontrada")));
+    }
+
+    @ExceptionHandler(SessaoValidacaoNaoEncontradaException.class)
+    public ResponseEntity<Map<String, String>> handleSessaoValidacaoNaoEncontrada(
+            SessaoValidacaoNaoEncontradaException e) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(Map.of("message", mensagem(e, "Sessão de validação não encontrada")));
+    }
+
+    @ExceptionHandler(FilaJobsCheiaException.class)
+    public ResponseEntity<Map<String, String>> handleFilaJobsCheia(FilaJobsCheiaException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "30")
+                .body(Map.of("message", mensagem(e, "Fila de tarefas cheia")));
+    }
+
+    // Map.of não aceita valores nulos; exceções sem mensagem recebem a do tipo de erro
+    private static String mensagem(Exception e, String padrao) {
+        return Objects.requireNonNullElse(e.getMessage(), padrao);
+    }
+}
@@ -0,0 +1,329 @@
+package br.vegamonitoramento.caronline.controller;
+
+import br.vegamonitoramento.caronline.export.CamadasTwkb;
+import br.vegamonitoramento.caronline.export.FormatoExportacao;
+import br.vegamonitoramento.caronline.geometry.GeometriaMultiNivel;
+import br.vegamonitoramento.caronline.model.dto.ResumoImportacaoDTO;
+import br.vegamonitoramento.caronline.model.dto.SalvarCamadasRequestDTO;
+import br.vegamonitoramento.caronline.model.dto.SalvarCamadasResponseDTO;
+import br.vegamonitoramento.caronline.model.dto.SincronizarCamadasRequestDTO;
+import br.vegamonitoramento.caronline.model.dto.SincronizarCamadasResponseDTO;
+import br.vegamonitoramento.caronline.service.CamadaService;
+import br.vegamonitoramento.caronline.service.CamadasMultiNivelService;
+import br.vegamonitoramento.caronline.service.ImportacaoService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+@RestController
+@RequestMapping("/api/camadas")
+@Tag(name = "Camadas", description = "API para gravação e consulta das camadas desenhadas")
+public class CamadaController {
+
+    private final CamadaService camadaService;
+    private final CamadasMultiNivelService camadasMultiNivelService;
+    private final ImportacaoService importacaoService;
+
+    @Autowired
+    public CamadaController(CamadaService camadaService, CamadasMultiNivelService camadasMultiNivelService,
+                            ImportacaoService importacaoService) {
+        this.camadaService = camadaService;
+        this.camadasMultiNivelService = camadasMultiNivelService;
+        this.importacaoService = importacaoService;
+    }
+
+    @Operation(
+            summary = "Salvar camadas desenhadas",
+            description = "Grava todas as feições da FeatureCollection para o município informado, "
+                    + "substituindo as camadas salvas anteriormente numa única transação"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Camadas salvas",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = SalvarCamadasResponseDTO.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "FeatureCollection ou município inválido"),
+            @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    @PostMapping("/salvar")
+    public ResponseEntity<SalvarCamadasResponseDTO> salvar(@RequestBody SalvarCamadasRequestDTO request) {
+        return ResponseEntity.ok(camadaService.salvar(request));
+    }
+
+    @Operation(
+            summary = "Salvar camadas desenhadas (binário)",
+            description = "Mesma gravação do endpoint JSON, com o corpo no formato " + CamadasTwkb.MEDIA_TYPE_VALUE
+                    + ": geometrias em TWKB com precisão de 7 casas, cerca de um décimo do tamanho do GeoJSON"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Camadas salvas",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = SalvarCamadasResponseDTO.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Corpo ou município inválido"),
+            @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    @PostMapping(value = "/salvar", consumes = CamadasTwkb.MEDIA_TYPE_VALUE)
+    public ResponseEntity<SalvarCamadasResponseDTO> salvarTwkb(
+            @Parameter(description = "Código IBGE do município", required = true, example = "3552809")
+            @RequestParam Long municipalityId,
+            HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(camadaService.salvarTwkb(municipalityId, request.getInputStream()));
+    }
+
+    @Operation(
+            summary = "Importar camadas de arquivo",
+            description = "Acrescenta às camadas do município as feições de um shapefile (.zip com .shp, .dbf e .prj), "
+                    + "GeoJSON, KML ou KMZ. O tema de cada feição vem dos atributos (COD_TEMA, TEMA, NOME, pasta do "
+                    + "KML...) comparados com o catálogo de temas, ou do tema padrão informado. A resposta é NDJSON, "
+                    + "escrita durante o processamento: uma linha com o resultado da validação de cada feição e, "
+                    + "por último, {\"resumo\": ...}. Só as feições válidas são gravadas, numa única transação"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Relatório da importação; o resumo final indica se a gravação foi concluída",
+                    content = @Content(
+                            mediaType = "application/x-ndjson",
+                            schema = @Schema(implementation = ResumoImportacaoDTO.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Formato de arquivo, município ou tema inválido"),
+            @ApiResponse(responseCode = "413", description = "Arquivo maior que o limite configurado"),
+            @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    @PostMapping(value = "/importar", consumes = MediaType.MULTIPART_FORM_DATA_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> importar(
+            @Parameter(description = "Arquivo .zip (shapefile), .geojson, .kml ou .kmz", required = true)
+            @RequestPart MultipartFile arquivo,
+            @Parameter(description = "Código IBGE do município", required = true, example = "3552809")
+            @RequestParam Long municipalityId,
+            @Parameter(description = "Tema das feições cujos atributos não identificam um tema", example = "APP_NASCENTE")
+            @RequestParam(required = false) String codTema) throws IOException {
+        ImportacaoService.Importacao importacao =
+                importacaoService.preparar(municipalityId, arquivo.getOriginalFilename(), codTema);
+
+        // O upload é copiado ainda na requisição: o arquivo temporário do multipart é
+        // removido quando o método retorna, antes do processamento assíncrono
+        Path copia = Files.createTempFile("importacao-", "." + importacao.formato().getExtensao());
+        try {
+            arquivo.transferTo(copia);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(copia);
+            throw e;
+        }
+        StreamingResponseBody corpo = saida -> importacaoService.importar(importacao, copia, saida);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .cacheControl(CacheControl.noStore())
+                .body(corpo);
+    }
+
+    @Operation(
+            summary = "Sincronizar camadas alteradas",
+            description = "Grava apenas as feições novas, alteradas e excluídas desde a revisão base informada. "
+                    + "Feições com o mesmo conteúdo (hash) das gravadas são ignoradas. Se outra gravação "
+                    + "ocorreu depois da revisão base, responde 409 com a revisão atual"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Alterações gravadas; a nova revisão é a base da próxima sincronização",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = SincronizarCamadasResponseDTO.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Feição, identificador ou revisão inválidos"),
+            @ApiResponse(responseCode = "409", description = "Revisão base desatualizada"),
+            @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    @PatchMapping("/{municipalityId}")
+    public ResponseEntity<SincronizarCamadasResponseDTO> sincronizar(
+            @Parameter(description = "Código IBGE do município", required = true, example = "3552809")
+            @PathVariable Long municipalityId,
+            @RequestBody SincronizarCamadasRequestDTO request) {
+        return ResponseEntity.ok(camadaService.sincronizar(municipalityId, request));
+    }
+
+    @Operation(
+            summary = "Consultar alterações desde uma revisão",
+            description = "FeatureCollection GeoJSON com as feições gravadas depois da revisão informada e os "
+                    + "membros \"revisao\" (atual), \"completo\" e \"excluidas\" (identificadores removidos). "
+                    + "Com completo=true a coleção traz todas as feições e substitui as do cliente"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Alterações desde a revisão"),
+            @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    @GetMapping("/{municipalityId}/alteracoes")
+    public ResponseEntity<StreamingResponseBody> alteracoes(
+            @Parameter(description = "Código IBGE do município", required = true, example = "3552809")
+            @PathVariable Long municipalityId,
+            @Parameter(description = "Revisão que o cliente já possui (0 para carregar tudo)", example = "12")
+            @RequestParam(defaultValue = "0") long desde) {
+        StreamingResponseBody corpo = saida -> camadaService.escreverAlteracoes(municipalityId, desde, saida);
+
+        return ResponseEntity.ok()
+                .contentType(FormatoExportacao.GEOJSON.getMediaType())
+                .cacheControl(CacheControl.noStore())
+                .body(corpo);
+    }
+
+    @Operation(
+            summary = "Exportar camadas",
+            description = "Exporta as camadas gravadas do município em GeoJSON, KML, Shapefile (ZIP) ou TWKB. "
+                    + "O arquivo é escrito em fluxo à medida que as feições são lidas do banco"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Arquivo exportado"),
+            @ApiResponse(responseCode = "400", description = "Formato não suportado"),
+            @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    @GetMapping("/exportar")
+    public ResponseEntity<StreamingResponseBody> exportar(
+            @Parameter(description = "Formato de exportação (geojson, kml, shp, twkb)", example = "geojson")
+            @RequestParam(defaultValue = "geojson") String format,
+            @Parameter(description = "Código IBGE do município", required = true, example = "3552809")
+            @RequestParam Long municipalityId) {
+        FormatoExportacao formato = FormatoExportacao.of(format);
+        String nomeArquivo = camadaService.nomeArquivoExportacao(municipalityId) + "." + formato.getExtensao();
+
+        StreamingResponseBody corpo = saida -> camadaService.exportar(formato, municipalityId, saida);
+
+        return ResponseEntity.ok()
+                .contentType(formato.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(nomeArquivo).build().toString())
+                .body(corpo);
+    }
+
+    @Operation(
+            summary = "Excluir camadas do município",
+            description = "Remove todas as camadas gravadas do município de uma vez (a partição do município é "
+                    + "esvaziada) e avança a revisão, como numa substituição completa"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Camadas excluídas",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = SalvarCamadasResponseDTO.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Município não informado ou desconhecido"),
+            @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    @DeleteMapping("/excluir")
+    public ResponseEntity<SalvarCamadasResponseDTO> excluir(
+            @Parameter(description = "Código IBGE do município", required = true, example = "3552809")
+            @RequestParam Long municipalityId) {
+        return ResponseEntity.ok(camadaService.excluir(municipalityId));
+    }
+
+    @Operation(
+            summary = "Manutenção das camadas do município",
+            description = "Executa VACUUM (ANALYZE) e, com reindexar=true, REINDEX CONCURRENTLY somente na "
+                    + "partição do município, sem afetar as camadas dos demais"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Manutenção concluída"),
+            @ApiResponse(responseCode = "404", description = "Município sem camadas gravadas"),
+            @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    @PostMapping("/{municipalityId}/manutencao")
+    public ResponseEntity<Void> manter(
+            @Parameter(description = "Código IBGE do município", required = true, example = "3552809")
+            @PathVariable Long municipalityId,
+            @Parameter(description = "Reconstruir também os índices da partição", example = "false")
+            @RequestParam(defaultValue = "false") boolean reindexar) {
+        return camadaService.manter(municipalityId, reindexar)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    @Operation(
+            summary = "Consultar camadas para exibição",
+            description = "FeatureCollection GeoJSON (WGS84) com as camadas gravadas do município, simplificadas "
+                    + "para o zoom ou a tolerância informados. Sem parâmetros, devolve a resolução original. "
+                    + "Com Accept: " + CamadasTwkb.MEDIA_TYPE_VALUE + ", devolve as mesmas feições no formato binário"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Camadas no nível de detalhe pedido"),
+            @ApiResponse(responseCode = "400", description = "Zoom ou tolerância inválidos"),
+            @ApiResponse(responseCode = "406", description = "Accept sem GeoJSON, JSON nem TWKB"),
+            @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    @GetMapping(value = "/{municipalityId}", produces = {MediaType.APPLICATION_JSON_VALUE, "application/geo+json"})
+    public ResponseEntity<StreamingResponseBody> consultar(
+            @Parameter(description = "Código IBGE do município", required = true, example = "3552809")
+            @PathVariable Long municipalityId,
+            @Parameter(description = "Zoom do mapa (escala web mercator)", example = "14") @RequestParam(required = false) Double zoom,
+            @Parameter(description = "Tolerância de simplificação em graus; tem precedência sobre o zoom", example = "0.0001")
+            @RequestParam(required = false) Double tolerancia) {
+        return consultar(municipalityId, zoom, tolerancia, FormatoExportacao.GEOJSON);
+    }
+
+    @Operation(
+            summary = "Consultar camadas para exibição (TWKB)",
+            description = "As mesmas feições da consulta GeoJSON, no formato binário " + CamadasTwkb.MEDIA_TYPE_VALUE
+    )
+    @GetMapping(value = "/{municipalityId}", produces = CamadasTwkb.MEDIA_TYPE_VALUE)
+    public ResponseEntity<StreamingResponseBody> consultarTwkb(
+            @Parameter(description = "Código IBGE do município", required = true, example = "3552809")
+            @PathVariable Long municipalityId,
+            @Parameter(description = "Zoom do mapa (escala web mercator)", example = "14") @RequestParam(required = false) Double zoom,
+            @Parameter(description = "Tolerância de simplificação em graus; tem precedência sobre o zoom", example = "0.0001")
+            @RequestParam(required = false) Double tolerancia) {
+        return consultar(municipalityId, zoom, tolerancia, FormatoExportacao.TWKB);
+    }
+
+    private ResponseEntity<StreamingResponseBody> consultar(Long municipalityId, Double zoom, Double tolerancia,
+                                                            FormatoExportacao formato) {
+        int nivel = GeometriaMultiNivel.nivel(zoom, tolerancia);
+        StreamingResponseBody corpo = saida -> camadasMultiNivelService.escrever(municipalityId, nivel, formato, saida);
+
+        return ResponseEntity.ok()
+                .contentType(formato.getMediaType())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                .body(corpo);
+    }
+}
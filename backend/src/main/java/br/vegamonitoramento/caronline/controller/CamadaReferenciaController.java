@@ -0,0 +1,90 @@
+package br.vegamonitoramento.caronline.controller;
+
+import br.vegamonitoramento.caronline.service.CamadaReferenciaService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.locationtech.jts.geom.Envelope;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/referencias")
+@Tag(name = "Camadas de referência", description = "API de consulta às camadas de referência (hidrografia, unidades de conservação etc.)")
+public class CamadaReferenciaController {
+
+    private static final MediaType GEOJSON = MediaType.parseMediaType("application/geo+json");
+
+    private final CamadaReferenciaService camadaReferenciaService;
+
+    @Autowired
+    public CamadaReferenciaController(CamadaReferenciaService camadaReferenciaService) {
+        this.camadaReferenciaService = camadaReferenciaService;
+    }
+
+    @Operation(summary = "Listar camadas de referência", description = "Códigos das camadas de referência carregadas")
+    @GetMapping
+    public ResponseEntity<List<String>> listarCamadas() {
+        return ResponseEntity.ok(camadaReferenciaService.listarCamadas());
+    }
+
+    @Operation(
+            summary = "Feições na extensão",
+            description = "FeatureCollection GeoJSON (WGS84) com as feições da camada que tocam a extensão do mapa, "
+                    + "simplificadas para o zoom"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Feições encontradas"),
+            @ApiResponse(responseCode = "400", description = "Camada, extensão ou zoom inválidos, ou extensão grande demais para o zoom"),
+            @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    @GetMapping("/{camada}")
+    public ResponseEntity<byte[]> getFeicoes(
+            @Parameter(description = "Código da camada de referência", example = "hidrografia") @PathVariable String camada,
+            @Parameter(description = "Extensão em WGS84: oeste,sul,leste,norte", required = true,
+                    example = "-47.10,-22.95,-46.95,-22.85") @RequestParam String bbox,
+            @Parameter(description = "Zoom do mapa (escala web mercator)", example = "12") @RequestParam(required = false) Double zoom) {
+        return ResponseEntity.ok()
+                .contentType(GEOJSON)
+                .body(camadaReferenciaService.getFeicoes(camada, extensao(bbox), zoom));
+    }
+
+    @Operation(summary = "Limpar cache das camadas de referência",
+            description = "Descarta as células em memória, após uma recarga das bases de referência")
+    @PostMapping("/cache/limpar")
+    public ResponseEntity<Void> limparCache() {
+        camadaReferenciaService.limparCache();
+        return ResponseEntity.noContent().build();
+    }
+
+    private static Envelope extensao(String bbox) {
+        String[] partes = bbox.split(",");
+        if (partes.length != 4) {
+            throw new IllegalArgumentException("bbox deve ter quatro números: oeste,sul,leste,norte");
+        }
+        double[] valores = new double[4];
+        try {
+            for (int i = 0; i < 4; i++) {
+                valores[i] = Double.parseDouble(partes[i].trim());
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("bbox inválido: " + bbox);
+        }
+        if (!Double.isFinite(valores[0] + valores[1] + valores[2] + valores[3])
+                || valores[0] > valores[2] || valores[1] > valores[3]) {
+            throw new IllegalArgumentException("bbox inválido: " + bbox);
+        }
+        return new Envelope(valores[0], valores[2], valores[1], valores[3]);
+    }
+}
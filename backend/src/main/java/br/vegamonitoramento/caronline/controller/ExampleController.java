@@ -1,5 +1,6 @@
 package br.vegamonitoramento.caronline.controller;
 
+import br.vegamonitoramento.caronline.metrics.MetricasBanco;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -14,6 +15,8 @@ import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
 import org.springframework.http.ResponseEntity;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -39,6 +42,12 @@ public class ExampleController {
 
     @Autowired
     private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MetricasBanco metricasBanco;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
     
     private Map<String, String> dependencyVersions = null;
 
@@ -61,10 +70,14 @@ public class ExampleController {
         String bootVersion = SpringBootVersion.getVersion();
         info.put("springBootVersion", bootVersion);
         
+        // As consultas de versão rodam em transações somente leitura, no pool da réplica
+        TransactionTemplate leitura = new TransactionTemplate(transactionManager);
+        leitura.setReadOnly(true);
+
         // Adicionar informações do PostgreSQL
         try {
-            String postgresVersion = jdbcTemplate.queryForObject(
-                "SELECT version()", String.class);
+            String postgresVersion = metricasBanco.medir("exemplo.versao_postgres", "SELECT version()",
+                () -> leitura.execute(status -> jdbcTemplate.queryForObject("SELECT version()", String.class)));
             info.put("postgresVersion", postgresVersion);
         } catch (Exception e) {
             info.put("postgresVersion", "Error retrieving PostgreSQL version: " + e.getMessage());
@@ -72,8 +85,8 @@ public class ExampleController {
         
         // Adicionar informações do PostGIS
         try {
-            String postgisVersion = jdbcTemplate.queryForObject(
-                "SELECT postgis_full_version()", String.class);
+            String postgisVersion = metricasBanco.medir("exemplo.versao_postgis", "SELECT postgis_full_version()",
+                () -> leitura.execute(status -> jdbcTemplate.queryForObject("SELECT postgis_full_version()", String.class)));
             info.put("postgisVersion", postgisVersion);
         } catch (Exception e) {
             info.put("postgisVersion", "Error retrieving PostGIS version: " + e.getMessage());
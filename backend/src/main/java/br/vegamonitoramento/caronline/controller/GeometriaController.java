@@ -0,0 +1,75 @@
+package br.vegamonitoramento.caronline.controller;
+
+import br.vegamonitoramento.caronline.model.dto.AreaRequestDTO;
+import br.vegamonitoramento.caronline.model.dto.AreaResponseDTO;
+import br.vegamonitoramento.caronline.model.dto.ReprojecaoRequestDTO;
+import br.vegamonitoramento.caronline.model.dto.ReprojecaoResponseDTO;
+import br.vegamonitoramento.caronline.service.ReprojecaoService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/geometrias")
+@Tag(name = "Geometrias", description = "API para conversão de sistemas de coordenadas e cálculo de áreas")
+public class GeometriaController {
+
+    private final ReprojecaoService reprojecaoService;
+
+    @Autowired
+    public GeometriaController(ReprojecaoService reprojecaoService) {
+        this.reprojecaoService = reprojecaoService;
+    }
+
+    @Operation(
+            summary = "Reprojetar geometrias",
+            description = "Converte um lote de geometrias entre WGS84, SIRGAS 2000, UTM (SIRGAS 2000 ou WGS84) "
+                    + "e a Albers do IBGE (ALBERS_BRASIL)"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Geometrias convertidas",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ReprojecaoResponseDTO.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Geometrias ou sistema de coordenadas inválidos"),
+            @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    @PostMapping("/reprojetar")
+    public ResponseEntity<ReprojecaoResponseDTO> reprojetar(@RequestBody ReprojecaoRequestDTO request) {
+        return ResponseEntity.ok(reprojecaoService.reprojetar(request));
+    }
+
+    @Operation(
+            summary = "Calcular áreas",
+            description = "Calcula a área de cada geometria em hectares na projeção equivalente Albers do IBGE"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Áreas calculadas",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = AreaResponseDTO.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Geometrias ou sistema de coordenadas inválidos"),
+            @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    @PostMapping("/area")
+    public ResponseEntity<AreaResponseDTO> calcularAreas(@RequestBody AreaRequestDTO request) {
+        return ResponseEntity.ok(reprojecaoService.calcularAreas(request));
+    }
+}
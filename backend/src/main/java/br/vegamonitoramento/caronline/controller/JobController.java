@@ -0,0 +1,159 @@
+package br.vegamonitoramento.caronline.controller;
+
+import br.vegamonitoramento.caronline.job.Job;
+import br.vegamonitoramento.caronline.job.SituacaoJob;
+import br.vegamonitoramento.caronline.model.dto.JobDTO;
+import br.vegamonitoramento.caronline.model.dto.JobRequestDTO;
+import br.vegamonitoramento.caronline.service.JobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.Map;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/jobs")
+@Tag(name = "Tarefas", description = "API para execução assíncrona de operações demoradas sobre as camadas gravadas")
+public class JobController {
+
+    private final JobService jobService;
+
+    @Autowired
+    public JobController(JobService jobService) {
+        this.jobService = jobService;
+    }
+
+    @Operation(
+            summary = "Criar tarefa",
+            description = "Coloca na fila a validação completa, a verificação de sobreposições, o quadro de áreas ou a "
+                    + "exportação das camadas gravadas do município. Responde na hora com o identificador; o "
+                    + "andamento é consultado em GET /api/jobs/{id}. Tarefas interativas passam à frente das de lote"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "202",
+                    description = "Tarefa criada",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = JobDTO.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Tipo, faixa, município ou formato inválido"),
+            @ApiResponse(responseCode = "503", description = "Fila da faixa cheia; tente após Retry-After segundos"),
+            @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    @PostMapping
+    public ResponseEntity<JobDTO> criar(@RequestBody JobRequestDTO request) {
+        Job job = jobService.criar(request);
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}").build(job.getId()))
+                .body(paraDTO(job));
+    }
+
+    @Operation(
+            summary = "Consultar tarefa",
+            description = "Situação, progresso e mensagem da etapa atual. Quando concluída, o campo resultado traz o "
+                    + "caminho para baixar o resultado"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Andamento da tarefa",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = JobDTO.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "404", description = "Tarefa não encontrada"),
+            @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    @GetMapping("/{id}")
+    public ResponseEntity<JobDTO> consultar(
+            @Parameter(description = "Identificador da tarefa", required = true) @PathVariable UUID id) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(paraDTO(jobService.consultar(id)));
+    }
+
+    @Operation(
+            summary = "Baixar resultado",
+            description = "JSON da validação, das sobreposições ou do quadro de áreas, ou o arquivo exportado"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resultado da tarefa"),
+            @ApiResponse(responseCode = "404", description = "Tarefa não encontrada"),
+            @ApiResponse(responseCode = "409", description = "Tarefa sem resultado (não concluída ou resultado expirado)"),
+            @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    @GetMapping("/{id}/resultado")
+    public ResponseEntity<?> resultado(
+            @Parameter(description = "Identificador da tarefa", required = true) @PathVariable UUID id) {
+        Job job = jobService.consultar(id);
+        Resource arquivo;
+        try {
+            arquivo = new FileSystemResource(jobService.resultado(job));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", e.getMessage()));
+        }
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(job.getTipoMidia()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(jobService.nomeArquivoResultado(job)).build().toString())
+                .body(arquivo);
+    }
+
+    @Operation(
+            summary = "Cancelar tarefa",
+            description = "Tarefas na fila são canceladas na hora; em execução, param no próximo ponto de verificação"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Andamento após o pedido de cancelamento",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = JobDTO.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "404", description = "Tarefa não encontrada"),
+            @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    @DeleteMapping("/{id}")
+    public ResponseEntity<JobDTO> cancelar(
+            @Parameter(description = "Identificador da tarefa", required = true) @PathVariable UUID id) {
+        return ResponseEntity.ok(paraDTO(jobService.cancelar(id)));
+    }
+
+    private static JobDTO paraDTO(Job job) {
+        String resultado = job.getSituacao() == SituacaoJob.CONCLUIDO
+                ? ServletUriComponentsBuilder.fromCurrentContextPath()
+                        .path("/api/jobs/{id}/resultado").build(job.getId()).getPath()
+                : null;
+        return new JobDTO(job.getId(), job.getTipo().name(), job.getFaixa().name(), job.getSituacao().name(),
+                job.getProgresso(), job.getMensagem(), job.getCodMunicipio(), job.getTentativas(),
+                job.getDataCriacao(), job.getDataInicio(), job.getDataFim(), resultado);
+    }
+}
@@ -0,0 +1,146 @@
+package br.vegamonitoramento.caronline.controller;
+
+import br.vegamonitoramento.caronline.geometry.GeometriaMultiNivel;
+import br.vegamonitoramento.caronline.model.dto.IntersecaoMunicipioDTO;
+import br.vegamonitoramento.caronline.model.dto.MunicipioDTO;
+import br.vegamonitoramento.caronline.service.CatalogoTemaGrupo.Representacao;
+import br.vegamonitoramento.caronline.service.MunicipioService;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/municipios")
+@Tag(name = "Municípios", description = "API para localização de municípios a partir de geometrias")
+public class MunicipioController {
+
+    private static final MediaType GEOJSON = MediaType.parseMediaType("application/geo+json");
+
+    private final MunicipioService municipioService;
+
+    @Autowired
+    public MunicipioController(MunicipioService municipioService) {
+        this.municipioService = municipioService;
+    }
+
+    @Operation(
+            summary = "Município no ponto",
+            description = "Retorna o município que contém o ponto informado (WGS84)"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Município encontrado",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = MunicipioDTO.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "404", description = "Ponto fora dos municípios carregados")
+    })
+    @GetMapping("/no-ponto")
+    public ResponseEntity<MunicipioDTO> buscarNoPonto(
+            @Parameter(description = "Longitude", required = true, example = "-46.78") @RequestParam double longitude,
+            @Parameter(description = "Latitude", required = true, example = "-23.62") @RequestParam double latitude) {
+        return municipioService.buscarNoPonto(longitude, latitude)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @Operation(
+            summary = "Municípios intersectados",
+            description = "Recebe uma geometria GeoJSON (WGS84) e retorna os municípios que ela intersecta, "
+                    + "com a área de interseção em hectares, do maior para o menor trecho"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Operação bem-sucedida",
+                    content = @Content(
+                            mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = IntersecaoMunicipioDTO.class))
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Geometria inválida")
+    })
+    @PostMapping("/intersectados")
+    public ResponseEntity<List<IntersecaoMunicipioDTO>> buscarIntersectados(@RequestBody JsonNode geometria) {
+        return ResponseEntity.ok(municipioService.buscarIntersectados(geometria));
+    }
+
+    @Operation(
+            summary = "Limites municipais",
+            description = "FeatureCollection GeoJSON (WGS84) com os limites de todos os municípios, simplificados "
+                    + "para o zoom ou a tolerância informados. Sem parâmetros, devolve a resolução original"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Limites no nível de detalhe pedido"),
+            @ApiResponse(responseCode = "304", description = "Limites não modificados desde o ETag informado em If-None-Match"),
+            @ApiResponse(responseCode = "400", description = "Zoom ou tolerância inválidos")
+    })
+    @GetMapping("/limites")
+    public ResponseEntity<byte[]> getLimites(
+            @Parameter(description = "Zoom do mapa (escala web mercator)", example = "8") @RequestParam(required = false) Double zoom,
+            @Parameter(description = "Tolerância de simplificação em graus; tem precedência sobre o zoom", example = "0.001")
+            @RequestParam(required = false) Double tolerancia,
+            WebRequest request) {
+        Representacao limites = municipioService.getLimites(GeometriaMultiNivel.nivel(zoom, tolerancia));
+        // Os limites só mudam numa recarga; o cliente revalida e só baixa de novo se o ETag mudar
+        CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+
+        if (request.checkNotModified(limites.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(limites.etag())
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+
+        return ResponseEntity.ok()
+                .contentType(GEOJSON)
+                .eTag(limites.etag())
+                .cacheControl(cacheControl)
+                .body(limites.conteudo());
+    }
+
+    @Operation(
+            summary = "Limite de um município",
+            description = "Feature GeoJSON (WGS84) com o limite do município, simplificado para o zoom ou a tolerância informados"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Limite no nível de detalhe pedido"),
+            @ApiResponse(responseCode = "400", description = "Zoom ou tolerância inválidos"),
+            @ApiResponse(responseCode = "404", description = "Município não carregado")
+    })
+    @GetMapping("/{codMunicipio}/limite")
+    public ResponseEntity<byte[]> getLimite(
+            @Parameter(description = "Código IBGE do município", required = true, example = "3552809")
+            @PathVariable Long codMunicipio,
+            @Parameter(description = "Zoom do mapa (escala web mercator)", example = "12") @RequestParam(required = false) Double zoom,
+            @Parameter(description = "Tolerância de simplificação em graus; tem precedência sobre o zoom", example = "0.0002")
+            @RequestParam(required = false) Double tolerancia) {
+        return municipioService.getLimite(codMunicipio, GeometriaMultiNivel.nivel(zoom, tolerancia))
+                .map(limite -> ResponseEntity.ok().contentType(GEOJSON).body(limite))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
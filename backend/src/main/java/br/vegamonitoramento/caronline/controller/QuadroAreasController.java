@@ -0,0 +1,106 @@
+package br.vegamonitoramento.caronline.controller;
+
+import br.vegamonitoramento.caronline.model.dto.QuadroAreasDTO;
+import br.vegamonitoramento.caronline.service.QuadroAreasService;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/quadro-areas")
+@Tag(name = "Quadro de Áreas", description = "API do quadro de áreas do imóvel, com os temas derivados")
+public class QuadroAreasController {
+
+    private final QuadroAreasService quadroAreasService;
+
+    @Autowired
+    public QuadroAreasController(QuadroAreasService quadroAreasService) {
+        this.quadroAreasService = quadroAreasService;
+    }
+
+    @Operation(
+            summary = "Obter quadro de áreas",
+            description = "Retorna o quadro de áreas do imóvel. Sem feições carregadas, usa as camadas gravadas "
+                    + "do município. Com revisao, retorna aquela revisão se ainda estiver em cache"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Quadro de áreas",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = QuadroAreasDTO.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Revisão indisponível"),
+            @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    @GetMapping("/{municipalityId}")
+    public ResponseEntity<QuadroAreasDTO> getQuadro(
+            @Parameter(description = "Código IBGE do município", example = "3552809") @PathVariable Long municipalityId,
+            @Parameter(description = "Revisão desejada") @RequestParam(required = false) Long revisao) {
+        return ResponseEntity.ok(quadroAreasService.getQuadro(municipalityId, revisao));
+    }
+
+    @Operation(
+            summary = "Carregar feições do imóvel",
+            description = "Substitui as feições do imóvel pelas da FeatureCollection e recalcula o quadro"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Quadro recalculado"),
+            @ApiResponse(responseCode = "400", description = "FeatureCollection inválida"),
+            @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    @PutMapping("/{municipalityId}")
+    public ResponseEntity<QuadroAreasDTO> carregar(
+            @Parameter(description = "Código IBGE do município", example = "3552809") @PathVariable Long municipalityId,
+            @RequestBody JsonNode geoJson) {
+        return ResponseEntity.ok(quadroAreasService.carregar(municipalityId, geoJson));
+    }
+
+    @Operation(
+            summary = "Incluir ou alterar feição",
+            description = "Inclui ou substitui uma feição; apenas o tema dela e os temas derivados que "
+                    + "dependem dele são recalculados"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Quadro recalculado"),
+            @ApiResponse(responseCode = "400", description = "Feature inválida"),
+            @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    @PutMapping("/{municipalityId}/feicoes/{featureId}")
+    public ResponseEntity<QuadroAreasDTO> definirFeicao(
+            @Parameter(description = "Código IBGE do município", example = "3552809") @PathVariable Long municipalityId,
+            @Parameter(description = "Identificador da feição") @PathVariable String featureId,
+            @RequestBody JsonNode feature) {
+        return ResponseEntity.ok(quadroAreasService.definirFeicao(municipalityId, featureId, feature));
+    }
+
+    @Operation(summary = "Remover feição", description = "Remove uma feição e recalcula os temas afetados")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Quadro recalculado"),
+            @ApiResponse(responseCode = "400", description = "Feição não encontrada"),
+            @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    @DeleteMapping("/{municipalityId}/feicoes/{featureId}")
+    public ResponseEntity<QuadroAreasDTO> removerFeicao(
+            @Parameter(description = "Código IBGE do município", example = "3552809") @PathVariable Long municipalityId,
+            @Parameter(description = "Identificador da feição") @PathVariable String featureId) {
+        return ResponseEntity.ok(quadroAreasService.removerFeicao(municipalityId, featureId));
+    }
+}
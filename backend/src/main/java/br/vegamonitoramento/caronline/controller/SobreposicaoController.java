@@ -0,0 +1,52 @@
+package br.vegamonitoramento.caronline.controller;
+
+import br.vegamonitoramento.caronline.model.dto.SobreposicaoRequestDTO;
+import br.vegamonitoramento.caronline.model.dto.SobreposicaoResponseDTO;
+import br.vegamonitoramento.caronline.service.SobreposicaoService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/sobreposicoes")
+@Tag(name = "Sobreposições", description = "API para recorte de geometrias por conjuntos de polígonos")
+public class SobreposicaoController {
+
+    private final SobreposicaoService sobreposicaoService;
+
+    @Autowired
+    public SobreposicaoController(SobreposicaoService sobreposicaoService) {
+        this.sobreposicaoService = sobreposicaoService;
+    }
+
+    @Operation(
+            summary = "Recortar geometrias",
+            description = "Une as geometrias de recorte e aplica a diferença (ou interseção) a cada alvo, "
+                    + "retornando as geometrias resultantes com as áreas em hectares"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Recorte executado",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = SobreposicaoResponseDTO.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Geometrias ou operação inválidas"),
+            @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    @PostMapping("/recorte")
+    public ResponseEntity<SobreposicaoResponseDTO> recortar(@RequestBody SobreposicaoRequestDTO request) {
+        return ResponseEntity.ok(sobreposicaoService.recortar(request));
+    }
+}
@@ -1,20 +1,27 @@
 package br.vegamonitoramento.caronline.controller;
 
 import br.vegamonitoramento.caronline.model.dto.TemaGrupoDTO;
+import br.vegamonitoramento.caronline.service.CatalogoTemaGrupo;
 import br.vegamonitoramento.caronline.service.TemaGrupoService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.List;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @RestController
@@ -39,14 +46,15 @@ public class TemaGrupoController {
                     description = "Operação bem-sucedida",
                     content = @Content(
                             mediaType = "application/json",
-                            schema = @Schema(implementation = TemaGrupoDTO.class)
+                            array = @ArraySchema(schema = @Schema(implementation = TemaGrupoDTO.class))
                     )
             ),
+            @ApiResponse(responseCode = "304", description = "Catálogo não modificado desde o ETag informado em If-None-Match"),
             @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
     })
-    @GetMapping
-    public ResponseEntity<List<TemaGrupoDTO>> getAllTemasGrupos() {
-        return ResponseEntity.ok(temaGrupoService.getAllTemasGrupos());
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getAllTemasGrupos(WebRequest request) {
+        return responder(temaGrupoService.getCatalogo().getLista(), request);
     }
     
     @Operation(
@@ -61,10 +69,53 @@ public class TemaGrupoController {
                             mediaType = "application/json"
                     )
             ),
+            @ApiResponse(responseCode = "304", description = "Catálogo não modificado desde o ETag informado em If-None-Match"),
             @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
     })
-    @GetMapping("/agrupados")
-    public ResponseEntity<Map<String, List<TemaGrupoDTO>>> getAllTemasGruposAgrupados() {
-        return ResponseEntity.ok(temaGrupoService.getAllTemasGruposAgrupados());
+    @GetMapping(value = "/agrupados", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getAllTemasGruposAgrupados(WebRequest request) {
+        return responder(temaGrupoService.getCatalogo().getAgrupados(), request);
+    }
+
+    @Operation(
+            summary = "Recarregar o catálogo de temas e grupos",
+            description = "Operação administrativa que relê o catálogo do banco e substitui a versão mantida em memória"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Catálogo recarregado"),
+            @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    @PostMapping("/recarregar")
+    public ResponseEntity<Map<String, Object>> recarregarCatalogo() {
+        CatalogoTemaGrupo catalogo = temaGrupoService.recarregarCatalogo();
+
+        Map<String, Object> info = new LinkedHashMap<>();
+        info.put("quantidadeTemas", catalogo.getTemas().size());
+        info.put("quantidadeGrupos", catalogo.getTemasAgrupados().size());
+        info.put("etagLista", catalogo.getLista().etag());
+        info.put("etagAgrupados", catalogo.getAgrupados().etag());
+        info.put("dataCarga", catalogo.getDataCarga().toString());
+        return ResponseEntity.ok(info);
+    }
+
+    /**
+     * Devolve o JSON pré-serializado, ou 304 quando o cliente já possui a mesma versão
+     */
+    private ResponseEntity<byte[]> responder(CatalogoTemaGrupo.Representacao representacao, WebRequest request) {
+        // O cliente sempre revalida, mas só baixa o corpo quando o ETag mudar
+        CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+
+        if (request.checkNotModified(representacao.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(representacao.etag())
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(representacao.etag())
+                .cacheControl(cacheControl)
+                .body(representacao.conteudo());
     }
 }
\ No newline at end of file
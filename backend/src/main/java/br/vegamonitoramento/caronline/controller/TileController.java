@@ -0,0 +1,78 @@
+package br.vegamonitoramento.caronline.controller;
+
+import br.vegamonitoramento.caronline.service.TileService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+@RestController
+@RequestMapping("/api/tiles")
+@Tag(name = "Tiles", description = "API de vector tiles (MVT) das camadas gravadas")
+public class TileController {
+
+    private static final MediaType MEDIA_TYPE_MVT = MediaType.parseMediaType("application/vnd.mapbox-vector-tile");
+
+    private final TileService tileService;
+
+    @Autowired
+    public TileController(TileService tileService) {
+        this.tileService = tileService;
+    }
+
+    @Operation(
+            summary = "Obter vector tile",
+            description = "Retorna o tile MVT da camada no esquema XYZ. A camada 'camadas' traz todos os temas; "
+                    + "as demais correspondem ao codTema (ex.: area_imovel)"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tile encontrado"),
+            @ApiResponse(responseCode = "204", description = "Nenhuma feição no tile"),
+            @ApiResponse(responseCode = "304", description = "Tile inalterado desde a ETag informada"),
+            @ApiResponse(responseCode = "400", description = "Camada ou coordenadas inválidas"),
+            @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    @GetMapping("/{layer}/{z}/{x}/{y}.mvt")
+    public ResponseEntity<byte[]> getTile(
+            @Parameter(description = "Nome da camada", example = "camadas") @PathVariable String layer,
+            @Parameter(description = "Nível de zoom", example = "12") @PathVariable int z,
+            @Parameter(description = "Coluna do tile", example = "1515") @PathVariable int x,
+            @Parameter(description = "Linha do tile", example = "2323") @PathVariable int y,
+            WebRequest request) {
+        // Os tiles mudam quando as camadas são gravadas: o navegador revalida a cada uso, e sem
+        // invalidação desde a última cópia recebe 304 sem que o tile seja lido ou gerado
+        String etag = tileService.getEtag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        byte[] tile = tileService.getTile(layer, z, x, y);
+
+        CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+        if (tile.length == 0) {
+            return ResponseEntity.noContent().cacheControl(cacheControl).eTag(etag).build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MEDIA_TYPE_MVT)
+                .cacheControl(cacheControl)
+                .eTag(etag)
+                .body(tile);
+    }
+
+    @Operation(summary = "Limpar cache de tiles", description = "Descarta todos os tiles em memória e em disco")
+    @PostMapping("/cache/limpar")
+    public ResponseEntity<Void> limparCache() {
+        tileService.limparCache();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,140 @@
+package br.vegamonitoramento.caronline.controller;
+
+import br.vegamonitoramento.caronline.model.dto.EventoValidacaoDTO;
+import br.vegamonitoramento.caronline.model.dto.SessaoValidacaoDTO;
+import br.vegamonitoramento.caronline.model.dto.SessaoValidacaoRequestDTO;
+import br.vegamonitoramento.caronline.service.ValidacaoAoVivoService;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/validacoes/sessoes")
+@Tag(name = "Validação ao vivo", description = "API para validar as feições à medida que são desenhadas, "
+        + "com os resultados enviados por Server-Sent Events")
+public class ValidacaoAoVivoController {
+
+    private final ValidacaoAoVivoService validacaoAoVivoService;
+
+    @Autowired
+    public ValidacaoAoVivoController(ValidacaoAoVivoService validacaoAoVivoService) {
+        this.validacaoAoVivoService = validacaoAoVivoService;
+    }
+
+    @Operation(
+            summary = "Abrir sessão",
+            description = "Cria uma sessão de validação para o município, opcionalmente com as feições já desenhadas. "
+                    + "Os resultados chegam pelo fluxo indicado no campo eventos"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "201",
+                    description = "Sessão criada",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = SessaoValidacaoDTO.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Município ou feições inválidos"),
+            @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    @PostMapping
+    public ResponseEntity<SessaoValidacaoDTO> abrir(@RequestBody SessaoValidacaoRequestDTO request) {
+        SessaoValidacaoDTO sessao = validacaoAoVivoService.abrir(request);
+        sessao.setEventos(ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/{id}/eventos").build(sessao.getIdSessao()).getPath());
+        return ResponseEntity
+                .created(ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}").build(sessao.getIdSessao()))
+                .body(sessao);
+    }
+
+    @Operation(
+            summary = "Fluxo de resultados",
+            description = "Server-Sent Events com um evento \"feicao\" (EventoValidacaoDTO) por resultado. Ao conectar, "
+                    + "recebe o resultado de todas as feições; depois, apenas os que mudam a cada edição"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Fluxo de eventos",
+                    content = @Content(
+                            mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                            schema = @Schema(implementation = EventoValidacaoDTO.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "404", description = "Sessão não encontrada ou expirada")
+    })
+    @GetMapping(value = "/{id}/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter eventos(
+            @Parameter(description = "Identificador da sessão", required = true) @PathVariable UUID id) {
+        return validacaoAoVivoService.conectar(id);
+    }
+
+    @Operation(
+            summary = "Enviar edição",
+            description = "Inclui ou substitui uma feição GeoJSON, identificada pelo membro \"id\". Somente as regras "
+                    + "afetadas são reavaliadas, e os resultados seguem pelo fluxo de eventos"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Edição aplicada"),
+            @ApiResponse(responseCode = "400", description = "Feição inválida ou sem id"),
+            @ApiResponse(responseCode = "404", description = "Sessão não encontrada ou expirada"),
+            @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    @PutMapping("/{id}/feicoes")
+    public ResponseEntity<Void> atualizar(
+            @Parameter(description = "Identificador da sessão", required = true) @PathVariable UUID id,
+            @RequestBody JsonNode feature) {
+        validacaoAoVivoService.atualizar(id, feature);
+        return ResponseEntity.accepted().build();
+    }
+
+    @Operation(
+            summary = "Excluir feição",
+            description = "Retira a feição da sessão; o fluxo recebe a exclusão e os resultados que mudaram"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Exclusão aplicada"),
+            @ApiResponse(responseCode = "404", description = "Sessão não encontrada ou expirada"),
+            @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    @DeleteMapping("/{id}/feicoes/{idFeicao}")
+    public ResponseEntity<Void> excluir(
+            @Parameter(description = "Identificador da sessão", required = true) @PathVariable UUID id,
+            @Parameter(description = "Identificador da feição", required = true) @PathVariable String idFeicao) {
+        validacaoAoVivoService.excluir(id, idFeicao);
+        return ResponseEntity.accepted().build();
+    }
+
+    @Operation(summary = "Encerrar sessão", description = "Libera a memória da sessão e fecha o fluxo de eventos")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Sessão encerrada"),
+            @ApiResponse(responseCode = "404", description = "Sessão não encontrada ou expirada")
+    })
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> encerrar(
+            @Parameter(description = "Identificador da sessão", required = true) @PathVariable UUID id) {
+        validacaoAoVivoService.encerrar(id);
+        return ResponseEntity.noContent().build();
+    }
+}
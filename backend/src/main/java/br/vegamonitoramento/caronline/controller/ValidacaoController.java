@@ -0,0 +1,108 @@
+package br.vegamonitoramento.caronline.controller;
+
+import br.vegamonitoramento.caronline.model.dto.TopologiaRequestDTO;
+import br.vegamonitoramento.caronline.model.dto.TopologiaResponseDTO;
+import br.vegamonitoramento.caronline.model.dto.ValidacaoRequestDTO;
+import br.vegamonitoramento.caronline.model.dto.ValidacaoResponseDTO;
+import br.vegamonitoramento.caronline.service.TopologiaService;
+import br.vegamonitoramento.caronline.service.ValidacaoService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/validacoes")
+@Tag(name = "Validações", description = "API para validação das camadas conforme as regras do CAR")
+public class ValidacaoController {
+
+    private final ValidacaoService validacaoService;
+    private final TopologiaService topologiaService;
+
+    @Autowired
+    public ValidacaoController(ValidacaoService validacaoService, TopologiaService topologiaService) {
+        this.validacaoService = validacaoService;
+        this.topologiaService = topologiaService;
+    }
+
+    @Operation(
+            summary = "Validar camadas",
+            description = "Aplica as regras do CAR a todas as feições da FeatureCollection e retorna o resultado por feição"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Validação executada",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ValidacaoResponseDTO.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "FeatureCollection inválida"),
+            @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    @PostMapping
+    public ResponseEntity<ValidacaoResponseDTO> validar(@RequestBody ValidacaoRequestDTO request) {
+        return ResponseEntity.ok(validacaoService.validar(request));
+    }
+
+    @Operation(
+            summary = "Verificar sobreposições",
+            description = "Encontra os pares de feições que se sobrepõem em desacordo com as regras por grupo de tema "
+                    + "(cobertura do solo entre si e com servidões, servidões, reserva legal e área do imóvel), "
+                    + "com a área e a geometria de cada sobreposição"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Verificação executada",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = TopologiaResponseDTO.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "FeatureCollection inválida"),
+            @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    @PostMapping("/topologia")
+    public ResponseEntity<TopologiaResponseDTO> verificarTopologia(@RequestBody TopologiaRequestDTO request) {
+        return ResponseEntity.ok(topologiaService.verificar(request));
+    }
+
+    @Operation(
+            summary = "Verificar sobreposições das camadas gravadas",
+            description = "Mesma verificação sobre as camadas gravadas do município; os índices seguem a ordem "
+                    + "da exportação e os identificadores são os das feições gravadas"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Verificação executada",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = TopologiaResponseDTO.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    @GetMapping("/topologia/{municipalityId}")
+    public ResponseEntity<TopologiaResponseDTO> verificarTopologiaGravada(
+            @Parameter(description = "Código IBGE do município", required = true, example = "3552809")
+            @PathVariable Long municipalityId,
+            @Parameter(description = "Inclui a geometria de cada sobreposição", example = "true")
+            @RequestParam(defaultValue = "true") boolean incluirGeometrias) {
+        return ResponseEntity.ok(topologiaService.verificarGravadas(municipalityId, incluirGeometrias));
+    }
+}
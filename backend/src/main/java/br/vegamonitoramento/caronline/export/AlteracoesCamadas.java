@@ -0,0 +1,30 @@
+package br.vegamonitoramento.caronline.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Resposta da consulta de alterações desde uma revisão: uma FeatureCollection GeoJSON com as
+ * feições gravadas depois dela e os membros adicionais "revisao" (revisão atual), "completo"
+ * (true quando a coleção traz todas as feições e substitui o que o cliente tem) e "excluidas"
+ * (identificadores removidos). O cliente aplica as exclusões antes das feições.
+ */
+public final class AlteracoesCamadas {
+
+    private AlteracoesCamadas() {
+    }
+
+    public static ExportadorCamadas criarExportador(OutputStream saida, long revisao, boolean completo,
+                                                    List<String> excluidas) throws IOException {
+        return new GeoJsonExportador(saida, gerador -> {
+            gerador.writeNumberField("revisao", revisao);
+            gerador.writeBooleanField("completo", completo);
+            gerador.writeArrayFieldStart("excluidas");
+            for (String codFeicao : excluidas) {
+                gerador.writeString(codFeicao);
+            }
+            gerador.writeEndArray();
+        });
+    }
+}
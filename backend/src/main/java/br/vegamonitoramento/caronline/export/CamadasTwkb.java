@@ -0,0 +1,204 @@
+package br.vegamonitoramento.caronline.export;
+
+import br.vegamonitoramento.caronline.geometry.TwkbGeometryReader;
+import br.vegamonitoramento.caronline.geometry.TwkbGeometryWriter;
+import br.vegamonitoramento.caronline.geometry.Varint;
+import br.vegamonitoramento.caronline.model.FeicaoCamada;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Formato binário das camadas, alternativa compacta à FeatureCollection GeoJSON.
+ * <pre>
+ * cabeçalho  'C' 'A' 'R' versão(1)
+ * feições    varint tamanho do registro + registro, repetidos; um tamanho 0 encerra a coleção
+ * registro   flags(1 byte) · codTema · [idtCamadaImovel] · [nomTema] · [numArea] · [dataCriacao]
+ *            · [dataUltimaAtualizacao] · [codFeicao] · geometria TWKB
+ * </pre>
+ * Textos são varint do tamanho + UTF-8; numArea vai como texto decimal; datas como varint zigzag
+ * de milissegundos desde 1970 (UTC); o id como varint. Cada campo opcional tem um bit nas flags.
+ * <p>
+ * Na leitura, registros e quantidade de feições são limitados antes de qualquer alocação:
+ * os tamanhos vêm do cliente e não podem decidir quanta memória o servidor reserva.
+ */
+public final class CamadasTwkb {
+
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType("application/vnd.caronline.camadas+twkb");
+    public static final String MEDIA_TYPE_VALUE = "application/vnd.caronline.camadas+twkb";
+
+    private static final byte[] CABECALHO = {'C', 'A', 'R', 1};
+
+    // Um registro de 16 MB comporta geometrias de alguns milhões de vértices
+    public static final int TAMANHO_MAXIMO_REGISTRO = 16 * 1024 * 1024;
+    public static final int MAXIMO_FEICOES = 200_000;
+
+    private static final int FLAG_ID = 0x01;
+    private static final int FLAG_NOME = 0x02;
+    private static final int FLAG_AREA = 0x04;
+    private static final int FLAG_CRIACAO = 0x08;
+    private static final int FLAG_ATUALIZACAO = 0x10;
+    private static final int FLAG_FEICAO = 0x20;
+
+    private CamadasTwkb() {
+    }
+
+    static void escreverCabecalho(OutputStream saida) throws IOException {
+        saida.write(CABECALHO);
+    }
+
+    static void escreverFim(OutputStream saida) throws IOException {
+        Varint.escrever(0, saida);
+    }
+
+    /**
+     * Escreve uma feição com o tamanho à frente, para que leitores possam pular registros
+     */
+    static void escrever(FeicaoCamada feicao, ByteArrayOutputStream registro, OutputStream saida) throws IOException {
+        registro.reset();
+        int flags = (feicao.getIdtCamadaImovel() != null ? FLAG_ID : 0)
+                | (feicao.getNomTema() != null ? FLAG_NOME : 0)
+                | (feicao.getNumArea() != null ? FLAG_AREA : 0)
+                | (feicao.getDataCriacao() != null ? FLAG_CRIACAO : 0)
+                | (feicao.getDataUltimaAtualizacao() != null ? FLAG_ATUALIZACAO : 0)
+                | (feicao.getCodFeicao() != null ? FLAG_FEICAO : 0);
+        registro.write(flags);
+        escreverTexto(feicao.getCodTema(), registro);
+        if (feicao.getIdtCamadaImovel() != null) {
+            Varint.escrever(feicao.getIdtCamadaImovel(), registro);
+        }
+        if (feicao.getNomTema() != null) {
+            escreverTexto(feicao.getNomTema(), registro);
+        }
+        if (feicao.getNumArea() != null) {
+            escreverTexto(feicao.getNumArea().toPlainString(), registro);
+        }
+        if (feicao.getDataCriacao() != null) {
+            Varint.escreverComSinal(feicao.getDataCriacao().toInstant().toEpochMilli(), registro);
+        }
+        if (feicao.getDataUltimaAtualizacao() != null) {
+            Varint.escreverComSinal(feicao.getDataUltimaAtualizacao().toInstant().toEpochMilli(), registro);
+        }
+        if (feicao.getCodFeicao() != null) {
+            escreverTexto(feicao.getCodFeicao(), registro);
+        }
+        TwkbGeometryWriter.write(feicao.getGeometria(), TwkbGeometryWriter.PRECISAO_PADRAO, registro);
+
+        Varint.escrever(registro.size(), saida);
+        registro.writeTo(saida);
+    }
+
+    /**
+     * Lê todas as feições. O codTema é convertido para maiúsculas e o idtTema vem do catálogo.
+     * @throws IllegalArgumentException se os dados não estiverem no formato
+     */
+    public static List<FeicaoCamada> ler(InputStream entrada, Map<String, Long> idsTema) throws IOException {
+        byte[] cabecalho = entrada.readNBytes(CABECALHO.length);
+        if (!Arrays.equals(cabecalho, CABECALHO)) {
+            throw new IllegalArgumentException("Corpo não está no formato " + MEDIA_TYPE_VALUE);
+        }
+
+        TwkbGeometryReader geometryReader = new TwkbGeometryReader();
+        List<FeicaoCamada> feicoes = new ArrayList<>();
+        for (int tamanho = lerTamanhoRegistro(entrada); tamanho > 0; tamanho = lerTamanhoRegistro(entrada)) {
+            if (feicoes.size() == MAXIMO_FEICOES) {
+                throw new IllegalArgumentException("Coleção com mais de " + MAXIMO_FEICOES + " feições");
+            }
+            if (tamanho > TAMANHO_MAXIMO_REGISTRO) {
+                throw new IllegalArgumentException("Feição " + feicoes.size() + ": registro de " + tamanho
+                        + " bytes; máximo " + TAMANHO_MAXIMO_REGISTRO);
+            }
+            byte[] bytes = entrada.readNBytes(tamanho);
+            if (bytes.length < tamanho) {
+                throw new IllegalArgumentException("Feição " + feicoes.size() + ": registro incompleto");
+            }
+            try {
+                feicoes.add(lerRegistro(new ByteArrayInputStream(bytes), idsTema, geometryReader));
+            } catch (IllegalArgumentException | IOException e) {
+                throw new IllegalArgumentException("Feição " + feicoes.size() + ": " + e.getMessage(), e);
+            }
+        }
+        return feicoes;
+    }
+
+    private static int lerTamanhoRegistro(InputStream entrada) throws IOException {
+        try {
+            return Varint.lerTamanho(entrada);
+        } catch (EOFException e) {
+            throw new IllegalArgumentException("Coleção incompleta: falta o marcador de fim");
+        }
+    }
+
+    private static FeicaoCamada lerRegistro(ByteArrayInputStream registro, Map<String, Long> idsTema,
+                                            TwkbGeometryReader geometryReader) throws IOException {
+        int flags = registro.read();
+        String codTema = lerTexto(registro);
+        if (codTema == null || codTema.isBlank()) {
+            throw new IllegalArgumentException("codTema não informado");
+        }
+        codTema = codTema.toUpperCase(Locale.ROOT);
+
+        FeicaoCamada feicao = new FeicaoCamada();
+        feicao.setCodTema(codTema);
+        feicao.setIdtTema(idsTema.get(codTema));
+        if ((flags & FLAG_ID) != 0) {
+            feicao.setIdtCamadaImovel(Varint.ler(registro));
+        }
+        if ((flags & FLAG_NOME) != 0) {
+            feicao.setNomTema(lerTexto(registro));
+        }
+        if ((flags & FLAG_AREA) != 0) {
+            try {
+                feicao.setNumArea(new BigDecimal(lerTexto(registro)));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("numArea inválida");
+            }
+        }
+        if ((flags & FLAG_CRIACAO) != 0) {
+            feicao.setDataCriacao(data(Varint.lerComSinal(registro)));
+        }
+        if ((flags & FLAG_ATUALIZACAO) != 0) {
+            feicao.setDataUltimaAtualizacao(data(Varint.lerComSinal(registro)));
+        }
+        if ((flags & FLAG_FEICAO) != 0) {
+            feicao.setCodFeicao(lerTexto(registro));
+        }
+        // A geometria vai até o fim do registro
+        feicao.setGeometria(geometryReader.read(registro, registro.available()));
+        return feicao;
+    }
+
+    private static void escreverTexto(String texto, OutputStream saida) throws IOException {
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        Varint.escrever(bytes.length, saida);
+        saida.write(bytes);
+    }
+
+    private static String lerTexto(InputStream entrada) throws IOException {
+        int tamanho = Varint.lerTamanho(entrada);
+        byte[] bytes = entrada.readNBytes(tamanho);
+        if (bytes.length < tamanho) {
+            throw new IllegalArgumentException("texto incompleto");
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static OffsetDateTime data(long epochMilli) {
+        return OffsetDateTime.ofInstant(Instant.ofEpochMilli(epochMilli), ZoneOffset.UTC);
+    }
+}
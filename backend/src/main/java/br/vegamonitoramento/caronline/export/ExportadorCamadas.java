@@ -0,0 +1,26 @@
+package br.vegamonitoramento.caronline.export;
+
+import br.vegamonitoramento.caronline.model.FeicaoCamada;
+
+import java.io.IOException;
+
+/**
+ * Escreve feições de camadas num formato de arquivo, uma de cada vez,
+ * à medida que são lidas do banco.
+ */
+public interface ExportadorCamadas extends AutoCloseable {
+
+    void escrever(FeicaoCamada feicao) throws IOException;
+
+    /**
+     * Conclui o arquivo (fechamento de estruturas, cabeçalhos, compactação)
+     */
+    void finalizar() throws IOException;
+
+    /**
+     * Libera recursos temporários; chamado sempre, mesmo em caso de erro
+     */
+    @Override
+    default void close() throws IOException {
+    }
+}
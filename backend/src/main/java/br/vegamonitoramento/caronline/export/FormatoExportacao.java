@@ -0,0 +1,75 @@
+package br.vegamonitoramento.caronline.export;
+
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+
+/**
+ * Formatos aceitos pelo endpoint de exportação de camadas
+ */
+public enum FormatoExportacao {
+
+    GEOJSON("geojson", MediaType.parseMediaType("application/geo+json")) {
+        @Override
+        public ExportadorCamadas criarExportador(OutputStream saida, String nomeBase) throws IOException {
+            return new GeoJsonExportador(saida);
+        }
+    },
+
+    KML("kml", MediaType.parseMediaType("application/vnd.google-earth.kml+xml")) {
+        @Override
+        public ExportadorCamadas criarExportador(OutputStream saida, String nomeBase) throws IOException {
+            return new KmlExportador(saida, nomeBase);
+        }
+    },
+
+    SHP("zip", MediaType.parseMediaType("application/zip")) {
+        @Override
+        public ExportadorCamadas criarExportador(OutputStream saida, String nomeBase) throws IOException {
+            return new ShapefileExportador(saida, nomeBase);
+        }
+    },
+
+    TWKB("twkb", CamadasTwkb.MEDIA_TYPE) {
+        @Override
+        public ExportadorCamadas criarExportador(OutputStream saida, String nomeBase) throws IOException {
+            return new TwkbExportador(saida);
+        }
+    };
+
+    private final String extensao;
+    private final MediaType mediaType;
+
+    FormatoExportacao(String extensao, MediaType mediaType) {
+        this.extensao = extensao;
+        this.mediaType = mediaType;
+    }
+
+    public abstract ExportadorCamadas criarExportador(OutputStream saida, String nomeBase) throws IOException;
+
+    public String getExtensao() {
+        return extensao;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * @throws IllegalArgumentException se o formato não for suportado
+     */
+    public static FormatoExportacao of(String formato) {
+        if (formato == null || formato.isBlank()) {
+            return GEOJSON;
+        }
+        return switch (formato.trim().toLowerCase(Locale.ROOT)) {
+            case "geojson", "json" -> GEOJSON;
+            case "kml" -> KML;
+            case "shp", "shapefile", "zip" -> SHP;
+            case "twkb" -> TWKB;
+            default -> throw new IllegalArgumentException("Formato de exportação não suportado: " + formato);
+        };
+    }
+}
@@ -0,0 +1,93 @@
+package br.vegamonitoramento.caronline.export;
+
+import br.vegamonitoramento.caronline.geometry.GeoJsonGeometryWriter;
+import br.vegamonitoramento.caronline.model.FeicaoCamada;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+
+/**
+ * Exporta as feições como uma FeatureCollection GeoJSON escrita em fluxo
+ */
+class GeoJsonExportador implements ExportadorCamadas {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final JsonGenerator gerador;
+
+    GeoJsonExportador(OutputStream saida) throws IOException {
+        this(saida, gerador -> {
+        });
+    }
+
+    /**
+     * @param membros escreve membros adicionais da FeatureCollection, antes da lista de feições
+     */
+    GeoJsonExportador(OutputStream saida, MembrosColecao membros) throws IOException {
+        this.gerador = JSON_FACTORY.createGenerator(saida, JsonEncoding.UTF8);
+        // A saída pertence ao container; não deve ser fechada pelo gerador
+        this.gerador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        gerador.writeStartObject();
+        gerador.writeStringField("type", "FeatureCollection");
+        membros.escrever(gerador);
+        gerador.writeArrayFieldStart("features");
+        // Envia o início do documento imediatamente ao cliente
+        gerador.flush();
+    }
+
+    @Override
+    public void escrever(FeicaoCamada feicao) throws IOException {
+        gerador.writeStartObject();
+        gerador.writeStringField("type", "Feature");
+        if (feicao.getCodFeicao() != null) {
+            gerador.writeStringField("id", feicao.getCodFeicao());
+        }
+        gerador.writeFieldName("geometry");
+        GeoJsonGeometryWriter.write(feicao.getGeometria(), gerador);
+
+        gerador.writeObjectFieldStart("properties");
+        gerador.writeStringField("id", feicao.getCodTema().toLowerCase(Locale.ROOT));
+        gerador.writeStringField("codTema", feicao.getCodTema());
+        gerador.writeStringField("nomTema", feicao.getNomTema());
+        if (feicao.getNumArea() != null) {
+            gerador.writeNumberField("numArea", feicao.getNumArea());
+        }
+        if (feicao.getDataCriacao() != null) {
+            gerador.writeStringField("dataCriacao", feicao.getDataCriacao().toString());
+        }
+        if (feicao.getDataUltimaAtualizacao() != null) {
+            gerador.writeStringField("dataUltimaAtualizacao", feicao.getDataUltimaAtualizacao().toString());
+        }
+        if (feicao.getCodHash() != null) {
+            gerador.writeStringField("hash", feicao.getCodHash());
+        }
+        if (feicao.getNumRevisao() != null) {
+            gerador.writeNumberField("revisao", feicao.getNumRevisao());
+        }
+        gerador.writeEndObject();
+
+        gerador.writeEndObject();
+    }
+
+    @Override
+    public void finalizar() throws IOException {
+        gerador.writeEndArray();
+        gerador.writeEndObject();
+        gerador.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        gerador.close();
+    }
+
+    @FunctionalInterface
+    interface MembrosColecao {
+        void escrever(JsonGenerator gerador) throws IOException;
+    }
+}
@@ -0,0 +1,143 @@
+package br.vegamonitoramento.caronline.export;
+
+import br.vegamonitoramento.caronline.model.FeicaoCamada;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Exporta as feições como um documento KML escrito em fluxo (StAX)
+ */
+class KmlExportador implements ExportadorCamadas {
+
+    private static final String KML_NS = "http://www.opengis.net/kml/2.2";
+    private static final XMLOutputFactory XML_FACTORY = XMLOutputFactory.newFactory();
+
+    private final XMLStreamWriter xml;
+    private final OutputStream saida;
+    // Reaproveitado para montar o texto de cada lista de coordenadas
+    private final StringBuilder coordenadas = new StringBuilder(4096);
+
+    KmlExportador(OutputStream saida, String nomeDocumento) throws IOException {
+        this.saida = saida;
+        try {
+            this.xml = XML_FACTORY.createXMLStreamWriter(saida, StandardCharsets.UTF_8.name());
+            xml.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+            xml.writeStartElement("kml");
+            xml.writeDefaultNamespace(KML_NS);
+            xml.writeStartElement("Document");
+            elementoTexto("name", nomeDocumento);
+            xml.flush();
+            saida.flush();
+        } catch (XMLStreamException e) {
+            throw new IOException("Falha ao iniciar o documento KML", e);
+        }
+    }
+
+    @Override
+    public void escrever(FeicaoCamada feicao) throws IOException {
+        try {
+            xml.writeStartElement("Placemark");
+            elementoTexto("name", feicao.getNomTema() != null ? feicao.getNomTema() : feicao.getCodTema());
+
+            xml.writeStartElement("ExtendedData");
+            dado("codTema", feicao.getCodTema());
+            if (feicao.getNumArea() != null) {
+                dado("numArea", feicao.getNumArea().toPlainString());
+            }
+            if (feicao.getDataCriacao() != null) {
+                dado("dataCriacao", feicao.getDataCriacao().toString());
+            }
+            if (feicao.getDataUltimaAtualizacao() != null) {
+                dado("dataUltimaAtualizacao", feicao.getDataUltimaAtualizacao().toString());
+            }
+            xml.writeEndElement();
+
+            escreverGeometria(feicao.getGeometria());
+            xml.writeEndElement();
+        } catch (XMLStreamException e) {
+            throw new IOException("Falha ao escrever feição KML", e);
+        }
+    }
+
+    @Override
+    public void finalizar() throws IOException {
+        try {
+            xml.writeEndElement();
+            xml.writeEndElement();
+            xml.writeEndDocument();
+            xml.flush();
+            saida.flush();
+        } catch (XMLStreamException e) {
+            throw new IOException("Falha ao concluir o documento KML", e);
+        }
+    }
+
+    private void escreverGeometria(Geometry geometria) throws XMLStreamException {
+        if (geometria instanceof Point ponto) {
+            xml.writeStartElement("Point");
+            escreverCoordenadas(ponto.getCoordinateSequence());
+            xml.writeEndElement();
+        } else if (geometria instanceof LineString linha) {
+            xml.writeStartElement("LineString");
+            escreverCoordenadas(linha.getCoordinateSequence());
+            xml.writeEndElement();
+        } else if (geometria instanceof Polygon poligono) {
+            xml.writeStartElement("Polygon");
+            escreverAnel("outerBoundaryIs", poligono.getExteriorRing());
+            for (int i = 0; i < poligono.getNumInteriorRing(); i++) {
+                escreverAnel("innerBoundaryIs", poligono.getInteriorRingN(i));
+            }
+            xml.writeEndElement();
+        } else {
+            xml.writeStartElement("MultiGeometry");
+            for (int i = 0; i < geometria.getNumGeometries(); i++) {
+                escreverGeometria(geometria.getGeometryN(i));
+            }
+            xml.writeEndElement();
+        }
+    }
+
+    private void escreverAnel(String fronteira, LineString anel) throws XMLStreamException {
+        xml.writeStartElement(fronteira);
+        xml.writeStartElement("LinearRing");
+        escreverCoordenadas(anel.getCoordinateSequence());
+        xml.writeEndElement();
+        xml.writeEndElement();
+    }
+
+    private void escreverCoordenadas(CoordinateSequence sequencia) throws XMLStreamException {
+        coordenadas.setLength(0);
+        for (int i = 0; i < sequencia.size(); i++) {
+            if (i > 0) {
+                coordenadas.append(' ');
+            }
+            coordenadas.append(sequencia.getX(i)).append(',').append(sequencia.getY(i));
+        }
+        elementoTexto("coordinates", coordenadas.toString());
+    }
+
+    private void dado(String nome, String valor) throws XMLStreamException {
+        xml.writeStartElement("Data");
+        xml.writeAttribute("name", nome);
+        elementoTexto("value", valor);
+        xml.writeEndElement();
+    }
+
+    private void elementoTexto(String nome, String texto) throws XMLStreamException {
+        xml.writeStartElement(nome);
+        if (texto != null) {
+            xml.writeCharacters(texto);
+        }
+        xml.writeEndElement();
+    }
+}
@@ -0,0 +1,346 @@
+package br.vegamonitoramento.caronline.export;
+
+import br.vegamonitoramento.caronline.model.FeicaoCamada;
+import org.locationtech.jts.algorithm.Orientation;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryCollection;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.MultiLineString;
+import org.locationtech.jts.geom.MultiPoint;
+import org.locationtech.jts.geom.MultiPolygon;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Escreve um shapefile (.shp, .shx, .dbf) de um único tipo de geometria em arquivos temporários.
+ * Os cabeçalhos dependem do total de registros e da extensão, por isso são reescritos no fechamento.
+ */
+class ShapefileEscritor implements Closeable {
+
+    static final int TIPO_PONTOS = 8;     // MultiPoint
+    static final int TIPO_LINHAS = 3;     // PolyLine
+    static final int TIPO_POLIGONOS = 5;  // Polygon
+
+    private static final int TAMANHO_CABECALHO = 100;
+    private static final int CODIGO_ARQUIVO = 9994;
+    private static final int VERSAO = 1000;
+
+    private static final List<CampoDbf> CAMPOS = List.of(
+            new CampoDbf("ID", 'N', 10, 0),
+            new CampoDbf("COD_TEMA", 'C', 100, 0),
+            new CampoDbf("NOM_TEMA", 'C', 254, 0),
+            new CampoDbf("NUM_AREA", 'N', 19, 4),
+            new CampoDbf("DAT_CRIAC", 'D', 8, 0),
+            new CampoDbf("DAT_ATUAL", 'D', 8, 0));
+
+    private static final int TAMANHO_REGISTRO_DBF =
+            1 + CAMPOS.stream().mapToInt(CampoDbf::tamanho).sum();
+    private static final int TAMANHO_CABECALHO_DBF = 32 + 32 * CAMPOS.size() + 1;
+
+    private final int tipo;
+    private final Path arquivoShp;
+    private final Path arquivoShx;
+    private final Path arquivoDbf;
+    private final FileChannel shp;
+    private final FileChannel shx;
+    private final FileChannel dbf;
+
+    private final Envelope extensao = new Envelope();
+    private final ByteBuffer indice = ByteBuffer.allocate(8).order(ByteOrder.BIG_ENDIAN);
+    private final ByteBuffer registroDbf = ByteBuffer.allocate(TAMANHO_REGISTRO_DBF);
+    private int quantidade;
+    // Posição atual no .shp, em palavras de 16 bits
+    private int posicaoShp = TAMANHO_CABECALHO / 2;
+
+    ShapefileEscritor(int tipo, Path diretorio, String nome) throws IOException {
+        this.tipo = tipo;
+        this.arquivoShp = diretorio.resolve(nome + ".shp");
+        this.arquivoShx = diretorio.resolve(nome + ".shx");
+        this.arquivoDbf = diretorio.resolve(nome + ".dbf");
+        this.shp = abrir(arquivoShp);
+        this.shx = abrir(arquivoShx);
+        this.dbf = abrir(arquivoDbf);
+
+        // Reserva os cabeçalhos; o conteúdo definitivo é escrito em finalizar()
+        shp.position(TAMANHO_CABECALHO);
+        shx.position(TAMANHO_CABECALHO);
+        dbf.position(TAMANHO_CABECALHO_DBF);
+    }
+
+    /**
+     * Tipo de shape correspondente à geometria, ou null para coleções heterogêneas
+     */
+    static Integer tipoPara(Geometry geometria) {
+        if (geometria instanceof GeometryCollection && !(geometria instanceof MultiPoint
+                || geometria instanceof MultiLineString || geometria instanceof MultiPolygon)) {
+            return null;
+        }
+        return switch (geometria.getDimension()) {
+            case 0 -> TIPO_PONTOS;
+            case 1 -> TIPO_LINHAS;
+            case 2 -> TIPO_POLIGONOS;
+            default -> null;
+        };
+    }
+
+    List<Path> arquivos() {
+        return List.of(arquivoShp, arquivoShx, arquivoDbf);
+    }
+
+    void escrever(FeicaoCamada feicao) throws IOException {
+        Geometry geometria = feicao.getGeometria();
+        Envelope envelope = geometria.getEnvelopeInternal();
+        extensao.expandToInclude(envelope);
+        quantidade++;
+
+        ByteBuffer conteudo = switch (tipo) {
+            case TIPO_PONTOS -> conteudoPontos(geometria, envelope);
+            case TIPO_LINHAS -> conteudoPartes(geometria, envelope, false);
+            default -> conteudoPartes(geometria, envelope, true);
+        };
+
+        int palavras = conteudo.limit() / 2;
+        ByteBuffer cabecalhoRegistro = ByteBuffer.allocate(8).order(ByteOrder.BIG_ENDIAN);
+        cabecalhoRegistro.putInt(quantidade).putInt(palavras).flip();
+        escreverTudo(shp, cabecalhoRegistro);
+        escreverTudo(shp, conteudo);
+
+        indice.clear();
+        indice.putInt(posicaoShp).putInt(palavras).flip();
+        escreverTudo(shx, indice);
+        posicaoShp += 4 + palavras;
+
+        escreverRegistroDbf(feicao);
+    }
+
+    void finalizar() throws IOException {
+        escreverCabecalhoShp(shp, posicaoShp);
+        escreverCabecalhoShp(shx, (TAMANHO_CABECALHO + 8 * quantidade) / 2);
+
+        dbf.position(dbf.size());
+        escreverTudo(dbf, ByteBuffer.wrap(new byte[]{0x1A}));
+        escreverCabecalhoDbf();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try (shp; shx) {
+            dbf.close();
+        }
+    }
+
+    private ByteBuffer conteudoPontos(Geometry geometria, Envelope envelope) {
+        int pontos = geometria.getNumPoints();
+        ByteBuffer buffer = ByteBuffer.allocate(4 + 32 + 4 + 16 * pontos).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(tipo);
+        escreverEnvelope(buffer, envelope);
+        buffer.putInt(pontos);
+        for (int i = 0; i < geometria.getNumGeometries(); i++) {
+            CoordinateSequence sequencia = ((Point) geometria.getGeometryN(i))
+                    .getCoordinateSequence();
+            if (sequencia.size() > 0) {
+                buffer.putDouble(sequencia.getX(0)).putDouble(sequencia.getY(0));
+            }
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * Linhas e polígonos: cada linha ou anel é uma parte. Nos polígonos o anel externo
+     * fica em sentido horário e os furos em sentido anti-horário, como exige o formato.
+     */
+    private ByteBuffer conteudoPartes(Geometry geometria, Envelope envelope, boolean poligono) {
+        int partes = 0;
+        int pontos = 0;
+        for (int i = 0; i < geometria.getNumGeometries(); i++) {
+            Geometry parte = geometria.getGeometryN(i);
+            if (poligono) {
+                Polygon p = (Polygon) parte;
+                if (p.isEmpty()) {
+                    continue;
+                }
+                partes += 1 + p.getNumInteriorRing();
+            } else {
+                partes++;
+            }
+            pontos += parte.getNumPoints();
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(4 + 32 + 8 + 4 * partes + 16 * pontos)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(tipo);
+        escreverEnvelope(buffer, envelope);
+        buffer.putInt(partes).putInt(pontos);
+
+        int posicaoPartes = buffer.position();
+        int posicaoPontos = posicaoPartes + 4 * partes;
+        int inicioParte = 0;
+        buffer.position(posicaoPontos);
+
+        for (int i = 0; i < geometria.getNumGeometries(); i++) {
+            Geometry parte = geometria.getGeometryN(i);
+            if (poligono) {
+                Polygon p = (Polygon) parte;
+                if (p.isEmpty()) {
+                    continue;
+                }
+                buffer.putInt(posicaoPartes, inicioParte);
+                posicaoPartes += 4;
+                inicioParte += escreverAnel(buffer, p.getExteriorRing(), true);
+                for (int j = 0; j < p.getNumInteriorRing(); j++) {
+                    buffer.putInt(posicaoPartes, inicioParte);
+                    posicaoPartes += 4;
+                    inicioParte += escreverAnel(buffer, p.getInteriorRingN(j), false);
+                }
+            } else {
+                buffer.putInt(posicaoPartes, inicioParte);
+                posicaoPartes += 4;
+                CoordinateSequence sequencia = ((LineString) parte).getCoordinateSequence();
+                for (int k = 0; k < sequencia.size(); k++) {
+                    buffer.putDouble(sequencia.getX(k)).putDouble(sequencia.getY(k));
+                }
+                inicioParte += sequencia.size();
+            }
+        }
+        return buffer.flip();
+    }
+
+    private static int escreverAnel(ByteBuffer buffer, LineString anel, boolean horario) {
+        CoordinateSequence sequencia = anel.getCoordinateSequence();
+        int n = sequencia.size();
+        boolean inverter = n > 3 && Orientation.isCCW(sequencia) == horario;
+        for (int k = 0; k < n; k++) {
+            int indice = inverter ? n - 1 - k : k;
+            buffer.putDouble(sequencia.getX(indice)).putDouble(sequencia.getY(indice));
+        }
+        return n;
+    }
+
+    private void escreverRegistroDbf(FeicaoCamada feicao) throws IOException {
+        registroDbf.clear();
+        registroDbf.put((byte) ' ');
+        campoNumerico(CAMPOS.get(0), feicao.getIdtCamadaImovel() != null
+                ? BigDecimal.valueOf(feicao.getIdtCamadaImovel()) : null);
+        campoTexto(CAMPOS.get(1), feicao.getCodTema());
+        campoTexto(CAMPOS.get(2), feicao.getNomTema());
+        campoNumerico(CAMPOS.get(3), feicao.getNumArea());
+        campoTexto(CAMPOS.get(4), feicao.getDataCriacao() != null
+                ? feicao.getDataCriacao().toLocalDate().toString().replace("-", "") : null);
+        campoTexto(CAMPOS.get(5), feicao.getDataUltimaAtualizacao() != null
+                ? feicao.getDataUltimaAtualizacao().toLocalDate().toString().replace("-", "") : null);
+        registroDbf.flip();
+        escreverTudo(dbf, registroDbf);
+    }
+
+    private void campoTexto(CampoDbf campo, String valor) {
+        int inicio = registroDbf.position();
+        if (valor != null) {
+            byte[] bytes = valor.getBytes(StandardCharsets.UTF_8);
+            int tamanho = Math.min(bytes.length, campo.tamanho());
+            // Não corta um caractere multibyte ao meio
+            while (tamanho > 0 && tamanho < bytes.length && (bytes[tamanho] & 0xC0) == 0x80) {
+                tamanho--;
+            }
+            registroDbf.put(bytes, 0, tamanho);
+        }
+        while (registroDbf.position() < inicio + campo.tamanho()) {
+            registroDbf.put((byte) ' ');
+        }
+    }
+
+    private void campoNumerico(CampoDbf campo, BigDecimal valor) {
+        String texto = valor != null
+                ? valor.setScale(campo.decimais(), RoundingMode.HALF_UP).toPlainString()
+                : "";
+        if (texto.length() > campo.tamanho()) {
+            texto = "";
+        }
+        for (int i = texto.length(); i < campo.tamanho(); i++) {
+            registroDbf.put((byte) ' ');
+        }
+        registroDbf.put(texto.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private void escreverCabecalhoShp(FileChannel canal, int tamanhoEmPalavras) throws IOException {
+        ByteBuffer cabecalho = ByteBuffer.allocate(TAMANHO_CABECALHO);
+        cabecalho.order(ByteOrder.BIG_ENDIAN);
+        cabecalho.putInt(CODIGO_ARQUIVO);
+        cabecalho.position(24);
+        cabecalho.putInt(tamanhoEmPalavras);
+        cabecalho.order(ByteOrder.LITTLE_ENDIAN);
+        cabecalho.putInt(VERSAO);
+        cabecalho.putInt(tipo);
+        escreverEnvelope(cabecalho, extensao);
+        cabecalho.position(TAMANHO_CABECALHO);
+        cabecalho.flip();
+        canal.position(0);
+        escreverTudo(canal, cabecalho);
+    }
+
+    private void escreverCabecalhoDbf() throws IOException {
+        ByteBuffer cabecalho = ByteBuffer.allocate(TAMANHO_CABECALHO_DBF).order(ByteOrder.LITTLE_ENDIAN);
+        LocalDate hoje = LocalDate.now();
+        cabecalho.put((byte) 0x03);
+        cabecalho.put((byte) (hoje.getYear() - 1900));
+        cabecalho.put((byte) hoje.getMonthValue());
+        cabecalho.put((byte) hoje.getDayOfMonth());
+        cabecalho.putInt(quantidade);
+        cabecalho.putShort((short) TAMANHO_CABECALHO_DBF);
+        cabecalho.putShort((short) TAMANHO_REGISTRO_DBF);
+        cabecalho.position(32);
+
+        for (CampoDbf campo : CAMPOS) {
+            int inicio = cabecalho.position();
+            cabecalho.put(campo.nome().getBytes(StandardCharsets.US_ASCII));
+            cabecalho.position(inicio + 11);
+            cabecalho.put((byte) campo.tipo());
+            cabecalho.position(inicio + 16);
+            cabecalho.put((byte) campo.tamanho());
+            cabecalho.put((byte) campo.decimais());
+            cabecalho.position(inicio + 32);
+        }
+        cabecalho.put((byte) 0x0D);
+        cabecalho.flip();
+
+        dbf.position(0);
+        escreverTudo(dbf, cabecalho);
+    }
+
+    private static void escreverEnvelope(ByteBuffer buffer, Envelope envelope) {
+        if (envelope.isNull()) {
+            buffer.putDouble(0).putDouble(0).putDouble(0).putDouble(0);
+            return;
+        }
+        buffer.putDouble(envelope.getMinX()).putDouble(envelope.getMinY())
+                .putDouble(envelope.getMaxX()).putDouble(envelope.getMaxY());
+    }
+
+    private static FileChannel abrir(Path arquivo) throws IOException {
+        return FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    private static void escreverTudo(FileChannel canal, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+    }
+
+    private record CampoDbf(String nome, char tipo, int tamanho, int decimais) {
+    }
+}
@@ -0,0 +1,161 @@
+package br.vegamonitoramento.caronline.export;
+
+import br.vegamonitoramento.caronline.geometry.Geometrias;
+import br.vegamonitoramento.caronline.model.FeicaoCamada;
+import lombok.extern.slf4j.Slf4j;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryCollection;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Exporta as feições como shapefiles compactados em ZIP, um por tipo de geometria.
+ * Os cabeçalhos do formato exigem o total de registros e a extensão, então os arquivos
+ * são gravados em disco durante a leitura (memória constante) e compactados direto
+ * na saída ao final.
+ * <p>
+ * Uma GeometryCollection heterogênea não cabe num shapefile: as partes são agrupadas por tipo
+ * e a feição entra no arquivo de cada tipo, com os mesmos atributos. Coleções sem nenhuma parte
+ * exportável (vazias) são contadas e informadas no LEIAME.txt do ZIP.
+ */
+@Slf4j
+class ShapefileExportador implements ExportadorCamadas {
+
+    // WKT do EPSG:4326, usado no .prj de todos os arquivos
+    private static final String PRJ_WGS84 = "GEOGCS[\"GCS_WGS_1984\",DATUM[\"D_WGS_1984\","
+            + "SPHEROID[\"WGS_1984\",6378137.0,298.257223563]],PRIMEM[\"Greenwich\",0.0],"
+            + "UNIT[\"Degree\",0.0174532925199433]]";
+
+    private final OutputStream saida;
+    private final String nomeBase;
+    private final Path diretorio;
+    private final Map<Integer, ShapefileEscritor> escritores = new LinkedHashMap<>();
+    private long ignoradas;
+
+    ShapefileExportador(OutputStream saida, String nomeBase) throws IOException {
+        this.saida = saida;
+        this.nomeBase = nomeBase;
+        this.diretorio = Files.createTempDirectory("caronline-shp-");
+    }
+
+    @Override
+    public void escrever(FeicaoCamada feicao) throws IOException {
+        Integer tipo = ShapefileEscritor.tipoPara(feicao.getGeometria());
+        if (tipo != null) {
+            escrever(tipo, feicao);
+            return;
+        }
+
+        Map<Integer, List<Geometry>> partes = new LinkedHashMap<>();
+        separarPorTipo(feicao.getGeometria(), partes);
+        if (partes.isEmpty()) {
+            ignoradas++;
+            return;
+        }
+        for (Map.Entry<Integer, List<Geometry>> entrada : partes.entrySet()) {
+            FeicaoCamada parte = new FeicaoCamada(feicao.getIdtCamadaImovel(), feicao.getIdtTema(),
+                    feicao.getCodTema(), feicao.getNomTema(), feicao.getNumArea(),
+                    Geometrias.FACTORY.buildGeometry(entrada.getValue()), feicao.getDataCriacao(),
+                    feicao.getDataUltimaAtualizacao(), feicao.getCodFeicao(), feicao.getCodHash(),
+                    feicao.getNumRevisao());
+            escrever(entrada.getKey(), parte);
+        }
+    }
+
+    private void escrever(int tipo, FeicaoCamada feicao) throws IOException {
+        ShapefileEscritor escritor = escritores.get(tipo);
+        if (escritor == null) {
+            escritor = new ShapefileEscritor(tipo, diretorio, nomeBase + "_" + sufixo(tipo));
+            escritores.put(tipo, escritor);
+        }
+        escritor.escrever(feicao);
+    }
+
+    @Override
+    public void finalizar() throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(saida, StandardCharsets.UTF_8);
+
+        for (Map.Entry<Integer, ShapefileEscritor> entrada : escritores.entrySet()) {
+            ShapefileEscritor escritor = entrada.getValue();
+            escritor.finalizar();
+            escritor.close();
+
+            for (Path arquivo : escritor.arquivos()) {
+                zip.putNextEntry(new ZipEntry(arquivo.getFileName().toString()));
+                Files.copy(arquivo, zip);
+                zip.closeEntry();
+            }
+
+            String nome = nomeBase + "_" + sufixo(entrada.getKey());
+            adicionarTexto(zip, nome + ".prj", PRJ_WGS84);
+            adicionarTexto(zip, nome + ".cpg", "UTF-8");
+        }
+
+        if (ignoradas > 0) {
+            log.warn("Exportação {}: {} feições sem geometria exportável para shapefile foram omitidas",
+                    nomeBase, ignoradas);
+            adicionarTexto(zip, "LEIAME.txt", "Feições omitidas por terem coleções de geometrias vazias, "
+                    + "sem representação em shapefile: " + ignoradas + "\n");
+        }
+
+        // Conclui o ZIP sem fechar a saída do container
+        zip.finish();
+        zip.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        List<IOException> erros = new ArrayList<>();
+        for (ShapefileEscritor escritor : escritores.values()) {
+            try {
+                escritor.close();
+            } catch (IOException e) {
+                erros.add(e);
+            }
+        }
+        FileSystemUtils.deleteRecursively(diretorio);
+        if (!erros.isEmpty()) {
+            throw erros.get(0);
+        }
+    }
+
+    /**
+     * Partes simples e não vazias da coleção, agrupadas pelo tipo de shapefile
+     */
+    private static void separarPorTipo(Geometry geometria, Map<Integer, List<Geometry>> partes) {
+        for (int i = 0; i < geometria.getNumGeometries(); i++) {
+            Geometry parte = geometria.getGeometryN(i);
+            // Multi* também são abertas: buildGeometry só junta geometrias simples do mesmo tipo
+            if (parte instanceof GeometryCollection) {
+                separarPorTipo(parte, partes);
+            } else if (!parte.isEmpty()) {
+                partes.computeIfAbsent(ShapefileEscritor.tipoPara(parte), t -> new ArrayList<>()).add(parte);
+            }
+        }
+    }
+
+    private static void adicionarTexto(ZipOutputStream zip, String nome, String conteudo) throws IOException {
+        zip.putNextEntry(new ZipEntry(nome));
+        zip.write(conteudo.getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+
+    private static String sufixo(int tipo) {
+        return switch (tipo) {
+            case ShapefileEscritor.TIPO_PONTOS -> "pontos";
+            case ShapefileEscritor.TIPO_LINHAS -> "linhas";
+            default -> "poligonos";
+        };
+    }
+}
@@ -0,0 +1,33 @@
+package br.vegamonitoramento.caronline.export;
+
+import br.vegamonitoramento.caronline.model.FeicaoCamada;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Exporta as feições no formato binário {@link CamadasTwkb}, escrito em fluxo
+ */
+class TwkbExportador implements ExportadorCamadas {
+
+    private final OutputStream saida;
+    // Reaproveitado entre feições para medir cada registro antes de escrevê-lo
+    private final ByteArrayOutputStream registro = new ByteArrayOutputStream(4096);
+
+    TwkbExportador(OutputStream saida) throws IOException {
+        this.saida = saida;
+        CamadasTwkb.escreverCabecalho(saida);
+    }
+
+    @Override
+    public void escrever(FeicaoCamada feicao) throws IOException {
+        CamadasTwkb.escrever(feicao, registro, saida);
+    }
+
+    @Override
+    public void finalizar() throws IOException {
+        CamadasTwkb.escreverFim(saida);
+        saida.flush();
+    }
+}
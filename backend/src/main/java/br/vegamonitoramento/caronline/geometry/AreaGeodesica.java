@@ -0,0 +1,75 @@
+package br.vegamonitoramento.caronline.geometry;
+
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Polygon;
+
+/**
+ * Área de geometrias em coordenadas geográficas (graus), medida na Albers do IBGE
+ * ({@link ProjecaoAlbers#BRASIL}): a projeção é equivalente, então a área plana é a área no
+ * elipsoide GRS80. É o único modelo de área da aplicação; numArea, quadro de áreas,
+ * sobreposições, topologia e /api/geometria/areas usam todos esta classe.
+ */
+public final class AreaGeodesica {
+
+    private static final double METROS_QUADRADOS_POR_HECTARE = 10_000.0;
+
+    private AreaGeodesica() {
+    }
+
+    public static double hectares(Geometry geometria) {
+        return metrosQuadrados(geometria) / METROS_QUADRADOS_POR_HECTARE;
+    }
+
+    public static double metrosQuadrados(Geometry geometria) {
+        if (geometria == null || geometria.isEmpty() || geometria.getDimension() < 2) {
+            return 0.0;
+        }
+
+        double area = 0.0;
+        for (int i = 0; i < geometria.getNumGeometries(); i++) {
+            Geometry parte = geometria.getGeometryN(i);
+            if (parte instanceof Polygon poligono) {
+                area += Math.abs(areaAnel(poligono.getExteriorRing().getCoordinateSequence()));
+                for (int j = 0; j < poligono.getNumInteriorRing(); j++) {
+                    area -= Math.abs(areaAnel(poligono.getInteriorRingN(j).getCoordinateSequence()));
+                }
+            } else if (parte != geometria) {
+                area += metrosQuadrados(parte);
+            }
+        }
+        return area;
+    }
+
+    /**
+     * Área de um anel projetado vértice a vértice, sem alocar coordenadas. A fórmula do
+     * trapézio usa coordenadas relativas ao primeiro vértice: os valores absolutos da
+     * projeção (milhões de metros) custariam a precisão de anéis pequenos.
+     */
+    private static double areaAnel(CoordinateSequence anel) {
+        int n = anel.size();
+        if (n < 4) {
+            return 0.0;
+        }
+
+        double[] xy = {anel.getX(0), anel.getY(0)};
+        ProjecaoAlbers.BRASIL.deGeograficas(xy, 0);
+        double x0 = xy[0];
+        double y0 = xy[1];
+
+        double soma = 0.0;
+        double xAnterior = 0.0;
+        double yAnterior = 0.0;
+        for (int i = 1; i < n; i++) {
+            xy[0] = anel.getX(i);
+            xy[1] = anel.getY(i);
+            ProjecaoAlbers.BRASIL.deGeograficas(xy, 0);
+            double x = xy[0] - x0;
+            double y = xy[1] - y0;
+            soma += xAnterior * y - x * yAnterior;
+            xAnterior = x;
+            yAnterior = y;
+        }
+        return soma / 2.0;
+    }
+}
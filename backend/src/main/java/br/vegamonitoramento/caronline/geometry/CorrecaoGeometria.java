@@ -0,0 +1,22 @@
+package br.vegamonitoramento.caronline.geometry;
+
+/**
+ * Correções aplicadas por {@link NormalizacaoGeometria}
+ */
+public enum CorrecaoGeometria {
+
+    /** Coordenadas arredondadas para a grade da precisão fixa */
+    PRECISAO,
+
+    /** Vértices consecutivos iguais removidos */
+    VERTICE_REPETIDO,
+
+    /** Vértices alinhados com os vizinhos (inclusive espinhos de largura zero) removidos */
+    VERTICE_COLINEAR,
+
+    /** Autointerseções ou anéis degenerados reparados */
+    GEOMETRIA_INVALIDA,
+
+    /** Anéis reorientados: externo anti-horário, furos horários */
+    ORIENTACAO
+}
@@ -0,0 +1,129 @@
+package br.vegamonitoramento.caronline.geometry;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
+
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * Converte geometrias GeoJSON (já lidas pelo Jackson) diretamente em geometrias JTS,
+ * sem serializar novamente para texto.
+ */
+public final class GeoJsonGeometryReader {
+
+    private final GeometryFactory factory;
+
+    public GeoJsonGeometryReader() {
+        this(Geometrias.FACTORY);
+    }
+
+    public GeoJsonGeometryReader(GeometryFactory factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * Lê um objeto "geometry" do GeoJSON
+     * @throws IllegalArgumentException se a geometria for inválida ou de tipo não suportado
+     */
+    public Geometry read(JsonNode geometria) {
+        if (geometria == null || geometria.isNull() || !geometria.isObject()) {
+            throw new IllegalArgumentException("Geometria GeoJSON ausente");
+        }
+
+        String tipo = geometria.path("type").asText();
+        JsonNode coordenadas = geometria.get("coordinates");
+
+        return switch (tipo) {
+            case "Point" -> lerPonto(coordenadas);
+            case "MultiPoint" -> factory.createMultiPoint(lerArray(coordenadas, Point[]::new, this::lerPonto));
+            case "LineString" -> lerLinha(coordenadas);
+            case "MultiLineString" -> factory.createMultiLineString(
+                    lerArray(coordenadas, LineString[]::new, this::lerLinha));
+            case "Polygon" -> lerPoligono(coordenadas);
+            case "MultiPolygon" -> factory.createMultiPolygon(
+                    lerArray(coordenadas, Polygon[]::new, this::lerPoligono));
+            case "GeometryCollection" -> factory.createGeometryCollection(
+                    lerArray(geometria.get("geometries"), Geometry[]::new, this::read));
+            default -> throw new IllegalArgumentException("Tipo de geometria GeoJSON não suportado: " + tipo);
+        };
+    }
+
+    private Point lerPonto(JsonNode coordenada) {
+        return factory.createPoint(lerCoordenada(coordenada));
+    }
+
+    private LineString lerLinha(JsonNode coordenadas) {
+        return factory.createLineString(lerCoordenadas(coordenadas));
+    }
+
+    private Polygon lerPoligono(JsonNode aneis) {
+        exigirArray(aneis);
+        if (aneis.isEmpty()) {
+            return factory.createPolygon();
+        }
+
+        LinearRing exterior = lerAnel(aneis.get(0));
+        LinearRing[] interiores = new LinearRing[aneis.size() - 1];
+        for (int i = 1; i < aneis.size(); i++) {
+            interiores[i - 1] = lerAnel(aneis.get(i));
+        }
+        return factory.createPolygon(exterior, interiores);
+    }
+
+    private LinearRing lerAnel(JsonNode coordenadas) {
+        Coordinate[] anel = lerCoordenadas(coordenadas);
+        // Fecha o anel quando o cliente omitir a repetição do primeiro vértice
+        if (anel.length > 0 && !anel[0].equals2D(anel[anel.length - 1])) {
+            Coordinate[] fechado = new Coordinate[anel.length + 1];
+            System.arraycopy(anel, 0, fechado, 0, anel.length);
+            fechado[anel.length] = anel[0].copy();
+            anel = fechado;
+        }
+        if (anel.length > 0 && anel.length < 4) {
+            throw new IllegalArgumentException("Anel de polígono com menos de 4 vértices");
+        }
+        return factory.createLinearRing(anel);
+    }
+
+    private Coordinate[] lerCoordenadas(JsonNode coordenadas) {
+        exigirArray(coordenadas);
+        Coordinate[] resultado = new Coordinate[coordenadas.size()];
+        for (int i = 0; i < resultado.length; i++) {
+            resultado[i] = lerCoordenada(coordenadas.get(i));
+        }
+        return resultado;
+    }
+
+    private static Coordinate lerCoordenada(JsonNode posicao) {
+        if (posicao == null || !posicao.isArray() || posicao.size() < 2) {
+            throw new IllegalArgumentException("Posição GeoJSON inválida: " + posicao);
+        }
+        // asDouble() transformaria texto e null em 0, um vértice fora do lugar em vez de um erro
+        if (!posicao.get(0).isNumber() || !posicao.get(1).isNumber()) {
+            throw new IllegalArgumentException("Coordenada GeoJSON não numérica: " + posicao);
+        }
+        return new Coordinate(posicao.get(0).doubleValue(), posicao.get(1).doubleValue());
+    }
+
+    private static <T> T[] lerArray(JsonNode itens, IntFunction<T[]> criarArray, Function<JsonNode, T> lerItem) {
+        exigirArray(itens);
+        T[] resultado = criarArray.apply(itens.size());
+        for (int i = 0; i < resultado.length; i++) {
+            resultado[i] = lerItem.apply(itens.get(i));
+        }
+        return resultado;
+    }
+
+    private static void exigirArray(JsonNode node) {
+        if (node == null || !node.isArray()) {
+            throw new IllegalArgumentException("Coordenadas GeoJSON ausentes ou inválidas");
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package br.vegamonitoramento.caronline.geometry;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryCollection;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.MultiLineString;
+import org.locationtech.jts.geom.MultiPoint;
+import org.locationtech.jts.geom.MultiPolygon;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
+
+import java.io.IOException;
+
+/**
+ * Escreve geometrias JTS como GeoJSON diretamente num {@link JsonGenerator},
+ * sem montar árvores intermediárias em memória.
+ */
+public final class GeoJsonGeometryWriter {
+
+    private GeoJsonGeometryWriter() {
+    }
+
+    public static void write(Geometry geometria, JsonGenerator gerador) throws IOException {
+        gerador.writeStartObject();
+        gerador.writeStringField("type", geometria.getGeometryType());
+
+        if (geometria instanceof Point ponto) {
+            gerador.writeFieldName("coordinates");
+            escreverPosicao(ponto.getCoordinateSequence(), 0, gerador);
+        } else if (geometria instanceof LineString linha) {
+            gerador.writeFieldName("coordinates");
+            escreverSequencia(linha.getCoordinateSequence(), gerador);
+        } else if (geometria instanceof Polygon poligono) {
+            gerador.writeFieldName("coordinates");
+            escreverPoligono(poligono, gerador);
+        } else if (geometria instanceof MultiPoint || geometria instanceof MultiLineString
+                || geometria instanceof MultiPolygon) {
+            gerador.writeFieldName("coordinates");
+            gerador.writeStartArray();
+            for (int i = 0; i < geometria.getNumGeometries(); i++) {
+                Geometry parte = geometria.getGeometryN(i);
+                if (parte instanceof Point ponto) {
+                    escreverPosicao(ponto.getCoordinateSequence(), 0, gerador);
+                } else if (parte instanceof LineString linha) {
+                    escreverSequencia(linha.getCoordinateSequence(), gerador);
+                } else {
+                    escreverPoligono((Polygon) parte, gerador);
+                }
+            }
+            gerador.writeEndArray();
+        } else if (geometria instanceof GeometryCollection) {
+            gerador.writeArrayFieldStart("geometries");
+            for (int i = 0; i < geometria.getNumGeometries(); i++) {
+                write(geometria.getGeometryN(i), gerador);
+            }
+            gerador.writeEndArray();
+        }
+
+        gerador.writeEndObject();
+    }
+
+    private static void escreverPoligono(Polygon poligono, JsonGenerator gerador) throws IOException {
+        gerador.writeStartArray();
+        if (!poligono.isEmpty()) {
+            escreverSequencia(poligono.getExteriorRing().getCoordinateSequence(), gerador);
+            for (int i = 0; i < poligono.getNumInteriorRing(); i++) {
+                escreverSequencia(poligono.getInteriorRingN(i).getCoordinateSequence(), gerador);
+            }
+        }
+        gerador.writeEndArray();
+    }
+
+    private static void escreverSequencia(CoordinateSequence sequencia, JsonGenerator gerador) throws IOException {
+        gerador.writeStartArray();
+        for (int i = 0; i < sequencia.size(); i++) {
+            escreverPosicao(sequencia, i, gerador);
+        }
+        gerador.writeEndArray();
+    }
+
+    private static void escreverPosicao(CoordinateSequence sequencia, int indice, JsonGenerator gerador)
+            throws IOException {
+        gerador.writeStartArray();
+        if (sequencia.size() > indice) {
+            gerador.writeNumber(sequencia.getX(indice));
+            gerador.writeNumber(sequencia.getY(indice));
+        }
+        gerador.writeEndArray();
+    }
+}
@@ -0,0 +1,109 @@
+package br.vegamonitoramento.caronline.geometry;
+
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.simplify.TopologyPreservingSimplifier;
+
+/**
+ * Geometria com versões simplificadas pré-calculadas (níveis de detalhe) para faixas de zoom.
+ * O nível 0 é a geometria original; os demais usam {@link TopologyPreservingSimplifier} com
+ * tolerância de meio pixel nos zooms 14, 12, 10, 8 e 6, de modo que a diferença não é visível
+ * na escala em que o nível é servido.
+ * <p>
+ * Cada nível é simplificado a partir do anterior, que já tem menos vértices. Os zooms dos níveis
+ * distam 2, então a tolerância quadruplica a cada nível e o desvio acumulado fica abaixo de 4/3
+ * da tolerância do nível (1 + 1/4 + 1/16 + ...), dois terços de pixel.
+ */
+public final class GeometriaMultiNivel {
+
+    private static final int TAMANHO_TILE = 256;
+
+    // Zoom em que cada nível passa a ser usado; o nível 0 (original) vale acima do primeiro
+    private static final int[] ZOOMS = {14, 12, 10, 8, 6};
+
+    // Cabeçalhos da geometria, dos anéis e das sequências de coordenadas, aproximados
+    private static final int BYTES_POR_GEOMETRIA = 128;
+    // Cada Coordinate do JTS: cabeçalho e três doubles, mais a referência no array
+    private static final int BYTES_POR_VERTICE = 48;
+
+    private final Geometry[] niveis;
+
+    private GeometriaMultiNivel(Geometry[] niveis) {
+        this.niveis = niveis;
+    }
+
+    public static GeometriaMultiNivel de(Geometry geometria) {
+        Geometry[] niveis = new Geometry[ZOOMS.length + 1];
+        niveis[0] = geometria;
+        for (int i = 1; i < niveis.length; i++) {
+            Geometry anterior = niveis[i - 1];
+            Geometry simplificada = TopologyPreservingSimplifier.simplify(anterior, tolerancia(i));
+            // Sem ganho de vértices, reaproveita a instância do nível anterior
+            niveis[i] = simplificada.getNumPoints() < anterior.getNumPoints() ? simplificada : anterior;
+        }
+        return new GeometriaMultiNivel(niveis);
+    }
+
+    public Geometry getGeometria(int nivel) {
+        return niveis[Math.max(0, Math.min(nivel, niveis.length - 1))];
+    }
+
+    public Geometry getOriginal() {
+        return niveis[0];
+    }
+
+    /**
+     * Memória aproximada ocupada pelos níveis; instâncias reaproveitadas contam uma vez
+     */
+    public long bytesEstimados() {
+        long bytes = 0;
+        for (int i = 0; i < niveis.length; i++) {
+            if (i == 0 || niveis[i] != niveis[i - 1]) {
+                bytes += BYTES_POR_GEOMETRIA + (long) BYTES_POR_VERTICE * niveis[i].getNumPoints();
+            }
+        }
+        return bytes;
+    }
+
+    public static int getQuantidadeNiveis() {
+        return ZOOMS.length + 1;
+    }
+
+    /**
+     * Tolerância de simplificação do nível, em graus
+     */
+    public static double tolerancia(int nivel) {
+        return nivel <= 0 ? 0.0 : meioPixel(ZOOMS[Math.min(nivel, ZOOMS.length) - 1]);
+    }
+
+    /**
+     * Nível para a requisição: a tolerância (em graus), quando informada, tem precedência sobre o zoom.
+     * Escolhe o nível mais simplificado cuja tolerância não passa da pedida; sem parâmetros, o original.
+     * @throws IllegalArgumentException se zoom ou tolerância forem negativos
+     */
+    public static int nivel(Double zoom, Double tolerancia) {
+        if (tolerancia != null) {
+            if (tolerancia < 0 || tolerancia.isNaN()) {
+                throw new IllegalArgumentException("Tolerância inválida: " + tolerancia);
+            }
+            int nivel = 0;
+            while (nivel < ZOOMS.length && tolerancia(nivel + 1) <= tolerancia) {
+                nivel++;
+            }
+            return nivel;
+        }
+        if (zoom != null) {
+            if (zoom < 0 || zoom.isNaN()) {
+                throw new IllegalArgumentException("Zoom inválido: " + zoom);
+            }
+            return nivel(null, meioPixel(zoom));
+        }
+        return 0;
+    }
+
+    /**
+     * Meio pixel em graus de longitude no zoom informado (tiles de 256 pixels)
+     */
+    private static double meioPixel(double zoom) {
+        return 180.0 / (TAMANHO_TILE * Math.pow(2, zoom));
+    }
+}
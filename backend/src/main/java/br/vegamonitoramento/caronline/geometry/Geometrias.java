@@ -0,0 +1,28 @@
+package br.vegamonitoramento.caronline.geometry;
+
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.PrecisionModel;
+
+/**
+ * Constantes e fábricas compartilhadas para manipulação de geometrias
+ */
+public final class Geometrias {
+
+    /**
+     * SRID das geometrias trocadas com o frontend (GeoJSON em WGS84)
+     */
+    public static final int SRID_GEOJSON = 4326;
+
+    /**
+     * SRID em que as camadas são armazenadas no banco (SIRGAS 2000)
+     */
+    public static final int SRID_ARMAZENAMENTO = 4674;
+
+    /**
+     * Fábrica usada para todas as geometrias recebidas em GeoJSON
+     */
+    public static final GeometryFactory FACTORY = new GeometryFactory(new PrecisionModel(), SRID_GEOJSON);
+
+    private Geometrias() {
+    }
+}
@@ -0,0 +1,47 @@
+package br.vegamonitoramento.caronline.geometry;
+
+/**
+ * Parâmetros do elipsoide GRS80 (SIRGAS 2000), usados também para o WGS84: a diferença
+ * entre os dois é de décimos de milímetro no semieixo menor
+ */
+final class Grs80 {
+
+    static final double A = 6_378_137.0;
+    static final double F = 1 / 298.257222101;
+    static final double E2 = F * (2 - F);
+    static final double E = Math.sqrt(E2);
+
+    // q no polo (Snyder, eq. 3-12 com φ = 90°)
+    static final double QP = q(1.0);
+
+    private Grs80() {
+    }
+
+    /**
+     * Função q de Snyder (eq. 3-12), proporcional à área entre o equador e a latitude
+     */
+    static double q(double senoLat) {
+        double eSeno = E * senoLat;
+        return (1 - E2) * (senoLat / (1 - eSeno * eSeno) - Math.log((1 - eSeno) / (1 + eSeno)) / (2 * E));
+    }
+
+    /**
+     * Seno da latitude autálica: na esfera de mesma área, as faixas entre paralelos têm a
+     * mesma área que no elipsoide
+     */
+    static double senoLatitudeAutalica(double latitudeGraus) {
+        return q(Math.sin(Math.toRadians(latitudeGraus))) / QP;
+    }
+
+    /**
+     * Latitude geodésica (radianos) a partir da autálica, pela série de Snyder (eq. 3-18)
+     */
+    static double latitudeDeAutalica(double beta) {
+        double e4 = E2 * E2;
+        double e6 = e4 * E2;
+        return beta
+                + (E2 / 3 + 31 * e4 / 180 + 517 * e6 / 5040) * Math.sin(2 * beta)
+                + (23 * e4 / 360 + 251 * e6 / 3780) * Math.sin(4 * beta)
+                + (761 * e6 / 45360) * Math.sin(6 * beta);
+    }
+}
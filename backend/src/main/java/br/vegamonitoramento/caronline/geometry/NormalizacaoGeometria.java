@@ -0,0 +1,237 @@
+package br.vegamonitoramento.caronline.geometry;
+
+import org.locationtech.jts.algorithm.Orientation;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryCollection;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.geom.MultiLineString;
+import org.locationtech.jts.geom.MultiPoint;
+import org.locationtech.jts.geom.MultiPolygon;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.locationtech.jts.geom.util.GeometryFixer;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Normalização das geometrias recebidas antes de gravar ou validar: arredonda as coordenadas
+ * para uma precisão fixa, remove vértices repetidos e colineares, repara geometrias inválidas
+ * (semântica do makeValid) e orienta os anéis como no GeoJSON (RFC 7946). O resultado é
+ * estável: normalizar de novo uma geometria normalizada não a altera.
+ * <p>
+ * Geometrias que se anulam na normalização (um polígono sem área, por exemplo) são devolvidas
+ * como chegaram, para que a validação aponte o problema.
+ */
+public final class NormalizacaoGeometria {
+
+    private final PrecisionModel precisao;
+
+    /**
+     * @param escala fator da grade, em unidades por grau: 1e7 arredonda para ~1 cm
+     */
+    public NormalizacaoGeometria(double escala) {
+        this.precisao = new PrecisionModel(escala);
+    }
+
+    public Resultado normalizar(Geometry geometria) {
+        Set<CorrecaoGeometria> correcoes = EnumSet.noneOf(CorrecaoGeometria.class);
+        if (geometria == null || geometria.isEmpty()) {
+            return new Resultado(geometria, correcoes);
+        }
+
+        Geometry normalizada = limpar(geometria, correcoes);
+        if (!normalizada.isEmpty() && !normalizada.isValid()) {
+            correcoes.add(CorrecaoGeometria.GEOMETRIA_INVALIDA);
+            Geometry reparada = GeometryFixer.fix(normalizada);
+            // Os nós criados pelo reparo também vão para a grade, a menos que isso desfaça o reparo
+            Geometry naGrade = limpar(reparada, EnumSet.noneOf(CorrecaoGeometria.class));
+            normalizada = naGrade.isValid() ? naGrade : reparada;
+        }
+        if (normalizada.isEmpty()) {
+            return new Resultado(geometria, EnumSet.noneOf(CorrecaoGeometria.class));
+        }
+        return new Resultado(orientar(normalizada, correcoes), correcoes);
+    }
+
+    private Geometry limpar(Geometry geometria, Set<CorrecaoGeometria> correcoes) {
+        GeometryFactory factory = geometria.getFactory();
+        if (geometria instanceof Point ponto) {
+            return ponto.isEmpty() ? ponto : factory.createPoint(arredondar(ponto.getCoordinate(), correcoes));
+        }
+        if (geometria instanceof LinearRing anel) {
+            Coordinate[] coordenadas = limparSequencia(anel.getCoordinateSequence(), true, correcoes);
+            return coordenadas == null ? factory.createLinearRing() : factory.createLinearRing(coordenadas);
+        }
+        if (geometria instanceof LineString linha) {
+            Coordinate[] coordenadas = limparSequencia(linha.getCoordinateSequence(), false, correcoes);
+            return coordenadas == null ? factory.createLineString() : factory.createLineString(coordenadas);
+        }
+        if (geometria instanceof Polygon poligono) {
+            return limparPoligono(poligono, correcoes);
+        }
+
+        List<Geometry> partes = new ArrayList<>(geometria.getNumGeometries());
+        for (int i = 0; i < geometria.getNumGeometries(); i++) {
+            Geometry parte = limpar(geometria.getGeometryN(i), correcoes);
+            if (!parte.isEmpty()) {
+                partes.add(parte);
+            }
+        }
+        return colecao(geometria, partes);
+    }
+
+    private Polygon limparPoligono(Polygon poligono, Set<CorrecaoGeometria> correcoes) {
+        GeometryFactory factory = poligono.getFactory();
+        Coordinate[] externo = limparSequencia(poligono.getExteriorRing().getCoordinateSequence(), true, correcoes);
+        if (externo == null) {
+            correcoes.add(CorrecaoGeometria.GEOMETRIA_INVALIDA);
+            return factory.createPolygon();
+        }
+
+        List<LinearRing> furos = new ArrayList<>(poligono.getNumInteriorRing());
+        for (int i = 0; i < poligono.getNumInteriorRing(); i++) {
+            Coordinate[] furo = limparSequencia(poligono.getInteriorRingN(i).getCoordinateSequence(), true, correcoes);
+            if (furo == null) {
+                correcoes.add(CorrecaoGeometria.GEOMETRIA_INVALIDA);
+            } else {
+                furos.add(factory.createLinearRing(furo));
+            }
+        }
+        return factory.createPolygon(factory.createLinearRing(externo), furos.toArray(LinearRing[]::new));
+    }
+
+    /**
+     * Coordenadas na grade, sem vértices repetidos nem colineares, ou null se a linha (ou o
+     * anel) se reduzir a menos vértices do que o necessário
+     */
+    private Coordinate[] limparSequencia(CoordinateSequence sequencia, boolean anel, Set<CorrecaoGeometria> correcoes) {
+        // No anel, o ponto de fechamento é recolocado no final
+        int n = anel ? sequencia.size() - 1 : sequencia.size();
+        List<Coordinate> pontos = new ArrayList<>(n + 1);
+        for (int i = 0; i < n; i++) {
+            Coordinate ponto = arredondar(sequencia.getCoordinate(i), correcoes);
+            if (!pontos.isEmpty() && pontos.getLast().equals2D(ponto)) {
+                correcoes.add(CorrecaoGeometria.VERTICE_REPETIDO);
+                continue;
+            }
+            while (pontos.size() >= 2 && removivel(pontos.get(pontos.size() - 2), pontos.getLast(), ponto, anel)) {
+                pontos.removeLast();
+                correcoes.add(CorrecaoGeometria.VERTICE_COLINEAR);
+            }
+            // Ao remover a ponta de um espinho, o ponto volta a coincidir com o anterior
+            if (!pontos.isEmpty() && pontos.getLast().equals2D(ponto)) {
+                continue;
+            }
+            pontos.add(ponto);
+        }
+
+        if (!anel) {
+            return pontos.size() < 2 ? null : pontos.toArray(Coordinate[]::new);
+        }
+        // Vértices junto ao ponto de fechamento
+        boolean removeu = true;
+        while (removeu && pontos.size() >= 3) {
+            int ultimo = pontos.size() - 1;
+            if (pontos.get(ultimo).equals2D(pontos.getFirst())) {
+                pontos.removeLast();
+                correcoes.add(CorrecaoGeometria.VERTICE_REPETIDO);
+            } else if (Orientation.index(pontos.get(ultimo - 1), pontos.get(ultimo), pontos.getFirst()) == 0) {
+                pontos.removeLast();
+                correcoes.add(CorrecaoGeometria.VERTICE_COLINEAR);
+            } else if (Orientation.index(pontos.get(ultimo), pontos.getFirst(), pontos.get(1)) == 0) {
+                pontos.removeFirst();
+                correcoes.add(CorrecaoGeometria.VERTICE_COLINEAR);
+            } else {
+                removeu = false;
+            }
+        }
+        if (pontos.size() < 3) {
+            return null;
+        }
+        pontos.add(pontos.getFirst().copy());
+        return pontos.toArray(Coordinate[]::new);
+    }
+
+    /**
+     * O vértice do meio é colinear. Em linhas só sai quando está entre os vizinhos: um retorno
+     * sobre o próprio traçado faz parte da linha, enquanto no anel é um espinho sem área.
+     */
+    private static boolean removivel(Coordinate anterior, Coordinate meio, Coordinate proximo, boolean anel) {
+        if (Orientation.index(anterior, meio, proximo) != 0) {
+            return false;
+        }
+        return anel || (meio.x - anterior.x) * (proximo.x - meio.x) + (meio.y - anterior.y) * (proximo.y - meio.y) > 0;
+    }
+
+    private Coordinate arredondar(Coordinate original, Set<CorrecaoGeometria> correcoes) {
+        Coordinate ponto = new Coordinate(precisao.makePrecise(original.x), precisao.makePrecise(original.y));
+        if (ponto.x != original.x || ponto.y != original.y) {
+            correcoes.add(CorrecaoGeometria.PRECISAO);
+        }
+        return ponto;
+    }
+
+    private static Geometry orientar(Geometry geometria, Set<CorrecaoGeometria> correcoes) {
+        if (geometria instanceof Polygon poligono) {
+            LinearRing externo = orientarAnel(poligono.getExteriorRing(), true, correcoes);
+            LinearRing[] furos = new LinearRing[poligono.getNumInteriorRing()];
+            boolean alterado = externo != poligono.getExteriorRing();
+            for (int i = 0; i < furos.length; i++) {
+                furos[i] = orientarAnel(poligono.getInteriorRingN(i), false, correcoes);
+                alterado |= furos[i] != poligono.getInteriorRingN(i);
+            }
+            return alterado ? poligono.getFactory().createPolygon(externo, furos) : poligono;
+        }
+        if (!(geometria instanceof GeometryCollection)) {
+            return geometria;
+        }
+
+        List<Geometry> partes = new ArrayList<>(geometria.getNumGeometries());
+        boolean alterado = false;
+        for (int i = 0; i < geometria.getNumGeometries(); i++) {
+            Geometry parte = orientar(geometria.getGeometryN(i), correcoes);
+            alterado |= parte != geometria.getGeometryN(i);
+            partes.add(parte);
+        }
+        return alterado ? colecao(geometria, partes) : geometria;
+    }
+
+    private static LinearRing orientarAnel(LinearRing anel, boolean antiHorario, Set<CorrecaoGeometria> correcoes) {
+        if (Orientation.isCCW(anel.getCoordinateSequence()) == antiHorario) {
+            return anel;
+        }
+        correcoes.add(CorrecaoGeometria.ORIENTACAO);
+        return anel.reverse();
+    }
+
+    /**
+     * Coleção do mesmo tipo da original com as partes informadas
+     */
+    private static Geometry colecao(Geometry original, List<Geometry> partes) {
+        GeometryFactory factory = original.getFactory();
+        if (original instanceof MultiPolygon) {
+            return factory.createMultiPolygon(partes.toArray(Polygon[]::new));
+        }
+        if (original instanceof MultiLineString) {
+            return factory.createMultiLineString(partes.toArray(LineString[]::new));
+        }
+        if (original instanceof MultiPoint) {
+            return factory.createMultiPoint(partes.toArray(Point[]::new));
+        }
+        return factory.createGeometryCollection(partes.toArray(Geometry[]::new));
+    }
+
+    /**
+     * Geometria normalizada e as correções aplicadas a ela
+     */
+    public record Resultado(Geometry geometria, Set<CorrecaoGeometria> correcoes) {
+    }
+}
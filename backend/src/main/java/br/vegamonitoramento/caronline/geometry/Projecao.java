@@ -0,0 +1,31 @@
+package br.vegamonitoramento.caronline.geometry;
+
+/**
+ * Projeção cartográfica sobre o GRS80. As conversões trabalham sobre um par (x, y) de um
+ * array, no próprio array, para que transformar uma geometria não aloque nada por vértice.
+ */
+public interface Projecao {
+
+    /**
+     * Coordenadas geográficas (WGS84 ou SIRGAS 2000), sem conversão
+     */
+    Projecao GEOGRAFICAS = new Projecao() {
+        @Override
+        public void deGeograficas(double[] xy, int i) {
+        }
+
+        @Override
+        public void paraGeograficas(double[] xy, int i) {
+        }
+    };
+
+    /**
+     * Converte longitude/latitude (graus) em coordenadas projetadas
+     */
+    void deGeograficas(double[] xy, int i);
+
+    /**
+     * Converte coordenadas projetadas em longitude/latitude (graus)
+     */
+    void paraGeograficas(double[] xy, int i);
+}
@@ -0,0 +1,72 @@
+package br.vegamonitoramento.caronline.geometry;
+
+/**
+ * Projeção cônica equivalente de Albers sobre o GRS80 (Snyder, eqs. 14-3 a 14-21). Preserva
+ * áreas: a área plana de um polígono projetado é a sua área no elipsoide.
+ */
+public final class ProjecaoAlbers implements Projecao {
+
+    /**
+     * Albers do IBGE para o território brasileiro: origem em 12°S e 54°W, paralelos padrão em
+     * 2°S e 22°S, falso leste de 5.000 km e falso norte de 10.000 km
+     */
+    public static final ProjecaoAlbers BRASIL = new ProjecaoAlbers(-12, -54, -2, -22, 5_000_000, 10_000_000);
+
+    private final double meridianoCentral;
+    private final double falsoLeste;
+    private final double falsoNorte;
+    private final double n;
+    private final double c;
+    private final double rho0;
+
+    /**
+     * @param latitudeOrigem  latitude de origem, em graus
+     * @param meridianoCentral meridiano central, em graus
+     * @param paralelo1       primeiro paralelo padrão, em graus
+     * @param paralelo2       segundo paralelo padrão, em graus
+     */
+    public ProjecaoAlbers(double latitudeOrigem, double meridianoCentral, double paralelo1, double paralelo2,
+                          double falsoLeste, double falsoNorte) {
+        double m1 = m(Math.toRadians(paralelo1));
+        double m2 = m(Math.toRadians(paralelo2));
+        double q1 = Grs80.q(Math.sin(Math.toRadians(paralelo1)));
+        double q2 = Grs80.q(Math.sin(Math.toRadians(paralelo2)));
+        double q0 = Grs80.q(Math.sin(Math.toRadians(latitudeOrigem)));
+
+        this.meridianoCentral = Math.toRadians(meridianoCentral);
+        this.falsoLeste = falsoLeste;
+        this.falsoNorte = falsoNorte;
+        this.n = paralelo1 == paralelo2 ? Math.sin(Math.toRadians(paralelo1)) : (m1 * m1 - m2 * m2) / (q2 - q1);
+        this.c = m1 * m1 + n * q1;
+        this.rho0 = Grs80.A * Math.sqrt(c - n * q0) / n;
+    }
+
+    @Override
+    public void deGeograficas(double[] xy, int i) {
+        double q = Grs80.q(Math.sin(Math.toRadians(xy[i + 1])));
+        double rho = Grs80.A * Math.sqrt(c - n * q) / n;
+        double theta = n * (Math.toRadians(xy[i]) - meridianoCentral);
+        xy[i] = falsoLeste + rho * Math.sin(theta);
+        xy[i + 1] = falsoNorte + rho0 - rho * Math.cos(theta);
+    }
+
+    @Override
+    public void paraGeograficas(double[] xy, int i) {
+        double x = xy[i] - falsoLeste;
+        double y = rho0 - (xy[i + 1] - falsoNorte);
+        // Com n negativo (paralelos no hemisfério sul), rho e theta trocam de sinal
+        double sinal = Math.signum(n);
+        double rho = sinal * Math.hypot(x, y);
+        double theta = Math.atan2(sinal * x, sinal * y);
+
+        double q = (c - rho * rho * n * n / (Grs80.A * Grs80.A)) / n;
+        double beta = Math.asin(Math.max(-1.0, Math.min(1.0, q / Grs80.QP)));
+        xy[i] = Math.toDegrees(meridianoCentral + theta / n);
+        xy[i + 1] = Math.toDegrees(Grs80.latitudeDeAutalica(beta));
+    }
+
+    private static double m(double phi) {
+        double seno = Math.sin(phi);
+        return Math.cos(phi) / Math.sqrt(1 - Grs80.E2 * seno * seno);
+    }
+}
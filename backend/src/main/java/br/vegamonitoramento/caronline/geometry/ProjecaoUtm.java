@@ -0,0 +1,114 @@
+package br.vegamonitoramento.caronline.geometry;
+
+import org.locationtech.jts.geom.Geometry;
+
+/**
+ * Projeção UTM sobre o GRS80 (SIRGAS 2000), pelas séries de Snyder (USGS, 1987), com erro de
+ * milímetros dentro do fuso. A diferença entre GRS80 e WGS84 é desprezível nessa escala.
+ */
+public final class ProjecaoUtm implements Projecao {
+
+    private static final double K0 = 0.9996;
+    private static final double A = Grs80.A;
+    private static final double E2 = Grs80.E2;
+    private static final double EP2 = E2 / (1 - E2);
+    private static final double E1 = (1 - Math.sqrt(1 - E2)) / (1 + Math.sqrt(1 - E2));
+    private static final double FALSO_LESTE = 500_000.0;
+    private static final double FALSO_NORTE_SUL = 10_000_000.0;
+
+    // Coeficientes do comprimento do arco de meridiano (Snyder, eq. 3-21)
+    private static final double M1 = 1 - E2 / 4 - 3 * E2 * E2 / 64 - 5 * E2 * E2 * E2 / 256;
+    private static final double M2 = 3 * E2 / 8 + 3 * E2 * E2 / 32 + 45 * E2 * E2 * E2 / 1024;
+    private static final double M3 = 15 * E2 * E2 / 256 + 45 * E2 * E2 * E2 / 1024;
+    private static final double M4 = 35 * E2 * E2 * E2 / 3072;
+
+    // Instâncias por fuso: índice (zona - 1) * 2, mais 1 no hemisfério sul
+    private static final ProjecaoUtm[] FUSOS = new ProjecaoUtm[120];
+
+    static {
+        for (int zona = 1; zona <= 60; zona++) {
+            FUSOS[(zona - 1) * 2] = new ProjecaoUtm(zona, false);
+            FUSOS[(zona - 1) * 2 + 1] = new ProjecaoUtm(zona, true);
+        }
+    }
+
+    private final double meridianoCentral;
+    private final double falsoNorte;
+
+    private ProjecaoUtm(int zona, boolean sul) {
+        this.meridianoCentral = Math.toRadians(zona * 6.0 - 183.0);
+        this.falsoNorte = sul ? FALSO_NORTE_SUL : 0.0;
+    }
+
+    /**
+     * Projeção do fuso, compartilhada entre as chamadas
+     * @throws IllegalArgumentException se o fuso não existir
+     */
+    public static ProjecaoUtm de(int zona, boolean sul) {
+        if (zona < 1 || zona > 60) {
+            throw new IllegalArgumentException("Fuso UTM inválido: " + zona);
+        }
+        return FUSOS[(zona - 1) * 2 + (sul ? 1 : 0)];
+    }
+
+    /**
+     * Nova geometria em longitude/latitude; a original não é alterada
+     */
+    public static Geometry paraGeograficas(Geometry geometria, int zona, boolean sul) {
+        return Transformacao.entre(de(zona, sul), Projecao.GEOGRAFICAS).transformada(geometria);
+    }
+
+    @Override
+    public void deGeograficas(double[] xy, int i) {
+        double phi = Math.toRadians(xy[i + 1]);
+        double senPhi = Math.sin(phi);
+        double cosPhi = Math.cos(phi);
+        double tanPhi = Math.tan(phi);
+        double n = A / Math.sqrt(1 - E2 * senPhi * senPhi);
+        double t = tanPhi * tanPhi;
+        double c = EP2 * cosPhi * cosPhi;
+        double a = (Math.toRadians(xy[i]) - meridianoCentral) * cosPhi;
+        double m = A * (M1 * phi - M2 * Math.sin(2 * phi) + M3 * Math.sin(4 * phi) - M4 * Math.sin(6 * phi));
+
+        double a2 = a * a;
+        xy[i] = FALSO_LESTE + K0 * n * (a
+                + (1 - t + c) * a2 * a / 6
+                + (5 - 18 * t + t * t + 72 * c - 58 * EP2) * a2 * a2 * a / 120);
+        xy[i + 1] = falsoNorte + K0 * (m + n * tanPhi * (a2 / 2
+                + (5 - t + 9 * c + 4 * c * c) * a2 * a2 / 24
+                + (61 - 58 * t + t * t + 600 * c - 330 * EP2) * a2 * a2 * a2 / 720));
+    }
+
+    @Override
+    public void paraGeograficas(double[] xy, int i) {
+        double x = xy[i] - FALSO_LESTE;
+        double y = xy[i + 1] - falsoNorte;
+
+        double m = y / K0;
+        double mu = m / (A * M1);
+        double phi1 = mu
+                + (3 * E1 / 2 - 27 * Math.pow(E1, 3) / 32) * Math.sin(2 * mu)
+                + (21 * E1 * E1 / 16 - 55 * Math.pow(E1, 4) / 32) * Math.sin(4 * mu)
+                + (151 * Math.pow(E1, 3) / 96) * Math.sin(6 * mu)
+                + (1097 * Math.pow(E1, 4) / 512) * Math.sin(8 * mu);
+
+        double senPhi = Math.sin(phi1);
+        double cosPhi = Math.cos(phi1);
+        double tanPhi = Math.tan(phi1);
+        double n1 = A / Math.sqrt(1 - E2 * senPhi * senPhi);
+        double t1 = tanPhi * tanPhi;
+        double c1 = EP2 * cosPhi * cosPhi;
+        double r1 = A * (1 - E2) / Math.pow(1 - E2 * senPhi * senPhi, 1.5);
+        double d = x / (n1 * K0);
+
+        double latitude = phi1 - (n1 * tanPhi / r1) * (d * d / 2
+                - (5 + 3 * t1 + 10 * c1 - 4 * c1 * c1 - 9 * EP2) * Math.pow(d, 4) / 24
+                + (61 + 90 * t1 + 298 * c1 + 45 * t1 * t1 - 252 * EP2 - 3 * c1 * c1) * Math.pow(d, 6) / 720);
+        double longitude = meridianoCentral + (d
+                - (1 + 2 * t1 + c1) * Math.pow(d, 3) / 6
+                + (5 - 2 * c1 + 28 * t1 - 3 * c1 * c1 + 8 * EP2 + 24 * t1 * t1) * Math.pow(d, 5) / 120) / cosPhi;
+
+        xy[i] = Math.toDegrees(longitude);
+        xy[i + 1] = Math.toDegrees(latitude);
+    }
+}
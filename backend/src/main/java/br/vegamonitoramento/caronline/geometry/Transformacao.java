@@ -0,0 +1,97 @@
+package br.vegamonitoramento.caronline.geometry;
+
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.CoordinateSequenceFilter;
+import org.locationtech.jts.geom.Geometry;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Conversão de coordenadas entre duas projeções, passando por longitude/latitude. As
+ * instâncias ficam em cache por par de projeções e podem ser usadas por várias threads.
+ */
+public final class Transformacao {
+
+    private static final Map<Par, Transformacao> CACHE = new ConcurrentHashMap<>();
+
+    private final Projecao origem;
+    private final Projecao destino;
+    private final boolean identidade;
+
+    private Transformacao(Projecao origem, Projecao destino) {
+        this.origem = origem;
+        this.destino = destino;
+        this.identidade = origem == destino;
+    }
+
+    public static Transformacao entre(Projecao origem, Projecao destino) {
+        return CACHE.computeIfAbsent(new Par(origem, destino), par -> new Transformacao(par.origem(), par.destino()));
+    }
+
+    public boolean isIdentidade() {
+        return identidade;
+    }
+
+    /**
+     * Converte no próprio array os pares (x, y) intercalados
+     */
+    public void transformar(double[] coordenadas) {
+        if (identidade) {
+            return;
+        }
+        for (int i = 0; i + 1 < coordenadas.length; i += 2) {
+            origem.paraGeograficas(coordenadas, i);
+            destino.deGeograficas(coordenadas, i);
+        }
+    }
+
+    /**
+     * Converte a geometria no lugar, vértice a vértice, sem criar coordenadas
+     */
+    public void aplicar(Geometry geometria) {
+        if (identidade || geometria.isEmpty()) {
+            return;
+        }
+        geometria.apply(new Filtro());
+    }
+
+    /**
+     * Cópia convertida; a original não é alterada
+     */
+    public Geometry transformada(Geometry geometria) {
+        Geometry copia = Geometrias.FACTORY.createGeometry(geometria);
+        aplicar(copia);
+        return copia;
+    }
+
+    private final class Filtro implements CoordinateSequenceFilter {
+
+        // Par em conversão, reaproveitado em todos os vértices da geometria
+        private final double[] xy = new double[2];
+
+        @Override
+        public void filter(CoordinateSequence sequencia, int i) {
+            xy[0] = sequencia.getX(i);
+            xy[1] = sequencia.getY(i);
+            origem.paraGeograficas(xy, 0);
+            destino.deGeograficas(xy, 0);
+            sequencia.setOrdinate(i, CoordinateSequence.X, xy[0]);
+            sequencia.setOrdinate(i, CoordinateSequence.Y, xy[1]);
+        }
+
+        @Override
+        public boolean isDone() {
+            return false;
+        }
+
+        @Override
+        public boolean isGeometryChanged() {
+            return true;
+        }
+    }
+
+    // Projeções não redefinem equals: o par é comparado pelas instâncias compartilhadas
+    private record Par(Projecao origem, Projecao destino) {
+    }
+}
@@ -0,0 +1,229 @@
+package br.vegamonitoramento.caronline.geometry;
+
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import static br.vegamonitoramento.caronline.geometry.TwkbGeometryWriter.METADADOS_VAZIA;
+import static br.vegamonitoramento.caronline.geometry.TwkbGeometryWriter.TIPO_COLECAO;
+import static br.vegamonitoramento.caronline.geometry.TwkbGeometryWriter.TIPO_LINHA;
+import static br.vegamonitoramento.caronline.geometry.TwkbGeometryWriter.TIPO_MULTILINHA;
+import static br.vegamonitoramento.caronline.geometry.TwkbGeometryWriter.TIPO_MULTIPOLIGONO;
+import static br.vegamonitoramento.caronline.geometry.TwkbGeometryWriter.TIPO_MULTIPONTO;
+import static br.vegamonitoramento.caronline.geometry.TwkbGeometryWriter.TIPO_POLIGONO;
+import static br.vegamonitoramento.caronline.geometry.TwkbGeometryWriter.TIPO_PONTO;
+
+/**
+ * Lê geometrias TWKB (XY) gravadas pelo {@link TwkbGeometryWriter} ou pelo ST_AsTWKB do PostGIS.
+ * Cabeçalhos opcionais de bbox, tamanho e lista de ids são aceitos e ignorados.
+ * <p>
+ * As quantidades de partes, anéis e pontos vêm dos próprios dados e definem o tamanho dos
+ * arrays; por isso a leitura recebe quantos bytes a geometria pode ocupar e recusa qualquer
+ * quantidade que não caberia neles (cada coordenada ocupa pelo menos 2 bytes), em vez de
+ * alocar memória para ela.
+ */
+public final class TwkbGeometryReader {
+
+    private static final int METADADOS_BBOX = 0x01;
+    private static final int METADADOS_TAMANHO = 0x02;
+    private static final int METADADOS_IDS = 0x04;
+    private static final int METADADOS_DIMENSOES = 0x08;
+
+    private final GeometryFactory factory;
+
+    public TwkbGeometryReader() {
+        this(Geometrias.FACTORY);
+    }
+
+    public TwkbGeometryReader(GeometryFactory factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * Lê uma geometria de no máximo {@code tamanho} bytes
+     * @throws IllegalArgumentException se os dados não forem um TWKB válido
+     */
+    public Geometry read(InputStream entrada, long tamanho) throws IOException {
+        return new Leitura(new EntradaLimitada(entrada, tamanho)).ler();
+    }
+
+    /**
+     * Estado de uma leitura: escala e última coordenada para desfazer as diferenças
+     */
+    private final class Leitura {
+
+        private final EntradaLimitada entrada;
+        private double escala;
+        private long xAnterior;
+        private long yAnterior;
+
+        Leitura(EntradaLimitada entrada) {
+            this.entrada = entrada;
+        }
+
+        Geometry ler() throws IOException {
+            int tipoPrecisao = lerByte();
+            int metadados = lerByte();
+            int tipo = tipoPrecisao & 0x0F;
+            int precisaoZigzag = tipoPrecisao >>> 4;
+            escala = Math.pow(10, (precisaoZigzag >>> 1) ^ -(precisaoZigzag & 1));
+
+            if ((metadados & METADADOS_DIMENSOES) != 0 && (lerByte() & 0x03) != 0) {
+                throw new IllegalArgumentException("TWKB com Z ou M não é suportado");
+            }
+            if ((metadados & METADADOS_VAZIA) != 0) {
+                return vazia(tipo);
+            }
+            if ((metadados & METADADOS_TAMANHO) != 0) {
+                Varint.ler(entrada);
+            }
+            if ((metadados & METADADOS_BBOX) != 0) {
+                for (int i = 0; i < 4; i++) {
+                    Varint.ler(entrada);
+                }
+            }
+            xAnterior = 0;
+            yAnterior = 0;
+
+            return switch (tipo) {
+                case TIPO_PONTO -> factory.createPoint(lerCoordenadas(1));
+                case TIPO_LINHA -> factory.createLineString(lerCoordenadas(lerQuantidade(2)));
+                case TIPO_POLIGONO -> lerPoligono();
+                case TIPO_MULTIPONTO -> {
+                    Point[] pontos = new Point[lerQuantidadePartes(metadados)];
+                    for (int i = 0; i < pontos.length; i++) {
+                        pontos[i] = factory.createPoint(lerCoordenadas(1));
+                    }
+                    yield factory.createMultiPoint(pontos);
+                }
+                case TIPO_MULTILINHA -> {
+                    LineString[] linhas = new LineString[lerQuantidadePartes(metadados)];
+                    for (int i = 0; i < linhas.length; i++) {
+                        linhas[i] = factory.createLineString(lerCoordenadas(lerQuantidade(2)));
+                    }
+                    yield factory.createMultiLineString(linhas);
+                }
+                case TIPO_MULTIPOLIGONO -> {
+                    Polygon[] poligonos = new Polygon[lerQuantidadePartes(metadados)];
+                    for (int i = 0; i < poligonos.length; i++) {
+                        poligonos[i] = lerPoligono();
+                    }
+                    yield factory.createMultiPolygon(poligonos);
+                }
+                case TIPO_COLECAO -> {
+                    Geometry[] geometrias = new Geometry[lerQuantidadePartes(metadados)];
+                    for (int i = 0; i < geometrias.length; i++) {
+                        geometrias[i] = new Leitura(entrada).ler();
+                    }
+                    yield factory.createGeometryCollection(geometrias);
+                }
+                default -> throw new IllegalArgumentException("Tipo de geometria TWKB desconhecido: " + tipo);
+            };
+        }
+
+        /**
+         * Partes de uma coleção; cada uma ocupa pelo menos 1 byte, fora o id opcional
+         */
+        private int lerQuantidadePartes(int metadados) throws IOException {
+            int quantidade = lerQuantidade((metadados & METADADOS_IDS) != 0 ? 2 : 1);
+            if ((metadados & METADADOS_IDS) != 0) {
+                for (int i = 0; i < quantidade; i++) {
+                    Varint.ler(entrada);
+                }
+            }
+            return quantidade;
+        }
+
+        private Polygon lerPoligono() throws IOException {
+            int aneis = lerQuantidade(1);
+            if (aneis == 0) {
+                return factory.createPolygon();
+            }
+            LinearRing externo = factory.createLinearRing(lerCoordenadas(lerQuantidade(2)));
+            LinearRing[] furos = new LinearRing[aneis - 1];
+            for (int i = 0; i < furos.length; i++) {
+                furos[i] = factory.createLinearRing(lerCoordenadas(lerQuantidade(2)));
+            }
+            return factory.createPolygon(externo, furos);
+        }
+
+        /**
+         * Quantidade de itens de pelo menos {@code bytesPorItem} bytes cada, que precisam caber
+         * no que resta da geometria
+         */
+        private int lerQuantidade(int bytesPorItem) throws IOException {
+            int quantidade = Varint.lerTamanho(entrada);
+            if (quantidade > entrada.restantes / bytesPorItem) {
+                throw new IllegalArgumentException("TWKB declara " + quantidade
+                        + " itens, mais do que cabe nos " + entrada.restantes + " bytes restantes");
+            }
+            return quantidade;
+        }
+
+        private CoordinateSequence lerCoordenadas(int quantidade) throws IOException {
+            CoordinateSequence sequencia = factory.getCoordinateSequenceFactory().create(quantidade, 2);
+            for (int i = 0; i < quantidade; i++) {
+                xAnterior += Varint.lerComSinal(entrada);
+                yAnterior += Varint.lerComSinal(entrada);
+                sequencia.setOrdinate(i, CoordinateSequence.X, xAnterior / escala);
+                sequencia.setOrdinate(i, CoordinateSequence.Y, yAnterior / escala);
+            }
+            return sequencia;
+        }
+
+        private Geometry vazia(int tipo) {
+            return switch (tipo) {
+                case TIPO_PONTO -> factory.createPoint();
+                case TIPO_LINHA -> factory.createLineString();
+                case TIPO_POLIGONO -> factory.createPolygon();
+                case TIPO_MULTIPONTO -> factory.createMultiPoint();
+                case TIPO_MULTILINHA -> factory.createMultiLineString();
+                case TIPO_MULTIPOLIGONO -> factory.createMultiPolygon();
+                case TIPO_COLECAO -> factory.createGeometryCollection();
+                default -> throw new IllegalArgumentException("Tipo de geometria TWKB desconhecido: " + tipo);
+            };
+        }
+
+        private int lerByte() throws IOException {
+            int b = entrada.read();
+            if (b < 0) {
+                throw new IllegalArgumentException("TWKB incompleto");
+            }
+            return b;
+        }
+    }
+
+    /**
+     * Entrada que termina depois de {@code restantes} bytes, compartilhada pelas geometrias
+     * de uma coleção
+     */
+    private static final class EntradaLimitada extends InputStream {
+
+        private final InputStream entrada;
+        private long restantes;
+
+        EntradaLimitada(InputStream entrada, long restantes) {
+            this.entrada = entrada;
+            this.restantes = restantes;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (restantes <= 0) {
+                return -1;
+            }
+            int b = entrada.read();
+            if (b >= 0) {
+                restantes--;
+            }
+            return b;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package br.vegamonitoramento.caronline.geometry;
+
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryCollection;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.MultiLineString;
+import org.locationtech.jts.geom.MultiPoint;
+import org.locationtech.jts.geom.MultiPolygon;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Escreve geometrias JTS em TWKB (Tiny Well-known Binary): coordenadas XY arredondadas para a
+ * precisão decimal informada e gravadas como diferenças em relação à coordenada anterior, em
+ * varints zigzag. Sem bbox, tamanho nem lista de ids nos cabeçalhos.
+ */
+public final class TwkbGeometryWriter {
+
+    /**
+     * Casas decimais padrão para graus em WGS84 (cerca de 1 cm no terreno)
+     */
+    public static final int PRECISAO_PADRAO = 7;
+
+    static final int TIPO_PONTO = 1;
+    static final int TIPO_LINHA = 2;
+    static final int TIPO_POLIGONO = 3;
+    static final int TIPO_MULTIPONTO = 4;
+    static final int TIPO_MULTILINHA = 5;
+    static final int TIPO_MULTIPOLIGONO = 6;
+    static final int TIPO_COLECAO = 7;
+
+    static final int METADADOS_VAZIA = 0x10;
+
+    private final OutputStream saida;
+    private final double escala;
+    private final int precisao;
+    private long xAnterior;
+    private long yAnterior;
+
+    private TwkbGeometryWriter(OutputStream saida, int precisao) {
+        this.saida = saida;
+        this.precisao = precisao;
+        this.escala = Math.pow(10, precisao);
+    }
+
+    /**
+     * @param precisao casas decimais mantidas nas coordenadas (-7 a 7)
+     */
+    public static void write(Geometry geometria, int precisao, OutputStream saida) throws IOException {
+        if (precisao < -7 || precisao > 7) {
+            throw new IllegalArgumentException("Precisão TWKB fora do intervalo -7..7: " + precisao);
+        }
+        new TwkbGeometryWriter(saida, precisao).escrever(geometria);
+    }
+
+    private void escrever(Geometry geometria) throws IOException {
+        saida.write((zigzag(precisao) << 4) | tipo(geometria));
+        if (geometria.isEmpty()) {
+            saida.write(METADADOS_VAZIA);
+            return;
+        }
+        saida.write(0);
+
+        // As diferenças recomeçam a cada geometria com cabeçalho próprio
+        xAnterior = 0;
+        yAnterior = 0;
+
+        if (geometria instanceof Point ponto) {
+            escreverCoordenadas(ponto.getCoordinateSequence(), false);
+        } else if (geometria instanceof LineString linha) {
+            escreverCoordenadas(linha.getCoordinateSequence(), true);
+        } else if (geometria instanceof Polygon poligono) {
+            escreverPoligono(poligono);
+        } else if (geometria instanceof MultiPoint || geometria instanceof MultiLineString
+                || geometria instanceof MultiPolygon) {
+            Varint.escrever(geometria.getNumGeometries(), saida);
+            for (int i = 0; i < geometria.getNumGeometries(); i++) {
+                Geometry parte = geometria.getGeometryN(i);
+                if (parte instanceof Point ponto) {
+                    escreverCoordenadas(ponto.getCoordinateSequence(), false);
+                } else if (parte instanceof LineString linha) {
+                    escreverCoordenadas(linha.getCoordinateSequence(), true);
+                } else {
+                    escreverPoligono((Polygon) parte);
+                }
+            }
+        } else {
+            Varint.escrever(geometria.getNumGeometries(), saida);
+            for (int i = 0; i < geometria.getNumGeometries(); i++) {
+                escrever(geometria.getGeometryN(i));
+            }
+        }
+    }
+
+    private void escreverPoligono(Polygon poligono) throws IOException {
+        Varint.escrever(1 + poligono.getNumInteriorRing(), saida);
+        escreverCoordenadas(poligono.getExteriorRing().getCoordinateSequence(), true);
+        for (int i = 0; i < poligono.getNumInteriorRing(); i++) {
+            escreverCoordenadas(poligono.getInteriorRingN(i).getCoordinateSequence(), true);
+        }
+    }
+
+    private void escreverCoordenadas(CoordinateSequence sequencia, boolean comQuantidade) throws IOException {
+        if (comQuantidade) {
+            Varint.escrever(sequencia.size(), saida);
+        }
+        for (int i = 0; i < sequencia.size(); i++) {
+            long x = Math.round(sequencia.getX(i) * escala);
+            long y = Math.round(sequencia.getY(i) * escala);
+            Varint.escreverComSinal(x - xAnterior, saida);
+            Varint.escreverComSinal(y - yAnterior, saida);
+            xAnterior = x;
+            yAnterior = y;
+        }
+    }
+
+    private static int tipo(Geometry geometria) {
+        if (geometria instanceof Point) {
+            return TIPO_PONTO;
+        } else if (geometria instanceof LineString) {
+            return TIPO_LINHA;
+        } else if (geometria instanceof Polygon) {
+            return TIPO_POLIGONO;
+        } else if (geometria instanceof MultiPoint) {
+            return TIPO_MULTIPONTO;
+        } else if (geometria instanceof MultiLineString) {
+            return TIPO_MULTILINHA;
+        } else if (geometria instanceof MultiPolygon) {
+            return TIPO_MULTIPOLIGONO;
+        } else if (geometria instanceof GeometryCollection) {
+            return TIPO_COLECAO;
+        }
+        throw new IllegalArgumentException("Tipo de geometria não suportado em TWKB: " + geometria.getGeometryType());
+    }
+
+    private static int zigzag(int valor) {
+        return ((valor << 1) ^ (valor >> 31)) & 0x0F;
+    }
+}
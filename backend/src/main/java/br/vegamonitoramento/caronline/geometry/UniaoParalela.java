@@ -0,0 +1,86 @@
+package br.vegamonitoramento.caronline.geometry;
+
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.index.strtree.STRtree;
+import org.locationtech.jts.operation.union.CascadedPolygonUnion;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * União em cascata de polígonos dividida em tarefas fork-join.
+ * Os polígonos são agrupados por um STRtree, de modo que cada tarefa une vizinhos
+ * espaciais (uniões pequenas e baratas) e os resultados parciais sobem pela árvore.
+ */
+public final class UniaoParalela {
+
+    // Abaixo disso a CascadedPolygonUnion sequencial é mais rápida que dividir o trabalho
+    private static final int LIMITE_SEQUENCIAL = 64;
+    // Capacidade dos nós do STRtree; define quantos grupos são unidos em cada tarefa
+    private static final int CAPACIDADE_NO = 16;
+
+    private UniaoParalela() {
+    }
+
+    /**
+     * @return a união dos polígonos, ou uma geometria vazia se a coleção estiver vazia
+     */
+    public static Geometry unir(Collection<Geometry> poligonos) {
+        if (poligonos.isEmpty()) {
+            return Geometrias.FACTORY.createPolygon();
+        }
+        if (poligonos.size() < LIMITE_SEQUENCIAL) {
+            Geometry uniao = CascadedPolygonUnion.union(poligonos);
+            return uniao != null ? uniao : Geometrias.FACTORY.createPolygon();
+        }
+
+        STRtree indice = new STRtree(CAPACIDADE_NO);
+        for (Geometry poligono : poligonos) {
+            indice.insert(poligono.getEnvelopeInternal(), poligono);
+        }
+        indice.build();
+
+        Geometry uniao = ForkJoinPool.commonPool().invoke(new TarefaUniao(indice.itemsTree()));
+        return uniao != null ? uniao : Geometrias.FACTORY.createPolygon();
+    }
+
+    /**
+     * Une um nó da árvore de itens do STRtree: folhas são geometrias, nós internos são listas
+     */
+    private static final class TarefaUniao extends RecursiveTask<Geometry> {
+
+        private final List<?> no;
+
+        TarefaUniao(List<?> no) {
+            this.no = no;
+        }
+
+        @Override
+        protected Geometry compute() {
+            List<Geometry> geometrias = new ArrayList<>(no.size());
+            List<TarefaUniao> subtarefas = new ArrayList<>();
+
+            for (Object item : no) {
+                if (item instanceof List<?> filho) {
+                    subtarefas.add(new TarefaUniao(filho));
+                } else {
+                    geometrias.add((Geometry) item);
+                }
+            }
+
+            // Dispara os filhos em paralelo e une o nível atual com o resultado de cada um
+            invokeAll(subtarefas);
+            for (TarefaUniao subtarefa : subtarefas) {
+                Geometry parcial = subtarefa.join();
+                if (parcial != null && !parcial.isEmpty()) {
+                    geometrias.add(parcial);
+                }
+            }
+
+            return geometrias.isEmpty() ? null : CascadedPolygonUnion.union(geometrias);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package br.vegamonitoramento.caronline.geometry;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Inteiros de tamanho variável (7 bits por byte, como no protobuf) e codificação zigzag
+ * para valores com sinal, usados no TWKB e no formato binário das camadas.
+ */
+public final class Varint {
+
+    private Varint() {
+    }
+
+    public static void escrever(long valor, OutputStream saida) throws IOException {
+        while ((valor & ~0x7FL) != 0) {
+            saida.write((int) ((valor & 0x7F) | 0x80));
+            valor >>>= 7;
+        }
+        saida.write((int) valor);
+    }
+
+    public static void escreverComSinal(long valor, OutputStream saida) throws IOException {
+        escrever((valor << 1) ^ (valor >> 63), saida);
+    }
+
+    public static long ler(InputStream entrada) throws IOException {
+        long valor = 0;
+        for (int deslocamento = 0; deslocamento < 64; deslocamento += 7) {
+            int b = entrada.read();
+            if (b < 0) {
+                throw new EOFException("Fim inesperado dos dados binários");
+            }
+            valor |= (long) (b & 0x7F) << deslocamento;
+            if ((b & 0x80) == 0) {
+                return valor;
+            }
+        }
+        throw new IOException("Varint com mais de 64 bits");
+    }
+
+    public static long lerComSinal(InputStream entrada) throws IOException {
+        long valor = ler(entrada);
+        return (valor >>> 1) ^ -(valor & 1);
+    }
+
+    /**
+     * Lê um varint que deve caber num int não negativo (tamanhos e contagens)
+     */
+    public static int lerTamanho(InputStream entrada) throws IOException {
+        long valor = ler(entrada);
+        if (valor > Integer.MAX_VALUE) {
+            throw new IOException("Tamanho inválido nos dados binários: " + valor);
+        }
+        return (int) valor;
+    }
+}
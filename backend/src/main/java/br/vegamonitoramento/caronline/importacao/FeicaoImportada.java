@@ -0,0 +1,22 @@
+package br.vegamonitoramento.caronline.importacao;
+
+import org.locationtech.jts.geom.Geometry;
+
+import java.util.Map;
+
+/**
+ * Feição lida de um arquivo importado, ainda no sistema de coordenadas de origem
+ *
+ * @param indice posição no arquivo, a partir de 0
+ * @param atributos atributos do registro (nomes como no arquivo)
+ * @param geometria geometria lida, ou null se o registro não pôde ser interpretado
+ * @param sistemaReferencia sistema de coordenadas da geometria
+ * @param erro motivo pelo qual o registro não pôde ser interpretado
+ */
+public record FeicaoImportada(int indice, Map<String, String> atributos, Geometry geometria,
+                              SistemaReferencia sistemaReferencia, String erro) {
+
+    static FeicaoImportada comErro(int indice, Map<String, String> atributos, String erro) {
+        return new FeicaoImportada(indice, atributos, null, null, erro);
+    }
+}
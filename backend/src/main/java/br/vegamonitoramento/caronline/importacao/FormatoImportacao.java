@@ -0,0 +1,69 @@
+package br.vegamonitoramento.caronline.importacao;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Formatos aceitos na importação de camadas, identificados pela extensão do arquivo enviado
+ */
+public enum FormatoImportacao {
+
+    GEOJSON("geojson") {
+        @Override
+        public LeitorFeicoes abrir(Path arquivo, ObjectMapper objectMapper) throws IOException {
+            return new GeoJsonLeitor(arquivo, objectMapper);
+        }
+    },
+
+    KML("kml") {
+        @Override
+        public LeitorFeicoes abrir(Path arquivo, ObjectMapper objectMapper) throws IOException {
+            return KmlLeitor.deKml(arquivo);
+        }
+    },
+
+    KMZ("kmz") {
+        @Override
+        public LeitorFeicoes abrir(Path arquivo, ObjectMapper objectMapper) throws IOException {
+            return KmlLeitor.deKmz(arquivo);
+        }
+    },
+
+    SHP("zip") {
+        @Override
+        public LeitorFeicoes abrir(Path arquivo, ObjectMapper objectMapper) throws IOException {
+            return new ShapefileLeitor(arquivo);
+        }
+    };
+
+    private final String extensao;
+
+    FormatoImportacao(String extensao) {
+        this.extensao = extensao;
+    }
+
+    public abstract LeitorFeicoes abrir(Path arquivo, ObjectMapper objectMapper) throws IOException;
+
+    public String getExtensao() {
+        return extensao;
+    }
+
+    /**
+     * @throws IllegalArgumentException se a extensão não for suportada
+     */
+    public static FormatoImportacao deNomeArquivo(String nomeArquivo) {
+        String nome = nomeArquivo == null ? "" : nomeArquivo.trim().toLowerCase(Locale.ROOT);
+        int ponto = nome.lastIndexOf('.');
+        return switch (ponto < 0 ? "" : nome.substring(ponto + 1)) {
+            case "geojson", "json" -> GEOJSON;
+            case "kml" -> KML;
+            case "kmz" -> KMZ;
+            case "zip" -> SHP;
+            default -> throw new IllegalArgumentException(
+                    "Arquivo não suportado (envie .zip com shapefile, .geojson, .kml ou .kmz): " + nomeArquivo);
+        };
+    }
+}
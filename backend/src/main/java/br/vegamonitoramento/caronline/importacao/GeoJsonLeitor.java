@@ -0,0 +1,105 @@
+package br.vegamonitoramento.caronline.importacao;
+
+import br.vegamonitoramento.caronline.geometry.GeoJsonGeometryReader;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Lê uma FeatureCollection GeoJSON em fluxo: apenas a Feature corrente é materializada como árvore.
+ * O membro "crs" (GeoJSON de 2008), quando vem antes de "features", define o sistema de coordenadas;
+ * sem ele, WGS84.
+ */
+class GeoJsonLeitor implements LeitorFeicoes {
+
+    private final JsonParser parser;
+    private final GeoJsonGeometryReader geometryReader = new GeoJsonGeometryReader();
+    private SistemaReferencia sistemaReferencia = SistemaReferencia.WGS84;
+    private int indice;
+    private boolean fim;
+
+    GeoJsonLeitor(Path arquivo, ObjectMapper objectMapper) throws IOException {
+        this.parser = objectMapper.createParser(Files.newInputStream(arquivo));
+        try {
+            posicionarNasFeicoes();
+        } catch (IOException | RuntimeException e) {
+            parser.close();
+            throw e;
+        }
+    }
+
+    private void posicionarNasFeicoes() throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IllegalArgumentException("O arquivo deve conter uma FeatureCollection GeoJSON");
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String campo = parser.currentName();
+            JsonToken valor = parser.nextToken();
+            if ("features".equals(campo)) {
+                if (valor != JsonToken.START_ARRAY) {
+                    throw new IllegalArgumentException("O membro features deve ser uma lista");
+                }
+                return;
+            }
+            if ("type".equals(campo) && !"FeatureCollection".equals(parser.getValueAsString())) {
+                throw new IllegalArgumentException("O arquivo deve conter uma FeatureCollection GeoJSON");
+            }
+            if ("crs".equals(campo)) {
+                JsonNode crs = parser.readValueAsTree();
+                String nome = crs.path("properties").path("name").asText(null);
+                if (nome != null) {
+                    sistemaReferencia = SistemaReferencia.deNomeCrs(nome);
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        throw new IllegalArgumentException("A FeatureCollection não possui a lista de features");
+    }
+
+    @Override
+    public FeicaoImportada proxima() throws IOException {
+        if (fim) {
+            return null;
+        }
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            fim = true;
+            return null;
+        }
+        JsonNode feature = parser.readValueAsTree();
+        int atual = indice++;
+
+        Map<String, String> atributos = new LinkedHashMap<>();
+        feature.path("properties").properties().forEach(campo -> {
+            if (campo.getValue().isValueNode() && !campo.getValue().isNull()) {
+                atributos.put(campo.getKey(), campo.getValue().asText());
+            }
+        });
+        JsonNode id = feature.get("id");
+        if (id != null && id.isValueNode() && !id.isNull()) {
+            atributos.putIfAbsent("idFeicao", id.asText());
+        }
+
+        JsonNode geometria = feature.get("geometry");
+        if (geometria == null || geometria.isNull()) {
+            return FeicaoImportada.comErro(atual, atributos, "geometria não informada");
+        }
+        try {
+            return new FeicaoImportada(atual, atributos, geometryReader.read(geometria), sistemaReferencia, null);
+        } catch (IllegalArgumentException e) {
+            return FeicaoImportada.comErro(atual, atributos, e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+}
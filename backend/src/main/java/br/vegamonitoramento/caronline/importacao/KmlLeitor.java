@@ -0,0 +1,264 @@
+package br.vegamonitoramento.caronline.importacao;
+
+import br.vegamonitoramento.caronline.geometry.Geometrias;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.geom.Polygon;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Lê os Placemarks de um KML (ou do primeiro .kml de um KMZ) com StAX, um de cada vez.
+ * Atributos: "name", os de ExtendedData (Data e SimpleData) e "pasta", com o nome da Folder
+ * mais próxima, que costuma identificar o tema. Coordenadas KML são sempre WGS84.
+ */
+class KmlLeitor implements LeitorFeicoes {
+
+    private static final XMLInputFactory XML_FACTORY = XMLInputFactory.newFactory();
+
+    static {
+        // Arquivos enviados por usuários: sem DTD nem entidades externas
+        XML_FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        XML_FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    private final XMLStreamReader xml;
+    private final Closeable origem;
+    // Nome de cada Folder aberta; null até o elemento name da pasta ser lido
+    private final Deque<String> pastas = new ArrayDeque<>();
+    private int indice;
+
+    private KmlLeitor(InputStream entrada, Closeable origem) throws IOException {
+        try {
+            this.xml = XML_FACTORY.createXMLStreamReader(entrada);
+        } catch (XMLStreamException e) {
+            origem.close();
+            throw new IllegalArgumentException("KML inválido: " + e.getMessage());
+        }
+        this.origem = origem;
+    }
+
+    static KmlLeitor deKml(Path arquivo) throws IOException {
+        InputStream entrada = Files.newInputStream(arquivo);
+        return new KmlLeitor(entrada, entrada);
+    }
+
+    static KmlLeitor deKmz(Path arquivo) throws IOException {
+        ZipFile zip = new ZipFile(arquivo.toFile());
+        ZipEntry kml = zip.stream()
+                .filter(entrada -> entrada.getName().toLowerCase(Locale.ROOT).endsWith(".kml"))
+                .findFirst()
+                .orElse(null);
+        if (kml == null) {
+            zip.close();
+            throw new IllegalArgumentException("O KMZ não contém um arquivo .kml");
+        }
+        return new KmlLeitor(zip.getInputStream(kml), zip);
+    }
+
+    @Override
+    public FeicaoImportada proxima() throws IOException {
+        try {
+            while (xml.hasNext()) {
+                int evento = xml.next();
+                if (evento == XMLStreamConstants.START_ELEMENT) {
+                    switch (xml.getLocalName()) {
+                        case "Folder" -> pastas.push("");
+                        case "name" -> {
+                            if (!pastas.isEmpty() && pastas.peek().isEmpty()) {
+                                pastas.pop();
+                                pastas.push(xml.getElementText().trim());
+                            }
+                        }
+                        case "Placemark" -> {
+                            return lerPlacemark(indice++);
+                        }
+                        default -> {
+                        }
+                    }
+                } else if (evento == XMLStreamConstants.END_ELEMENT && "Folder".equals(xml.getLocalName())) {
+                    pastas.pop();
+                }
+            }
+            return null;
+        } catch (XMLStreamException e) {
+            throw new IllegalArgumentException("KML inválido: " + e.getMessage());
+        }
+    }
+
+    private FeicaoImportada lerPlacemark(int atual) throws XMLStreamException {
+        Map<String, String> atributos = new LinkedHashMap<>();
+        pastas.stream().filter(pasta -> !pasta.isEmpty()).findFirst()
+                .ifPresent(pasta -> atributos.put("pasta", pasta));
+        List<Geometry> geometrias = new ArrayList<>();
+        String erro = null;
+
+        while (xml.hasNext()) {
+            int evento = xml.next();
+            if (evento == XMLStreamConstants.END_ELEMENT && "Placemark".equals(xml.getLocalName())) {
+                break;
+            }
+            if (evento != XMLStreamConstants.START_ELEMENT) {
+                continue;
+            }
+            switch (xml.getLocalName()) {
+                case "name" -> atributos.put("name", xml.getElementText().trim());
+                case "SimpleData" -> atributos.put(xml.getAttributeValue(null, "name"), xml.getElementText().trim());
+                case "Data" -> atributos.put(xml.getAttributeValue(null, "name"), lerValor());
+                case "Point", "LineString", "LinearRing", "Polygon" -> {
+                    try {
+                        geometrias.add(lerGeometria(xml.getLocalName()));
+                    } catch (IllegalArgumentException e) {
+                        erro = e.getMessage();
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+
+        if (erro != null) {
+            return FeicaoImportada.comErro(atual, atributos, erro);
+        }
+        if (geometrias.isEmpty()) {
+            return FeicaoImportada.comErro(atual, atributos, "Placemark sem geometria");
+        }
+        Geometry geometria = geometrias.size() == 1
+                ? geometrias.get(0)
+                : Geometrias.FACTORY.buildGeometry(geometrias);
+        return new FeicaoImportada(atual, atributos, geometria, SistemaReferencia.WGS84, null);
+    }
+
+    private String lerValor() throws XMLStreamException {
+        String valor = null;
+        while (xml.hasNext()) {
+            int evento = xml.next();
+            if (evento == XMLStreamConstants.START_ELEMENT && "value".equals(xml.getLocalName())) {
+                valor = xml.getElementText().trim();
+            } else if (evento == XMLStreamConstants.END_ELEMENT && "Data".equals(xml.getLocalName())) {
+                return valor;
+            }
+        }
+        return valor;
+    }
+
+    /**
+     * Lê a geometria cujo elemento de abertura acabou de ser consumido
+     */
+    private Geometry lerGeometria(String tipo) throws XMLStreamException {
+        LinearRing externo = null;
+        List<LinearRing> furos = new ArrayList<>();
+        Coordinate[] coordenadas = null;
+        boolean interno = false;
+
+        while (xml.hasNext()) {
+            int evento = xml.next();
+            if (evento == XMLStreamConstants.END_ELEMENT && tipo.equals(xml.getLocalName())) {
+                break;
+            }
+            if (evento != XMLStreamConstants.START_ELEMENT) {
+                continue;
+            }
+            switch (xml.getLocalName()) {
+                case "outerBoundaryIs" -> interno = false;
+                case "innerBoundaryIs" -> interno = true;
+                case "coordinates" -> {
+                    coordenadas = coordenadas(xml.getElementText());
+                    if ("Polygon".equals(tipo)) {
+                        LinearRing anel = Geometrias.FACTORY.createLinearRing(fechar(coordenadas));
+                        if (interno) {
+                            furos.add(anel);
+                        } else {
+                            externo = anel;
+                        }
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+
+        if ("Polygon".equals(tipo)) {
+            if (externo == null) {
+                throw new IllegalArgumentException("Polygon sem outerBoundaryIs");
+            }
+            return Geometrias.FACTORY.createPolygon(externo, furos.toArray(new LinearRing[0]));
+        }
+        if (coordenadas == null || coordenadas.length == 0) {
+            throw new IllegalArgumentException(tipo + " sem coordenadas");
+        }
+        return switch (tipo) {
+            case "Point" -> Geometrias.FACTORY.createPoint(coordenadas[0]);
+            case "LinearRing" -> Geometrias.FACTORY.createPolygon(fechar(coordenadas));
+            default -> Geometrias.FACTORY.createLineString(coordenadas);
+        };
+    }
+
+    /**
+     * Tuplas "lon,lat[,alt]" separadas por espaços; a altitude é descartada
+     */
+    private static Coordinate[] coordenadas(String texto) {
+        String[] tuplas = texto.trim().split("\\s+");
+        List<Coordinate> coordenadas = new ArrayList<>(tuplas.length);
+        for (String tupla : tuplas) {
+            if (tupla.isEmpty()) {
+                continue;
+            }
+            String[] partes = tupla.split(",");
+            if (partes.length < 2) {
+                throw new IllegalArgumentException("Coordenada KML inválida: " + tupla);
+            }
+            try {
+                coordenadas.add(new Coordinate(Double.parseDouble(partes[0]), Double.parseDouble(partes[1])));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Coordenada KML inválida: " + tupla);
+            }
+        }
+        return coordenadas.toArray(new Coordinate[0]);
+    }
+
+    private static Coordinate[] fechar(Coordinate[] anel) {
+        if (anel.length < 3) {
+            throw new IllegalArgumentException("Anel com menos de 3 vértices");
+        }
+        if (anel[0].equals2D(anel[anel.length - 1])) {
+            if (anel.length < 4) {
+                throw new IllegalArgumentException("Anel com menos de 3 vértices");
+            }
+            return anel;
+        }
+        Coordinate[] fechado = new Coordinate[anel.length + 1];
+        System.arraycopy(anel, 0, fechado, 0, anel.length);
+        fechado[anel.length] = anel[0].copy();
+        return fechado;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            xml.close();
+        } catch (XMLStreamException e) {
+            // O fechamento da origem abaixo é o que libera o arquivo
+        } finally {
+            origem.close();
+        }
+    }
+}
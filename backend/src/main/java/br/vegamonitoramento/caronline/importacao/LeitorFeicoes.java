@@ -0,0 +1,16 @@
+package br.vegamonitoramento.caronline.importacao;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Lê as feições de um arquivo importado uma a uma, sem carregá-lo inteiro na memória
+ */
+public interface LeitorFeicoes extends Closeable {
+
+    /**
+     * @return a próxima feição, ou null no fim do arquivo
+     * @throws IllegalArgumentException se a estrutura do arquivo for inválida
+     */
+    FeicaoImportada proxima() throws IOException;
+}
@@ -0,0 +1,71 @@
+package br.vegamonitoramento.caronline.importacao;
+
+import br.vegamonitoramento.caronline.model.dto.TemaGrupoDTO;
+
+import java.text.Normalizer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Identifica o tema de uma feição importada pelos seus atributos, comparando-os com o código e o
+ * nome dos temas do catálogo sem acentos, maiúsculas ou pontuação ("APP Nascente", "app_nascente"
+ * e "Área de Preservação Permanente - Nascente" são reconhecidos). Os atributos são consultados na
+ * ordem de {@link #ATRIBUTOS}; sem correspondência, vale o tema padrão informado na importação.
+ */
+public final class MapeamentoTemas {
+
+    static final List<String> ATRIBUTOS = List.of(
+            "COD_TEMA", "CODTEMA", "TEMA", "NOM_TEMA", "CAMADA", "LAYER", "NAME", "NOME", "PASTA");
+
+    private final Map<String, TemaGrupoDTO> temas = new HashMap<>();
+    private final TemaGrupoDTO temaPadrao;
+
+    /**
+     * @throws IllegalArgumentException se o tema padrão não existir no catálogo
+     */
+    public MapeamentoTemas(List<TemaGrupoDTO> catalogo, String codTemaPadrao) {
+        for (TemaGrupoDTO tema : catalogo) {
+            if (tema.getCodTema() == null) {
+                continue;
+            }
+            temas.putIfAbsent(normalizar(tema.getCodTema()), tema);
+            if (tema.getNomTema() != null) {
+                temas.putIfAbsent(normalizar(tema.getNomTema()), tema);
+            }
+        }
+        if (codTemaPadrao != null && !codTemaPadrao.isBlank()) {
+            temaPadrao = temas.get(normalizar(codTemaPadrao));
+            if (temaPadrao == null) {
+                throw new IllegalArgumentException("Tema não encontrado: " + codTemaPadrao);
+            }
+        } else {
+            temaPadrao = null;
+        }
+    }
+
+    /**
+     * Tema da feição, ou null se nenhum atributo corresponder a um tema e não houver tema padrão
+     */
+    public TemaGrupoDTO temaDe(Map<String, String> atributos) {
+        Map<String, String> porNome = new HashMap<>();
+        atributos.forEach((nome, valor) -> porNome.putIfAbsent(nome.toUpperCase(Locale.ROOT), valor));
+
+        for (String atributo : ATRIBUTOS) {
+            String valor = porNome.get(atributo);
+            if (valor != null) {
+                TemaGrupoDTO tema = temas.get(normalizar(valor));
+                if (tema != null) {
+                    return tema;
+                }
+            }
+        }
+        return temaPadrao;
+    }
+
+    static String normalizar(String texto) {
+        String semAcentos = Normalizer.normalize(texto.trim(), Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return semAcentos.toUpperCase(Locale.ROOT).replaceAll("[^A-Z0-9]+", "_").replaceAll("^_|_$", "");
+    }
+}
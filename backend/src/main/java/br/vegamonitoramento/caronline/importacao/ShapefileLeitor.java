@@ -0,0 +1,360 @@
+package br.vegamonitoramento.caronline.importacao;
+
+import br.vegamonitoramento.caronline.geometry.Geometrias;
+import org.locationtech.jts.algorithm.Orientation;
+import org.locationtech.jts.algorithm.locate.IndexedPointInAreaLocator;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.geom.Location;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Lê os shapefiles de um ZIP, registro a registro: o .shp e o .dbf de cada camada são
+ * percorridos em paralelo, direto das entradas do ZIP, sem extrair para disco. O .prj define o
+ * sistema de coordenadas (sem ele, WGS84) e o .cpg a codificação do .dbf (sem ele, Windows-1252,
+ * a dos programas de SIG mais usados). Além dos campos do .dbf, cada feição recebe o atributo
+ * "camada" com o nome do arquivo, que costuma identificar o tema.
+ * <p>
+ * Tipos com Z ou M são lidos apenas em X e Y; MultiPatch não é suportado.
+ */
+class ShapefileLeitor implements LeitorFeicoes {
+
+    private static final int TAMANHO_CABECALHO_SHP = 100;
+
+    private final ZipFile zip;
+    private final Iterator<ZipEntry> camadas;
+    private Camada atual;
+    private int indice;
+
+    ShapefileLeitor(Path arquivo) throws IOException {
+        this.zip = new ZipFile(arquivo.toFile());
+        List<ZipEntry> shps = zip.stream()
+                .filter(entrada -> !entrada.isDirectory() && !entrada.getName().startsWith("__MACOSX"))
+                .filter(entrada -> entrada.getName().toLowerCase(Locale.ROOT).endsWith(".shp"))
+                .map(entrada -> (ZipEntry) entrada)
+                .toList();
+        if (shps.isEmpty()) {
+            zip.close();
+            throw new IllegalArgumentException("O ZIP não contém nenhum arquivo .shp");
+        }
+        this.camadas = shps.iterator();
+    }
+
+    @Override
+    public FeicaoImportada proxima() throws IOException {
+        while (true) {
+            if (atual == null) {
+                if (!camadas.hasNext()) {
+                    return null;
+                }
+                atual = new Camada(camadas.next());
+            }
+            FeicaoImportada feicao = atual.proxima();
+            if (feicao != null) {
+                return feicao;
+            }
+            atual.close();
+            atual = null;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (atual != null) {
+                atual.close();
+            }
+        } finally {
+            zip.close();
+        }
+    }
+
+    private ZipEntry irma(String base, String extensao) {
+        return zip.stream()
+                .filter(entrada -> entrada.getName().equalsIgnoreCase(base + extensao))
+                .findFirst()
+                .orElse(null);
+    }
+
+    private String texto(ZipEntry entrada, Charset charset) throws IOException {
+        try (InputStream in = zip.getInputStream(entrada)) {
+            return new String(in.readNBytes(64 * 1024), charset).trim();
+        }
+    }
+
+    /**
+     * Um par .shp/.dbf sendo percorrido
+     */
+    private class Camada {
+
+        private final String nome;
+        private final SistemaReferencia sistemaReferencia;
+        private final DataInputStream shp;
+        private final Dbf dbf;
+
+        Camada(ZipEntry entradaShp) throws IOException {
+            String caminho = entradaShp.getName();
+            String base = caminho.substring(0, caminho.length() - 4);
+            this.nome = base.substring(base.lastIndexOf('/') + 1);
+
+            ZipEntry prj = irma(base, ".prj");
+            this.sistemaReferencia = prj != null
+                    ? SistemaReferencia.dePrj(texto(prj, StandardCharsets.ISO_8859_1))
+                    : SistemaReferencia.WGS84;
+
+            ZipEntry cpg = irma(base, ".cpg");
+            Charset charset = cpg != null ? charset(texto(cpg, StandardCharsets.US_ASCII)) : Charset.forName("windows-1252");
+
+            ZipEntry entradaDbf = irma(base, ".dbf");
+            this.shp = new DataInputStream(new BufferedInputStream(zip.getInputStream(entradaShp), 64 * 1024));
+            this.dbf = entradaDbf != null
+                    ? new Dbf(new BufferedInputStream(zip.getInputStream(entradaDbf), 64 * 1024), charset)
+                    : null;
+            shp.skipNBytes(TAMANHO_CABECALHO_SHP);
+        }
+
+        FeicaoImportada proxima() throws IOException {
+            while (true) {
+                int tamanho;
+                try {
+                    shp.readInt(); // número do registro
+                    tamanho = shp.readInt() * 2;
+                } catch (EOFException e) {
+                    return null;
+                }
+                byte[] conteudo = shp.readNBytes(tamanho);
+                if (conteudo.length < tamanho) {
+                    throw new IllegalArgumentException(nome + ".shp truncado");
+                }
+
+                Map<String, String> atributos = new LinkedHashMap<>();
+                atributos.put("camada", nome);
+                boolean excluido = false;
+                if (dbf != null) {
+                    excluido = !dbf.proximo(atributos);
+                }
+                if (excluido) {
+                    continue;
+                }
+
+                int atual = indice++;
+                try {
+                    Geometry geometria = geometria(ByteBuffer.wrap(conteudo).order(ByteOrder.LITTLE_ENDIAN));
+                    if (geometria == null) {
+                        return FeicaoImportada.comErro(atual, atributos, "registro sem geometria");
+                    }
+                    return new FeicaoImportada(atual, atributos, geometria, sistemaReferencia, null);
+                } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+                    return FeicaoImportada.comErro(atual, atributos, "geometria inválida no " + nome + ".shp");
+                }
+            }
+        }
+
+        void close() throws IOException {
+            try {
+                shp.close();
+            } finally {
+                if (dbf != null) {
+                    dbf.close();
+                }
+            }
+        }
+    }
+
+    private static Charset charset(String cpg) {
+        String nome = cpg.toUpperCase(Locale.ROOT);
+        if (nome.matches("\\d{3,4}")) {
+            nome = nome.startsWith("125") ? "WINDOWS-" + nome : "CP" + nome;
+        } else if (nome.startsWith("8859")) {
+            nome = "ISO-" + nome;
+        }
+        try {
+            return Charset.forName(nome);
+        } catch (IllegalArgumentException e) {
+            return Charset.forName("windows-1252");
+        }
+    }
+
+    /**
+     * Geometria do conteúdo de um registro; null para o tipo nulo
+     */
+    static Geometry geometria(ByteBuffer registro) {
+        int tipo = registro.getInt();
+        if (tipo == 0) {
+            return null;
+        }
+        // Os tipos Z (1x) e M (2x) começam com o mesmo layout X/Y do tipo simples
+        return switch (tipo % 10) {
+            case 1 -> Geometrias.FACTORY.createPoint(new Coordinate(registro.getDouble(), registro.getDouble()));
+            case 8 -> {
+                registro.position(registro.position() + 32);
+                Coordinate[] pontos = pontos(registro, registro.getInt());
+                yield Geometrias.FACTORY.createMultiPointFromCoords(pontos);
+            }
+            case 3, 5 -> {
+                registro.position(registro.position() + 32);
+                int partes = registro.getInt();
+                int quantidade = registro.getInt();
+                int[] inicios = new int[partes + 1];
+                for (int i = 0; i < partes; i++) {
+                    inicios[i] = registro.getInt();
+                }
+                inicios[partes] = quantidade;
+                Coordinate[] pontos = pontos(registro, quantidade);
+                List<Coordinate[]> aneis = new ArrayList<>(partes);
+                for (int i = 0; i < partes; i++) {
+                    Coordinate[] parte = new Coordinate[inicios[i + 1] - inicios[i]];
+                    System.arraycopy(pontos, inicios[i], parte, 0, parte.length);
+                    aneis.add(parte);
+                }
+                yield tipo % 10 == 3 ? linhas(aneis) : poligonos(aneis);
+            }
+            default -> throw new IllegalArgumentException("Tipo de shape não suportado: " + tipo);
+        };
+    }
+
+    private static Coordinate[] pontos(ByteBuffer registro, int quantidade) {
+        Coordinate[] pontos = new Coordinate[quantidade];
+        for (int i = 0; i < quantidade; i++) {
+            pontos[i] = new Coordinate(registro.getDouble(), registro.getDouble());
+        }
+        return pontos;
+    }
+
+    private static Geometry linhas(List<Coordinate[]> partes) {
+        LineString[] linhas = partes.stream().map(Geometrias.FACTORY::createLineString).toArray(LineString[]::new);
+        return linhas.length == 1 ? linhas[0] : Geometrias.FACTORY.createMultiLineString(linhas);
+    }
+
+    /**
+     * No shapefile os anéis externos são horários e os furos anti-horários; cada furo vai para
+     * o polígono externo que o contém
+     */
+    private static Geometry poligonos(List<Coordinate[]> aneis) {
+        List<LinearRing> externos = new ArrayList<>();
+        List<LinearRing> furos = new ArrayList<>();
+        for (Coordinate[] anel : aneis) {
+            LinearRing linearRing = Geometrias.FACTORY.createLinearRing(anel);
+            (Orientation.isCCW(anel) ? furos : externos).add(linearRing);
+        }
+        if (externos.isEmpty()) {
+            // Arquivo com orientação invertida: trata todos os anéis como externos
+            externos.addAll(furos);
+            furos.clear();
+        }
+
+        List<List<LinearRing>> furosPorExterno = new ArrayList<>();
+        List<IndexedPointInAreaLocator> localizadores = new ArrayList<>();
+        for (LinearRing externo : externos) {
+            furosPorExterno.add(new ArrayList<>());
+            localizadores.add(new IndexedPointInAreaLocator(externo));
+        }
+        for (LinearRing furo : furos) {
+            Point ponto = furo.getStartPoint();
+            int dono = -1;
+            for (int i = 0; i < externos.size() && dono < 0; i++) {
+                if (externos.get(i).getEnvelopeInternal().covers(ponto.getCoordinate())
+                        && localizadores.get(i).locate(ponto.getCoordinate()) != Location.EXTERIOR) {
+                    dono = i;
+                }
+            }
+            furosPorExterno.get(Math.max(dono, 0)).add(furo);
+        }
+
+        Polygon[] poligonos = new Polygon[externos.size()];
+        for (int i = 0; i < externos.size(); i++) {
+            poligonos[i] = Geometrias.FACTORY.createPolygon(externos.get(i),
+                    furosPorExterno.get(i).toArray(new LinearRing[0]));
+        }
+        return poligonos.length == 1 ? poligonos[0] : Geometrias.FACTORY.createMultiPolygon(poligonos);
+    }
+
+    /**
+     * Leitura sequencial dos registros de um .dbf (dBASE III)
+     */
+    private static class Dbf {
+
+        private final DataInputStream entrada;
+        private final Charset charset;
+        private final List<String> nomes = new ArrayList<>();
+        private final List<Integer> tamanhos = new ArrayList<>();
+        private final int tamanhoRegistro;
+        private int restantes;
+
+        Dbf(InputStream entrada, Charset charset) throws IOException {
+            this.entrada = new DataInputStream(entrada);
+            this.charset = charset;
+
+            ByteBuffer cabecalho = ByteBuffer.wrap(this.entrada.readNBytes(32)).order(ByteOrder.LITTLE_ENDIAN);
+            restantes = cabecalho.getInt(4);
+            int tamanhoCabecalho = Short.toUnsignedInt(cabecalho.getShort(8));
+            tamanhoRegistro = Short.toUnsignedInt(cabecalho.getShort(10));
+
+            int lidos = 32;
+            while (lidos + 32 <= tamanhoCabecalho - 1) {
+                byte[] campo = this.entrada.readNBytes(32);
+                lidos += 32;
+                if (campo[0] == 0x0D) {
+                    break;
+                }
+                int fim = 0;
+                while (fim < 11 && campo[fim] != 0) {
+                    fim++;
+                }
+                nomes.add(new String(campo, 0, fim, StandardCharsets.US_ASCII).trim());
+                tamanhos.add(Byte.toUnsignedInt(campo[16]));
+            }
+            this.entrada.skipNBytes(tamanhoCabecalho - lidos);
+        }
+
+        /**
+         * Lê o próximo registro nos atributos
+         * @return false se o registro estiver marcado como excluído
+         */
+        boolean proximo(Map<String, String> atributos) throws IOException {
+            if (restantes-- <= 0) {
+                return true;
+            }
+            byte[] registro = entrada.readNBytes(tamanhoRegistro);
+            if (registro.length < tamanhoRegistro) {
+                restantes = 0;
+                return true;
+            }
+            int posicao = 1;
+            for (int i = 0; i < nomes.size(); i++) {
+                String valor = new String(registro, posicao, tamanhos.get(i), charset).trim();
+                if (!valor.isEmpty()) {
+                    atributos.put(nomes.get(i), valor);
+                }
+                posicao += tamanhos.get(i);
+            }
+            return registro[0] != '*';
+        }
+
+        void close() throws IOException {
+            entrada.close();
+        }
+    }
+}
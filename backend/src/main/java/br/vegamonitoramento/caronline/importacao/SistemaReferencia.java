@@ -0,0 +1,136 @@
+package br.vegamonitoramento.caronline.importacao;
+
+import br.vegamonitoramento.caronline.geometry.Projecao;
+import br.vegamonitoramento.caronline.geometry.ProjecaoUtm;
+import org.locationtech.jts.geom.Geometry;
+
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Sistema de coordenadas de um arquivo importado: geográfico (WGS84 ou SIRGAS 2000) ou UTM
+ * nesses datums. SAD69 e Córrego Alegre exigem transformação de datum e são recusados.
+ *
+ * @param srid código EPSG
+ * @param zonaUtm fuso UTM, ou null para coordenadas geográficas
+ * @param sul hemisfério do fuso UTM
+ */
+public record SistemaReferencia(int srid, Integer zonaUtm, boolean sul) {
+
+    public static final SistemaReferencia WGS84 = new SistemaReferencia(4326, null, false);
+    public static final SistemaReferencia SIRGAS2000 = new SistemaReferencia(4674, null, false);
+
+    private static final Pattern ZONA_UTM = Pattern.compile("UTM[ _]ZONE[ _](\\d{1,2})([NS])");
+    private static final Pattern MERIDIANO_CENTRAL =
+            Pattern.compile("\"CENTRAL_MERIDIAN\"\\s*,\\s*(-?[\\d.]+)");
+    private static final Pattern FALSO_NORTE = Pattern.compile("\"FALSE_NORTHING\"\\s*,\\s*([\\d.]+)");
+    private static final Pattern EPSG = Pattern.compile("EPSG:*(\\d{4,5})$");
+
+    /**
+     * Converte para longitude/latitude, sem cópia quando já é geográfico
+     */
+    public Geometry paraGeograficas(Geometry geometria) {
+        return zonaUtm == null ? geometria : ProjecaoUtm.paraGeograficas(geometria, zonaUtm, sul);
+    }
+
+    /**
+     * Projeção correspondente, ou {@link Projecao#GEOGRAFICAS} sem fuso UTM
+     */
+    public Projecao projecao() {
+        return zonaUtm == null ? Projecao.GEOGRAFICAS : ProjecaoUtm.de(zonaUtm, sul);
+    }
+
+    /**
+     * Interpreta o WKT de um arquivo .prj (ESRI ou OGC)
+     * @throws IllegalArgumentException se o sistema não for suportado
+     */
+    public static SistemaReferencia dePrj(String wkt) {
+        String texto = wkt.trim().toUpperCase(Locale.ROOT);
+        boolean sirgas = texto.contains("SIRGAS");
+        if (texto.contains("SAD_1969") || texto.contains("SAD69") || texto.contains("SOUTH_AMERICAN_1969")
+                || texto.contains("CORREGO") || texto.contains("CÓRREGO")) {
+            throw new IllegalArgumentException("Datum não suportado (converta o arquivo para SIRGAS 2000): " + resumo(wkt));
+        }
+        if (!sirgas && !texto.contains("WGS_1984") && !texto.contains("WGS 84") && !texto.contains("WGS84")) {
+            throw new IllegalArgumentException("Sistema de coordenadas não reconhecido: " + resumo(wkt));
+        }
+
+        if (texto.startsWith("GEOGCS") || texto.startsWith("GEOGCRS")) {
+            return sirgas ? SIRGAS2000 : WGS84;
+        }
+        if (!texto.contains("TRANSVERSE_MERCATOR") && !texto.contains("UTM")) {
+            throw new IllegalArgumentException("Projeção não suportada (use geográficas ou UTM): " + resumo(wkt));
+        }
+
+        Matcher zona = ZONA_UTM.matcher(texto);
+        if (zona.find()) {
+            return utm(Integer.parseInt(zona.group(1)), "S".equals(zona.group(2)), sirgas);
+        }
+        // Sem o nome do fuso, deduz pelos parâmetros da projeção
+        Matcher meridiano = MERIDIANO_CENTRAL.matcher(texto);
+        if (!meridiano.find()) {
+            throw new IllegalArgumentException("Projeção UTM sem meridiano central: " + resumo(wkt));
+        }
+        int fuso = (int) Math.round((Double.parseDouble(meridiano.group(1)) + 183) / 6);
+        Matcher falsoNorte = FALSO_NORTE.matcher(texto);
+        return utm(fuso, falsoNorte.find() && Double.parseDouble(falsoNorte.group(1)) > 0, sirgas);
+    }
+
+    /**
+     * Códigos EPSG aceitos: 4326, 4674, UTM SIRGAS 2000 (31965-31985) e UTM WGS84 (32601-32660, 32701-32760)
+     * @throws IllegalArgumentException se o código não for suportado
+     */
+    public static SistemaReferencia deEpsg(int srid) {
+        if (srid == 4326) {
+            return WGS84;
+        }
+        if (srid == 4674) {
+            return SIRGAS2000;
+        }
+        if (srid >= 31965 && srid <= 31976) {
+            return new SistemaReferencia(srid, srid - 31965 + 11, false);
+        }
+        if (srid >= 31977 && srid <= 31985) {
+            return new SistemaReferencia(srid, srid - 31977 + 17, true);
+        }
+        if (srid >= 32601 && srid <= 32660) {
+            return new SistemaReferencia(srid, srid - 32600, false);
+        }
+        if (srid >= 32701 && srid <= 32760) {
+            return new SistemaReferencia(srid, srid - 32700, true);
+        }
+        throw new IllegalArgumentException("Código EPSG não suportado: " + srid);
+    }
+
+    /**
+     * Nome de CRS de GeoJSON antigo, como "EPSG:31983" ou "urn:ogc:def:crs:EPSG::31983"
+     */
+    public static SistemaReferencia deNomeCrs(String nome) {
+        String texto = nome.trim().toUpperCase(Locale.ROOT);
+        if (texto.endsWith("CRS84")) {
+            return WGS84;
+        }
+        Matcher codigo = EPSG.matcher(texto);
+        if (!codigo.find()) {
+            throw new IllegalArgumentException("CRS não suportado: " + nome);
+        }
+        return deEpsg(Integer.parseInt(codigo.group(1)));
+    }
+
+    private static SistemaReferencia utm(int zona, boolean sul, boolean sirgas) {
+        int base = sirgas
+                ? (sul ? 31977 - 17 : 31965 - 11)
+                : (sul ? 32700 : 32600);
+        int srid = base + zona;
+        // Fusos SIRGAS fora do intervalo com código EPSG próprio ficam com o do WGS84, equivalente
+        if (sirgas && (srid < 31965 || srid > 31985)) {
+            srid = (sul ? 32700 : 32600) + zona;
+        }
+        return new SistemaReferencia(srid, zona, sul);
+    }
+
+    private static String resumo(String wkt) {
+        return wkt.length() > 80 ? wkt.substring(0, 80) + "..." : wkt;
+    }
+}
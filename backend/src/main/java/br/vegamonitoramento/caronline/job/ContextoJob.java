@@ -0,0 +1,94 @@
+package br.vegamonitoramento.caronline.job;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Entregue à tarefa em execução para informar o andamento e verificar o cancelamento.
+ * O progresso é atualizado em memória a cada chamada e gravado no banco no máximo uma vez
+ * por intervalo; com a mesma frequência, o pedido de cancelamento é relido do banco, onde
+ * outra instância pode tê-lo gravado.
+ */
+public class ContextoJob {
+
+    private final Job job;
+    private final Consumer<Job> gravarProgresso;
+    private final Predicate<Job> cancelamentoGravado;
+    private final long intervaloGravacaoNanos;
+    private long ultimaGravacao;
+    private long ultimaConsulta;
+
+    public ContextoJob(Job job, Consumer<Job> gravarProgresso, Predicate<Job> cancelamentoGravado,
+                       long intervaloGravacaoMs) {
+        this.job = job;
+        this.gravarProgresso = gravarProgresso;
+        this.cancelamentoGravado = cancelamentoGravado;
+        this.intervaloGravacaoNanos = intervaloGravacaoMs * 1_000_000;
+        this.ultimaGravacao = System.nanoTime();
+        this.ultimaConsulta = ultimaGravacao;
+    }
+
+    /**
+     * @param fracao fração concluída, de 0 a 1
+     * @throws JobCanceladoException se o cancelamento foi pedido
+     */
+    public void progresso(double fracao, String mensagem) {
+        verificarCancelamento();
+        job.setProgresso(Math.max(0, Math.min(1, fracao)));
+        job.setMensagem(mensagem);
+
+        long agora = System.nanoTime();
+        if (agora - ultimaGravacao >= intervaloGravacaoNanos) {
+            ultimaGravacao = agora;
+            gravarProgresso.accept(job);
+        }
+    }
+
+    /**
+     * @throws JobCanceladoException se o cancelamento foi pedido
+     */
+    public void verificarCancelamento() {
+        long agora = System.nanoTime();
+        if (!job.isCancelamentoPedido() && agora - ultimaConsulta >= intervaloGravacaoNanos) {
+            ultimaConsulta = agora;
+            job.setCancelamentoPedido(cancelamentoGravado.test(job));
+        }
+        if (job.isCancelamentoPedido()) {
+            throw new JobCanceladoException();
+        }
+    }
+
+    /**
+     * Saída que informa os bytes escritos e interrompe a escrita se a tarefa for cancelada,
+     * para operações de duração desconhecida como a exportação
+     */
+    public OutputStream monitorar(OutputStream saida) {
+        return new FilterOutputStream(saida) {
+
+            private long escritos;
+
+            @Override
+            public void write(int b) throws IOException {
+                out.write(b);
+                contar(1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+                contar(len);
+            }
+
+            private void contar(int quantidade) {
+                long antes = escritos >> 20;
+                escritos += quantidade;
+                if (escritos >> 20 != antes) {
+                    progresso(job.getProgresso(), (escritos >> 20) + " MB escritos");
+                }
+            }
+        };
+    }
+}
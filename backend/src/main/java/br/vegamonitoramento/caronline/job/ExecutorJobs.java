@@ -0,0 +1,137 @@
+package br.vegamonitoramento.caronline.job;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Executor com número fixo de tarefas simultâneas e duas faixas de prioridade. Uma vaga livre
+ * vai sempre para a tarefa interativa mais antiga; tarefas de lote ocupam no máximo
+ * {@code maximoLote} vagas, de modo que sobra vaga para o trabalho interativo mesmo com a fila
+ * de lote cheia. Cada faixa aceita no máximo {@code capacidade} tarefas aguardando.
+ * <p>
+ * As tarefas rodam em virtual threads; o limite de vagas é o que controla a concorrência
+ * (e, com ela, as conexões de banco ocupadas por tarefas).
+ */
+public class ExecutorJobs {
+
+    private final int vagas;
+    private final int maximoLote;
+    private final int capacidade;
+
+    // ReentrantLock em vez de synchronized, como no restante do código com virtual threads
+    private final ReentrantLock trava = new ReentrantLock();
+    private final Map<FaixaJob, Deque<Tarefa>> filas = new EnumMap<>(FaixaJob.class);
+    private final Map<FaixaJob, Integer> emExecucao = new EnumMap<>(FaixaJob.class);
+    private final ThreadFactory threads = Thread.ofVirtual().name("job-", 1).factory();
+
+    public ExecutorJobs(int vagas, int maximoLote, int capacidade) {
+        if (vagas < 1 || capacidade < 1) {
+            throw new IllegalArgumentException("vagas e capacidade devem ser positivas");
+        }
+        this.vagas = vagas;
+        // Com uma única vaga não há como reservar; o lote apenas espera as interativas
+        this.maximoLote = vagas == 1 ? 1 : Math.max(1, Math.min(maximoLote, vagas - 1));
+        this.capacidade = capacidade;
+        for (FaixaJob faixa : FaixaJob.values()) {
+            filas.put(faixa, new ArrayDeque<>());
+            emExecucao.put(faixa, 0);
+        }
+    }
+
+    /**
+     * @throws FilaJobsCheiaException se a faixa já tiver {@code capacidade} tarefas aguardando
+     */
+    public void enfileirar(UUID id, FaixaJob faixa, Runnable tarefa) {
+        trava.lock();
+        try {
+            Deque<Tarefa> fila = filas.get(faixa);
+            if (fila.size() >= capacidade) {
+                throw new FilaJobsCheiaException(faixa, capacidade);
+            }
+            fila.addLast(new Tarefa(id, faixa, tarefa));
+            despachar();
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /**
+     * Tira da fila uma tarefa que ainda não começou
+     * @return false se a tarefa não estava aguardando (já começou ou não existe)
+     */
+    public boolean remover(UUID id) {
+        trava.lock();
+        try {
+            for (Deque<Tarefa> fila : filas.values()) {
+                if (fila.removeIf(tarefa -> tarefa.id().equals(id))) {
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    public int getAguardando(FaixaJob faixa) {
+        trava.lock();
+        try {
+            return filas.get(faixa).size();
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    public int getEmExecucao(FaixaJob faixa) {
+        trava.lock();
+        try {
+            return emExecucao.get(faixa);
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /**
+     * Inicia tarefas enquanto houver vaga; deve ser chamado com a trava
+     */
+    private void despachar() {
+        while (true) {
+            int ocupadas = emExecucao.get(FaixaJob.INTERATIVA) + emExecucao.get(FaixaJob.LOTE);
+            if (ocupadas >= vagas) {
+                return;
+            }
+            Tarefa proxima = filas.get(FaixaJob.INTERATIVA).pollFirst();
+            if (proxima == null && emExecucao.get(FaixaJob.LOTE) < maximoLote) {
+                proxima = filas.get(FaixaJob.LOTE).pollFirst();
+            }
+            if (proxima == null) {
+                return;
+            }
+            emExecucao.merge(proxima.faixa(), 1, Integer::sum);
+            Tarefa iniciada = proxima;
+            threads.newThread(() -> executar(iniciada)).start();
+        }
+    }
+
+    private void executar(Tarefa tarefa) {
+        try {
+            tarefa.execucao().run();
+        } finally {
+            trava.lock();
+            try {
+                emExecucao.merge(tarefa.faixa(), -1, Integer::sum);
+                despachar();
+            } finally {
+                trava.unlock();
+            }
+        }
+    }
+
+    private record Tarefa(UUID id, FaixaJob faixa, Runnable execucao) {
+    }
+}
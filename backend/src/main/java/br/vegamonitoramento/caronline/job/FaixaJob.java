@@ -0,0 +1,9 @@
+package br.vegamonitoramento.caronline.job;
+
+/**
+ * Faixa de prioridade: tarefas interativas (alguém esperando na tela) passam à frente das de lote
+ */
+public enum FaixaJob {
+    INTERATIVA,
+    LOTE
+}
@@ -0,0 +1,14 @@
+package br.vegamonitoramento.caronline.job;
+
+import java.util.Locale;
+
+/**
+ * A faixa já tem o máximo de tarefas aguardando execução
+ */
+public class FilaJobsCheiaException extends RuntimeException {
+
+    public FilaJobsCheiaException(FaixaJob faixa, int capacidade) {
+        super("A fila de tarefas " + faixa.name().toLowerCase(Locale.ROOT) + " está cheia (" + capacidade
+                + " aguardando); tente novamente em instantes");
+    }
+}
@@ -0,0 +1,50 @@
+package br.vegamonitoramento.caronline.job;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Estado de uma tarefa assíncrona. Situação, progresso e mensagem são alterados pela thread
+ * que executa a tarefa e lidos pelas consultas de andamento.
+ */
+@Data
+@NoArgsConstructor
+public class Job {
+
+    private UUID id;
+
+    private TipoJob tipo;
+
+    private FaixaJob faixa;
+
+    private volatile SituacaoJob situacao;
+
+    private Long codMunicipio;
+
+    // Formato da exportação (ver FormatoExportacao)
+    private String formato;
+
+    // Fração concluída, de 0 a 1
+    private volatile double progresso;
+
+    private volatile String mensagem;
+
+    private volatile String tipoMidia;
+
+    // Caminho do arquivo com o resultado
+    private volatile String arquivo;
+
+    private volatile int tentativas;
+
+    private OffsetDateTime dataCriacao;
+
+    private volatile OffsetDateTime dataInicio;
+
+    private volatile OffsetDateTime dataFim;
+
+    // Gravado em ind_cancelamento: o pedido pode chegar por uma instância que não é a dona da tarefa
+    private volatile boolean cancelamentoPedido;
+}
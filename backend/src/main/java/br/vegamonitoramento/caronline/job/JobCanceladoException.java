@@ -0,0 +1,11 @@
+package br.vegamonitoramento.caronline.job;
+
+/**
+ * Lançada pela tarefa em execução ao perceber que o cancelamento foi pedido
+ */
+public class JobCanceladoException extends RuntimeException {
+
+    public JobCanceladoException() {
+        super("Tarefa cancelada");
+    }
+}
@@ -0,0 +1,10 @@
+package br.vegamonitoramento.caronline.job;
+
+import java.util.UUID;
+
+public class JobNaoEncontradoException extends RuntimeException {
+
+    public JobNaoEncontradoException(UUID id) {
+        super("Tarefa não encontrada: " + id);
+    }
+}
@@ -0,0 +1,13 @@
+package br.vegamonitoramento.caronline.job;
+
+public enum SituacaoJob {
+    PENDENTE,
+    EXECUTANDO,
+    CONCLUIDO,
+    FALHOU,
+    CANCELADO;
+
+    public boolean isFinal() {
+        return this == CONCLUIDO || this == FALHOU || this == CANCELADO;
+    }
+}
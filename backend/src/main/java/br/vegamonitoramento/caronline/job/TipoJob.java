@@ -0,0 +1,30 @@
+package br.vegamonitoramento.caronline.job;
+
+/**
+ * Operações que podem ser executadas como tarefa assíncrona, todas sobre as camadas gravadas
+ * de um município
+ */
+public enum TipoJob {
+
+    // Regras do CAR aplicadas a todas as feições
+    VALIDACAO(FaixaJob.INTERATIVA),
+
+    // Sobreposições proibidas entre feições
+    TOPOLOGIA(FaixaJob.INTERATIVA),
+
+    // Quadro de áreas (overlay de todos os temas)
+    QUADRO_AREAS(FaixaJob.INTERATIVA),
+
+    // Exportação do município inteiro num arquivo
+    EXPORTACAO(FaixaJob.LOTE);
+
+    private final FaixaJob faixaPadrao;
+
+    TipoJob(FaixaJob faixaPadrao) {
+        this.faixaPadrao = faixaPadrao;
+    }
+
+    public FaixaJob getFaixaPadrao() {
+        return faixaPadrao;
+    }
+}
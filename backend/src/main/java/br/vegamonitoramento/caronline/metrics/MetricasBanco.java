@@ -0,0 +1,78 @@
+package br.vegamonitoramento.caronline.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Tempo das consultas do JdbcTemplate por nome (métrica caronline.db.consulta) e log de SQL
+ * por amostragem. Consultas acima do limite de lentidão são sempre registradas no log.
+ */
+@Slf4j
+@Component
+public class MetricasBanco {
+
+    public static final String METRICA_CONSULTA = "caronline.db.consulta";
+
+    private final MeterRegistry registry;
+    private final double amostragemLog;
+    private final long limiteLentaMs;
+
+    @Autowired
+    public MetricasBanco(MeterRegistry registry,
+                         @Value("${caronline.sql.log.amostragem:0}") double amostragemLog,
+                         @Value("${caronline.sql.log.lenta-ms:1000}") long limiteLentaMs) {
+        this.registry = registry;
+        this.amostragemLog = amostragemLog;
+        this.limiteLentaMs = limiteLentaMs;
+    }
+
+    /**
+     * Executa e mede a consulta
+     * @param consulta nome estável da consulta, usado como tag (ex.: "tema_grupo.listar")
+     * @param sql texto da consulta, usado apenas no log
+     */
+    public <T> T medir(String consulta, String sql, Supplier<T> execucao) {
+        long inicio = System.nanoTime();
+        String resultado = "sucesso";
+        try {
+            return execucao.get();
+        } catch (RuntimeException e) {
+            resultado = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            long duracao = System.nanoTime() - inicio;
+            Timer.builder(METRICA_CONSULTA)
+                    .description("Tempo das consultas ao banco por nome")
+                    .tag("consulta", consulta)
+                    .tag("resultado", resultado)
+                    .publishPercentileHistogram()
+                    .register(registry)
+                    .record(duracao, TimeUnit.NANOSECONDS);
+            registrarLog(consulta, sql, duracao);
+        }
+    }
+
+    public void medir(String consulta, String sql, Runnable execucao) {
+        medir(consulta, sql, () -> {
+            execucao.run();
+            return null;
+        });
+    }
+
+    private void registrarLog(String consulta, String sql, long duracaoNanos) {
+        long duracaoMs = TimeUnit.NANOSECONDS.toMillis(duracaoNanos);
+        if (duracaoMs >= limiteLentaMs) {
+            log.warn("Consulta lenta {} ({} ms): {}", consulta, duracaoMs, sql);
+        } else if (amostragemLog > 0 && ThreadLocalRandom.current().nextDouble() < amostragemLog) {
+            log.info("Consulta {} ({} ms): {}", consulta, duracaoMs, sql);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package br.vegamonitoramento.caronline.metrics;
+
+import br.vegamonitoramento.caronline.geometry.CorrecaoGeometria;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.locationtech.jts.geom.Geometry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tamanho das geometrias que passam pelas operações geométricas (métrica caronline.geometria.vertices).
+ * A contagem da distribuição dá o número de feições; a soma, o total de vértices processados.
+ * As correções feitas na normalização das geometrias recebidas são contadas por tipo em
+ * caronline.geometria.correcoes.
+ */
+@Component
+public class MetricasGeometria {
+
+    public static final String METRICA_VERTICES = "caronline.geometria.vertices";
+    public static final String METRICA_CORRECOES = "caronline.geometria.correcoes";
+
+    private final MeterRegistry registry;
+    private final Map<String, DistributionSummary> porOperacao = new ConcurrentHashMap<>();
+    private final Map<String, Counter> correcoes = new ConcurrentHashMap<>();
+
+    @Autowired
+    public MetricasGeometria(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public void registrar(String operacao, Geometry geometria) {
+        if (geometria != null) {
+            resumo(operacao).record(geometria.getNumPoints());
+        }
+    }
+
+    /**
+     * Conta cada correção aplicada a uma geometria recebida na operação
+     */
+    public void registrarCorrecoes(String operacao, Set<CorrecaoGeometria> aplicadas) {
+        for (CorrecaoGeometria correcao : aplicadas) {
+            correcoes.computeIfAbsent(operacao + ':' + correcao, chave -> Counter.builder(METRICA_CORRECOES)
+                    .description("Geometrias corrigidas na normalização, por tipo de correção")
+                    .tag("operacao", operacao)
+                    .tag("tipo", correcao.name().toLowerCase(Locale.ROOT))
+                    .register(registry)).increment();
+        }
+    }
+
+    private DistributionSummary resumo(String operacao) {
+        return porOperacao.computeIfAbsent(operacao, nome -> DistributionSummary.builder(METRICA_VERTICES)
+                .description("Vértices por geometria processada")
+                .baseUnit("vertices")
+                .tag("operacao", nome)
+                .publishPercentileHistogram()
+                .register(registry));
+    }
+}
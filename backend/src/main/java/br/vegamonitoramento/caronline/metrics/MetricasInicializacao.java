@@ -0,0 +1,72 @@
+package br.vegamonitoramento.caronline.metrics;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tempo de inicialização (desde o início da JVM) e memória em uso quando a aplicação fica pronta,
+ * registrados no log e como métricas caronline.inicializacao.*, para comparar os builds com e sem AOT/CDS.
+ */
+@Slf4j
+@Component
+public class MetricasInicializacao {
+
+    private final MeterRegistry registry;
+
+    @Autowired
+    public MetricasInicializacao(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void registrar() {
+        long tempoMs = ManagementFactory.getRuntimeMXBean().getUptime();
+        MemoryMXBean memoria = ManagementFactory.getMemoryMXBean();
+        long heap = memoria.getHeapMemoryUsage().getUsed();
+        long naoHeap = memoria.getNonHeapMemoryUsage().getUsed();
+        int classes = ManagementFactory.getClassLoadingMXBean().getLoadedClassCount();
+        boolean aot = AotDetector.useGeneratedArtifacts();
+        boolean cds = usaArquivoCds();
+
+        String modo = (aot ? "aot" : "jit") + (cds ? "+cds" : "");
+        TimeGauge.builder("caronline.inicializacao.tempo", () -> tempoMs, TimeUnit.MILLISECONDS)
+                .description("Tempo desde o início da JVM até a aplicação ficar pronta")
+                .tag("modo", modo)
+                .register(registry);
+        Gauge.builder("caronline.inicializacao.memoria", () -> heap)
+                .description("Memória em uso quando a aplicação ficou pronta")
+                .baseUnit("bytes")
+                .tags("area", "heap", "modo", modo)
+                .register(registry);
+        Gauge.builder("caronline.inicializacao.memoria", () -> naoHeap)
+                .description("Memória em uso quando a aplicação ficou pronta")
+                .baseUnit("bytes")
+                .tags("area", "nonheap", "modo", modo)
+                .register(registry);
+
+        log.info("Aplicação pronta em {} ms ({}): heap {} MB, non-heap {} MB, {} classes carregadas",
+                tempoMs, modo, heap / (1024 * 1024), naoHeap / (1024 * 1024), classes);
+    }
+
+    private static boolean usaArquivoCds() {
+        try {
+            HotSpotDiagnosticMXBean diagnostico = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+            return diagnostico != null && !diagnostico.getVMOption("SharedArchiveFile").getValue().isEmpty();
+        } catch (IllegalArgumentException | UnsupportedOperationException e) {
+            // Imagem nativa ou JVM sem a opção
+            return false;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package br.vegamonitoramento.caronline.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.locationtech.jts.geom.Geometry;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+/**
+ * Feição de uma camada desenhada, já convertida para JTS
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeicaoCamada {
+
+    private Long idtCamadaImovel;
+
+    private Long idtTema;
+
+    private String codTema;
+
+    private String nomTema;
+
+    private BigDecimal numArea;
+
+    private Geometry geometria;
+
+    private OffsetDateTime dataCriacao;
+
+    private OffsetDateTime dataUltimaAtualizacao;
+
+    // Identificador estável atribuído pelo cliente, usado na sincronização incremental
+    private String codFeicao;
+
+    // SHA-256 (hexadecimal) do conteúdo; ver HashFeicao
+    private String codHash;
+
+    // Revisão do município em que a feição foi gravada pela última vez
+    private Long numRevisao;
+}
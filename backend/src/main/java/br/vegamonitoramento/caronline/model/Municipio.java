@@ -0,0 +1,21 @@
+package br.vegamonitoramento.caronline.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.locationtech.jts.geom.Geometry;
+
+/**
+ * Limite municipal usado como geometria de referência nas validações
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Municipio {
+
+    private Long codMunicipio;
+
+    private String nomMunicipio;
+
+    private Geometry geometria;
+}
@@ -0,0 +1,50 @@
+package br.vegamonitoramento.caronline.model;
+
+import java.util.Set;
+
+/**
+ * Códigos de tema (usr_geocar_aplicacao.tema.cod_tema) com regras específicas no backend
+ */
+public final class Temas {
+
+    public static final String AREA_IMOVEL = "AREA_IMOVEL";
+
+    // Temas calculados a partir dos demais (fl_visivel_mapa = false no catálogo)
+    public static final String AREA_IMOVEL_LIQUIDA = "AREA_IMOVEL_LIQUIDA";
+    public static final String AREA_NAO_CLASSIFICADA = "AREA_NAO_CLASSIFICADA";
+    public static final String AREA_SERVIDAO_ADMINISTRATIVA_TOTAL = "AREA_SERVIDAO_ADMINISTRATIVA_TOTAL";
+    public static final String APP_A_RECUPERAR = "APP_A_RECUPERAR";
+    public static final String ARL_TOTAL = "ARL_TOTAL";
+
+    public static final Set<String> DERIVADOS = Set.of(
+            AREA_IMOVEL_LIQUIDA,
+            AREA_NAO_CLASSIFICADA,
+            AREA_SERVIDAO_ADMINISTRATIVA_TOTAL,
+            APP_A_RECUPERAR,
+            ARL_TOTAL);
+
+    // Servidões administrativas
+    public static final String AREA_ENTORNO_RESERVATORIO_ENERGIA = "AREA_ENTORNO_RESERVATORIO_ENERGIA";
+    public static final String AREA_INFRAESTRUTURA_PUBLICA = "AREA_INFRAESTRUTURA_PUBLICA";
+    public static final String RESERVATORIO_ENERGIA = "RESERVATORIO_ENERGIA";
+    public static final String AREA_UTILIDADE_PUBLICA = "AREA_UTILIDADE_PUBLICA";
+
+    // Cobertura do solo
+    public static final String AREA_CONSOLIDADA = "AREA_CONSOLIDADA";
+    public static final String AREA_POUSIO = "AREA_POUSIO";
+    public static final String VEGETACAO_NATIVA = "VEGETACAO_NATIVA";
+    public static final String AREA_ANTROPIZADA_APOS_2008_VETORIZADA = "AREA_ANTROPIZADA_APOS_2008_VETORIZADA";
+    public static final String CORPO_DAGUA = "CORPO_DAGUA";
+    public static final String HYDROGRAPHY = "HYDROGRAPHY";
+
+    // Reserva legal
+    public static final String ARL_AVERBADA = "ARL_AVERBADA";
+    public static final String ARL_APROVADA_NAO_AVERBADA = "ARL_APROVADA_NAO_AVERBADA";
+    public static final String ARL_PROPOSTA = "ARL_PROPOSTA";
+
+    // Prefixo dos temas de APP
+    public static final String PREFIXO_APP = "APP_";
+
+    private Temas() {
+    }
+}
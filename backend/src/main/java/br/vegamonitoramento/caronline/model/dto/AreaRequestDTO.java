@@ -0,0 +1,23 @@
+package br.vegamonitoramento.caronline.model.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Geometrias cuja área será calculada")
+public class AreaRequestDTO {
+
+    @Schema(description = "Sistema das geometrias: código EPSG ou ALBERS_BRASIL", example = "EPSG:4326",
+            defaultValue = "EPSG:4326")
+    private String origem;
+
+    @Schema(description = "Geometrias ou Features GeoJSON")
+    private List<JsonNode> geometrias;
+}
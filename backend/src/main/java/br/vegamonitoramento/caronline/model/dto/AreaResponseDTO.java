@@ -0,0 +1,21 @@
+package br.vegamonitoramento.caronline.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Áreas na projeção equivalente Albers do IBGE")
+public class AreaResponseDTO {
+
+    @Schema(description = "Área de cada geometria em hectares, na ordem da requisição")
+    private List<Double> areasHectares;
+
+    @Schema(description = "Soma das áreas em hectares", example = "152.37")
+    private Double totalHectares;
+}
@@ -0,0 +1,44 @@
+package br.vegamonitoramento.caronline.model.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Sobreposição proibida entre duas feições")
+public class ConflitoTopologiaDTO {
+
+    @Schema(description = "Regra violada", example = "COBERTURA_SOBREPOSTA")
+    private String regra;
+
+    @Schema(description = "Descrição da regra", example = "Feições de cobertura do solo não podem se sobrepor.")
+    private String message;
+
+    @Schema(description = "Posição da primeira feição na FeatureCollection", example = "3")
+    private Integer indiceA;
+
+    @Schema(description = "Posição da segunda feição na FeatureCollection", example = "7")
+    private Integer indiceB;
+
+    @Schema(description = "Identificador da primeira feição, quando houver", example = "5f0c6d1e-8a3b-4c2d-9e7f-1a2b3c4d5e6f")
+    private String idFeicaoA;
+
+    @Schema(description = "Identificador da segunda feição, quando houver")
+    private String idFeicaoB;
+
+    @Schema(description = "Tema da primeira feição", example = "VEGETACAO_NATIVA")
+    private String codTemaA;
+
+    @Schema(description = "Tema da segunda feição", example = "AREA_CONSOLIDADA")
+    private String codTemaB;
+
+    @Schema(description = "Área da sobreposição em hectares", example = "0.85")
+    private Double areaHectares;
+
+    @Schema(description = "Geometria GeoJSON da sobreposição (WGS84), se pedida")
+    private JsonNode geometria;
+}
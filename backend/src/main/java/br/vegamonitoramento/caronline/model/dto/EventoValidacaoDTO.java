@@ -0,0 +1,33 @@
+package br.vegamonitoramento.caronline.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Resultado atual das validações de uma feição, enviado pelo fluxo de eventos da sessão")
+public class EventoValidacaoDTO {
+
+    @Schema(description = "Identificador da feição", example = "5f0c6d1e-8a3b-4c2d-9e7f-1a2b3c4d5e6f")
+    private String idFeicao;
+
+    @Schema(description = "Código do tema da feição", example = "VEGETACAO_NATIVA")
+    private String codTema;
+
+    @Schema(description = "A feição foi excluída da sessão; os demais campos vêm vazios", example = "false")
+    private Boolean excluida;
+
+    @Schema(description = "Indica se todas as regras foram atendidas e não há sobreposições", example = "true")
+    private Boolean valido;
+
+    @Schema(description = "Resultado de cada regra aplicada")
+    private List<ResultadoRegraDTO> regras;
+
+    @Schema(description = "Sobreposições proibidas com outras feições (sem os índices, que não se aplicam à sessão)")
+    private List<ConflitoTopologiaDTO> conflitos;
+}
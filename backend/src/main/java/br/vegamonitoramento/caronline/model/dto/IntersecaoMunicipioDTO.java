@@ -0,0 +1,25 @@
+package br.vegamonitoramento.caronline.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Trecho de uma geometria contido em um município")
+public class IntersecaoMunicipioDTO {
+
+    @Schema(description = "Código IBGE do município", example = "3552809")
+    private Long codMunicipio;
+
+    @Schema(description = "Nome do município", example = "Taboão da Serra")
+    private String nomMunicipio;
+
+    @Schema(description = "Área da interseção em hectares", example = "12.5")
+    private Double areaIntersecao;
+
+    @Schema(description = "Percentual da área da geometria contido no município", example = "87.3")
+    private Double percentual;
+}
@@ -0,0 +1,52 @@
+package br.vegamonitoramento.caronline.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Andamento de uma tarefa assíncrona")
+public class JobDTO {
+
+    @Schema(description = "Identificador da tarefa")
+    private UUID id;
+
+    @Schema(description = "Operação", example = "EXPORTACAO")
+    private String tipo;
+
+    @Schema(description = "Faixa de prioridade", example = "LOTE")
+    private String faixa;
+
+    @Schema(description = "PENDENTE, EXECUTANDO, CONCLUIDO, FALHOU ou CANCELADO", example = "EXECUTANDO")
+    private String situacao;
+
+    @Schema(description = "Fração concluída, de 0 a 1", example = "0.4")
+    private Double progresso;
+
+    @Schema(description = "Etapa atual ou motivo da falha", example = "12 MB escritos")
+    private String mensagem;
+
+    @Schema(description = "Código IBGE do município", example = "3552809")
+    private Long municipalityId;
+
+    @Schema(description = "Execuções iniciadas (mais de uma se o servidor reiniciou no meio)", example = "1")
+    private Integer tentativas;
+
+    @Schema(description = "Momento do pedido")
+    private OffsetDateTime dataCriacao;
+
+    @Schema(description = "Início da execução")
+    private OffsetDateTime dataInicio;
+
+    @Schema(description = "Fim da execução")
+    private OffsetDateTime dataFim;
+
+    @Schema(description = "Caminho do resultado, quando concluída", example = "/api/jobs/6f1c.../resultado")
+    private String resultado;
+}
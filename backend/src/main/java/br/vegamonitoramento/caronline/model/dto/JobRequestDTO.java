@@ -0,0 +1,25 @@
+package br.vegamonitoramento.caronline.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Pedido de execução de uma tarefa assíncrona")
+public class JobRequestDTO {
+
+    @Schema(description = "Operação (VALIDACAO, TOPOLOGIA, QUADRO_AREAS ou EXPORTACAO)", example = "EXPORTACAO")
+    private String tipo;
+
+    @Schema(description = "Código IBGE do município cujas camadas gravadas serão processadas", example = "3552809")
+    private Long municipalityId;
+
+    @Schema(description = "Formato da exportação (geojson, kml, shp, twkb)", example = "shp")
+    private String formato;
+
+    @Schema(description = "Faixa de prioridade (INTERATIVA ou LOTE); por padrão, a do tipo", example = "LOTE")
+    private String faixa;
+}
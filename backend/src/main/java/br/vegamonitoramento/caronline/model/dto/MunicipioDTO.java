@@ -0,0 +1,19 @@
+package br.vegamonitoramento.caronline.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Representação de um Município")
+public class MunicipioDTO {
+
+    @Schema(description = "Código IBGE do município", example = "3552809")
+    private Long codMunicipio;
+
+    @Schema(description = "Nome do município", example = "Taboão da Serra")
+    private String nomMunicipio;
+}
@@ -0,0 +1,28 @@
+package br.vegamonitoramento.caronline.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Quadro de áreas do imóvel, incluindo os temas derivados")
+public class QuadroAreasDTO {
+
+    @Schema(description = "Código IBGE do município do imóvel", example = "3552809")
+    private Long municipalityId;
+
+    @Schema(description = "Revisão do quadro; muda a cada alteração de feição", example = "3")
+    private Long revisao;
+
+    @Schema(description = "Área em hectares por código de tema, dentro da área do imóvel")
+    private Map<String, Double> areas;
+
+    @Schema(description = "Data e hora do cálculo")
+    private OffsetDateTime dataCalculo;
+}
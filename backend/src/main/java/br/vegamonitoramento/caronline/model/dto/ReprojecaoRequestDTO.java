@@ -0,0 +1,26 @@
+package br.vegamonitoramento.caronline.model.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Geometrias a converter entre sistemas de coordenadas")
+public class ReprojecaoRequestDTO {
+
+    @Schema(description = "Sistema das geometrias recebidas: código EPSG (4326, 4674, UTM SIRGAS 2000 ou WGS84) "
+            + "ou ALBERS_BRASIL", example = "EPSG:4326", defaultValue = "EPSG:4326")
+    private String origem;
+
+    @Schema(description = "Sistema de destino, nos mesmos formatos da origem", example = "EPSG:31983")
+    private String destino;
+
+    @Schema(description = "Geometrias ou Features GeoJSON")
+    private List<JsonNode> geometrias;
+}
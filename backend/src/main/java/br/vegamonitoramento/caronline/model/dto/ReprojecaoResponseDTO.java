@@ -0,0 +1,25 @@
+package br.vegamonitoramento.caronline.model.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Geometrias convertidas para o sistema de destino")
+public class ReprojecaoResponseDTO {
+
+    @Schema(description = "Sistema das geometrias recebidas", example = "EPSG:4326")
+    private String origem;
+
+    @Schema(description = "Sistema das geometrias retornadas", example = "EPSG:31983")
+    private String destino;
+
+    @Schema(description = "Geometrias GeoJSON convertidas, na ordem da requisição")
+    private List<JsonNode> geometrias;
+}
@@ -0,0 +1,27 @@
+package br.vegamonitoramento.caronline.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Resultado das validações de uma feição")
+public class ResultadoFeicaoDTO {
+
+    @Schema(description = "Posição da feição na FeatureCollection", example = "0")
+    private Integer indice;
+
+    @Schema(description = "Código do tema da feição", example = "AREA_IMOVEL")
+    private String codTema;
+
+    @Schema(description = "Indica se todas as regras foram atendidas", example = "true")
+    private Boolean valido;
+
+    @Schema(description = "Resultado de cada regra aplicada")
+    private List<ResultadoRegraDTO> regras;
+}
@@ -0,0 +1,22 @@
+package br.vegamonitoramento.caronline.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Resultado de uma regra de validação aplicada a uma feição")
+public class ResultadoRegraDTO {
+
+    @Schema(description = "Identificador da regra", example = "GEOMETRIA_DENTRO_IMOVEL")
+    private String regra;
+
+    @Schema(description = "Indica se a regra foi atendida", example = "true")
+    private Boolean success;
+
+    @Schema(description = "Mensagem exibida quando a regra não é atendida")
+    private String message;
+}
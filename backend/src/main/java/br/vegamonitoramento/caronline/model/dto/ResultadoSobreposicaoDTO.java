@@ -0,0 +1,26 @@
+package br.vegamonitoramento.caronline.model.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Resultado do recorte de uma geometria alvo")
+public class ResultadoSobreposicaoDTO {
+
+    @Schema(description = "Posição do alvo na requisição", example = "0")
+    private Integer indice;
+
+    @Schema(description = "Geometria GeoJSON resultante, ou null quando nada restou")
+    private JsonNode geometria;
+
+    @Schema(description = "Área do alvo antes do recorte, em hectares", example = "125.4")
+    private Double areaOriginalHectares;
+
+    @Schema(description = "Área da geometria resultante, em hectares", example = "98.7")
+    private Double areaResultanteHectares;
+}
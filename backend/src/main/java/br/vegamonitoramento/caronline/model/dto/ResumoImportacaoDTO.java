@@ -0,0 +1,46 @@
+package br.vegamonitoramento.caronline.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Resumo de uma importação, enviado na última linha do relatório")
+public class ResumoImportacaoDTO {
+
+    @Schema(description = "Código IBGE do município", example = "3552809")
+    private Long municipalityId;
+
+    @Schema(description = "Formato do arquivo importado", example = "SHP")
+    private String formato;
+
+    @Schema(description = "Sistema de coordenadas de origem (EPSG) da primeira feição lida", example = "31983")
+    private Integer sridOrigem;
+
+    @Schema(description = "Quantidade de feições lidas do arquivo", example = "120")
+    private Integer lidas;
+
+    @Schema(description = "Quantidade de feições que passaram nas validações", example = "118")
+    private Integer validas;
+
+    @Schema(description = "Quantidade de feições recusadas", example = "2")
+    private Integer invalidas;
+
+    @Schema(description = "Quantidade de feições gravadas; zero se a importação não foi concluída", example = "118")
+    private Integer gravadas;
+
+    @Schema(description = "Revisão das camadas após a importação", example = "14")
+    private Long revisao;
+
+    @Schema(description = "Indica se a gravação foi confirmada", example = "true")
+    private Boolean concluida;
+
+    @Schema(description = "Mensagem de retorno", example = "Importação concluída")
+    private String mensagem;
+
+    @Schema(description = "Duração total em milissegundos", example = "5300")
+    private Long duracaoMs;
+}
@@ -0,0 +1,28 @@
+package br.vegamonitoramento.caronline.model.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Camadas desenhadas a serem gravadas para um município")
+public class SalvarCamadasRequestDTO {
+
+    @Schema(description = "FeatureCollection GeoJSON com as camadas desenhadas (WGS84)")
+    private JsonNode geoJson;
+
+    @Schema(description = "Código IBGE do município", example = "3552809")
+    private Long municipalityId;
+
+    @Schema(description = "Momento da gravação no cliente", example = "2025-05-27T10:15:30.000Z")
+    private String timestamp;
+
+    @Schema(description = "Metadados livres enviados pelo cliente")
+    private Map<String, Object> metadata;
+}
@@ -0,0 +1,30 @@
+package br.vegamonitoramento.caronline.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Resultado da gravação das camadas")
+public class SalvarCamadasResponseDTO {
+
+    @Schema(description = "Código IBGE do município", example = "3552809")
+    private Long municipalityId;
+
+    @Schema(description = "Quantidade de feições gravadas", example = "42")
+    private Integer quantidadeFeicoes;
+
+    @Schema(description = "Momento da gravação no servidor")
+    private OffsetDateTime dataGravacao;
+
+    @Schema(description = "Mensagem de retorno", example = "Camadas salvas com sucesso")
+    private String message;
+
+    @Schema(description = "Revisão das camadas após a gravação; base da próxima sincronização incremental", example = "13")
+    private Long revisao;
+}
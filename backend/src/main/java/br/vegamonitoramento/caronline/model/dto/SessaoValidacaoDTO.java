@@ -0,0 +1,28 @@
+package br.vegamonitoramento.caronline.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Sessão de validação ao vivo")
+public class SessaoValidacaoDTO {
+
+    @Schema(description = "Identificador da sessão")
+    private UUID idSessao;
+
+    @Schema(description = "Código IBGE do município do imóvel", example = "3552809")
+    private Long municipalityId;
+
+    @Schema(description = "Quantidade de feições na sessão", example = "42")
+    private Integer feicoes;
+
+    @Schema(description = "Caminho do fluxo de eventos (text/event-stream)",
+            example = "/car-online/api/validacoes/sessoes/6f1c.../eventos")
+    private String eventos;
+}
@@ -0,0 +1,20 @@
+package br.vegamonitoramento.caronline.model.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Abertura de uma sessão de validação ao vivo")
+public class SessaoValidacaoRequestDTO {
+
+    @Schema(description = "Código IBGE do município do imóvel", example = "3552809")
+    private Long municipalityId;
+
+    @Schema(description = "FeatureCollection com as feições já desenhadas, cada uma com o membro \"id\" (opcional)")
+    private JsonNode geoJson;
+}
@@ -0,0 +1,25 @@
+package br.vegamonitoramento.caronline.model.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Alterações nas camadas de um município desde a revisão em que o cliente se baseou")
+public class SincronizarCamadasRequestDTO {
+
+    @Schema(description = "Revisão em que o cliente se baseou (0 se o município nunca foi gravado)", example = "12")
+    private Long revisaoBase;
+
+    @Schema(description = "FeatureCollection GeoJSON com as feições novas ou alteradas; cada Feature deve ter \"id\"")
+    private JsonNode alteradas;
+
+    @Schema(description = "Identificadores das feições excluídas")
+    private List<String> excluidas;
+}
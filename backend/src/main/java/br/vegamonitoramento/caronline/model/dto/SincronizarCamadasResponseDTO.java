@@ -0,0 +1,37 @@
+package br.vegamonitoramento.caronline.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Resultado da sincronização incremental das camadas")
+public class SincronizarCamadasResponseDTO {
+
+    @Schema(description = "Código IBGE do município", example = "3552809")
+    private Long municipalityId;
+
+    @Schema(description = "Revisão após a gravação; base da próxima sincronização", example = "13")
+    private Long revisao;
+
+    @Schema(description = "Quantidade de feições inseridas ou atualizadas", example = "1")
+    private Integer gravadas;
+
+    @Schema(description = "Quantidade de feições recebidas sem alteração de conteúdo (mesmo hash)", example = "0")
+    private Integer inalteradas;
+
+    @Schema(description = "Quantidade de feições excluídas", example = "0")
+    private Integer excluidas;
+
+    @Schema(description = "Hash de conteúdo das feições gravadas, por identificador")
+    private Map<String, String> hashes;
+
+    @Schema(description = "Momento da gravação no servidor")
+    private OffsetDateTime dataGravacao;
+}
@@ -0,0 +1,27 @@
+package br.vegamonitoramento.caronline.model.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Geometrias a recortar e geometrias de recorte (WGS84)")
+public class SobreposicaoRequestDTO {
+
+    @Schema(description = "Geometrias ou Features GeoJSON a serem recortadas")
+    private List<JsonNode> alvos;
+
+    @Schema(description = "Geometrias ou Features GeoJSON poligonais usadas no recorte")
+    private List<JsonNode> recortes;
+
+    @Schema(description = "Operação: difference remove dos alvos a área dos recortes, "
+            + "intersection mantém apenas a área em comum", example = "difference",
+            defaultValue = "difference")
+    private String operacao;
+}
@@ -0,0 +1,24 @@
+package br.vegamonitoramento.caronline.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Resultado do recorte de um conjunto de geometrias")
+public class SobreposicaoResponseDTO {
+
+    @Schema(description = "Operação aplicada", example = "difference")
+    private String operacao;
+
+    @Schema(description = "Área da união das geometrias de recorte, em hectares", example = "310.2")
+    private Double areaRecortesHectares;
+
+    @Schema(description = "Resultado para cada alvo, na ordem da requisição")
+    private List<ResultadoSobreposicaoDTO> resultados;
+}
@@ -0,0 +1,23 @@
+package br.vegamonitoramento.caronline.model.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Feições de um imóvel para a verificação de sobreposições")
+public class TopologiaRequestDTO {
+
+    @Schema(description = "FeatureCollection GeoJSON com as camadas desenhadas (WGS84)")
+    private JsonNode geoJson;
+
+    @Schema(description = "Código IBGE do município", example = "3552809")
+    private Long municipalityId;
+
+    @Schema(description = "Inclui a geometria de cada sobreposição na resposta", example = "true")
+    private Boolean incluirGeometrias;
+}
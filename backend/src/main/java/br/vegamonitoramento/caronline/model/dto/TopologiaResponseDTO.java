@@ -0,0 +1,34 @@
+package br.vegamonitoramento.caronline.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Resultado da verificação de sobreposições de um imóvel")
+public class TopologiaResponseDTO {
+
+    @Schema(description = "Código IBGE do município", example = "3552809")
+    private Long municipalityId;
+
+    @Schema(description = "Indica se nenhuma regra foi violada", example = "false")
+    private Boolean valido;
+
+    @Schema(description = "Quantidade de feições verificadas", example = "120")
+    private Integer quantidadeFeicoes;
+
+    @Schema(description = "Pares com envelopes cruzados testados com a geometria", example = "37")
+    private Long paresAvaliados;
+
+    @Schema(description = "Área total sobreposta por regra, em hectares")
+    private Map<String, Double> areaPorRegra;
+
+    @Schema(description = "Sobreposições encontradas, ordenadas pelas posições das feições")
+    private List<ConflitoTopologiaDTO> conflitos;
+}
@@ -0,0 +1,21 @@
+package br.vegamonitoramento.caronline.model.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Camadas a serem validadas para um município")
+public class ValidacaoRequestDTO {
+
+    @Schema(description = "FeatureCollection GeoJSON com as camadas desenhadas (WGS84)")
+    private JsonNode geoJson;
+
+    @Schema(description = "Código IBGE do município selecionado; quando omitido, é detectado pela área do imóvel",
+            example = "3552809")
+    private Long municipalityId;
+}
@@ -0,0 +1,24 @@
+package br.vegamonitoramento.caronline.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Resultado da validação de uma FeatureCollection")
+public class ValidacaoResponseDTO {
+
+    @Schema(description = "Código IBGE do município", example = "3552809")
+    private Long municipalityId;
+
+    @Schema(description = "Indica se todas as feições atenderam a todas as regras", example = "false")
+    private Boolean valido;
+
+    @Schema(description = "Resultado por feição, na ordem da FeatureCollection")
+    private List<ResultadoFeicaoDTO> feicoes;
+}
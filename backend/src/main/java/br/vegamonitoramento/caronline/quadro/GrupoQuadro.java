@@ -0,0 +1,67 @@
+package br.vegamonitoramento.caronline.quadro;
+
+import br.vegamonitoramento.caronline.model.Temas;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Conjuntos de temas cuja união, recortada pelo imóvel, entra no cálculo dos temas derivados
+ */
+enum GrupoQuadro {
+
+    SERVIDAO(Set.of(
+            Temas.AREA_ENTORNO_RESERVATORIO_ENERGIA,
+            Temas.AREA_INFRAESTRUTURA_PUBLICA,
+            Temas.RESERVATORIO_ENERGIA,
+            Temas.AREA_UTILIDADE_PUBLICA)::contains),
+
+    // Tudo que classifica o solo do imóvel; o restante é área não classificada
+    COBERTURA(Set.of(
+            Temas.AREA_CONSOLIDADA,
+            Temas.AREA_POUSIO,
+            Temas.VEGETACAO_NATIVA,
+            Temas.AREA_ANTROPIZADA_APOS_2008_VETORIZADA,
+            Temas.CORPO_DAGUA,
+            Temas.HYDROGRAPHY,
+            Temas.AREA_ENTORNO_RESERVATORIO_ENERGIA,
+            Temas.AREA_INFRAESTRUTURA_PUBLICA,
+            Temas.RESERVATORIO_ENERGIA,
+            Temas.AREA_UTILIDADE_PUBLICA)::contains),
+
+    APP(codTema -> codTema.startsWith(Temas.PREFIXO_APP)),
+
+    // Uso antrópico: a APP sobre ele precisa ser recuperada
+    USO_ANTROPICO(Set.of(
+            Temas.AREA_CONSOLIDADA,
+            Temas.AREA_ANTROPIZADA_APOS_2008_VETORIZADA)::contains),
+
+    ARL(Set.of(
+            Temas.ARL_AVERBADA,
+            Temas.ARL_APROVADA_NAO_AVERBADA,
+            Temas.ARL_PROPOSTA)::contains);
+
+    private final Predicate<String> membro;
+
+    GrupoQuadro(Predicate<String> membro) {
+        this.membro = membro;
+    }
+
+    boolean contem(String codTema) {
+        return membro.test(codTema);
+    }
+
+    static Set<GrupoQuadro> dosTemas(Set<String> temas) {
+        Set<GrupoQuadro> grupos = EnumSet.noneOf(GrupoQuadro.class);
+        for (GrupoQuadro grupo : values()) {
+            for (String codTema : temas) {
+                if (grupo.contem(codTema)) {
+                    grupos.add(grupo);
+                    break;
+                }
+            }
+        }
+        return grupos;
+    }
+}
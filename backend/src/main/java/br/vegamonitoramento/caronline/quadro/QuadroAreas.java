@@ -0,0 +1,262 @@
+package br.vegamonitoramento.caronline.quadro;
+
+import br.vegamonitoramento.caronline.geometry.AreaGeodesica;
+import br.vegamonitoramento.caronline.geometry.Geometrias;
+import br.vegamonitoramento.caronline.geometry.UniaoParalela;
+import br.vegamonitoramento.caronline.model.Temas;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Polygonal;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
+import org.locationtech.jts.geom.util.PolygonExtracter;
+import org.locationtech.jts.operation.overlayng.OverlayNG;
+import org.locationtech.jts.operation.overlayng.OverlayNGRobust;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Balanço de áreas de um imóvel, mantido de forma incremental.
+ * Cada feição guarda sua geometria já recortada pelo imóvel; cada tema guarda a união das suas
+ * feições e cada {@link GrupoQuadro} a união dos seus temas. Uma alteração marca apenas o tema
+ * da feição, e o cálculo refaz somente esse tema, os grupos que o contêm e os temas derivados
+ * que dependem desses grupos. Só a troca da área do imóvel obriga a recortar tudo de novo.
+ * <p>
+ * Não é thread-safe; o chamador deve sincronizar o acesso.
+ */
+public class QuadroAreas {
+
+    private final Map<String, Feicao> feicoes = new HashMap<>();
+    private final Map<String, Set<String>> feicoesPorTema = new HashMap<>();
+
+    private final Map<String, Geometry> unioesTema = new HashMap<>();
+    private final Map<GrupoQuadro, Geometry> unioesGrupo = new EnumMap<>(GrupoQuadro.class);
+    private final Map<String, Double> areas = new TreeMap<>();
+
+    private Geometry imovel;
+    private PreparedGeometry imovelPreparado;
+    private boolean imovelAlterado;
+    private final Set<String> temasAlterados = new HashSet<>();
+
+    private long revisao;
+    private long recortes;
+
+    public QuadroAreas() {
+        this(0);
+    }
+
+    /**
+     * @param revisaoInicial revisão a partir da qual as próximas são numeradas
+     */
+    public QuadroAreas(long revisaoInicial) {
+        this.revisao = revisaoInicial;
+    }
+
+    /**
+     * Inclui ou substitui uma feição
+     */
+    public void definir(String id, String codTema, Geometry geometria) {
+        if (Temas.DERIVADOS.contains(codTema)) {
+            // Temas derivados são sempre calculados aqui; o desenho enviado é ignorado
+            return;
+        }
+        remover(id);
+
+        feicoes.put(id, new Feicao(codTema, geometria));
+        feicoesPorTema.computeIfAbsent(codTema, tema -> new HashSet<>()).add(id);
+        marcar(codTema);
+    }
+
+    /**
+     * @return true se a feição existia
+     */
+    public boolean remover(String id) {
+        Feicao anterior = feicoes.remove(id);
+        if (anterior == null) {
+            return false;
+        }
+
+        Set<String> ids = feicoesPorTema.get(anterior.codTema);
+        ids.remove(id);
+        if (ids.isEmpty()) {
+            feicoesPorTema.remove(anterior.codTema);
+        }
+        marcar(anterior.codTema);
+        return true;
+    }
+
+    public boolean isAlterado() {
+        return imovelAlterado || !temasAlterados.isEmpty();
+    }
+
+    public long getRevisao() {
+        return revisao;
+    }
+
+    /**
+     * Quantidade de recortes pelo imóvel feitos desde a criação; permite verificar que as
+     * alterações são de fato incrementais
+     */
+    public long getRecortes() {
+        return recortes;
+    }
+
+    /**
+     * Recalcula o que foi alterado desde a última chamada e devolve as áreas em hectares por tema
+     */
+    public Map<String, Double> calcular() {
+        if (!isAlterado()) {
+            return Collections.unmodifiableMap(new LinkedHashMap<>(areas));
+        }
+
+        Set<String> temas = new HashSet<>(temasAlterados);
+        if (imovelAlterado) {
+            recalcularImovel();
+            // Com outro imóvel, todos os recortes e uniões mudam
+            feicoes.values().forEach(feicao -> feicao.recortada = null);
+            temas.addAll(feicoesPorTema.keySet());
+            temas.addAll(unioesTema.keySet());
+        }
+
+        for (String codTema : temas) {
+            if (!Temas.AREA_IMOVEL.equals(codTema)) {
+                recalcularTema(codTema);
+            }
+        }
+
+        Set<GrupoQuadro> grupos = imovelAlterado
+                ? Set.of(GrupoQuadro.values())
+                : GrupoQuadro.dosTemas(temas);
+        for (GrupoQuadro grupo : grupos) {
+            recalcularGrupo(grupo);
+        }
+        recalcularDerivados(grupos, imovelAlterado);
+
+        imovelAlterado = false;
+        temasAlterados.clear();
+        revisao++;
+        return Collections.unmodifiableMap(new LinkedHashMap<>(areas));
+    }
+
+    private void marcar(String codTema) {
+        if (Temas.AREA_IMOVEL.equals(codTema)) {
+            imovelAlterado = true;
+        } else {
+            temasAlterados.add(codTema);
+        }
+    }
+
+    private void recalcularImovel() {
+        List<Geometry> partes = new ArrayList<>();
+        for (String id : feicoesPorTema.getOrDefault(Temas.AREA_IMOVEL, Set.of())) {
+            partes.add(feicoes.get(id).geometria);
+        }
+
+        imovel = partes.isEmpty() ? null : UniaoParalela.unir(partes);
+        imovelPreparado = imovel != null ? PreparedGeometryFactory.prepare(imovel) : null;
+        areas.put(Temas.AREA_IMOVEL, AreaGeodesica.hectares(imovel));
+    }
+
+    private void recalcularTema(String codTema) {
+        List<Geometry> partes = new ArrayList<>();
+        for (String id : feicoesPorTema.getOrDefault(codTema, Set.of())) {
+            Geometry recortada = recortada(feicoes.get(id));
+            if (!recortada.isEmpty()) {
+                partes.add(recortada);
+            }
+        }
+
+        if (partes.isEmpty()) {
+            unioesTema.remove(codTema);
+            areas.remove(codTema);
+            return;
+        }
+
+        Geometry uniao = UniaoParalela.unir(partes);
+        unioesTema.put(codTema, uniao);
+        areas.put(codTema, AreaGeodesica.hectares(uniao));
+    }
+
+    private void recalcularGrupo(GrupoQuadro grupo) {
+        List<Geometry> partes = new ArrayList<>();
+        unioesTema.forEach((codTema, uniao) -> {
+            if (grupo.contem(codTema)) {
+                partes.add(uniao);
+            }
+        });
+        unioesGrupo.put(grupo, UniaoParalela.unir(partes));
+    }
+
+    private void recalcularDerivados(Set<GrupoQuadro> grupos, boolean todos) {
+        double areaImovel = areas.getOrDefault(Temas.AREA_IMOVEL, 0.0);
+
+        if (todos || grupos.contains(GrupoQuadro.SERVIDAO)) {
+            double servidao = AreaGeodesica.hectares(unioesGrupo.get(GrupoQuadro.SERVIDAO));
+            areas.put(Temas.AREA_SERVIDAO_ADMINISTRATIVA_TOTAL, servidao);
+            areas.put(Temas.AREA_IMOVEL_LIQUIDA, Math.max(0.0, areaImovel - servidao));
+        }
+        if (todos || grupos.contains(GrupoQuadro.COBERTURA)) {
+            double cobertura = AreaGeodesica.hectares(unioesGrupo.get(GrupoQuadro.COBERTURA));
+            areas.put(Temas.AREA_NAO_CLASSIFICADA, Math.max(0.0, areaImovel - cobertura));
+        }
+        if (todos || grupos.contains(GrupoQuadro.APP) || grupos.contains(GrupoQuadro.USO_ANTROPICO)) {
+            Geometry app = unioesGrupo.get(GrupoQuadro.APP);
+            Geometry usoAntropico = unioesGrupo.get(GrupoQuadro.USO_ANTROPICO);
+            double aRecuperar = app == null || app.isEmpty() || usoAntropico == null || usoAntropico.isEmpty()
+                    ? 0.0
+                    : AreaGeodesica.hectares(OverlayNGRobust.overlay(app, usoAntropico, OverlayNG.INTERSECTION));
+            areas.put(Temas.APP_A_RECUPERAR, aRecuperar);
+        }
+        if (todos || grupos.contains(GrupoQuadro.ARL)) {
+            areas.put(Temas.ARL_TOTAL, AreaGeodesica.hectares(unioesGrupo.get(GrupoQuadro.ARL)));
+        }
+    }
+
+    /**
+     * Parte da feição dentro do imóvel, calculada uma única vez por versão da feição
+     */
+    private Geometry recortada(Feicao feicao) {
+        if (feicao.recortada == null) {
+            recortes++;
+            Geometry geometria = feicao.geometria;
+            if (imovelPreparado == null || geometria.getDimension() < 2 || !imovelPreparado.intersects(geometria)) {
+                // Pontos e linhas (sede, hidrografia desenhada como linha) não têm área
+                feicao.recortada = Geometrias.FACTORY.createPolygon();
+            } else if (imovelPreparado.covers(geometria)) {
+                feicao.recortada = poligonos(geometria);
+            } else {
+                feicao.recortada = poligonos(OverlayNGRobust.overlay(geometria, imovel, OverlayNG.INTERSECTION));
+            }
+        }
+        return feicao.recortada;
+    }
+
+    /**
+     * Descarta pontos e linhas que o overlay pode gerar em toques de borda
+     */
+    private static Geometry poligonos(Geometry geometria) {
+        return geometria instanceof Polygonal
+                ? geometria
+                : Geometrias.FACTORY.buildGeometry(PolygonExtracter.getPolygons(geometria));
+    }
+
+    private static final class Feicao {
+
+        private final String codTema;
+        private final Geometry geometria;
+        private Geometry recortada;
+
+        private Feicao(String codTema, Geometry geometria) {
+            this.codTema = codTema;
+            this.geometria = geometria;
+        }
+    }
+}
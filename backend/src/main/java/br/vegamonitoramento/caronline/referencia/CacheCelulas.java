@@ -0,0 +1,147 @@
+package br.vegamonitoramento.caronline.referencia;
+
+import br.vegamonitoramento.caronline.tile.TileCoordenada;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Feições das camadas de referência por célula da grade XYZ, em memória. Descarta as células
+ * menos usadas recentemente quando a memória estimada passa do limite. Células sem feições
+ * também são guardadas, para que áreas vazias não voltem ao banco.
+ */
+public class CacheCelulas {
+
+    private final long limiteBytes;
+
+    private final ReentrantLock trava = new ReentrantLock();
+    // LinkedHashMap em ordem de acesso: o primeiro elemento é o menos usado recentemente
+    private final LinkedHashMap<TileCoordenada, Celula> celulas = new LinkedHashMap<>(1024, 0.75f, true);
+    private long bytes;
+    // Incrementada a cada limpeza; células lidas antes dela são descartadas em guardar()
+    private long geracao;
+
+    private final LongAdder acertos = new LongAdder();
+    private final LongAdder faltas = new LongAdder();
+
+    public CacheCelulas(long limiteBytes) {
+        this.limiteBytes = limiteBytes;
+    }
+
+    /**
+     * Células já em memória; as ausentes não aparecem no mapa devolvido e contam como falta
+     */
+    public Map<TileCoordenada, List<FeicaoReferencia>> buscar(Collection<TileCoordenada> chaves) {
+        Map<TileCoordenada, List<FeicaoReferencia>> encontradas = new HashMap<>();
+        trava.lock();
+        try {
+            for (TileCoordenada chave : chaves) {
+                Celula celula = celulas.get(chave);
+                if (celula != null) {
+                    encontradas.put(chave, celula.feicoes());
+                }
+            }
+        } finally {
+            trava.unlock();
+        }
+        acertos.add(encontradas.size());
+        faltas.add(chaves.size() - encontradas.size());
+        return encontradas;
+    }
+
+    public long getGeracao() {
+        trava.lock();
+        try {
+            return geracao;
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /**
+     * Guarda células lidas do banco na geração informada; se o cache foi limpo depois da
+     * leitura, elas podem estar desatualizadas e não são guardadas
+     */
+    public void guardar(Map<TileCoordenada, List<FeicaoReferencia>> lidas, long geracaoLida) {
+        trava.lock();
+        try {
+            if (geracaoLida != geracao) {
+                return;
+            }
+            for (Map.Entry<TileCoordenada, List<FeicaoReferencia>> entrada : lidas.entrySet()) {
+                Celula celula = Celula.de(entrada.getValue());
+                if (celula.bytes() > limiteBytes) {
+                    continue;
+                }
+                Celula anterior = celulas.put(entrada.getKey(), celula);
+                bytes += celula.bytes() - (anterior != null ? anterior.bytes() : 0);
+            }
+
+            Iterator<Celula> iterador = celulas.values().iterator();
+            while (bytes > limiteBytes && iterador.hasNext()) {
+                bytes -= iterador.next().bytes();
+                iterador.remove();
+            }
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    public void limpar() {
+        trava.lock();
+        try {
+            geracao++;
+            celulas.clear();
+            bytes = 0;
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    public int getQuantidade() {
+        trava.lock();
+        try {
+            return celulas.size();
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    public long getBytes() {
+        trava.lock();
+        try {
+            return bytes;
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    public long getAcertos() {
+        return acertos.sum();
+    }
+
+    public long getFaltas() {
+        return faltas.sum();
+    }
+
+    /**
+     * Uma feição que cruza várias células é a mesma instância em todas, mas entra na
+     * estimativa de cada uma: o limite fica conservador, nunca ultrapassado
+     */
+    private record Celula(List<FeicaoReferencia> feicoes, long bytes) {
+
+        static Celula de(List<FeicaoReferencia> feicoes) {
+            long bytes = 64;
+            for (FeicaoReferencia feicao : feicoes) {
+                bytes += feicao.bytesEstimados();
+            }
+            return new Celula(List.copyOf(feicoes), bytes);
+        }
+    }
+}
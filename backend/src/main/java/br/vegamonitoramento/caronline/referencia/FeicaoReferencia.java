@@ -0,0 +1,21 @@
+package br.vegamonitoramento.caronline.referencia;
+
+import org.locationtech.jts.geom.Geometry;
+
+/**
+ * Feição de uma camada de referência, com a geometria (WGS84) já no nível de detalhe da célula
+ */
+public record FeicaoReferencia(long id, String nome, Geometry geometria) {
+
+    // Cabeçalhos do registro, da geometria e do nome, aproximados
+    private static final int BYTES_FIXOS = 160;
+    // Cada Coordinate do JTS: cabeçalho e três doubles, mais a referência no array
+    private static final int BYTES_POR_VERTICE = 48;
+
+    /**
+     * Memória aproximada ocupada pela feição, para o limite do cache
+     */
+    public long bytesEstimados() {
+        return BYTES_FIXOS + (nome != null ? 2L * nome.length() : 0) + (long) BYTES_POR_VERTICE * geometria.getNumPoints();
+    }
+}
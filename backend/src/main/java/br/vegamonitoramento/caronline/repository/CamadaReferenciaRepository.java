@@ -0,0 +1,111 @@
+package br.vegamonitoramento.caronline.repository;
+
+import br.vegamonitoramento.caronline.geometry.Geometrias;
+import br.vegamonitoramento.caronline.metrics.MetricasBanco;
+import br.vegamonitoramento.caronline.referencia.FeicaoReferencia;
+import br.vegamonitoramento.caronline.tile.TileCoordenada;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.WKBReader;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Consulta às camadas de referência (tabela usr_geocar_aplicacao.camada_referencia)
+ */
+@Repository
+public class CamadaReferenciaRepository {
+
+    // As células chegam como quatro arrays paralelos de limites (WGS84); cada feição vem uma
+    // única vez, com a lista das células que toca
+    private static final String SQL_POR_CELULAS = """
+            WITH celulas AS (
+              SELECT c.indice, ST_Transform(ST_MakeEnvelope(c.x_min, c.y_min, c.x_max, c.y_max, %1$d), %2$d) AS geom
+              FROM unnest(?::float8[], ?::float8[], ?::float8[], ?::float8[])
+                WITH ORDINALITY AS c(x_min, y_min, x_max, y_max, indice)
+            )
+            SELECT
+              r.idt_camada_referencia,
+              r.nom_feicao,
+              ST_AsBinary(ST_Transform(ST_SimplifyPreserveTopology(r.the_geom, ?), %1$d)) AS the_geom,
+              array_agg(c.indice) AS celulas
+            FROM usr_geocar_aplicacao.camada_referencia AS r
+            JOIN celulas AS c ON r.the_geom && c.geom
+            WHERE r.cod_camada = ?
+            GROUP BY r.idt_camada_referencia
+            """.formatted(Geometrias.SRID_GEOJSON, Geometrias.SRID_ARMAZENAMENTO);
+
+    private static final String SQL_CAMADAS = """
+            SELECT DISTINCT r.cod_camada
+            FROM usr_geocar_aplicacao.camada_referencia AS r
+            ORDER BY r.cod_camada
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MetricasBanco metricasBanco;
+
+    @Autowired
+    public CamadaReferenciaRepository(JdbcTemplate jdbcTemplate, MetricasBanco metricasBanco) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.metricasBanco = metricasBanco;
+    }
+
+    /**
+     * Feições da camada em cada uma das células, numa única consulta. Toda célula pedida
+     * aparece no resultado, vazia se não houver feições nela.
+     * @param tolerancia tolerância de simplificação, em graus
+     */
+    public Map<TileCoordenada, List<FeicaoReferencia>> buscarPorCelulas(String codCamada, List<TileCoordenada> celulas,
+                                                                         double tolerancia) {
+        Double[][] limites = new Double[4][celulas.size()];
+        Map<TileCoordenada, List<FeicaoReferencia>> porCelula = new HashMap<>();
+        for (int i = 0; i < celulas.size(); i++) {
+            Envelope envelope = celulas.get(i).envelope();
+            limites[0][i] = envelope.getMinX();
+            limites[1][i] = envelope.getMinY();
+            limites[2][i] = envelope.getMaxX();
+            limites[3][i] = envelope.getMaxY();
+            porCelula.put(celulas.get(i), new ArrayList<>());
+        }
+
+        // WKBReader não é thread-safe; uma instância por consulta
+        WKBReader wkbReader = new WKBReader(Geometrias.FACTORY);
+        metricasBanco.medir("referencia.buscar_por_celulas", SQL_POR_CELULAS, () -> jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SQL_POR_CELULAS);
+            for (int i = 0; i < limites.length; i++) {
+                ps.setArray(i + 1, con.createArrayOf("float8", limites[i]));
+            }
+            ps.setDouble(5, tolerancia);
+            ps.setString(6, codCamada);
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            long id = rs.getLong("idt_camada_referencia");
+            Geometry geometria;
+            try {
+                geometria = wkbReader.read(rs.getBytes("the_geom"));
+            } catch (ParseException e) {
+                throw new SQLException("Geometria inválida na camada de referência " + id, e);
+            }
+            FeicaoReferencia feicao = new FeicaoReferencia(id, rs.getString("nom_feicao"), geometria);
+            for (Object indice : (Object[]) rs.getArray("celulas").getArray()) {
+                porCelula.get(celulas.get(((Number) indice).intValue() - 1)).add(feicao);
+            }
+        }));
+        return porCelula;
+    }
+
+    public List<String> listarCamadas() {
+        return metricasBanco.medir("referencia.listar_camadas", SQL_CAMADAS,
+                () -> jdbcTemplate.queryForList(SQL_CAMADAS, String.class));
+    }
+}
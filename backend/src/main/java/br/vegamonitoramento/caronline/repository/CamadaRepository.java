@@ -0,0 +1,560 @@
+package br.vegamonitoramento.caronline.repository;
+
+import br.vegamonitoramento.caronline.geometry.Geometrias;
+import br.vegamonitoramento.caronline.metrics.MetricasBanco;
+import br.vegamonitoramento.caronline.model.FeicaoCamada;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.WKBReader;
+import org.locationtech.jts.io.WKBWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Persistência das camadas desenhadas (tabela usr_geocar_aplicacao.camada_imovel, particionada
+ * por município). Todas as consultas filtram por cod_municipio, para que o PostgreSQL leia
+ * apenas a partição do município.
+ */
+@Repository
+public class CamadaRepository {
+
+    // %%s: tabela de destino, a principal ou a de carga da substituição
+    private static final String SQL_INSERIR_EM = """
+            INSERT INTO %%s
+              (cod_municipio, idt_tema, cod_tema, nom_tema, num_area, the_geom, dat_criacao, dat_atualizacao,
+               cod_feicao, cod_hash, num_revisao)
+            VALUES
+              (?, ?, ?, ?, ?, ST_Transform(ST_GeomFromWKB(?, %d), %d), ?, ?, ?, ?, ?)
+            """.formatted(Geometrias.SRID_GEOJSON, Geometrias.SRID_ARMAZENAMENTO);
+
+    private static final String SQL_INSERIR = SQL_INSERIR_EM.formatted("usr_geocar_aplicacao.camada_imovel");
+
+    // A data de criação da feição já gravada é preservada
+    private static final String SQL_GRAVAR_FEICAO = SQL_INSERIR + """
+            ON CONFLICT (cod_municipio, cod_feicao) DO UPDATE SET
+              idt_tema = EXCLUDED.idt_tema,
+              cod_tema = EXCLUDED.cod_tema,
+              nom_tema = EXCLUDED.nom_tema,
+              num_area = EXCLUDED.num_area,
+              the_geom = EXCLUDED.the_geom,
+              dat_atualizacao = EXCLUDED.dat_atualizacao,
+              cod_hash = EXCLUDED.cod_hash,
+              num_revisao = EXCLUDED.num_revisao
+            """;
+
+    private static final String SQL_EXCLUIR_FEICOES = """
+            DELETE FROM usr_geocar_aplicacao.camada_imovel
+            WHERE cod_municipio = ? AND cod_feicao = ANY (?)
+            """;
+
+    private static final String SQL_REGISTRAR_EXCLUSOES = """
+            INSERT INTO usr_geocar_aplicacao.camada_imovel_exclusao (cod_municipio, cod_feicao, num_revisao)
+            SELECT ?, unnest(?::varchar[]), ?
+            ON CONFLICT (cod_municipio, cod_feicao) DO UPDATE SET num_revisao = EXCLUDED.num_revisao
+            """;
+
+    private static final String SQL_LIMPAR_EXCLUSOES = """
+            DELETE FROM usr_geocar_aplicacao.camada_imovel_exclusao
+            WHERE cod_municipio = ?
+            """;
+
+    private static final String SQL_HASHES_POR_MUNICIPIO = """
+            SELECT c.cod_feicao, c.cod_hash
+            FROM usr_geocar_aplicacao.camada_imovel AS c
+            WHERE c.cod_municipio = ?
+            """;
+
+    private static final String SQL_REVISAO = """
+            SELECT r.num_revisao, r.num_revisao_completa
+            FROM usr_geocar_aplicacao.camada_imovel_revisao AS r
+            WHERE r.cod_municipio = ?
+            """;
+
+    // Controle otimista: só avança se a revisão atual for a informada. A linha fica
+    // bloqueada até o fim da transação, o que serializa gravações concorrentes do município.
+    private static final String SQL_AVANCAR_REVISAO = """
+            UPDATE usr_geocar_aplicacao.camada_imovel_revisao
+            SET num_revisao = num_revisao + 1, dat_atualizacao = now()
+            WHERE cod_municipio = ? AND num_revisao = ?
+            RETURNING num_revisao
+            """;
+
+    private static final String SQL_PRIMEIRA_REVISAO = """
+            INSERT INTO usr_geocar_aplicacao.camada_imovel_revisao (cod_municipio, num_revisao, num_revisao_completa)
+            VALUES (?, 1, 0)
+            ON CONFLICT (cod_municipio) DO NOTHING
+            RETURNING num_revisao
+            """;
+
+    // Avanço incondicional, para gravações que acrescentam feições sem partir de uma revisão base
+    private static final String SQL_NOVA_REVISAO = """
+            INSERT INTO usr_geocar_aplicacao.camada_imovel_revisao AS r (cod_municipio, num_revisao, num_revisao_completa)
+            VALUES (?, 1, 0)
+            ON CONFLICT (cod_municipio) DO UPDATE SET
+              num_revisao = r.num_revisao + 1,
+              dat_atualizacao = now()
+            RETURNING num_revisao
+            """;
+
+    private static final String SQL_REVISAO_COMPLETA = """
+            INSERT INTO usr_geocar_aplicacao.camada_imovel_revisao AS r (cod_municipio, num_revisao, num_revisao_completa)
+            VALUES (?, 1, 1)
+            ON CONFLICT (cod_municipio) DO UPDATE SET
+              num_revisao = r.num_revisao + 1,
+              num_revisao_completa = r.num_revisao + 1,
+              dat_atualizacao = now()
+            RETURNING num_revisao
+            """;
+
+    private static final String SQL_EXCLUSOES_DESDE = """
+            SELECT e.cod_feicao
+            FROM usr_geocar_aplicacao.camada_imovel_exclusao AS e
+            WHERE e.cod_municipio = ? AND e.num_revisao > ?
+            ORDER BY e.cod_feicao
+            """;
+
+    private static final String SQL_EXTENSAO_FEICOES = """
+            SELECT ST_XMin(e) AS x_min, ST_YMin(e) AS y_min, ST_XMax(e) AS x_max, ST_YMax(e) AS y_max
+            FROM (
+              SELECT ST_Extent(ST_Transform(c.the_geom, %d)) AS e
+              FROM usr_geocar_aplicacao.camada_imovel AS c
+              WHERE c.cod_municipio = ? AND c.cod_feicao = ANY (?)
+            ) AS t
+            WHERE e IS NOT NULL
+            """.formatted(Geometrias.SRID_GEOJSON);
+
+    private static final String SQL_EXCLUIR_POR_MUNICIPIO = """
+            DELETE FROM usr_geocar_aplicacao.camada_imovel
+            WHERE cod_municipio = ?
+            """;
+
+    private static final String SQL_CRIAR_PARTICAO = """
+            SELECT usr_geocar_aplicacao.particao_camada_imovel(?)
+            """;
+
+    private static final String SQL_CRIAR_CARGA = """
+            SELECT usr_geocar_aplicacao.criar_carga_camada_imovel(?)::text
+            """;
+
+    private static final String SQL_TROCAR_PARTICAO = """
+            SELECT usr_geocar_aplicacao.trocar_particao_camada_imovel(?, ?)
+            """;
+
+    private static final String SQL_EXISTE_PARTICAO = """
+            SELECT to_regclass(?) IS NOT NULL
+            """;
+
+    private static final String SQL_LISTAR_POR_MUNICIPIO = """
+            SELECT
+              c.idt_camada_imovel,
+              c.idt_tema,
+              c.cod_tema,
+              c.nom_tema,
+              c.num_area,
+              ST_AsBinary(ST_Transform(c.the_geom, %d)) AS the_geom,
+              c.dat_criacao,
+              c.dat_atualizacao,
+              c.cod_feicao,
+              c.cod_hash,
+              c.num_revisao
+            FROM usr_geocar_aplicacao.camada_imovel AS c
+            WHERE c.cod_municipio = ? AND c.num_revisao > ?
+            ORDER BY c.idt_camada_imovel
+            """.formatted(Geometrias.SRID_GEOJSON);
+
+    private static final String SQL_EXTENSAO_POR_MUNICIPIO = """
+            SELECT ST_XMin(e) AS x_min, ST_YMin(e) AS y_min, ST_XMax(e) AS x_max, ST_YMax(e) AS y_max
+            FROM (
+              SELECT ST_Extent(ST_Transform(c.the_geom, %d)) AS e
+              FROM usr_geocar_aplicacao.camada_imovel AS c
+              WHERE c.cod_municipio = ?
+            ) AS t
+            WHERE e IS NOT NULL
+            """.formatted(Geometrias.SRID_GEOJSON);
+
+    // Códigos IBGE de município têm 7 dígitos; o código vira parte do nome da partição
+    private static final long MENOR_CODIGO_MUNICIPIO = 1_000_000L;
+    private static final long MAIOR_CODIGO_MUNICIPIO = 9_999_999L;
+
+    // lock_not_available: o TRUNCATE não obteve o bloqueio dentro do lock_timeout
+    private static final String SQL_STATE_LOCK_NOT_AVAILABLE = "55P03";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MetricasBanco metricasBanco;
+    private final int tamanhoLote;
+    private final int tamanhoFetch;
+    private final long esperaBloqueioMs;
+
+    @Autowired
+    public CamadaRepository(JdbcTemplate jdbcTemplate,
+                            MetricasBanco metricasBanco,
+                            @Value("${caronline.camadas.tamanho-lote:500}") int tamanhoLote,
+                            @Value("${caronline.camadas.tamanho-fetch:500}") int tamanhoFetch,
+                            @Value("${caronline.camadas.espera-bloqueio-particao-ms:500}") long esperaBloqueioMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.metricasBanco = metricasBanco;
+        this.tamanhoLote = tamanhoLote;
+        this.tamanhoFetch = tamanhoFetch;
+        this.esperaBloqueioMs = esperaBloqueioMs;
+    }
+
+    /**
+     * Nome qualificado da partição do município, o mesmo usado por particao_camada_imovel(),
+     * com o identificador entre aspas como o %I de format()
+     * @throws IllegalArgumentException se o código não for um código IBGE de município (7 dígitos)
+     */
+    static String particao(Long codMunicipio) {
+        if (codMunicipio == null || codMunicipio < MENOR_CODIGO_MUNICIPIO || codMunicipio > MAIOR_CODIGO_MUNICIPIO) {
+            throw new IllegalArgumentException("Código de município inválido: " + codMunicipio);
+        }
+        return "usr_geocar_aplicacao.\"camada_imovel_" + codMunicipio + "\"";
+    }
+
+    /**
+     * Percorre as feições do município com cursor no servidor, entregando uma a uma ao consumidor.
+     * O PostgreSQL só usa cursor quando a conexão está fora do autocommit, portanto deve ser
+     * chamado dentro de uma transação.
+     */
+    public void percorrerPorMunicipio(Long codMunicipio, Consumer<FeicaoCamada> consumidor) {
+        percorrerAlteradasDesde(codMunicipio, -1, consumidor);
+    }
+
+    /**
+     * Como {@link #percorrerPorMunicipio}, apenas com as feições gravadas depois da revisão informada
+     */
+    public void percorrerAlteradasDesde(Long codMunicipio, long revisao, Consumer<FeicaoCamada> consumidor) {
+        FeicaoCamadaRowMapper rowMapper = new FeicaoCamadaRowMapper();
+
+        // O tempo medido inclui o processamento de cada feição pelo consumidor
+        metricasBanco.medir("camada.percorrer_por_municipio", SQL_LISTAR_POR_MUNICIPIO, () -> jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SQL_LISTAR_POR_MUNICIPIO);
+            ps.setFetchSize(tamanhoFetch);
+            ps.setLong(1, codMunicipio);
+            ps.setLong(2, revisao);
+            return ps;
+        }, (RowCallbackHandler) rs -> consumidor.accept(rowMapper.mapRow(rs, rs.getRow()))));
+    }
+
+    /**
+     * Revisão atual do município e a da última substituição completa; {0, 0} se nunca gravado
+     */
+    public long[] revisao(Long codMunicipio) {
+        List<long[]> revisoes = metricasBanco.medir("camada.revisao", SQL_REVISAO,
+                () -> jdbcTemplate.query(SQL_REVISAO, (rs, rowNum) -> new long[]{
+                        rs.getLong("num_revisao"), rs.getLong("num_revisao_completa")}, codMunicipio));
+        return revisoes.isEmpty() ? new long[]{0, 0} : revisoes.get(0);
+    }
+
+    /**
+     * Avança a revisão do município se ela ainda for a informada
+     * @return a nova revisão, ou vazio se outra gravação já a avançou
+     */
+    public Optional<Long> avancarRevisao(Long codMunicipio, long revisaoBase) {
+        String sql = revisaoBase == 0 ? SQL_PRIMEIRA_REVISAO : SQL_AVANCAR_REVISAO;
+        List<Long> novas = metricasBanco.medir("camada.avancar_revisao", sql, () -> revisaoBase == 0
+                ? jdbcTemplate.queryForList(sql, Long.class, codMunicipio)
+                : jdbcTemplate.queryForList(sql, Long.class, codMunicipio, revisaoBase));
+        return novas.stream().findFirst();
+    }
+
+    /**
+     * Avança a revisão sem verificar a base; a linha fica bloqueada até o fim da transação
+     */
+    public long novaRevisao(Long codMunicipio) {
+        return metricasBanco.medir("camada.nova_revisao", SQL_NOVA_REVISAO,
+                () -> jdbcTemplate.queryForObject(SQL_NOVA_REVISAO, Long.class, codMunicipio));
+    }
+
+    /**
+     * Avança a revisão sem verificar a base e a marca como substituição completa
+     */
+    public long avancarRevisaoCompleta(Long codMunicipio) {
+        Long nova = metricasBanco.medir("camada.avancar_revisao_completa", SQL_REVISAO_COMPLETA,
+                () -> jdbcTemplate.queryForObject(SQL_REVISAO_COMPLETA, Long.class, codMunicipio));
+        metricasBanco.medir("camada.limpar_exclusoes", SQL_LIMPAR_EXCLUSOES,
+                () -> jdbcTemplate.update(SQL_LIMPAR_EXCLUSOES, codMunicipio));
+        return nova;
+    }
+
+    /**
+     * Hash de conteúdo de cada feição gravada, por identificador (sem ler as geometrias)
+     */
+    public Map<String, String> hashesPorMunicipio(Long codMunicipio) {
+        Map<String, String> hashes = new HashMap<>();
+        metricasBanco.medir("camada.hashes_por_municipio", SQL_HASHES_POR_MUNICIPIO,
+                () -> jdbcTemplate.query(SQL_HASHES_POR_MUNICIPIO,
+                        (RowCallbackHandler) rs -> hashes.put(rs.getString("cod_feicao"), rs.getString("cod_hash")),
+                        codMunicipio));
+        return hashes;
+    }
+
+    public List<String> exclusoesDesde(Long codMunicipio, long revisao) {
+        return metricasBanco.medir("camada.exclusoes_desde", SQL_EXCLUSOES_DESDE,
+                () -> jdbcTemplate.queryForList(SQL_EXCLUSOES_DESDE, String.class, codMunicipio, revisao));
+    }
+
+    /**
+     * Extensão (WGS84) das feições informadas; envelope nulo quando nenhuma está gravada
+     */
+    public Envelope extensaoPorFeicoes(Long codMunicipio, Collection<String> codFeicoes) {
+        if (codFeicoes.isEmpty()) {
+            return new Envelope();
+        }
+        List<Envelope> extensoes = metricasBanco.medir("camada.extensao_por_feicoes", SQL_EXTENSAO_FEICOES,
+                () -> jdbcTemplate.query(con -> {
+                    PreparedStatement ps = con.prepareStatement(SQL_EXTENSAO_FEICOES);
+                    ps.setLong(1, codMunicipio);
+                    ps.setArray(2, con.createArrayOf("varchar", codFeicoes.toArray()));
+                    return ps;
+                }, (rs, rowNum) -> new Envelope(
+                        rs.getDouble("x_min"), rs.getDouble("x_max"),
+                        rs.getDouble("y_min"), rs.getDouble("y_max"))));
+        return extensoes.isEmpty() ? new Envelope() : extensoes.get(0);
+    }
+
+    /**
+     * Exclui as feições informadas e registra a exclusão na revisão, para a consulta de alterações
+     */
+    public int excluirFeicoes(Long codMunicipio, Collection<String> codFeicoes, long revisao) {
+        if (codFeicoes.isEmpty()) {
+            return 0;
+        }
+        Object[] ids = codFeicoes.toArray();
+        metricasBanco.medir("camada.registrar_exclusoes", SQL_REGISTRAR_EXCLUSOES, () -> jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(SQL_REGISTRAR_EXCLUSOES);
+            ps.setLong(1, codMunicipio);
+            ps.setArray(2, con.createArrayOf("varchar", ids));
+            ps.setLong(3, revisao);
+            return ps;
+        }));
+        return metricasBanco.medir("camada.excluir_feicoes", SQL_EXCLUIR_FEICOES, () -> jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(SQL_EXCLUIR_FEICOES);
+            ps.setLong(1, codMunicipio);
+            ps.setArray(2, con.createArrayOf("varchar", ids));
+            return ps;
+        }));
+    }
+
+    /**
+     * Extensão (WGS84) das feições gravadas do município; envelope nulo quando não há feições
+     */
+    public Envelope extensaoPorMunicipio(Long codMunicipio) {
+        List<Envelope> extensoes = metricasBanco.medir("camada.extensao_por_municipio", SQL_EXTENSAO_POR_MUNICIPIO,
+                () -> jdbcTemplate.query(SQL_EXTENSAO_POR_MUNICIPIO, (rs, rowNum) -> new Envelope(
+                        rs.getDouble("x_min"), rs.getDouble("x_max"),
+                        rs.getDouble("y_min"), rs.getDouble("y_max")), codMunicipio));
+        return extensoes.isEmpty() ? new Envelope() : extensoes.get(0);
+    }
+
+    /**
+     * Exclui todas as feições do município com DELETE, dentro da transação corrente: bloqueia só
+     * as linhas apagadas, e as leituras seguem vendo a versão anterior até o commit.
+     * É o que a exclusão usa para o que o {@link #esvaziarParticao} não conseguiu apagar.
+     */
+    public void excluirPorMunicipio(Long codMunicipio) {
+        metricasBanco.medir("camada.excluir_por_municipio", SQL_EXCLUIR_POR_MUNICIPIO,
+                () -> jdbcTemplate.update(SQL_EXCLUIR_POR_MUNICIPIO, codMunicipio));
+    }
+
+    /**
+     * Esvazia a partição do município com TRUNCATE, sem apagar linha a linha nem manter o índice
+     * GiST. Roda numa transação própria, só com o comando, e por isso deve ser chamado fora de
+     * transação: o bloqueio exclusivo da partição dura só o TRUNCATE. A espera por ele é limitada a
+     * caronline.camadas.espera-bloqueio-particao-ms, porque enquanto espera as leituras da partição (e os
+     * tiles, que leem todas) ficam na fila atrás dele.
+     * @return false se o município não tem partição ou o bloqueio não veio a tempo; as linhas
+     * ficam então para o {@link #excluirPorMunicipio}
+     */
+    public boolean esvaziarParticao(Long codMunicipio) {
+        if (!existeParticao(codMunicipio)) {
+            return false;
+        }
+        String sqlTruncate = "TRUNCATE " + particao(codMunicipio);
+        return Boolean.TRUE.equals(metricasBanco.medir("camada.esvaziar_particao", sqlTruncate,
+                () -> jdbcTemplate.execute((ConnectionCallback<Boolean>) con -> truncar(con, sqlTruncate))));
+    }
+
+    private boolean truncar(Connection con, String sqlTruncate) throws SQLException {
+        if (!con.getAutoCommit()) {
+            throw new IllegalStateException("O TRUNCATE da partição não pode rodar dentro de outra transação");
+        }
+        con.setAutoCommit(false);
+        try (Statement st = con.createStatement()) {
+            // SET LOCAL: a espera volta ao padrão da conexão no fim da transação
+            st.execute("SET LOCAL lock_timeout = " + esperaBloqueioMs);
+            st.execute(sqlTruncate);
+            con.commit();
+            return true;
+        } catch (SQLException e) {
+            con.rollback();
+            if (SQL_STATE_LOCK_NOT_AVAILABLE.equals(e.getSQLState())) {
+                return false;
+            }
+            throw e;
+        } finally {
+            con.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * VACUUM (ANALYZE) da partição do município e, se pedido, reconstrução dos índices dela sem
+     * bloquear as gravações (REINDEX CONCURRENTLY). Nenhum dos dois roda dentro de transação.
+     * @return false se o município ainda não tem partição
+     */
+    public boolean manterParticao(Long codMunicipio, boolean reindexar) {
+        if (!existeParticao(codMunicipio)) {
+            return false;
+        }
+        String sqlVacuum = "VACUUM (ANALYZE) " + particao(codMunicipio);
+        metricasBanco.medir("camada.vacuum_particao", sqlVacuum, () -> jdbcTemplate.execute(sqlVacuum));
+        if (reindexar) {
+            String sqlReindex = "REINDEX TABLE CONCURRENTLY " + particao(codMunicipio);
+            metricasBanco.medir("camada.reindexar_particao", sqlReindex, () -> jdbcTemplate.execute(sqlReindex));
+        }
+        return true;
+    }
+
+    private boolean existeParticao(Long codMunicipio) {
+        return Boolean.TRUE.equals(metricasBanco.medir("camada.existe_particao", SQL_EXISTE_PARTICAO,
+                () -> jdbcTemplate.queryForObject(SQL_EXISTE_PARTICAO, Boolean.class, particao(codMunicipio))));
+    }
+
+    /**
+     * Cria a partição do município na primeira gravação; linhas sem partição são recusadas
+     */
+    private void garantirParticao(Long codMunicipio) {
+        particao(codMunicipio);
+        metricasBanco.medir("camada.criar_particao", SQL_CRIAR_PARTICAO,
+                () -> jdbcTemplate.queryForObject(SQL_CRIAR_PARTICAO, String.class, codMunicipio));
+    }
+
+    /**
+     * Insere as feições em lotes de JDBC. Com reWriteBatchedInserts habilitado no driver,
+     * cada lote vira um único INSERT multi-linha no PostgreSQL.
+     */
+    public void inserirEmLote(Long codMunicipio, List<FeicaoCamada> feicoes) {
+        if (feicoes.isEmpty()) {
+            return;
+        }
+        garantirParticao(codMunicipio);
+        metricasBanco.medir("camada.inserir_em_lote", SQL_INSERIR,
+                () -> jdbcTemplate.batchUpdate(SQL_INSERIR, feicoes, tamanhoLote, parametros(codMunicipio)));
+    }
+
+    /**
+     * Substitui todas as feições do município trocando a partição inteira: as feições novas são
+     * inseridas numa tabela de carga criada com LIKE a partição, com os mesmos índices, sem
+     * bloquear a tabela principal; no fim, a partição antiga é desanexada e descartada e a de
+     * carga é anexada no lugar. Só essa troca bloqueia a tabela principal (e os tiles, que leem
+     * todas as partições), e a espera pelo bloqueio é limitada a
+     * caronline.camadas.espera-bloqueio-particao-ms; sem ele a tempo, as linhas são copiadas da
+     * carga com DELETE e INSERT. Deve ser chamado dentro de uma transação, que segura o bloqueio
+     * da troca até o commit, como último comando dela.
+     * @return false se a partição não foi trocada e as linhas foram copiadas
+     */
+    public boolean substituirMunicipio(Long codMunicipio, List<FeicaoCamada> feicoes) {
+        particao(codMunicipio);
+        String carga = metricasBanco.medir("camada.criar_carga", SQL_CRIAR_CARGA,
+                () -> jdbcTemplate.queryForObject(SQL_CRIAR_CARGA, String.class, codMunicipio));
+        if (!feicoes.isEmpty()) {
+            String sqlInserir = SQL_INSERIR_EM.formatted(carga);
+            metricasBanco.medir("camada.inserir_carga", sqlInserir,
+                    () -> jdbcTemplate.batchUpdate(sqlInserir, feicoes, tamanhoLote, parametros(codMunicipio)));
+        }
+        return Boolean.TRUE.equals(metricasBanco.medir("camada.trocar_particao", SQL_TROCAR_PARTICAO,
+                () -> jdbcTemplate.queryForObject(SQL_TROCAR_PARTICAO, Boolean.class, codMunicipio,
+                        (int) esperaBloqueioMs)));
+    }
+
+    /**
+     * Insere ou substitui, pelo identificador, as feições informadas, em lotes
+     */
+    public void gravarEmLote(Long codMunicipio, List<FeicaoCamada> feicoes) {
+        if (feicoes.isEmpty()) {
+            return;
+        }
+        garantirParticao(codMunicipio);
+        metricasBanco.medir("camada.gravar_em_lote", SQL_GRAVAR_FEICAO,
+                () -> jdbcTemplate.batchUpdate(SQL_GRAVAR_FEICAO, feicoes, tamanhoLote, parametros(codMunicipio)));
+    }
+
+    private static ParameterizedPreparedStatementSetter<FeicaoCamada> parametros(Long codMunicipio) {
+        // WKBWriter não é thread-safe; uma instância por chamada
+        WKBWriter wkbWriter = new WKBWriter();
+
+        return (ps, feicao) -> {
+            ps.setLong(1, codMunicipio);
+            if (feicao.getIdtTema() != null) {
+                ps.setLong(2, feicao.getIdtTema());
+            } else {
+                ps.setNull(2, Types.BIGINT);
+            }
+            ps.setString(3, feicao.getCodTema());
+            ps.setString(4, feicao.getNomTema());
+            ps.setBigDecimal(5, feicao.getNumArea());
+            ps.setBytes(6, wkbWriter.write(feicao.getGeometria()));
+            ps.setTimestamp(7, toTimestamp(feicao.getDataCriacao()));
+            ps.setTimestamp(8, toTimestamp(feicao.getDataUltimaAtualizacao()));
+            ps.setString(9, feicao.getCodFeicao());
+            ps.setString(10, feicao.getCodHash());
+            ps.setLong(11, feicao.getNumRevisao() != null ? feicao.getNumRevisao() : 0L);
+        };
+    }
+
+    private static Timestamp toTimestamp(OffsetDateTime data) {
+        return Timestamp.from((data != null ? data : OffsetDateTime.now()).toInstant());
+    }
+
+    private static class FeicaoCamadaRowMapper implements RowMapper<FeicaoCamada> {
+
+        // WKBReader não é thread-safe; uma instância por consulta
+        private final WKBReader wkbReader = new WKBReader(Geometrias.FACTORY);
+
+        @Override
+        public FeicaoCamada mapRow(ResultSet rs, int rowNum) throws SQLException {
+            FeicaoCamada feicao = new FeicaoCamada();
+            feicao.setIdtCamadaImovel(rs.getLong("idt_camada_imovel"));
+            feicao.setIdtTema(rs.getObject("idt_tema", Long.class)); // Handle nullable Long
+            feicao.setCodTema(rs.getString("cod_tema"));
+            feicao.setNomTema(rs.getString("nom_tema"));
+            feicao.setNumArea(rs.getBigDecimal("num_area"));
+            try {
+                feicao.setGeometria(wkbReader.read(rs.getBytes("the_geom")));
+            } catch (ParseException e) {
+                throw new SQLException("Geometria inválida na camada " + feicao.getIdtCamadaImovel(), e);
+            }
+            feicao.setDataCriacao(toOffsetDateTime(rs.getTimestamp("dat_criacao")));
+            feicao.setDataUltimaAtualizacao(toOffsetDateTime(rs.getTimestamp("dat_atualizacao")));
+            feicao.setCodFeicao(rs.getString("cod_feicao"));
+            feicao.setCodHash(rs.getString("cod_hash"));
+            feicao.setNumRevisao(rs.getLong("num_revisao"));
+            return feicao;
+        }
+
+        private static OffsetDateTime toOffsetDateTime(Timestamp timestamp) {
+            return timestamp != null ? timestamp.toInstant().atOffset(ZoneOffset.UTC) : null;
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package br.vegamonitoramento.caronline.repository;
+
+import br.vegamonitoramento.caronline.job.FaixaJob;
+import br.vegamonitoramento.caronline.job.Job;
+import br.vegamonitoramento.caronline.job.SituacaoJob;
+import br.vegamonitoramento.caronline.job.TipoJob;
+import br.vegamonitoramento.caronline.metrics.MetricasBanco;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Estado das tarefas assíncronas (usr_geocar_aplicacao.job). As escritas são feitas em
+ * autocommit pelas threads das tarefas, fora das transações das operações executadas.
+ * <p>
+ * Cada tarefa não finalizada pertence a uma instância, identificada por
+ * {@code caronline.jobs.instancia}, enquanto ela renovar a concessão; vencida a concessão,
+ * outra instância pode assumi-la.
+ */
+@Repository
+public class JobRepository {
+
+    private static final String SQL_INSERIR = """
+            INSERT INTO usr_geocar_aplicacao.job
+              (idt_job, des_tipo, des_faixa, des_situacao, cod_municipio, des_formato, des_mensagem, dat_criacao,
+               cod_instancia, dat_renovacao)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, now())
+            """;
+
+    private static final String SQL_ATUALIZAR = """
+            UPDATE usr_geocar_aplicacao.job
+            SET des_situacao = ?, num_progresso = ?, des_mensagem = ?, des_tipo_midia = ?, des_arquivo = ?,
+                num_tentativas = ?, dat_inicio = ?, dat_fim = ?
+            WHERE idt_job = ?
+            """;
+
+    private static final String SQL_ATUALIZAR_PROGRESSO = """
+            UPDATE usr_geocar_aplicacao.job
+            SET num_progresso = ?, des_mensagem = ?
+            WHERE idt_job = ?
+            """;
+
+    private static final String SQL_COLUNAS = """
+            SELECT j.idt_job, j.des_tipo, j.des_faixa, j.des_situacao, j.cod_municipio, j.des_formato,
+                   j.num_progresso, j.des_mensagem, j.des_tipo_midia, j.des_arquivo, j.num_tentativas,
+                   j.ind_cancelamento, j.dat_criacao, j.dat_inicio, j.dat_fim
+            FROM usr_geocar_aplicacao.job AS j
+            """;
+
+    private static final String SQL_BUSCAR = SQL_COLUNAS + "WHERE j.idt_job = ?";
+
+    private static final String SQL_PEDIR_CANCELAMENTO = """
+            UPDATE usr_geocar_aplicacao.job
+            SET ind_cancelamento = true, des_mensagem = 'Cancelamento solicitado'
+            WHERE idt_job = ? AND des_situacao IN ('PENDENTE', 'EXECUTANDO')
+            """;
+
+    private static final String SQL_CANCELAMENTO_PEDIDO = """
+            SELECT ind_cancelamento FROM usr_geocar_aplicacao.job WHERE idt_job = ?
+            """;
+
+    // Tarefas desta instância ainda na fila cujo cancelamento foi pedido, possivelmente por outra
+    private static final String SQL_CANCELAMENTOS_PENDENTES = """
+            SELECT idt_job FROM usr_geocar_aplicacao.job
+            WHERE cod_instancia = ? AND des_situacao = 'PENDENTE' AND ind_cancelamento
+            """;
+
+    private static final String SQL_RENOVAR = """
+            UPDATE usr_geocar_aplicacao.job
+            SET dat_renovacao = now()
+            WHERE cod_instancia = ? AND des_situacao IN ('PENDENTE', 'EXECUTANDO')
+            """;
+
+    // Tarefas que podem ser assumidas: as desta instância, quando pedidas (ao subir), e as de
+    // instâncias que pararam de renovar a concessão
+    private static final String SQL_CONDICAO_ASSUMIR = """
+            WHERE des_situacao IN ('PENDENTE', 'EXECUTANDO')
+              AND ((? AND cod_instancia = ?) OR cod_instancia IS NULL
+                   OR dat_renovacao IS NULL OR dat_renovacao < now() - ? * INTERVAL '1 millisecond')
+            """;
+
+    // Canceladas enquanto a dona estava fora: não voltam para a fila
+    private static final String SQL_CANCELAR_PEDIDAS = """
+            UPDATE usr_geocar_aplicacao.job
+            SET des_situacao = 'CANCELADO', dat_fim = now(), des_mensagem = 'Cancelada antes de ser retomada'
+            """ + SQL_CONDICAO_ASSUMIR + """
+              AND ind_cancelamento
+            """;
+
+    // Interrompidas tantas vezes que provavelmente derrubam o servidor: não voltam para a fila
+    private static final String SQL_ESGOTAR_INTERROMPIDAS = """
+            UPDATE usr_geocar_aplicacao.job
+            SET des_situacao = 'FALHOU', dat_fim = now(),
+                des_mensagem = 'Interrompida em ' || num_tentativas || ' execuções; não será retomada'
+            """ + SQL_CONDICAO_ASSUMIR + """
+              AND des_situacao = 'EXECUTANDO' AND num_tentativas >= ?
+            """;
+
+    // As demais voltam para a fila desta instância
+    private static final String SQL_ASSUMIR = """
+            UPDATE usr_geocar_aplicacao.job AS j
+            SET des_situacao = 'PENDENTE', cod_instancia = ?, dat_renovacao = now(),
+                num_progresso = CASE WHEN j.des_situacao = 'EXECUTANDO' THEN 0 ELSE j.num_progresso END,
+                des_mensagem = CASE WHEN j.des_situacao = 'EXECUTANDO'
+                                    THEN 'Reiniciada após interrupção do servidor' ELSE j.des_mensagem END
+            """ + SQL_CONDICAO_ASSUMIR + """
+            RETURNING j.idt_job, j.des_tipo, j.des_faixa, j.des_situacao, j.cod_municipio, j.des_formato,
+                      j.num_progresso, j.des_mensagem, j.des_tipo_midia, j.des_arquivo, j.num_tentativas,
+                      j.ind_cancelamento, j.dat_criacao, j.dat_inicio, j.dat_fim
+            """;
+
+    private static final String SQL_EXCLUIR_FINALIZADAS = """
+            DELETE FROM usr_geocar_aplicacao.job
+            WHERE des_situacao IN ('CONCLUIDO', 'FALHOU', 'CANCELADO') AND dat_fim < ?
+            RETURNING des_arquivo
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MetricasBanco metricasBanco;
+    private final String instancia;
+    private final long concessaoMs;
+
+    @Autowired
+    public JobRepository(JdbcTemplate jdbcTemplate, MetricasBanco metricasBanco,
+                         @Value("${caronline.jobs.instancia:${HOSTNAME:caronline}}") String instancia,
+                         @Value("${caronline.jobs.concessao-ms:300000}") long concessaoMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.metricasBanco = metricasBanco;
+        this.instancia = instancia;
+        this.concessaoMs = concessaoMs;
+    }
+
+    public void inserir(Job job) {
+        metricasBanco.medir("job.inserir", SQL_INSERIR, () -> jdbcTemplate.update(SQL_INSERIR,
+                job.getId(), job.getTipo().name(), job.getFaixa().name(), job.getSituacao().name(),
+                job.getCodMunicipio(), job.getFormato(), job.getMensagem(), toTimestamp(job.getDataCriacao()),
+                instancia));
+    }
+
+    public void atualizar(Job job) {
+        metricasBanco.medir("job.atualizar", SQL_ATUALIZAR, () -> jdbcTemplate.update(SQL_ATUALIZAR,
+                job.getSituacao().name(), progresso(job), job.getMensagem(), job.getTipoMidia(), job.getArquivo(),
+                job.getTentativas(), toTimestamp(job.getDataInicio()), toTimestamp(job.getDataFim()), job.getId()));
+    }
+
+    public void atualizarProgresso(Job job) {
+        metricasBanco.medir("job.progresso", SQL_ATUALIZAR_PROGRESSO, () -> jdbcTemplate.update(
+                SQL_ATUALIZAR_PROGRESSO, progresso(job), job.getMensagem(), job.getId()));
+    }
+
+    public Optional<Job> buscar(UUID id) {
+        return metricasBanco.medir("job.buscar", SQL_BUSCAR,
+                () -> jdbcTemplate.query(SQL_BUSCAR, new JobRowMapper(), id)).stream().findFirst();
+    }
+
+    /**
+     * Grava o pedido de cancelamento, lido pela instância dona da tarefa
+     * @return false se a tarefa não existe ou já foi finalizada
+     */
+    public boolean pedirCancelamento(UUID id) {
+        return metricasBanco.medir("job.pedir_cancelamento", SQL_PEDIR_CANCELAMENTO,
+                () -> jdbcTemplate.update(SQL_PEDIR_CANCELAMENTO, id)) > 0;
+    }
+
+    public boolean isCancelamentoPedido(UUID id) {
+        return metricasBanco.medir("job.cancelamento_pedido", SQL_CANCELAMENTO_PEDIDO,
+                () -> jdbcTemplate.query(SQL_CANCELAMENTO_PEDIDO, (rs, rowNum) -> rs.getBoolean(1), id))
+                .stream().findFirst().orElse(false);
+    }
+
+    /**
+     * Tarefas desta instância ainda na fila com cancelamento pedido
+     */
+    public List<UUID> buscarCancelamentosPendentes() {
+        return metricasBanco.medir("job.cancelamentos_pendentes", SQL_CANCELAMENTOS_PENDENTES,
+                () -> jdbcTemplate.queryForList(SQL_CANCELAMENTOS_PENDENTES, UUID.class, instancia));
+    }
+
+    /**
+     * Renova a concessão das tarefas desta instância que estão na fila ou em execução
+     */
+    public void renovarConcessao() {
+        metricasBanco.medir("job.renovar", SQL_RENOVAR, () -> jdbcTemplate.update(SQL_RENOVAR, instancia));
+    }
+
+    /**
+     * Assume as tarefas não finalizadas de instâncias cuja concessão venceu e, com
+     * {@code incluirProprias}, as desta instância (deixadas por uma execução anterior).
+     * As que tiveram o cancelamento pedido são marcadas CANCELADO, as interrompidas que já
+     * executaram {@code maximoTentativas} vezes, FALHOU, e as demais voltam a PENDENTE.
+     * @return as tarefas assumidas, das mais antigas para as mais novas
+     */
+    public List<Job> assumirPendentes(boolean incluirProprias, int maximoTentativas) {
+        metricasBanco.medir("job.cancelar_pedidas", SQL_CANCELAR_PEDIDAS, () -> jdbcTemplate.update(
+                SQL_CANCELAR_PEDIDAS, incluirProprias, instancia, concessaoMs));
+        metricasBanco.medir("job.esgotar", SQL_ESGOTAR_INTERROMPIDAS, () -> jdbcTemplate.update(
+                SQL_ESGOTAR_INTERROMPIDAS, incluirProprias, instancia, concessaoMs, maximoTentativas));
+        List<Job> assumidas = metricasBanco.medir("job.assumir", SQL_ASSUMIR, () -> jdbcTemplate.query(
+                SQL_ASSUMIR, new JobRowMapper(), instancia, incluirProprias, instancia, concessaoMs));
+        return assumidas.stream().sorted(Comparator.comparing(Job::getDataCriacao)).toList();
+    }
+
+    /**
+     * Exclui as tarefas finalizadas antes da data
+     * @return os arquivos de resultado das tarefas excluídas
+     */
+    public List<String> excluirFinalizadasAntes(OffsetDateTime limite) {
+        return metricasBanco.medir("job.excluir_finalizadas", SQL_EXCLUIR_FINALIZADAS,
+                () -> jdbcTemplate.queryForList(SQL_EXCLUIR_FINALIZADAS, String.class, toTimestamp(limite)));
+    }
+
+    private static BigDecimal progresso(Job job) {
+        return BigDecimal.valueOf(job.getProgresso()).setScale(4, RoundingMode.HALF_UP);
+    }
+
+    private static Timestamp toTimestamp(OffsetDateTime data) {
+        return data != null ? Timestamp.from(data.toInstant()) : null;
+    }
+
+    private static class JobRowMapper implements RowMapper<Job> {
+
+        @Override
+        public Job mapRow(ResultSet rs, int rowNum) throws SQLException {
+            Job job = new Job();
+            job.setId(rs.getObject("idt_job", UUID.class));
+            job.setTipo(TipoJob.valueOf(rs.getString("des_tipo")));
+            job.setFaixa(FaixaJob.valueOf(rs.getString("des_faixa")));
+            job.setSituacao(SituacaoJob.valueOf(rs.getString("des_situacao")));
+            long codMunicipio = rs.getLong("cod_municipio");
+            job.setCodMunicipio(rs.wasNull() ? null : codMunicipio);
+            job.setFormato(rs.getString("des_formato"));
+            job.setProgresso(rs.getDouble("num_progresso"));
+            job.setMensagem(rs.getString("des_mensagem"));
+            job.setTipoMidia(rs.getString("des_tipo_midia"));
+            job.setArquivo(rs.getString("des_arquivo"));
+            job.setTentativas(rs.getInt("num_tentativas"));
+            job.setCancelamentoPedido(rs.getBoolean("ind_cancelamento"));
+            job.setDataCriacao(toOffsetDateTime(rs.getTimestamp("dat_criacao")));
+            job.setDataInicio(toOffsetDateTime(rs.getTimestamp("dat_inicio")));
+            job.setDataFim(toOffsetDateTime(rs.getTimestamp("dat_fim")));
+            return job;
+        }
+
+        private static OffsetDateTime toOffsetDateTime(Timestamp timestamp) {
+            return timestamp != null ? timestamp.toInstant().atOffset(ZoneOffset.UTC) : null;
+        }
+    }
+}
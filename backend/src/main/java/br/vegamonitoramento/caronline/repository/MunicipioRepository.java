@@ -0,0 +1,141 @@
+package br.vegamonitoramento.caronline.repository;
+
+import br.vegamonitoramento.caronline.geometry.GeoJsonGeometryReader;
+import br.vegamonitoramento.caronline.geometry.Geometrias;
+import br.vegamonitoramento.caronline.metrics.MetricasBanco;
+import br.vegamonitoramento.caronline.model.Municipio;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.WKBReader;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Leitura dos limites municipais e do contorno da UF. Por padrão vêm das tabelas
+ * usr_geocar_aplicacao.municipio e usr_geocar_aplicacao.unidade_federacao (malha do IBGE);
+ * com caronline.municipios.geojson e caronline.estado.geojson informados, vêm de arquivos
+ * GeoJSON (propriedades "id" com o código IBGE e "name" com o nome do município).
+ */
+@Repository
+public class MunicipioRepository {
+
+    private static final String SQL_MUNICIPIOS = """
+            SELECT m.cod_municipio, m.nom_municipio, ST_AsBinary(ST_Transform(m.the_geom, %d)) AS the_geom
+            FROM usr_geocar_aplicacao.municipio AS m
+            WHERE m.cod_uf = ?
+            ORDER BY m.cod_municipio
+            """.formatted(Geometrias.SRID_GEOJSON);
+
+    private static final String SQL_ESTADO = """
+            SELECT ST_AsBinary(ST_Transform(u.the_geom, %d)) AS the_geom
+            FROM usr_geocar_aplicacao.unidade_federacao AS u
+            WHERE u.cod_uf = ?
+            """.formatted(Geometrias.SRID_GEOJSON);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MetricasBanco metricasBanco;
+    private final ResourceLoader resourceLoader;
+    private final ObjectMapper objectMapper;
+    private final String municipiosGeoJson;
+    private final String estadoGeoJson;
+    private final int codUf;
+
+    @Autowired
+    public MunicipioRepository(JdbcTemplate jdbcTemplate,
+                               MetricasBanco metricasBanco,
+                               ResourceLoader resourceLoader,
+                               ObjectMapper objectMapper,
+                               @Value("${caronline.municipios.geojson:}") String municipiosGeoJson,
+                               @Value("${caronline.estado.geojson:}") String estadoGeoJson,
+                               @Value("${caronline.municipios.uf:35}") int codUf) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.metricasBanco = metricasBanco;
+        this.resourceLoader = resourceLoader;
+        this.objectMapper = objectMapper;
+        this.municipiosGeoJson = municipiosGeoJson;
+        this.estadoGeoJson = estadoGeoJson;
+        this.codUf = codUf;
+    }
+
+    /**
+     * Somente arquivos GeoJSON, sem banco (testes e benchmarks)
+     */
+    public MunicipioRepository(ResourceLoader resourceLoader, ObjectMapper objectMapper,
+                               String municipiosGeoJson, String estadoGeoJson) {
+        this(null, null, resourceLoader, objectMapper, municipiosGeoJson, estadoGeoJson, 35);
+    }
+
+    public List<Municipio> findAllMunicipios() throws IOException {
+        if (!StringUtils.hasText(municipiosGeoJson)) {
+            WKBReader wkbReader = new WKBReader(Geometrias.FACTORY);
+            return metricasBanco.medir("municipio.listar", SQL_MUNICIPIOS,
+                    () -> jdbcTemplate.query(SQL_MUNICIPIOS, (rs, rowNum) -> new Municipio(
+                            rs.getLong("cod_municipio"),
+                            rs.getString("nom_municipio"),
+                            ler(wkbReader, rs.getBytes("the_geom"))), codUf));
+        }
+
+        GeoJsonGeometryReader geometryReader = new GeoJsonGeometryReader();
+        List<Municipio> municipios = new ArrayList<>();
+        for (JsonNode feature : lerColecao(municipiosGeoJson).path("features")) {
+            JsonNode propriedades = feature.path("properties");
+            municipios.add(new Municipio(
+                    propriedades.path("id").asLong(),
+                    propriedades.path("name").asText(null),
+                    geometryReader.read(feature.get("geometry"))));
+        }
+        return municipios;
+    }
+
+    /**
+     * Contorno oficial da UF, ou null se não estiver carregado
+     */
+    public Geometry findEstado() throws IOException {
+        if (!StringUtils.hasText(estadoGeoJson)) {
+            WKBReader wkbReader = new WKBReader(Geometrias.FACTORY);
+            List<Geometry> estados = metricasBanco.medir("municipio.estado", SQL_ESTADO,
+                    () -> jdbcTemplate.query(SQL_ESTADO, (rs, rowNum) -> ler(wkbReader, rs.getBytes("the_geom")), codUf));
+            return estados.isEmpty() ? null : estados.get(0);
+        }
+
+        JsonNode colecao = lerColecao(estadoGeoJson);
+        JsonNode geometria = colecao.has("features") ? colecao.path("features").path(0).get("geometry") : colecao;
+        return geometria != null ? new GeoJsonGeometryReader().read(geometria) : null;
+    }
+
+    public int getCodUf() {
+        return codUf;
+    }
+
+    public String getLocalizacao() {
+        return StringUtils.hasText(municipiosGeoJson) ? municipiosGeoJson : "usr_geocar_aplicacao.municipio";
+    }
+
+    private JsonNode lerColecao(String localizacao) throws IOException {
+        Resource resource = resourceLoader.getResource(localizacao);
+        try (InputStream inputStream = resource.getInputStream()) {
+            return objectMapper.readTree(inputStream);
+        }
+    }
+
+    private static Geometry ler(WKBReader wkbReader, byte[] wkb) throws SQLException {
+        try {
+            return wkbReader.read(wkb);
+        } catch (ParseException e) {
+            throw new SQLException("Geometria inválida na malha municipal", e);
+        }
+    }
+}
@@ -1,10 +1,12 @@
 package br.vegamonitoramento.caronline.repository;
 
+import br.vegamonitoramento.caronline.metrics.MetricasBanco;
 import br.vegamonitoramento.caronline.model.dto.TemaGrupoDTO;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -17,12 +19,16 @@ import java.util.stream.Collectors;
 public class TemaGrupoRepository {
 
     private final JdbcTemplate jdbcTemplate;
+    private final MetricasBanco metricasBanco;
 
     @Autowired
-    public TemaGrupoRepository(JdbcTemplate jdbcTemplate) {
+    public TemaGrupoRepository(JdbcTemplate jdbcTemplate, MetricasBanco metricasBanco) {
         this.jdbcTemplate = jdbcTemplate;
+        this.metricasBanco = metricasBanco;
     }
 
+    // Somente leitura: vai para o pool da réplica
+    @Transactional(readOnly = true)
     public List<TemaGrupoDTO> findAllTemasGrupos() {
         String sql = """
                 WITH grupos AS (
@@ -86,30 +92,32 @@ public class TemaGrupoRepository {
                 ORDER BY cod_ordem, nom_grupo, nom_tema
                 """;
         
-        return jdbcTemplate.query(sql, new TemaGrupoRowMapper());
+        return metricasBanco.medir("tema_grupo.listar", sql,
+                () -> jdbcTemplate.query(sql, new TemaGrupoRowMapper()));
     }
     
     /**
      * Retorna os temas agrupados usando a chave "codOrdem_nomGrupo"
      */
     public Map<String, List<TemaGrupoDTO>> findAllTemasGruposAgrupados() {
-        List<TemaGrupoDTO> temas = findAllTemasGrupos();
-        
-        // Ordenar usando TreeMap para manter a ordem dos grupos
-        Map<String, List<TemaGrupoDTO>> result = new TreeMap<>();
-        
+        return agruparPorOrdemEGrupo(findAllTemasGrupos());
+    }
+
+    /**
+     * Agrupa os temas pela chave "codOrdem_nomGrupo", mantendo os grupos ordenados
+     */
+    public static Map<String, List<TemaGrupoDTO>> agruparPorOrdemEGrupo(List<TemaGrupoDTO> temas) {
         // Agrupar usando a combinação de codOrdem e nomGrupo como chave
-        result = temas.stream()
+        return temas.stream()
                 .collect(Collectors.groupingBy(
                         tema -> tema.getCodOrdem() + "_" + tema.getNomGrupo(),
                         TreeMap::new,  // Usar TreeMap para manter a ordem
                         Collectors.toList()
                 ));
-        
-        return result;
     }
     
-    private static class TemaGrupoRowMapper implements RowMapper<TemaGrupoDTO> {
+    // Visível no pacote para os benchmarks de mapeamento (src/jmh)
+    static class TemaGrupoRowMapper implements RowMapper<TemaGrupoDTO> {
         @Override
         public TemaGrupoDTO mapRow(ResultSet rs, int rowNum) throws SQLException {
             TemaGrupoDTO dto = new TemaGrupoDTO();
@@ -0,0 +1,82 @@
+package br.vegamonitoramento.caronline.repository;
+
+import br.vegamonitoramento.caronline.geometry.Geometrias;
+import br.vegamonitoramento.caronline.metrics.MetricasBanco;
+import br.vegamonitoramento.caronline.tile.TileCoordenada;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Geração de Mapbox Vector Tiles das camadas gravadas diretamente no PostGIS
+ */
+@Repository
+public class TileRepository {
+
+    // Extensão interna do tile e margem (em unidades do tile) usadas pelo ST_AsMVTGeom
+    private static final int EXTENSAO_TILE = TileCoordenada.EXTENSAO;
+    private static final int MARGEM_TILE = TileCoordenada.MARGEM;
+    // Circunferência da Terra em Web Mercator, em metros
+    private static final double CIRCUNFERENCIA = 40075016.68557849;
+
+    // Única consulta de camada_imovel sem o município: o tile é recortado só pela extensão, e uma
+    // feição pode passar do limite do município em que foi gravada. Cada partição usa o próprio GiST
+    // Como lê todas as partições, um bloqueio exclusivo em qualquer uma atrasa os tiles do estado
+    // inteiro: por isso o TRUNCATE da exclusão e a troca de partição da substituição limitam a espera
+    // pelo bloqueio e, sem ele a tempo, caem para DELETE
+    private static final String SQL_TILE = """
+            WITH limites AS (
+              SELECT ST_TileEnvelope(?, ?, ?) AS geom_3857
+            ),
+            mvt AS (
+              SELECT
+                ST_AsMVTGeom(
+                  ST_SimplifyPreserveTopology(ST_Transform(c.the_geom, 3857), ?),
+                  l.geom_3857, %1$d, %2$d, true) AS geom,
+                c.idt_camada_imovel,
+                c.cod_municipio,
+                c.cod_tema,
+                c.nom_tema,
+                c.num_area
+              FROM usr_geocar_aplicacao.camada_imovel AS c
+              CROSS JOIN limites AS l
+              -- Filtro pela extensão com a margem: feições só na margem também são desenhadas
+              WHERE c.the_geom && ST_Transform(
+                ST_Expand(l.geom_3857, (ST_XMax(l.geom_3857) - ST_XMin(l.geom_3857)) * %2$d::float8 / %1$d), %3$d)
+                %4$s
+            )
+            SELECT ST_AsMVT(mvt, ?, %1$d, 'geom') FROM mvt
+            """;
+
+    private static final String SQL_TILE_TODOS_TEMAS =
+            SQL_TILE.formatted(EXTENSAO_TILE, MARGEM_TILE, Geometrias.SRID_ARMAZENAMENTO, "");
+
+    private static final String SQL_TILE_POR_TEMA =
+            SQL_TILE.formatted(EXTENSAO_TILE, MARGEM_TILE, Geometrias.SRID_ARMAZENAMENTO, "AND c.cod_tema = ?");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MetricasBanco metricasBanco;
+
+    @Autowired
+    public TileRepository(JdbcTemplate jdbcTemplate, MetricasBanco metricasBanco) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.metricasBanco = metricasBanco;
+    }
+
+    /**
+     * Gera o tile com as feições da camada; codTema nulo traz todos os temas
+     */
+    public byte[] gerarTile(TileCoordenada tile, String codTema) {
+        // Um pixel do tile, em metros: vértices mais próximos que isso não aparecem no mapa
+        double tolerancia = CIRCUNFERENCIA / (1L << tile.z()) / EXTENSAO_TILE;
+
+        byte[] conteudo = codTema == null
+                ? metricasBanco.medir("tile.gerar", SQL_TILE_TODOS_TEMAS, () -> jdbcTemplate.queryForObject(
+                        SQL_TILE_TODOS_TEMAS, byte[].class, tile.z(), tile.x(), tile.y(), tolerancia, tile.camada()))
+                : metricasBanco.medir("tile.gerar_por_tema", SQL_TILE_POR_TEMA, () -> jdbcTemplate.queryForObject(
+                        SQL_TILE_POR_TEMA, byte[].class, tile.z(), tile.x(), tile.y(), tolerancia, codTema,
+                        tile.camada()));
+
+        return conteudo != null ? conteudo : new byte[0];
+    }
+}
@@ -0,0 +1,153 @@
+package br.vegamonitoramento.caronline.service;
+
+import br.vegamonitoramento.caronline.geometry.GeoJsonGeometryReader;
+import br.vegamonitoramento.caronline.model.FeicaoCamada;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Converte a FeatureCollection enviada pelo frontend em feições JTS, numa única passada, com as
+ * geometrias já normalizadas
+ */
+@Component
+public class CamadaGeoJsonParser {
+
+    // Tamanho da coluna cod_feicao
+    static final int TAMANHO_MAXIMO_ID = 64;
+
+    private final TemaGrupoService temaGrupoService;
+    private final ObjectMapper objectMapper;
+    private final NormalizadorGeometrias normalizador;
+    private final GeoJsonGeometryReader geometryReader = new GeoJsonGeometryReader();
+
+    @Autowired
+    public CamadaGeoJsonParser(TemaGrupoService temaGrupoService, ObjectMapper objectMapper,
+                               NormalizadorGeometrias normalizador) {
+        this.temaGrupoService = temaGrupoService;
+        this.objectMapper = objectMapper;
+        this.normalizador = normalizador;
+    }
+
+    /**
+     * @throws IllegalArgumentException se a coleção ou alguma feição for inválida
+     */
+    public List<FeicaoCamada> parse(JsonNode featureCollection) {
+        if (featureCollection == null || !"FeatureCollection".equals(featureCollection.path("type").asText())) {
+            throw new IllegalArgumentException("O campo geoJson deve ser uma FeatureCollection");
+        }
+
+        JsonNode features = featureCollection.path("features");
+        if (!features.isArray()) {
+            throw new IllegalArgumentException("A FeatureCollection não possui a lista de features");
+        }
+
+        Map<String, Long> idsTema = temaGrupoService.getIdsTemaPorCodigo();
+        List<FeicaoCamada> feicoes = new ArrayList<>(features.size());
+
+        for (int i = 0; i < features.size(); i++) {
+            try {
+                feicoes.add(parseFeature(features.get(i), idsTema));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Feição " + i + ": " + e.getMessage(), e);
+            }
+        }
+
+        return feicoes;
+    }
+
+    /**
+     * Converte uma única Feature
+     * @throws IllegalArgumentException se a feição for inválida
+     */
+    public FeicaoCamada parseFeature(JsonNode feature) {
+        if (feature == null || !"Feature".equals(feature.path("type").asText())) {
+            throw new IllegalArgumentException("O corpo deve ser uma Feature GeoJSON");
+        }
+        return parseFeature(feature, temaGrupoService.getIdsTemaPorCodigo());
+    }
+
+    private FeicaoCamada parseFeature(JsonNode feature, Map<String, Long> idsTema) {
+        JsonNode propriedades = feature.path("properties");
+
+        String codTema = texto(propriedades, "codTema");
+        if (codTema == null) {
+            throw new IllegalArgumentException("codTema não informado");
+        }
+        codTema = codTema.toUpperCase(Locale.ROOT);
+
+        FeicaoCamada feicao = new FeicaoCamada();
+        feicao.setCodTema(codTema);
+        feicao.setIdtTema(idsTema.get(codTema));
+        feicao.setNomTema(texto(propriedades, "nomTema"));
+        feicao.setNumArea(propriedades.path("numArea").isNumber()
+                ? propriedades.path("numArea").decimalValue()
+                : null);
+        feicao.setGeometria(normalizador.normalizar("geojson", geometryReader.read(geometria(feature, propriedades))));
+        feicao.setDataCriacao(data(propriedades, "dataCriacao"));
+        feicao.setDataUltimaAtualizacao(data(propriedades, "dataUltimaAtualizacao"));
+        feicao.setCodFeicao(idFeicao(feature, propriedades));
+        return feicao;
+    }
+
+    /**
+     * Identificador estável da feição: o membro "id" da Feature ou, na falta dele, properties.idFeicao
+     */
+    private static String idFeicao(JsonNode feature, JsonNode propriedades) {
+        JsonNode id = feature.get("id");
+        String codFeicao = id != null && id.isValueNode() && !id.isNull() && !id.asText().isBlank()
+                ? id.asText()
+                : texto(propriedades, "idFeicao");
+        if (codFeicao != null && codFeicao.length() > TAMANHO_MAXIMO_ID) {
+            throw new IllegalArgumentException("id da feição com mais de " + TAMANHO_MAXIMO_ID + " caracteres");
+        }
+        return codFeicao;
+    }
+
+    /**
+     * Usa o objeto "geometry" já lido; o texto duplicado em properties.theGeom só é
+     * interpretado quando a geometria não vier no lugar padrão.
+     */
+    private JsonNode geometria(JsonNode feature, JsonNode propriedades) {
+        JsonNode geometria = feature.get("geometry");
+        if (geometria != null && !geometria.isNull()) {
+            return geometria;
+        }
+
+        String theGeom = texto(propriedades, "theGeom");
+        if (theGeom == null) {
+            throw new IllegalArgumentException("geometria não informada");
+        }
+        try {
+            return objectMapper.readTree(theGeom);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("theGeom não é um GeoJSON válido");
+        }
+    }
+
+    private static String texto(JsonNode propriedades, String campo) {
+        JsonNode valor = propriedades.get(campo);
+        return valor != null && !valor.isNull() && !valor.asText().isBlank() ? valor.asText() : null;
+    }
+
+    private static OffsetDateTime data(JsonNode propriedades, String campo) {
+        String valor = texto(propriedades, campo);
+        if (valor == null) {
+            return null;
+        }
+        try {
+            return OffsetDateTime.parse(valor);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
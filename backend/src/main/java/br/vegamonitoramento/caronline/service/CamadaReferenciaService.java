@@ -0,0 +1,192 @@
+package br.vegamonitoramento.caronline.service;
+
+import br.vegamonitoramento.caronline.geometry.GeoJsonGeometryWriter;
+import br.vegamonitoramento.caronline.geometry.GeometriaMultiNivel;
+import br.vegamonitoramento.caronline.referencia.CacheCelulas;
+import br.vegamonitoramento.caronline.referencia.FeicaoReferencia;
+import br.vegamonitoramento.caronline.repository.CamadaReferenciaRepository;
+import br.vegamonitoramento.caronline.tile.TileCoordenada;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.locationtech.jts.geom.Envelope;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Feições das camadas de referência na extensão do mapa. A extensão é arredondada para as
+ * células da grade XYZ de um zoom fixo por nível de detalhe: as células já em memória são
+ * servidas do cache e só as que faltam vão ao banco, todas numa única consulta. Assim, ao
+ * arrastar o mapa, apenas a faixa nova da tela é lida.
+ */
+@Service
+public class CamadaReferenciaService {
+
+    // Zoom da grade de células em cada nível de detalhe de GeometriaMultiNivel (do original ao
+    // mais simplificado): cada célula cobre de 4 a 8 tiles do zoom em que o nível é usado,
+    // o que dá poucas células por tela
+    private static final int[] ZOOM_CELULA = {12, 11, 9, 7, 5, 3};
+
+    private static final Pattern NOME_CAMADA = Pattern.compile("[a-z0-9_]{1,64}");
+
+    private final CamadaReferenciaRepository camadaReferenciaRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate leitura;
+    private final CacheCelulas cache;
+    private final int maximoCelulas;
+
+    @Autowired
+    public CamadaReferenciaService(CamadaReferenciaRepository camadaReferenciaRepository,
+                                   ObjectMapper objectMapper,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry registry,
+                                   @Value("${caronline.referencias.cache-memoria-bytes:134217728}") long limiteBytes,
+                                   @Value("${caronline.referencias.maximo-celulas:64}") int maximoCelulas) {
+        this.camadaReferenciaRepository = camadaReferenciaRepository;
+        this.objectMapper = objectMapper;
+        // Camadas de referência só são lidas: a consulta vai para a réplica
+        this.leitura = new TransactionTemplate(transactionManager);
+        this.leitura.setReadOnly(true);
+        this.cache = new CacheCelulas(limiteBytes);
+        this.maximoCelulas = maximoCelulas;
+
+        FunctionCounter.builder("caronline.referencias.cache.consultas", cache, CacheCelulas::getAcertos)
+                .description("Células consultadas no cache das camadas de referência")
+                .tag("resultado", "acerto")
+                .register(registry);
+        FunctionCounter.builder("caronline.referencias.cache.consultas", cache, CacheCelulas::getFaltas)
+                .description("Células consultadas no cache das camadas de referência")
+                .tag("resultado", "falta")
+                .register(registry);
+        Gauge.builder("caronline.referencias.cache.taxa_acerto", cache, CamadaReferenciaService::taxaAcerto)
+                .description("Fração das células servidas da memória desde o início")
+                .register(registry);
+        Gauge.builder("caronline.referencias.cache.memoria", cache, CacheCelulas::getBytes)
+                .description("Memória estimada das células em cache")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("caronline.referencias.cache.celulas", cache, CacheCelulas::getQuantidade)
+                .description("Células em cache")
+                .register(registry);
+    }
+
+    /**
+     * FeatureCollection GeoJSON (WGS84) com as feições da camada que tocam a extensão,
+     * simplificadas para o zoom
+     * @throws IllegalArgumentException se a camada, a extensão ou o zoom forem inválidos, ou
+     *                                  se a extensão exigir células demais para o zoom
+     */
+    public byte[] getFeicoes(String codCamada, Envelope extensao, Double zoom) {
+        if (codCamada == null || !NOME_CAMADA.matcher(codCamada).matches()) {
+            throw new IllegalArgumentException("Camada inválida: " + codCamada);
+        }
+        if (extensao == null || extensao.isNull() || extensao.getMinX() < -180 || extensao.getMaxX() > 180
+                || extensao.getMinY() < -90 || extensao.getMaxY() > 90) {
+            throw new IllegalArgumentException("Extensão inválida: " + extensao);
+        }
+        int nivel = GeometriaMultiNivel.nivel(zoom, null);
+        List<TileCoordenada> celulas = celulas(codCamada, extensao, ZOOM_CELULA[nivel]);
+
+        Map<TileCoordenada, List<FeicaoReferencia>> porCelula = cache.buscar(celulas);
+        List<TileCoordenada> faltantes = celulas.stream().filter(celula -> !porCelula.containsKey(celula)).toList();
+        if (!faltantes.isEmpty()) {
+            // Geração lida antes da consulta: se o cache for limpo no meio, as células não são guardadas
+            long geracao = cache.getGeracao();
+            Map<TileCoordenada, List<FeicaoReferencia>> lidas = leitura.execute(status -> camadaReferenciaRepository
+                    .buscarPorCelulas(codCamada, faltantes, GeometriaMultiNivel.tolerancia(nivel)));
+            cache.guardar(lidas, geracao);
+            porCelula.putAll(lidas);
+        }
+
+        // Feições que cruzam várias células aparecem uma vez; as que só tocam a parte das
+        // células fora da extensão ficam de fora
+        Set<Long> escritas = new HashSet<>();
+        List<FeicaoReferencia> feicoes = new ArrayList<>();
+        for (TileCoordenada celula : celulas) {
+            for (FeicaoReferencia feicao : porCelula.get(celula)) {
+                if (feicao.geometria().getEnvelopeInternal().intersects(extensao) && escritas.add(feicao.id())) {
+                    feicoes.add(feicao);
+                }
+            }
+        }
+        return serializar(feicoes);
+    }
+
+    public List<String> listarCamadas() {
+        return leitura.execute(status -> camadaReferenciaRepository.listarCamadas());
+    }
+
+    /**
+     * Descarta as células em memória; usado depois de recarregar as bases de referência
+     */
+    public void limparCache() {
+        cache.limpar();
+    }
+
+    private List<TileCoordenada> celulas(String codCamada, Envelope extensao, int z) {
+        int xMin = TileCoordenada.coluna(extensao.getMinX(), z);
+        int xMax = TileCoordenada.coluna(extensao.getMaxX(), z);
+        int yMin = TileCoordenada.linha(extensao.getMaxY(), z);
+        int yMax = TileCoordenada.linha(extensao.getMinY(), z);
+        long quantidade = (long) (xMax - xMin + 1) * (yMax - yMin + 1);
+        if (quantidade > maximoCelulas) {
+            throw new IllegalArgumentException("Extensão grande demais para o zoom informado ("
+                    + quantidade + " células; máximo " + maximoCelulas + ")");
+        }
+
+        List<TileCoordenada> celulas = new ArrayList<>((int) quantidade);
+        for (int x = xMin; x <= xMax; x++) {
+            for (int y = yMin; y <= yMax; y++) {
+                celulas.add(new TileCoordenada(codCamada, z, x, y));
+            }
+        }
+        return celulas;
+    }
+
+    private byte[] serializar(List<FeicaoReferencia> feicoes) {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        try (JsonGenerator gerador = objectMapper.getFactory().createGenerator(saida, JsonEncoding.UTF8)) {
+            gerador.writeStartObject();
+            gerador.writeStringField("type", "FeatureCollection");
+            gerador.writeArrayFieldStart("features");
+            for (FeicaoReferencia feicao : feicoes) {
+                gerador.writeStartObject();
+                gerador.writeStringField("type", "Feature");
+                gerador.writeNumberField("id", feicao.id());
+                gerador.writeFieldName("geometry");
+                GeoJsonGeometryWriter.write(feicao.geometria(), gerador);
+                gerador.writeObjectFieldStart("properties");
+                gerador.writeStringField("name", feicao.nome());
+                gerador.writeEndObject();
+                gerador.writeEndObject();
+            }
+            gerador.writeEndArray();
+            gerador.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return saida.toByteArray();
+    }
+
+    private static double taxaAcerto(CacheCelulas cache) {
+        long acertos = cache.getAcertos();
+        long total = acertos + cache.getFaltas();
+        return total == 0 ? 0.0 : (double) acertos / total;
+    }
+}
@@ -0,0 +1,309 @@
+package br.vegamonitoramento.caronline.service;
+
+import br.vegamonitoramento.caronline.export.AlteracoesCamadas;
+import br.vegamonitoramento.caronline.export.CamadasTwkb;
+import br.vegamonitoramento.caronline.export.ExportadorCamadas;
+import br.vegamonitoramento.caronline.export.FormatoExportacao;
+import br.vegamonitoramento.caronline.metrics.MetricasGeometria;
+import br.vegamonitoramento.caronline.model.FeicaoCamada;
+import br.vegamonitoramento.caronline.model.dto.SalvarCamadasRequestDTO;
+import br.vegamonitoramento.caronline.model.dto.SalvarCamadasResponseDTO;
+import br.vegamonitoramento.caronline.model.dto.SincronizarCamadasRequestDTO;
+import br.vegamonitoramento.caronline.model.dto.SincronizarCamadasResponseDTO;
+import br.vegamonitoramento.caronline.repository.CamadaRepository;
+import org.locationtech.jts.geom.Envelope;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+@Service
+public class CamadaService {
+
+    private final CamadaRepository camadaRepository;
+    private final CamadaGeoJsonParser camadaGeoJsonParser;
+    private final TemaGrupoService temaGrupoService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MetricasGeometria metricasGeometria;
+    private final NormalizadorGeometrias normalizador;
+    private final GeometriaReferenciaService geometriaReferenciaService;
+    private final TransactionTemplate transacao;
+
+    @Autowired
+    public CamadaService(CamadaRepository camadaRepository,
+                         CamadaGeoJsonParser camadaGeoJsonParser,
+                         TemaGrupoService temaGrupoService,
+                         ApplicationEventPublisher eventPublisher,
+                         MetricasGeometria metricasGeometria,
+                         NormalizadorGeometrias normalizador,
+                         GeometriaReferenciaService geometriaReferenciaService,
+                         PlatformTransactionManager transactionManager) {
+        this.camadaRepository = camadaRepository;
+        this.camadaGeoJsonParser = camadaGeoJsonParser;
+        this.temaGrupoService = temaGrupoService;
+        this.eventPublisher = eventPublisher;
+        this.metricasGeometria = metricasGeometria;
+        this.normalizador = normalizador;
+        this.geometriaReferenciaService = geometriaReferenciaService;
+        this.transacao = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Substitui as camadas gravadas do município pelas camadas recebidas,
+     * numa única transação e com inserção em lote.
+     */
+    @Transactional
+    public SalvarCamadasResponseDTO salvar(SalvarCamadasRequestDTO request) {
+        validarMunicipio(request.getMunicipalityId());
+
+        // Toda a coleção é validada antes de abrir qualquer escrita no banco
+        return substituir(request.getMunicipalityId(), camadaGeoJsonParser.parse(request.getGeoJson()));
+    }
+
+    /**
+     * Mesma gravação de {@link #salvar}, com as camadas no formato binário {@link CamadasTwkb}
+     * @throws IllegalArgumentException se o corpo não estiver no formato
+     */
+    @Transactional
+    public SalvarCamadasResponseDTO salvarTwkb(Long municipalityId, InputStream corpo) throws IOException {
+        validarMunicipio(municipalityId);
+        List<FeicaoCamada> feicoes = CamadasTwkb.ler(corpo, temaGrupoService.getIdsTemaPorCodigo());
+        feicoes.forEach(feicao -> feicao.setGeometria(normalizador.normalizar("twkb", feicao.getGeometria())));
+        return substituir(municipalityId, feicoes);
+    }
+
+    private SalvarCamadasResponseDTO substituir(Long municipalityId, List<FeicaoCamada> feicoes) {
+        // Feições sem identificador (clientes anteriores à sincronização incremental) recebem um novo
+        Set<String> ids = new HashSet<>();
+        for (FeicaoCamada feicao : feicoes) {
+            if (feicao.getCodFeicao() == null) {
+                feicao.setCodFeicao(UUID.randomUUID().toString());
+            } else if (!ids.add(feicao.getCodFeicao())) {
+                throw new IllegalArgumentException("id de feição repetido: " + feicao.getCodFeicao());
+            }
+            feicao.setCodHash(HashFeicao.calcular(feicao));
+        }
+        feicoes.forEach(feicao -> metricasGeometria.registrar("gravacao", feicao.getGeometria()));
+
+        // A área afetada inclui o que estava gravado antes, para invalidar também feições removidas
+        Envelope extensao = camadaRepository.extensaoPorMunicipio(municipalityId);
+        feicoes.forEach(feicao -> extensao.expandToInclude(feicao.getGeometria().getEnvelopeInternal()));
+
+        long revisao = camadaRepository.avancarRevisaoCompleta(municipalityId);
+        feicoes.forEach(feicao -> feicao.setNumRevisao(revisao));
+
+        // A troca da partição é o último comando: o bloqueio dela dura só até o commit
+        camadaRepository.substituirMunicipio(municipalityId, feicoes);
+
+        eventPublisher.publishEvent(new CamadasAlteradasEvent(municipalityId, extensao));
+
+        return new SalvarCamadasResponseDTO(
+                municipalityId,
+                feicoes.size(),
+                OffsetDateTime.now(),
+                "Camadas salvas com sucesso",
+                revisao);
+    }
+
+    /**
+     * Grava apenas as feições novas, alteradas e excluídas desde a revisão em que o cliente se
+     * baseou. Feições recebidas com o mesmo hash de conteúdo já gravado são ignoradas; sem nenhuma
+     * alteração efetiva, a revisão não avança.
+     * @throws RevisaoDesatualizadaException se outra gravação ocorreu depois da revisão base
+     * @throws IllegalArgumentException se alguma feição for inválida ou não tiver identificador
+     */
+    @Transactional
+    public SincronizarCamadasResponseDTO sincronizar(Long municipalityId, SincronizarCamadasRequestDTO request) {
+        validarMunicipio(municipalityId);
+        if (request.getRevisaoBase() == null || request.getRevisaoBase() < 0) {
+            throw new IllegalArgumentException("revisaoBase não informada");
+        }
+        long revisaoBase = request.getRevisaoBase();
+
+        List<FeicaoCamada> recebidas = request.getAlteradas() != null
+                ? camadaGeoJsonParser.parse(request.getAlteradas())
+                : List.of();
+        Set<String> excluidas = new LinkedHashSet<>(request.getExcluidas() != null ? request.getExcluidas() : List.of());
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < recebidas.size(); i++) {
+            String codFeicao = recebidas.get(i).getCodFeicao();
+            if (codFeicao == null) {
+                throw new IllegalArgumentException("Feição " + i + ": id não informado");
+            }
+            if (!ids.add(codFeicao) || excluidas.contains(codFeicao)) {
+                throw new IllegalArgumentException("Feição " + i + ": id repetido: " + codFeicao);
+            }
+        }
+
+        // Lidos antes de avançar a revisão: se outra gravação terminar no meio, o avanço falha
+        Map<String, String> gravados = camadaRepository.hashesPorMunicipio(municipalityId);
+        OffsetDateTime agora = OffsetDateTime.now();
+        List<FeicaoCamada> alteradas = new ArrayList<>();
+        for (FeicaoCamada feicao : recebidas) {
+            feicao.setCodHash(HashFeicao.calcular(feicao));
+            if (!feicao.getCodHash().equals(gravados.get(feicao.getCodFeicao()))) {
+                if (feicao.getDataCriacao() == null) {
+                    feicao.setDataCriacao(agora);
+                }
+                feicao.setDataUltimaAtualizacao(agora);
+                alteradas.add(feicao);
+            }
+        }
+        excluidas.retainAll(gravados.keySet());
+
+        if (alteradas.isEmpty() && excluidas.isEmpty()) {
+            long revisaoAtual = camadaRepository.revisao(municipalityId)[0];
+            if (revisaoAtual != revisaoBase) {
+                throw new RevisaoDesatualizadaException(municipalityId, revisaoBase, revisaoAtual);
+            }
+            return new SincronizarCamadasResponseDTO(municipalityId, revisaoAtual, 0, recebidas.size(), 0,
+                    Map.of(), agora);
+        }
+
+        long revisao = camadaRepository.avancarRevisao(municipalityId, revisaoBase)
+                .orElseThrow(() -> new RevisaoDesatualizadaException(
+                        municipalityId, revisaoBase, camadaRepository.revisao(municipalityId)[0]));
+
+        // Área anterior das feições alteradas e excluídas, mais a nova das alteradas
+        Set<String> afetadas = new HashSet<>(excluidas);
+        alteradas.forEach(feicao -> afetadas.add(feicao.getCodFeicao()));
+        afetadas.retainAll(gravados.keySet());
+        Envelope extensao = camadaRepository.extensaoPorFeicoes(municipalityId, afetadas);
+
+        Map<String, String> hashes = new LinkedHashMap<>();
+        for (FeicaoCamada feicao : alteradas) {
+            feicao.setNumRevisao(revisao);
+            metricasGeometria.registrar("gravacao", feicao.getGeometria());
+            extensao.expandToInclude(feicao.getGeometria().getEnvelopeInternal());
+            hashes.put(feicao.getCodFeicao(), feicao.getCodHash());
+        }
+
+        camadaRepository.excluirFeicoes(municipalityId, excluidas, revisao);
+        camadaRepository.gravarEmLote(municipalityId, alteradas);
+
+        eventPublisher.publishEvent(new CamadasAlteradasEvent(municipalityId, extensao));
+
+        return new SincronizarCamadasResponseDTO(municipalityId, revisao, alteradas.size(),
+                recebidas.size() - alteradas.size(), excluidas.size(), hashes, agora);
+    }
+
+    /**
+     * Exclui todas as camadas gravadas do município, esvaziando a partição dele de uma vez.
+     * Sem transação em volta: o TRUNCATE roda sozinho e segura o bloqueio exclusivo da partição
+     * só durante o comando. Em seguida, numa transação curta, a revisão avança como numa
+     * substituição completa, para que os clientes recarreguem tudo, e o DELETE apaga o que tiver
+     * sido gravado no intervalo (ou tudo, se o TRUNCATE não obteve o bloqueio).
+     */
+    public SalvarCamadasResponseDTO excluir(Long municipalityId) {
+        validarMunicipio(municipalityId);
+        Envelope extensao = camadaRepository.extensaoPorMunicipio(municipalityId);
+        camadaRepository.esvaziarParticao(municipalityId);
+        long revisao = transacao.execute(status -> {
+            long avancada = camadaRepository.avancarRevisaoCompleta(municipalityId);
+            camadaRepository.excluirPorMunicipio(municipalityId);
+            return avancada;
+        });
+
+        eventPublisher.publishEvent(new CamadasAlteradasEvent(municipalityId, extensao));
+
+        return new SalvarCamadasResponseDTO(
+                municipalityId,
+                0,
+                OffsetDateTime.now(),
+                "Camadas excluídas com sucesso",
+                revisao);
+    }
+
+    /**
+     * VACUUM (ANALYZE) e, se pedido, REINDEX apenas da partição do município. Sem transação:
+     * nenhum dos dois comandos pode rodar dentro de uma.
+     * @return false se o município nunca teve camadas gravadas
+     */
+    public boolean manter(Long municipalityId, boolean reindexar) {
+        validarMunicipio(municipalityId);
+        return camadaRepository.manterParticao(municipalityId, reindexar);
+    }
+
+    /**
+     * Escreve as feições gravadas depois da revisão informada e os identificadores excluídos
+     * (ver {@link AlteracoesCamadas}). Se a revisão for anterior à última substituição completa,
+     * ou desconhecida, escreve todas as feições com "completo": true.
+     * <p>
+     * Roda no pool primário, numa transação comum que mantém o cursor aberto: o cliente
+     * costuma pedir as alterações logo após gravá-las, e a réplica atrasada devolveria uma
+     * revisão anterior, fazendo o cliente perder feições ou receber "completo" sem motivo.
+     */
+    @Transactional
+    public void escreverAlteracoes(Long codMunicipio, long desde, OutputStream saida) throws IOException {
+        long[] revisoes = camadaRepository.revisao(codMunicipio);
+        boolean completo = desde < revisoes[1] || desde > revisoes[0];
+        long revisaoLida = completo ? -1 : desde;
+        List<String> excluidas = completo ? List.of() : camadaRepository.exclusoesDesde(codMunicipio, desde);
+
+        try (ExportadorCamadas exportador = AlteracoesCamadas.criarExportador(saida, revisoes[0], completo, excluidas)) {
+            camadaRepository.percorrerAlteradasDesde(codMunicipio, revisaoLida, feicao -> {
+                try {
+                    exportador.escrever(feicao);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            exportador.finalizar();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Escreve as camadas do município no formato pedido, feição a feição, enquanto o cursor
+     * do banco é percorrido. A transação somente leitura mantém o cursor aberto no servidor.
+     */
+    @Transactional(readOnly = true)
+    public void exportar(FormatoExportacao formato, Long codMunicipio, OutputStream saida) throws IOException {
+        try (ExportadorCamadas exportador = formato.criarExportador(saida, nomeArquivoExportacao(codMunicipio))) {
+            camadaRepository.percorrerPorMunicipio(codMunicipio, feicao -> {
+                try {
+                    exportador.escrever(feicao);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            exportador.finalizar();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    public String nomeArquivoExportacao(Long codMunicipio) {
+        return "camadas_" + codMunicipio;
+    }
+
+    /**
+     * O código do município dá nome à partição das camadas: só municípios da malha carregada
+     * chegam às operações de gravação
+     */
+    private void validarMunicipio(Long municipalityId) {
+        if (municipalityId == null) {
+            throw new IllegalArgumentException("municipalityId não informado");
+        }
+        if (geometriaReferenciaService.getMunicipio(municipalityId) == null) {
+            throw new IllegalArgumentException("Município não encontrado: " + municipalityId);
+        }
+    }
+}
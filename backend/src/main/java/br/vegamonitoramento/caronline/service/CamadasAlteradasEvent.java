@@ -0,0 +1,10 @@
+package br.vegamonitoramento.caronline.service;
+
+import org.locationtech.jts.geom.Envelope;
+
+/**
+ * Publicado quando as camadas gravadas de um município mudam.
+ * A extensão (WGS84) cobre tanto as feições anteriores quanto as novas.
+ */
+public record CamadasAlteradasEvent(Long codMunicipio, Envelope extensao) {
+}
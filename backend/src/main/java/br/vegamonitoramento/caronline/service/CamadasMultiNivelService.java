@@ -0,0 +1,130 @@
+package br.vegamonitoramento.caronline.service;
+
+import br.vegamonitoramento.caronline.export.ExportadorCamadas;
+import br.vegamonitoramento.caronline.export.FormatoExportacao;
+import br.vegamonitoramento.caronline.geometry.GeometriaMultiNivel;
+import br.vegamonitoramento.caronline.model.FeicaoCamada;
+import br.vegamonitoramento.caronline.repository.CamadaRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Camadas gravadas de cada município com os níveis de detalhe já calculados, para que o mapa
+ * receba as geometrias simplificadas conforme o zoom. Os municípios consultados ficam num
+ * cache LRU limitado pela memória estimada, descartado a cada gravação: um município grande
+ * pode ocupar mais que centenas de pequenos.
+ */
+@Service
+public class CamadasMultiNivelService {
+
+    private final CamadaRepository camadaRepository;
+
+    // Cabeçalhos, atributos e datas da feição, aproximados
+    private static final int BYTES_POR_FEICAO = 512;
+
+    private final long limiteBytes;
+
+    // LinkedHashMap em ordem de acesso: o primeiro elemento é o menos usado recentemente
+    private final LinkedHashMap<Long, Municipio> cache = new LinkedHashMap<>(64, 0.75f, true);
+    private long bytes;
+    // Incrementada a cada gravação; cargas iniciadas antes dela não entram no cache
+    private long geracao;
+
+    @Autowired
+    public CamadasMultiNivelService(CamadaRepository camadaRepository,
+                                    @Value("${caronline.camadas.niveis.cache-memoria-bytes:268435456}") long limiteBytes) {
+        this.camadaRepository = camadaRepository;
+        this.limiteBytes = limiteBytes;
+    }
+
+    /**
+     * Escreve as camadas do município no formato e no nível de detalhe pedidos
+     */
+    public void escrever(Long codMunicipio, int nivel, FormatoExportacao formato, OutputStream saida) throws IOException {
+        List<FeicaoMultiNivel> feicoes = getOuCarregar(codMunicipio);
+
+        try (ExportadorCamadas exportador = formato.criarExportador(saida, null)) {
+            for (FeicaoMultiNivel feicao : feicoes) {
+                exportador.escrever(feicao.noNivel(nivel));
+            }
+            exportador.finalizar();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void aoAlterarCamadas(CamadasAlteradasEvent evento) {
+        synchronized (cache) {
+            geracao++;
+            Municipio removido = cache.remove(evento.codMunicipio());
+            if (removido != null) {
+                bytes -= removido.bytes();
+            }
+        }
+    }
+
+    private List<FeicaoMultiNivel> getOuCarregar(Long codMunicipio) {
+        long geracaoLida;
+        synchronized (cache) {
+            Municipio emCache = cache.get(codMunicipio);
+            if (emCache != null) {
+                return emCache.feicoes();
+            }
+            geracaoLida = geracao;
+        }
+
+        // Leitura fora do lock, no pool primário: logo após uma gravação a réplica pode
+        // ainda não ter as feições novas, e o cache guardaria a versão antiga
+        List<FeicaoMultiNivel> carregadas = new ArrayList<>();
+        camadaRepository.percorrerPorMunicipio(codMunicipio, feicao -> carregadas.add(
+                new FeicaoMultiNivel(feicao, GeometriaMultiNivel.de(feicao.getGeometria()))));
+        Municipio municipio = Municipio.de(carregadas);
+
+        synchronized (cache) {
+            if (geracaoLida == geracao && municipio.bytes() <= limiteBytes) {
+                Municipio anterior = cache.put(codMunicipio, municipio);
+                bytes += municipio.bytes() - (anterior != null ? anterior.bytes() : 0);
+
+                Iterator<Municipio> iterador = cache.values().iterator();
+                while (bytes > limiteBytes && iterador.hasNext()) {
+                    bytes -= iterador.next().bytes();
+                    iterador.remove();
+                }
+            }
+        }
+        return municipio.feicoes();
+    }
+
+    private record Municipio(List<FeicaoMultiNivel> feicoes, long bytes) {
+
+        static Municipio de(List<FeicaoMultiNivel> feicoes) {
+            long bytes = 64;
+            for (FeicaoMultiNivel feicao : feicoes) {
+                bytes += BYTES_POR_FEICAO + feicao.niveis().bytesEstimados();
+            }
+            return new Municipio(List.copyOf(feicoes), bytes);
+        }
+    }
+
+    private record FeicaoMultiNivel(FeicaoCamada feicao, GeometriaMultiNivel niveis) {
+
+        FeicaoCamada noNivel(int nivel) {
+            if (nivel == 0) {
+                return feicao;
+            }
+            return new FeicaoCamada(feicao.getIdtCamadaImovel(), feicao.getIdtTema(), feicao.getCodTema(),
+                    feicao.getNomTema(), feicao.getNumArea(), niveis.getGeometria(nivel),
+                    feicao.getDataCriacao(), feicao.getDataUltimaAtualizacao(),
+                    feicao.getCodFeicao(), feicao.getCodHash(), feicao.getNumRevisao());
+        }
+    }
+}
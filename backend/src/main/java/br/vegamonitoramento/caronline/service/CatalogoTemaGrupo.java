@@ -0,0 +1,107 @@
+package br.vegamonitoramento.caronline.service;
+
+import br.vegamonitoramento.caronline.model.dto.TemaGrupoDTO;
+import br.vegamonitoramento.caronline.repository.TemaGrupoRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fotografia imutável do catálogo de temas e grupos.
+ * Mantém a lista e a forma agrupada já serializadas em JSON, junto com seus ETags fortes,
+ * para que as requisições sejam atendidas sem consultar o banco nem serializar novamente.
+ */
+public final class CatalogoTemaGrupo {
+
+    private final List<TemaGrupoDTO> temas;
+    private final Map<String, List<TemaGrupoDTO>> temasAgrupados;
+    private final Representacao lista;
+    private final Representacao agrupados;
+    private final Instant dataCarga;
+
+    private CatalogoTemaGrupo(List<TemaGrupoDTO> temas,
+                              Map<String, List<TemaGrupoDTO>> temasAgrupados,
+                              Representacao lista,
+                              Representacao agrupados,
+                              Instant dataCarga) {
+        this.temas = temas;
+        this.temasAgrupados = temasAgrupados;
+        this.lista = lista;
+        this.agrupados = agrupados;
+        this.dataCarga = dataCarga;
+    }
+
+    /**
+     * Monta o catálogo a partir das linhas lidas do banco, pré-computando o agrupamento e o JSON
+     */
+    public static CatalogoTemaGrupo of(List<TemaGrupoDTO> temas, ObjectMapper objectMapper) {
+        List<TemaGrupoDTO> temasImutaveis = List.copyOf(temas);
+
+        Map<String, List<TemaGrupoDTO>> agrupamento = new LinkedHashMap<>();
+        TemaGrupoRepository.agruparPorOrdemEGrupo(temasImutaveis)
+                .forEach((chave, lista) -> agrupamento.put(chave, List.copyOf(lista)));
+        Map<String, List<TemaGrupoDTO>> agrupadosImutaveis = Collections.unmodifiableMap(agrupamento);
+
+        return new CatalogoTemaGrupo(
+                temasImutaveis,
+                agrupadosImutaveis,
+                Representacao.serializar(temasImutaveis, objectMapper),
+                Representacao.serializar(agrupadosImutaveis, objectMapper),
+                Instant.now());
+    }
+
+    public List<TemaGrupoDTO> getTemas() {
+        return temas;
+    }
+
+    public Map<String, List<TemaGrupoDTO>> getTemasAgrupados() {
+        return temasAgrupados;
+    }
+
+    public Representacao getLista() {
+        return lista;
+    }
+
+    public Representacao getAgrupados() {
+        return agrupados;
+    }
+
+    public Instant getDataCarga() {
+        return dataCarga;
+    }
+
+    /**
+     * Corpo JSON pré-serializado e seu ETag forte (hash SHA-256 do conteúdo)
+     */
+    public record Representacao(byte[] conteudo, String etag) {
+
+        static Representacao serializar(Object valor, ObjectMapper objectMapper) {
+            try {
+                return deConteudo(objectMapper.writeValueAsBytes(valor));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Falha ao serializar o catálogo de temas e grupos", e);
+            }
+        }
+
+        static Representacao deConteudo(byte[] conteudo) {
+            return new Representacao(conteudo, calcularEtag(conteudo));
+        }
+
+        private static String calcularEtag(byte[] conteudo) {
+            try {
+                byte[] hash = MessageDigest.getInstance("SHA-256").digest(conteudo);
+                return "\"" + HexFormat.of().formatHex(hash) + "\"";
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("Algoritmo SHA-256 indisponível", e);
+            }
+        }
+    }
+}
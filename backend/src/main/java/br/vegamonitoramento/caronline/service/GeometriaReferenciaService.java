@@ -0,0 +1,187 @@
+package br.vegamonitoramento.caronline.service;
+
+import br.vegamonitoramento.caronline.model.Municipio;
+import br.vegamonitoramento.caronline.repository.MunicipioRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import br.vegamonitoramento.caronline.geometry.AreaGeodesica;
+import br.vegamonitoramento.caronline.geometry.GeometriaMultiNivel;
+import br.vegamonitoramento.caronline.geometry.Geometrias;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
+import org.locationtech.jts.index.strtree.STRtree;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mantém em memória as geometrias de referência (municípios e contorno do estado) já preparadas,
+ * para que as verificações repetidas de intersects/contains usem os índices internos do JTS.
+ * Os municípios também ficam num STRtree, permitindo localizar o município de um ponto ou
+ * de uma geometria sem consultar o banco. Os níveis simplificados dos limites, servidos
+ * conforme o zoom do mapa, são calculados junto com a carga.
+ * <p>
+ * A malha precisa estar completa: com menos municípios que caronline.municipios.quantidade-minima,
+ * códigos de outra UF ou sem o contorno oficial do estado, a aplicação não sobe.
+ */
+@Slf4j
+@Service
+public class GeometriaReferenciaService {
+
+    private final MunicipioRepository municipioRepository;
+    private final int quantidadeMinima;
+
+    private volatile Referencias referencias = Referencias.VAZIA;
+
+    @Autowired
+    public GeometriaReferenciaService(MunicipioRepository municipioRepository,
+                                      @Value("${caronline.municipios.quantidade-minima:645}") int quantidadeMinima) {
+        this.municipioRepository = municipioRepository;
+        this.quantidadeMinima = quantidadeMinima;
+    }
+
+    @PostConstruct
+    public void carregarNaInicializacao() throws IOException {
+        recarregar();
+    }
+
+    /**
+     * Relê os limites municipais e o contorno do estado
+     * @throws IllegalStateException se a malha estiver incompleta; as referências anteriores são mantidas
+     */
+    public synchronized void recarregar() throws IOException {
+        List<Municipio> municipios = municipioRepository.findAllMunicipios();
+        Geometry estado = municipioRepository.findEstado();
+        verificar(municipios, estado);
+
+        List<GeometriaMultiNivel> niveis = municipios.parallelStream()
+                .map(municipio -> GeometriaMultiNivel.de(municipio.getGeometria()))
+                .toList();
+
+        Map<Long, MunicipioPreparado> porCodigo = new LinkedHashMap<>();
+        STRtree indice = new STRtree();
+        for (int i = 0; i < municipios.size(); i++) {
+            Municipio municipio = municipios.get(i);
+            MunicipioPreparado preparado = new MunicipioPreparado(
+                    municipio, PreparedGeometryFactory.prepare(municipio.getGeometria()), niveis.get(i));
+            porCodigo.put(municipio.getCodMunicipio(), preparado);
+            indice.insert(municipio.getGeometria().getEnvelopeInternal(), preparado);
+        }
+        // Constrói o índice agora; depois disso as consultas são seguras entre threads
+        indice.build();
+
+        referencias = new Referencias(
+                Collections.unmodifiableMap(porCodigo),
+                indice,
+                estado,
+                PreparedGeometryFactory.prepare(estado));
+
+        log.info("Geometrias de referência carregadas de {}: {} municípios",
+                municipioRepository.getLocalizacao(), porCodigo.size());
+    }
+
+    private void verificar(List<Municipio> municipios, Geometry estado) {
+        String origem = municipioRepository.getLocalizacao();
+        if (municipios.size() < quantidadeMinima) {
+            throw new IllegalStateException("Malha municipal incompleta em " + origem + ": " + municipios.size()
+                    + " municípios, mínimo " + quantidadeMinima);
+        }
+        for (Municipio municipio : municipios) {
+            Long codigo = municipio.getCodMunicipio();
+            if (codigo == null || codigo / 100000 != municipioRepository.getCodUf() || municipio.getGeometria() == null) {
+                throw new IllegalStateException("Município inválido em " + origem + ": " + codigo);
+            }
+        }
+        if (estado == null || estado.isEmpty()) {
+            throw new IllegalStateException("Contorno da UF " + municipioRepository.getCodUf() + " não carregado");
+        }
+    }
+
+    public MunicipioPreparado getMunicipio(Long codMunicipio) {
+        return codMunicipio != null ? referencias.municipios().get(codMunicipio) : null;
+    }
+
+    public Map<Long, MunicipioPreparado> getMunicipios() {
+        return referencias.municipios();
+    }
+
+    public Geometry getEstado() {
+        return referencias.estado();
+    }
+
+    public PreparedGeometry getEstadoPreparado() {
+        return referencias.estadoPreparado();
+    }
+
+    /**
+     * Município que contém o ponto (longitude/latitude em WGS84), ou null se estiver fora de todos
+     */
+    public MunicipioPreparado getMunicipioNoPonto(double longitude, double latitude) {
+        Point ponto = Geometrias.FACTORY.createPoint(new Coordinate(longitude, latitude));
+        for (MunicipioPreparado candidato : consultar(ponto)) {
+            if (candidato.geometria().covers(ponto)) {
+                return candidato;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Municípios intersectados pela geometria, com a área de interseção em hectares,
+     * do maior para o menor trecho
+     */
+    public List<IntersecaoMunicipio> getMunicipiosIntersectados(Geometry geometria) {
+        List<IntersecaoMunicipio> intersecoes = new ArrayList<>();
+        double areaTotal = -1;
+
+        for (MunicipioPreparado candidato : consultar(geometria)) {
+            PreparedGeometry limite = candidato.geometria();
+            if (!limite.intersects(geometria)) {
+                continue;
+            }
+
+            if (areaTotal < 0) {
+                areaTotal = AreaGeodesica.hectares(geometria);
+            }
+            // Geometria inteira dentro do município dispensa o cálculo da interseção
+            double area = limite.containsProperly(geometria)
+                    ? areaTotal
+                    : AreaGeodesica.hectares(limite.getGeometry().intersection(geometria));
+            double percentual = areaTotal > 0 ? area * 100.0 / areaTotal : 0.0;
+            intersecoes.add(new IntersecaoMunicipio(candidato, area, percentual));
+        }
+
+        intersecoes.sort(Comparator.comparingDouble(IntersecaoMunicipio::areaHectares).reversed());
+        return intersecoes;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<MunicipioPreparado> consultar(Geometry geometria) {
+        return referencias.indice().query(geometria.getEnvelopeInternal());
+    }
+
+    public record MunicipioPreparado(Municipio municipio, PreparedGeometry geometria, GeometriaMultiNivel niveis) {
+    }
+
+    public record IntersecaoMunicipio(MunicipioPreparado municipio, double areaHectares, double percentual) {
+    }
+
+    private record Referencias(Map<Long, MunicipioPreparado> municipios,
+                               STRtree indice,
+                               Geometry estado,
+                               PreparedGeometry estadoPreparado) {
+
+        static final Referencias VAZIA = new Referencias(Map.of(), new STRtree(), null, null);
+    }
+}
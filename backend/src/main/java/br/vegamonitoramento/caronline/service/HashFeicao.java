@@ -0,0 +1,51 @@
+package br.vegamonitoramento.caronline.service;
+
+import br.vegamonitoramento.caronline.model.FeicaoCamada;
+import org.locationtech.jts.io.WKBWriter;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Hash SHA-256 do conteúdo de uma feição: tema, nome, área e geometria (WKB).
+ * Identificador, datas e revisão ficam de fora, para que reenviar uma feição sem
+ * alteração produza o mesmo hash e não seja gravada de novo.
+ */
+public final class HashFeicao {
+
+    private HashFeicao() {
+    }
+
+    public static String calcular(FeicaoCamada feicao) {
+        MessageDigest digest = sha256();
+        atualizar(digest, feicao.getCodTema());
+        atualizar(digest, feicao.getNomTema());
+        atualizar(digest, feicao.getNumArea() != null ? feicao.getNumArea().stripTrailingZeros().toPlainString() : null);
+        digest.update(new WKBWriter().write(feicao.getGeometria()));
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    // Tamanho antes de cada texto, para que ("AB", "C") e ("A", "BC") não colidam
+    private static void atualizar(MessageDigest digest, String texto) {
+        if (texto == null) {
+            digest.update((byte) 0xFF);
+            return;
+        }
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        digest.update((byte) (bytes.length >>> 24));
+        digest.update((byte) (bytes.length >>> 16));
+        digest.update((byte) (bytes.length >>> 8));
+        digest.update((byte) bytes.length);
+        digest.update(bytes);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+}
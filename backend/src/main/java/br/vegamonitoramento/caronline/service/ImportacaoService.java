@@ -0,0 +1,324 @@
+package br.vegamonitoramento.caronline.service;
+
+import br.vegamonitoramento.caronline.geometry.AreaGeodesica;
+import br.vegamonitoramento.caronline.importacao.FeicaoImportada;
+import br.vegamonitoramento.caronline.importacao.FormatoImportacao;
+import br.vegamonitoramento.caronline.importacao.LeitorFeicoes;
+import br.vegamonitoramento.caronline.importacao.MapeamentoTemas;
+import br.vegamonitoramento.caronline.metrics.MetricasGeometria;
+import br.vegamonitoramento.caronline.model.FeicaoCamada;
+import br.vegamonitoramento.caronline.model.dto.ResultadoFeicaoDTO;
+import br.vegamonitoramento.caronline.model.dto.ResultadoRegraDTO;
+import br.vegamonitoramento.caronline.model.dto.ResumoImportacaoDTO;
+import br.vegamonitoramento.caronline.model.dto.TemaGrupoDTO;
+import br.vegamonitoramento.caronline.repository.CamadaRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Importação de camadas a partir de arquivos (shapefile em ZIP, GeoJSON, KML/KMZ), acrescentando
+ * as feições válidas às já gravadas do município.
+ * <p>
+ * O arquivo é lido em fluxo: as feições são agrupadas em lotes, validados em paralelo no pool
+ * comum com no máximo {@code lotes-em-andamento} lotes pendentes, e os resultados são consumidos
+ * na ordem de leitura. O relatório é NDJSON: uma linha ({@link ResultadoFeicaoDTO}) por feição,
+ * escrita à medida que cada lote termina, e por último {@code {"resumo": ...}}
+ * ({@link ResumoImportacaoDTO}). A memória usada depende do tamanho dos lotes, não do arquivo.
+ * <p>
+ * As feições válidas são gravadas em lotes de {@code caronline.camadas.tamanho-lote} numa única
+ * transação: se a importação falhar no meio, nada é gravado e o resumo informa
+ * {@code concluida: false}. Por isso a linha de revisão do município (camada_imovel_revisao) fica
+ * bloqueada durante todo o envio: as demais gravações do município esperam a importação terminar,
+ * enquanto as leituras seguem vendo as camadas anteriores.
+ */
+@Slf4j
+@Service
+public class ImportacaoService {
+
+    public static final String REGRA_LEITURA_ARQUIVO = "LEITURA_ARQUIVO";
+    public static final String REGRA_TEMA_IDENTIFICADO = "TEMA_IDENTIFICADO";
+
+    private final CamadaRepository camadaRepository;
+    private final TemaGrupoService temaGrupoService;
+    private final ValidacaoService validacaoService;
+    private final GeometriaReferenciaService geometriaReferenciaService;
+    private final MetricasGeometria metricasGeometria;
+    private final NormalizadorGeometrias normalizador;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanhoLoteGravacao;
+    private final int tamanhoLoteValidacao;
+    private final int lotesEmAndamento;
+
+    @Autowired
+    public ImportacaoService(CamadaRepository camadaRepository,
+                             TemaGrupoService temaGrupoService,
+                             ValidacaoService validacaoService,
+                             GeometriaReferenciaService geometriaReferenciaService,
+                             MetricasGeometria metricasGeometria,
+                             NormalizadorGeometrias normalizador,
+                             ApplicationEventPublisher eventPublisher,
+                             ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${caronline.camadas.tamanho-lote:500}") int tamanhoLoteGravacao,
+                             @Value("${caronline.importacao.tamanho-lote-validacao:200}") int tamanhoLoteValidacao,
+                             @Value("${caronline.importacao.lotes-em-andamento:8}") int lotesEmAndamento) {
+        this.camadaRepository = camadaRepository;
+        this.temaGrupoService = temaGrupoService;
+        this.validacaoService = validacaoService;
+        this.geometriaReferenciaService = geometriaReferenciaService;
+        this.metricasGeometria = metricasGeometria;
+        this.normalizador = normalizador;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tamanhoLoteGravacao = tamanhoLoteGravacao;
+        this.tamanhoLoteValidacao = tamanhoLoteValidacao;
+        this.lotesEmAndamento = lotesEmAndamento;
+    }
+
+    /**
+     * Verifica os parâmetros da importação antes de receber o arquivo
+     * @throws IllegalArgumentException se o município, o formato ou o tema padrão forem inválidos
+     */
+    public Importacao preparar(Long municipalityId, String nomeArquivo, String codTemaPadrao) {
+        if (municipalityId == null) {
+            throw new IllegalArgumentException("municipalityId não informado");
+        }
+        GeometriaReferenciaService.MunicipioPreparado municipio = geometriaReferenciaService.getMunicipio(municipalityId);
+        if (municipio == null) {
+            throw new IllegalArgumentException("Município não encontrado: " + municipalityId);
+        }
+        FormatoImportacao formato = FormatoImportacao.deNomeArquivo(nomeArquivo);
+        MapeamentoTemas mapeamento = new MapeamentoTemas(temaGrupoService.getAllTemasGrupos(), codTemaPadrao);
+        return new Importacao(municipalityId, formato, municipio, mapeamento);
+    }
+
+    /**
+     * Importa o arquivo, escrevendo o relatório na saída. O arquivo é excluído ao final.
+     */
+    public void importar(Importacao importacao, Path arquivo, OutputStream saida) throws IOException {
+        long inicio = System.nanoTime();
+        Contagem contagem = new Contagem();
+        ResumoImportacaoDTO resumo;
+        try {
+            Long revisao = transactionTemplate.execute(status -> {
+                try {
+                    return gravar(importacao, arquivo, saida, contagem, status);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            String mensagem = contagem.gravadas > 0 ? "Importação concluída" : "Nenhuma feição válida para gravar";
+            resumo = resumo(importacao, contagem, revisao, true, mensagem, inicio);
+        } catch (UncheckedIOException e) {
+            // Falha ao ler o arquivo ou ao escrever o relatório (cliente desconectado)
+            log.warn("Importação para o município {} interrompida: {}", importacao.municipalityId(), e.getMessage());
+            resumo = resumo(importacao, contagem.semGravacao(), null, false,
+                    "Falha ao ler o arquivo: " + e.getCause().getMessage(), inicio);
+        } catch (IllegalArgumentException e) {
+            resumo = resumo(importacao, contagem.semGravacao(), null, false, e.getMessage(), inicio);
+        } catch (RuntimeException e) {
+            log.error("Erro na importação para o município {}", importacao.municipalityId(), e);
+            resumo = resumo(importacao, contagem.semGravacao(), null, false,
+                    "Erro interno; nenhuma feição foi gravada", inicio);
+        } finally {
+            Files.deleteIfExists(arquivo);
+        }
+        escreverLinha(saida, Map.of("resumo", resumo));
+        saida.flush();
+    }
+
+    private Long gravar(Importacao importacao, Path arquivo, OutputStream saida, Contagem contagem,
+                        TransactionStatus status) throws IOException {
+        Long codMunicipio = importacao.municipalityId();
+        // Bloqueia a revisão do município até o commit, depois do envio inteiro: gravações
+        // concorrentes do município esperam a importação, que é tudo ou nada
+        long revisao = camadaRepository.novaRevisao(codMunicipio);
+        OffsetDateTime agora = OffsetDateTime.now();
+
+        Deque<CompletableFuture<List<Processada>>> emAndamento = new ArrayDeque<>();
+        Gravacao gravacao = new Gravacao(codMunicipio);
+        try (LeitorFeicoes leitor = importacao.formato().abrir(arquivo, objectMapper)) {
+            List<FeicaoImportada> lote = new ArrayList<>(tamanhoLoteValidacao);
+            FeicaoImportada lida;
+            while ((lida = leitor.proxima()) != null) {
+                contagem.lidas++;
+                if (contagem.sridOrigem == null && lida.sistemaReferencia() != null) {
+                    contagem.sridOrigem = lida.sistemaReferencia().srid();
+                }
+                lote.add(lida);
+                if (lote.size() == tamanhoLoteValidacao) {
+                    if (emAndamento.size() == lotesEmAndamento) {
+                        consumir(emAndamento.removeFirst().join(), saida, contagem, gravacao);
+                    }
+                    emAndamento.addLast(validarEmParalelo(lote, importacao, revisao, agora));
+                    lote = new ArrayList<>(tamanhoLoteValidacao);
+                }
+            }
+            if (!lote.isEmpty()) {
+                emAndamento.addLast(validarEmParalelo(lote, importacao, revisao, agora));
+            }
+            while (!emAndamento.isEmpty()) {
+                consumir(emAndamento.removeFirst().join(), saida, contagem, gravacao);
+            }
+        } finally {
+            emAndamento.forEach(pendente -> pendente.cancel(false));
+        }
+        gravacao.descarregar(contagem);
+
+        if (contagem.gravadas == 0) {
+            // Sem feições, desfaz o avanço da revisão
+            status.setRollbackOnly();
+            return revisao - 1;
+        }
+        eventPublisher.publishEvent(new CamadasAlteradasEvent(codMunicipio, gravacao.extensao));
+        return revisao;
+    }
+
+    private CompletableFuture<List<Processada>> validarEmParalelo(List<FeicaoImportada> lote, Importacao importacao,
+                                                                  long revisao, OffsetDateTime agora) {
+        return CompletableFuture.supplyAsync(() -> lote.stream()
+                .map(lida -> processar(lida, importacao, revisao, agora))
+                .toList());
+    }
+
+    private Processada processar(FeicaoImportada lida, Importacao importacao, long revisao, OffsetDateTime agora) {
+        if (lida.erro() != null) {
+            return recusada(lida.indice(), null, REGRA_LEITURA_ARQUIVO, lida.erro());
+        }
+        TemaGrupoDTO tema = importacao.mapeamento().temaDe(lida.atributos());
+        if (tema == null) {
+            return recusada(lida.indice(), null, REGRA_TEMA_IDENTIFICADO,
+                    "Nenhum atributo corresponde a um tema cadastrado; informe o tema padrão (codTema).");
+        }
+
+        Geometry geometria;
+        try {
+            geometria = normalizador.normalizar("importacao", lida.sistemaReferencia().paraGeograficas(lida.geometria()));
+        } catch (RuntimeException e) {
+            return recusada(lida.indice(), tema.getCodTema(), REGRA_LEITURA_ARQUIVO,
+                    "Não foi possível converter as coordenadas da geometria.");
+        }
+        metricasGeometria.registrar("importacao", geometria);
+
+        BigDecimal area = BigDecimal.valueOf(AreaGeodesica.hectares(geometria)).setScale(4, RoundingMode.HALF_UP);
+        FeicaoCamada feicao = new FeicaoCamada(null, tema.getIdtTema(), tema.getCodTema(), tema.getNomTema(),
+                area, geometria, agora, agora, UUID.randomUUID().toString(), null, revisao);
+        feicao.setCodHash(HashFeicao.calcular(feicao));
+
+        ResultadoFeicaoDTO resultado = validacaoService.validarFeicaoIsolada(lida.indice(), feicao, importacao.municipio());
+        return new Processada(resultado, resultado.getValido() ? feicao : null);
+    }
+
+    private void consumir(List<Processada> processadas, OutputStream saida, Contagem contagem, Gravacao gravacao)
+            throws IOException {
+        for (Processada processada : processadas) {
+            escreverLinha(saida, processada.resultado());
+            if (processada.feicao() != null) {
+                contagem.validas++;
+                gravacao.adicionar(processada.feicao(), contagem);
+            } else {
+                contagem.invalidas++;
+            }
+        }
+        saida.flush();
+    }
+
+    private void escreverLinha(OutputStream saida, Object valor) throws IOException {
+        // writeValueAsBytes em vez de writeValue(saida): o gerador do Jackson fecharia a saída
+        saida.write(objectMapper.writeValueAsBytes(valor));
+        saida.write('\n');
+    }
+
+    private static Processada recusada(int indice, String codTema, String regra, String mensagem) {
+        ResultadoRegraDTO falha = new ResultadoRegraDTO(regra, false, mensagem);
+        return new Processada(new ResultadoFeicaoDTO(indice, codTema, false, List.of(falha)), null);
+    }
+
+    private static ResumoImportacaoDTO resumo(Importacao importacao, Contagem contagem, Long revisao,
+                                              boolean concluida, String mensagem, long inicio) {
+        return new ResumoImportacaoDTO(importacao.municipalityId(), importacao.formato().name(), contagem.sridOrigem,
+                contagem.lidas, contagem.validas, contagem.invalidas, contagem.gravadas, revisao, concluida, mensagem,
+                (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    /**
+     * Parâmetros verificados de uma importação
+     */
+    public record Importacao(Long municipalityId, FormatoImportacao formato,
+                             GeometriaReferenciaService.MunicipioPreparado municipio, MapeamentoTemas mapeamento) {
+    }
+
+    private record Processada(ResultadoFeicaoDTO resultado, FeicaoCamada feicao) {
+    }
+
+    private static class Contagem {
+        private Integer sridOrigem;
+        private int lidas;
+        private int validas;
+        private int invalidas;
+        private int gravadas;
+
+        Contagem semGravacao() {
+            gravadas = 0;
+            return this;
+        }
+    }
+
+    /**
+     * Feições válidas aguardando a inserção em lote
+     */
+    private class Gravacao {
+
+        private final Long codMunicipio;
+        private final List<FeicaoCamada> pendentes = new ArrayList<>(tamanhoLoteGravacao);
+        private final Envelope extensao = new Envelope();
+
+        Gravacao(Long codMunicipio) {
+            this.codMunicipio = codMunicipio;
+        }
+
+        void adicionar(FeicaoCamada feicao, Contagem contagem) {
+            pendentes.add(feicao);
+            extensao.expandToInclude(feicao.getGeometria().getEnvelopeInternal());
+            if (pendentes.size() >= tamanhoLoteGravacao) {
+                descarregar(contagem);
+            }
+        }
+
+        void descarregar(Contagem contagem) {
+            if (!pendentes.isEmpty()) {
+                camadaRepository.inserirEmLote(codMunicipio, pendentes);
+                contagem.gravadas += pendentes.size();
+                pendentes.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,376 @@
+package br.vegamonitoramento.caronline.service;
+
+import br.vegamonitoramento.caronline.export.FormatoExportacao;
+import br.vegamonitoramento.caronline.job.ContextoJob;
+import br.vegamonitoramento.caronline.job.ExecutorJobs;
+import br.vegamonitoramento.caronline.job.FaixaJob;
+import br.vegamonitoramento.caronline.job.Job;
+import br.vegamonitoramento.caronline.job.JobCanceladoException;
+import br.vegamonitoramento.caronline.job.JobNaoEncontradoException;
+import br.vegamonitoramento.caronline.job.SituacaoJob;
+import br.vegamonitoramento.caronline.job.TipoJob;
+import br.vegamonitoramento.caronline.model.FeicaoCamada;
+import br.vegamonitoramento.caronline.model.dto.JobRequestDTO;
+import br.vegamonitoramento.caronline.repository.CamadaRepository;
+import br.vegamonitoramento.caronline.repository.JobRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tarefas assíncronas sobre as camadas gravadas de um município: validação completa,
+ * sobreposições, quadro de áreas e exportação. O pedido só grava a tarefa e a coloca na fila
+ * ({@link ExecutorJobs}); a requisição termina sem ocupar thread do Tomcat nem conexão enquanto
+ * a operação roda, e o cliente acompanha o andamento por {@link #consultar}.
+ * <p>
+ * O estado fica na tabela usr_geocar_aplicacao.job e o resultado num arquivo. Ao subir, as
+ * tarefas pendentes e as interrompidas pelo reinício desta instância voltam para a fila; as de
+ * outras instâncias só são assumidas quando elas param de renovar a concessão. Uma tarefa
+ * interrompida {@code maximo-tentativas} vezes falha em vez de derrubar o servidor de novo.
+ * O cancelamento é gravado no banco, porque o pedido pode chegar a qualquer instância.
+ */
+@Slf4j
+@Service
+public class JobService {
+
+    private final JobRepository jobRepository;
+    private final CamadaRepository camadaRepository;
+    private final CamadaService camadaService;
+    private final ValidacaoService validacaoService;
+    private final TopologiaService topologiaService;
+    private final QuadroAreasService quadroAreasService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate leitura;
+    private final ExecutorJobs executor;
+    private final Path diretorioResultados;
+    private final long retencaoHoras;
+    private final long intervaloProgressoMs;
+    private final int maximoTentativas;
+
+    // Tarefas pendentes e em execução neste processo; as finalizadas são lidas do banco
+    private final Map<UUID, Job> ativas = new ConcurrentHashMap<>();
+
+    @Autowired
+    public JobService(JobRepository jobRepository,
+                      CamadaRepository camadaRepository,
+                      CamadaService camadaService,
+                      ValidacaoService validacaoService,
+                      TopologiaService topologiaService,
+                      QuadroAreasService quadroAreasService,
+                      ObjectMapper objectMapper,
+                      PlatformTransactionManager transactionManager,
+                      @Value("${caronline.jobs.vagas:4}") int vagas,
+                      @Value("${caronline.jobs.maximo-lote:3}") int maximoLote,
+                      @Value("${caronline.jobs.capacidade-fila:200}") int capacidadeFila,
+                      @Value("${caronline.jobs.diretorio-resultados:${java.io.tmpdir}/caronline-jobs}") Path diretorioResultados,
+                      @Value("${caronline.jobs.retencao-horas:24}") long retencaoHoras,
+                      @Value("${caronline.jobs.intervalo-progresso-ms:1000}") long intervaloProgressoMs,
+                      @Value("${caronline.jobs.maximo-tentativas:3}") int maximoTentativas) {
+        this.jobRepository = jobRepository;
+        this.camadaRepository = camadaRepository;
+        this.camadaService = camadaService;
+        this.validacaoService = validacaoService;
+        this.topologiaService = topologiaService;
+        this.quadroAreasService = quadroAreasService;
+        this.objectMapper = objectMapper;
+        this.leitura = new TransactionTemplate(transactionManager);
+        this.leitura.setReadOnly(true);
+        this.executor = new ExecutorJobs(vagas, maximoLote, capacidadeFila);
+        this.diretorioResultados = diretorioResultados;
+        this.retencaoHoras = retencaoHoras;
+        this.intervaloProgressoMs = intervaloProgressoMs;
+        this.maximoTentativas = maximoTentativas;
+    }
+
+    /**
+     * Grava a tarefa e a coloca na fila
+     * @throws IllegalArgumentException se o tipo, a faixa, o município ou o formato forem inválidos
+     * @throws br.vegamonitoramento.caronline.job.FilaJobsCheiaException se a faixa estiver cheia
+     */
+    public Job criar(JobRequestDTO request) {
+        TipoJob tipo = enumDe(TipoJob.class, request.getTipo(), "tipo");
+        FaixaJob faixa = request.getFaixa() == null || request.getFaixa().isBlank()
+                ? tipo.getFaixaPadrao()
+                : enumDe(FaixaJob.class, request.getFaixa(), "faixa");
+        if (request.getMunicipalityId() == null) {
+            throw new IllegalArgumentException("municipalityId não informado");
+        }
+        String formato = null;
+        if (tipo == TipoJob.EXPORTACAO) {
+            formato = FormatoExportacao.of(request.getFormato()).name().toLowerCase(Locale.ROOT);
+        }
+
+        Job job = new Job();
+        job.setId(UUID.randomUUID());
+        job.setTipo(tipo);
+        job.setFaixa(faixa);
+        job.setSituacao(SituacaoJob.PENDENTE);
+        job.setCodMunicipio(request.getMunicipalityId());
+        job.setFormato(formato);
+        job.setMensagem("Aguardando execução");
+        job.setDataCriacao(OffsetDateTime.now());
+
+        jobRepository.inserir(job);
+        try {
+            enfileirar(job);
+        } catch (RuntimeException e) {
+            finalizar(job, SituacaoJob.FALHOU, e.getMessage());
+            throw e;
+        }
+        return job;
+    }
+
+    /**
+     * @throws JobNaoEncontradoException se a tarefa não existir (ou já tiver sido descartada)
+     */
+    public Job consultar(UUID id) {
+        Job ativa = ativas.get(id);
+        if (ativa != null) {
+            return ativa;
+        }
+        return jobRepository.buscar(id).orElseThrow(() -> new JobNaoEncontradoException(id));
+    }
+
+    /**
+     * Cancela a tarefa. Se ainda não começou e está na fila desta instância, sai dela na hora;
+     * senão o pedido é gravado, e a instância dona a descarta ao tirá-la da fila ou a para no
+     * próximo ponto de verificação da operação.
+     */
+    public Job cancelar(UUID id) {
+        Job job = consultar(id);
+        if (job.getSituacao().isFinal()) {
+            return job;
+        }
+        if (executor.remover(id)) {
+            ativas.remove(id);
+            finalizar(job, SituacaoJob.CANCELADO, "Cancelada antes de iniciar");
+        } else if (jobRepository.pedirCancelamento(id)) {
+            job.setCancelamentoPedido(true);
+            job.setMensagem("Cancelamento solicitado");
+        } else {
+            // Finalizada enquanto o pedido chegava
+            return jobRepository.buscar(id).orElse(job);
+        }
+        return job;
+    }
+
+    /**
+     * Arquivo com o resultado de uma tarefa concluída
+     * @throws IllegalStateException se a tarefa não estiver concluída ou o arquivo não existir mais
+     */
+    public Path resultado(Job job) {
+        if (job.getSituacao() != SituacaoJob.CONCLUIDO || job.getArquivo() == null) {
+            throw new IllegalStateException("A tarefa " + job.getId() + " não tem resultado (" + job.getSituacao() + ")");
+        }
+        Path arquivo = Path.of(job.getArquivo());
+        if (!Files.isReadable(arquivo)) {
+            throw new IllegalStateException("O resultado da tarefa " + job.getId() + " não está mais disponível");
+        }
+        return arquivo;
+    }
+
+    public String nomeArquivoResultado(Job job) {
+        return job.getTipo().name().toLowerCase(Locale.ROOT) + "_" + job.getCodMunicipio() + extensao(job);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void retomarNaInicializacao() {
+        assumir(true);
+    }
+
+    /**
+     * Renova a concessão das tarefas desta instância, descarta as da fila com cancelamento
+     * pedido e assume as de instâncias que pararam
+     */
+    @Scheduled(fixedDelayString = "${caronline.jobs.intervalo-renovacao-ms:60000}",
+            initialDelayString = "${caronline.jobs.intervalo-renovacao-ms:60000}")
+    public void renovarConcessao() {
+        try {
+            jobRepository.renovarConcessao();
+            for (UUID id : jobRepository.buscarCancelamentosPendentes()) {
+                Job job = ativas.get(id);
+                if (job != null && executor.remover(id)) {
+                    ativas.remove(id);
+                    finalizar(job, SituacaoJob.CANCELADO, "Cancelada antes de iniciar");
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Não foi possível renovar a concessão das tarefas: {}", e.getMessage());
+            return;
+        }
+        assumir(false);
+    }
+
+    private void assumir(boolean incluirProprias) {
+        try {
+            List<Job> pendentes = jobRepository.assumirPendentes(incluirProprias, maximoTentativas);
+            for (Job job : pendentes) {
+                enfileirar(job);
+            }
+            if (!pendentes.isEmpty()) {
+                log.info("{} tarefas pendentes retomadas", pendentes.size());
+            }
+        } catch (Exception e) {
+            log.warn("Não foi possível retomar as tarefas pendentes: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${caronline.jobs.intervalo-limpeza-ms:3600000}",
+            initialDelayString = "${caronline.jobs.intervalo-limpeza-ms:3600000}")
+    public void excluirAntigas() {
+        try {
+            List<String> arquivos = jobRepository.excluirFinalizadasAntes(OffsetDateTime.now().minusHours(retencaoHoras));
+            for (String arquivo : arquivos) {
+                if (arquivo != null) {
+                    Files.deleteIfExists(Path.of(arquivo));
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Falha ao excluir tarefas antigas: {}", e.getMessage());
+        }
+    }
+
+    private void enfileirar(Job job) {
+        ativas.put(job.getId(), job);
+        try {
+            executor.enfileirar(job.getId(), job.getFaixa(), () -> executar(job));
+        } catch (RuntimeException e) {
+            ativas.remove(job.getId());
+            throw e;
+        }
+    }
+
+    private void executar(Job job) {
+        Path arquivo = diretorioResultados.resolve(job.getId() + extensao(job));
+        try {
+            if (job.isCancelamentoPedido() || jobRepository.isCancelamentoPedido(job.getId())) {
+                finalizar(job, SituacaoJob.CANCELADO, "Cancelada antes de iniciar");
+                return;
+            }
+            job.setSituacao(SituacaoJob.EXECUTANDO);
+            job.setDataInicio(OffsetDateTime.now());
+            job.setTentativas(job.getTentativas() + 1);
+            job.setProgresso(0);
+            job.setMensagem("Em execução");
+            jobRepository.atualizar(job);
+
+            ContextoJob contexto = new ContextoJob(job, jobRepository::atualizarProgresso,
+                    tarefa -> jobRepository.isCancelamentoPedido(tarefa.getId()), intervaloProgressoMs);
+            Files.createDirectories(diretorioResultados);
+            try (OutputStream saida = new BufferedOutputStream(Files.newOutputStream(arquivo))) {
+                job.setTipoMidia(executar(job, contexto, saida));
+            }
+            contexto.verificarCancelamento();
+
+            job.setArquivo(arquivo.toString());
+            job.setProgresso(1);
+            finalizar(job, SituacaoJob.CONCLUIDO, "Concluída");
+        } catch (JobCanceladoException e) {
+            excluir(arquivo);
+            finalizar(job, SituacaoJob.CANCELADO, "Cancelada durante a execução");
+        } catch (IllegalArgumentException e) {
+            excluir(arquivo);
+            finalizar(job, SituacaoJob.FALHOU, e.getMessage());
+        } catch (Exception e) {
+            log.error("Falha na tarefa {} ({}, município {})", job.getId(), job.getTipo(), job.getCodMunicipio(), e);
+            excluir(arquivo);
+            finalizar(job, SituacaoJob.FALHOU, "Erro interno na execução da tarefa");
+        } finally {
+            ativas.remove(job.getId());
+        }
+    }
+
+    /**
+     * Executa a operação escrevendo o resultado na saída
+     * @return o tipo de mídia do resultado
+     */
+    private String executar(Job job, ContextoJob contexto, OutputStream saida) throws IOException {
+        Long codMunicipio = job.getCodMunicipio();
+        switch (job.getTipo()) {
+            case VALIDACAO -> {
+                contexto.progresso(0.05, "Lendo as camadas gravadas");
+                List<FeicaoCamada> feicoes = new ArrayList<>();
+                leitura.executeWithoutResult(status -> camadaRepository.percorrerPorMunicipio(codMunicipio, feicao -> {
+                    feicoes.add(feicao);
+                    if (feicoes.size() % 500 == 0) {
+                        contexto.verificarCancelamento();
+                    }
+                }));
+                contexto.progresso(0.5, "Validando " + feicoes.size() + " feições");
+                objectMapper.writeValue(saida, validacaoService.validar(codMunicipio, feicoes));
+            }
+            case TOPOLOGIA -> {
+                contexto.progresso(0.05, "Verificando sobreposições");
+                objectMapper.writeValue(saida, topologiaService.verificarGravadas(codMunicipio, true));
+            }
+            case QUADRO_AREAS -> {
+                contexto.progresso(0.05, "Calculando o quadro de áreas");
+                objectMapper.writeValue(saida, quadroAreasService.getQuadro(codMunicipio, null));
+            }
+            case EXPORTACAO -> {
+                FormatoExportacao formato = FormatoExportacao.of(job.getFormato());
+                contexto.progresso(0.05, "Exportando");
+                camadaService.exportar(formato, codMunicipio, contexto.monitorar(saida));
+                return formato.getMediaType().toString();
+            }
+        }
+        return MediaType.APPLICATION_JSON_VALUE;
+    }
+
+    private void finalizar(Job job, SituacaoJob situacao, String mensagem) {
+        job.setSituacao(situacao);
+        job.setMensagem(mensagem);
+        job.setDataFim(OffsetDateTime.now());
+        try {
+            jobRepository.atualizar(job);
+        } catch (RuntimeException e) {
+            log.warn("Não foi possível gravar a situação {} da tarefa {}: {}", situacao, job.getId(), e.getMessage());
+        }
+    }
+
+    private static String extensao(Job job) {
+        return job.getTipo() == TipoJob.EXPORTACAO
+                ? "." + FormatoExportacao.of(job.getFormato()).getExtensao()
+                : ".json";
+    }
+
+    private static void excluir(Path arquivo) {
+        try {
+            Files.deleteIfExists(arquivo);
+        } catch (IOException e) {
+            log.warn("Não foi possível excluir {}: {}", arquivo, e.getMessage());
+        }
+    }
+
+    private static <E extends Enum<E>> E enumDe(Class<E> tipo, String valor, String campo) {
+        if (valor == null || valor.isBlank()) {
+            throw new IllegalArgumentException(campo + " não informado");
+        }
+        try {
+            return Enum.valueOf(tipo, valor.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(campo + " inválido: " + valor);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package br.vegamonitoramento.caronline.service;
+
+import br.vegamonitoramento.caronline.geometry.GeoJsonGeometryReader;
+import br.vegamonitoramento.caronline.geometry.GeoJsonGeometryWriter;
+import br.vegamonitoramento.caronline.model.Municipio;
+import br.vegamonitoramento.caronline.model.dto.IntersecaoMunicipioDTO;
+import br.vegamonitoramento.caronline.model.dto.MunicipioDTO;
+import br.vegamonitoramento.caronline.service.CatalogoTemaGrupo.Representacao;
+import br.vegamonitoramento.caronline.service.GeometriaReferenciaService.MunicipioPreparado;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Consultas espaciais aos limites municipais mantidos em memória
+ */
+@Service
+public class MunicipioService {
+
+    private final GeometriaReferenciaService geometriaReferenciaService;
+    private final ObjectMapper objectMapper;
+    private final GeoJsonGeometryReader geometryReader = new GeoJsonGeometryReader();
+
+    // FeatureCollection de todos os limites, por nível de detalhe, da carga de referências atual
+    private volatile LimitesSerializados limites = new LimitesSerializados(Map.of());
+
+    @Autowired
+    public MunicipioService(GeometriaReferenciaService geometriaReferenciaService, ObjectMapper objectMapper) {
+        this.geometriaReferenciaService = geometriaReferenciaService;
+        this.objectMapper = objectMapper;
+    }
+
+    public Optional<MunicipioDTO> buscarNoPonto(double longitude, double latitude) {
+        return Optional.ofNullable(geometriaReferenciaService.getMunicipioNoPonto(longitude, latitude))
+                .map(preparado -> toDTO(preparado.municipio()));
+    }
+
+    public List<IntersecaoMunicipioDTO> buscarIntersectados(JsonNode geometria) {
+        return geometriaReferenciaService.getMunicipiosIntersectados(geometryReader.read(geometria)).stream()
+                .map(intersecao -> new IntersecaoMunicipioDTO(
+                        intersecao.municipio().municipio().getCodMunicipio(),
+                        intersecao.municipio().municipio().getNomMunicipio(),
+                        intersecao.areaHectares(),
+                        intersecao.percentual()))
+                .toList();
+    }
+
+    /**
+     * Limites de todos os municípios no nível de detalhe, já serializados, com ETag
+     */
+    public Representacao getLimites(int nivel) {
+        Map<Long, MunicipioPreparado> municipios = geometriaReferenciaService.getMunicipios();
+        LimitesSerializados atuais = limites;
+        if (atuais.origem() != municipios) {
+            // Os limites foram recarregados: as serializações anteriores não valem mais
+            atuais = new LimitesSerializados(municipios);
+            limites = atuais;
+        }
+        return atuais.porNivel().computeIfAbsent(nivel, n -> Representacao.deConteudo(
+                serializar(municipios.values(), n, true)));
+    }
+
+    /**
+     * Limite de um município no nível de detalhe, como Feature GeoJSON
+     */
+    public Optional<byte[]> getLimite(Long codMunicipio, int nivel) {
+        return Optional.ofNullable(geometriaReferenciaService.getMunicipio(codMunicipio))
+                .map(municipio -> serializar(List.of(municipio), nivel, false));
+    }
+
+    private byte[] serializar(Collection<MunicipioPreparado> municipios, int nivel, boolean colecao) {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        try (JsonGenerator gerador = objectMapper.getFactory().createGenerator(saida, JsonEncoding.UTF8)) {
+            if (colecao) {
+                gerador.writeStartObject();
+                gerador.writeStringField("type", "FeatureCollection");
+                gerador.writeArrayFieldStart("features");
+            }
+            for (MunicipioPreparado preparado : municipios) {
+                gerador.writeStartObject();
+                gerador.writeStringField("type", "Feature");
+                gerador.writeFieldName("geometry");
+                GeoJsonGeometryWriter.write(preparado.niveis().getGeometria(nivel), gerador);
+                gerador.writeObjectFieldStart("properties");
+                gerador.writeNumberField("id", preparado.municipio().getCodMunicipio());
+                gerador.writeStringField("name", preparado.municipio().getNomMunicipio());
+                gerador.writeEndObject();
+                gerador.writeEndObject();
+            }
+            if (colecao) {
+                gerador.writeEndArray();
+                gerador.writeEndObject();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return saida.toByteArray();
+    }
+
+    private static MunicipioDTO toDTO(Municipio municipio) {
+        return new MunicipioDTO(municipio.getCodMunicipio(), municipio.getNomMunicipio());
+    }
+
+    private record LimitesSerializados(Map<Long, MunicipioPreparado> origem,
+                                       Map<Integer, Representacao> porNivel) {
+
+        LimitesSerializados(Map<Long, MunicipioPreparado> origem) {
+            this(origem, new ConcurrentHashMap<>());
+        }
+    }
+}
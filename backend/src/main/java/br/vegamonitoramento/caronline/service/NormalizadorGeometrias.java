@@ -0,0 +1,34 @@
+package br.vegamonitoramento.caronline.service;
+
+import br.vegamonitoramento.caronline.geometry.NormalizacaoGeometria;
+import br.vegamonitoramento.caronline.metrics.MetricasGeometria;
+import org.locationtech.jts.geom.Geometry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Normaliza as geometrias que entram pela gravação, pela importação e pela validação
+ * (ver {@link NormalizacaoGeometria}), contando as correções aplicadas
+ */
+@Component
+public class NormalizadorGeometrias {
+
+    public static final double ESCALA_PADRAO = 1e7;
+
+    private final NormalizacaoGeometria normalizacao;
+    private final MetricasGeometria metricasGeometria;
+
+    @Autowired
+    public NormalizadorGeometrias(@Value("${caronline.geometria.escala-precisao:1e7}") double escala,
+                                  MetricasGeometria metricasGeometria) {
+        this.normalizacao = new NormalizacaoGeometria(escala);
+        this.metricasGeometria = metricasGeometria;
+    }
+
+    public Geometry normalizar(String operacao, Geometry geometria) {
+        NormalizacaoGeometria.Resultado resultado = normalizacao.normalizar(geometria);
+        metricasGeometria.registrarCorrecoes(operacao, resultado.correcoes());
+        return resultado.geometria();
+    }
+}
@@ -0,0 +1,222 @@
+package br.vegamonitoramento.caronline.service;
+
+import br.vegamonitoramento.caronline.model.FeicaoCamada;
+import br.vegamonitoramento.caronline.model.dto.QuadroAreasDTO;
+import br.vegamonitoramento.caronline.quadro.QuadroAreas;
+import br.vegamonitoramento.caronline.repository.CamadaRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Quadro de áreas por imóvel (município), recalculado de forma incremental a cada feição
+ * alterada. Os resultados ficam num cache por município e revisão.
+ * <p>
+ * A numeração das revisões de cada município só avança, mesmo quando o quadro é descartado e
+ * refeito: uma revisão nunca identifica dois quadros diferentes. Cada quadro começa na revisão
+ * gravada das camadas (camada_imovel_revisao.num_revisao) deslocada de
+ * {@link #BITS_REVISOES_EM_MEMORIA} bits, o que deixa espaço para as alterações feitas só em
+ * memória e mantém a numeração acima da de execuções anteriores com as mesmas camadas gravadas.
+ */
+@Service
+public class QuadroAreasService {
+
+    // Revisões do quadro disponíveis para cada revisão gravada: carga do banco e alterações em memória
+    static final int BITS_REVISOES_EM_MEMORIA = 24;
+
+    private final CamadaRepository camadaRepository;
+    private final CamadaGeoJsonParser camadaGeoJsonParser;
+
+    private final Map<Long, QuadroAreas> quadros = new ConcurrentHashMap<>();
+    // Maior revisão já usada em cada município, mantida quando o quadro é descartado
+    private final Map<Long, Long> ultimasRevisoes = new ConcurrentHashMap<>();
+    // Incrementada a cada gravação do município; cargas iniciadas antes dela não são publicadas
+    private final Map<Long, Long> geracoes = new HashMap<>();
+    private final Map<ChaveQuadro, QuadroAreasDTO> cache;
+
+    @Autowired
+    public QuadroAreasService(CamadaRepository camadaRepository,
+                              CamadaGeoJsonParser camadaGeoJsonParser,
+                              @Value("${caronline.quadro-areas.tamanho-cache:1000}") int tamanhoCache) {
+        this.camadaRepository = camadaRepository;
+        this.camadaGeoJsonParser = camadaGeoJsonParser;
+        this.cache = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ChaveQuadro, QuadroAreasDTO> eldest) {
+                return size() > tamanhoCache;
+            }
+        };
+    }
+
+    /**
+     * Substitui todas as feições do imóvel pelas da FeatureCollection
+     */
+    public QuadroAreasDTO carregar(Long codMunicipio, JsonNode featureCollection) {
+        validarMunicipio(codMunicipio);
+        List<FeicaoCamada> feicoes = camadaGeoJsonParser.parse(featureCollection);
+        JsonNode features = featureCollection.path("features");
+
+        QuadroAreas quadro = novoQuadro(codMunicipio);
+        for (int i = 0; i < feicoes.size(); i++) {
+            FeicaoCamada feicao = feicoes.get(i);
+            quadro.definir(idFeicao(features.get(i), i), feicao.getCodTema(), feicao.getGeometria());
+        }
+
+        // Calculado antes de publicado: até o put, só esta thread enxerga o quadro
+        QuadroAreasDTO resultado = calcular(codMunicipio, quadro);
+        quadros.put(codMunicipio, quadro);
+        return resultado;
+    }
+
+    /**
+     * Quadro na revisão pedida (ou na atual, se omitida)
+     * @throws IllegalArgumentException se a revisão não estiver mais disponível
+     */
+    public QuadroAreasDTO getQuadro(Long codMunicipio, Long revisao) {
+        validarMunicipio(codMunicipio);
+        if (revisao != null) {
+            QuadroAreasDTO emCache;
+            synchronized (cache) {
+                emCache = cache.get(new ChaveQuadro(codMunicipio, revisao));
+            }
+            if (emCache != null) {
+                return emCache;
+            }
+        }
+
+        QuadroAreas quadro = getOuCarregar(codMunicipio);
+        synchronized (quadro) {
+            QuadroAreasDTO atual = calcular(codMunicipio, quadro);
+            if (revisao != null && !revisao.equals(atual.getRevisao())) {
+                throw new IllegalArgumentException("Revisão " + revisao + " do quadro de áreas não está disponível");
+            }
+            return atual;
+        }
+    }
+
+    /**
+     * Inclui ou substitui uma feição e recalcula apenas os termos afetados por ela
+     */
+    public QuadroAreasDTO definirFeicao(Long codMunicipio, String idFeicao, JsonNode feature) {
+        validarMunicipio(codMunicipio);
+        FeicaoCamada feicao = camadaGeoJsonParser.parseFeature(feature);
+
+        QuadroAreas quadro = getOuCarregar(codMunicipio);
+        synchronized (quadro) {
+            quadro.definir(idFeicao, feicao.getCodTema(), feicao.getGeometria());
+            return calcular(codMunicipio, quadro);
+        }
+    }
+
+    public QuadroAreasDTO removerFeicao(Long codMunicipio, String idFeicao) {
+        validarMunicipio(codMunicipio);
+        QuadroAreas quadro = getOuCarregar(codMunicipio);
+        synchronized (quadro) {
+            if (!quadro.remover(idFeicao)) {
+                throw new IllegalArgumentException("Feição não encontrada: " + idFeicao);
+            }
+            return calcular(codMunicipio, quadro);
+        }
+    }
+
+    /**
+     * Camadas gravadas mudaram: o quadro em memória é descartado e será refeito a partir do banco
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void aoAlterarCamadas(CamadasAlteradasEvent evento) {
+        synchronized (geracoes) {
+            geracoes.merge(evento.codMunicipio(), 1L, Long::sum);
+            quadros.remove(evento.codMunicipio());
+        }
+        // O quadro refeito continua a numeração; os resultados antigos só ocupariam o cache
+        synchronized (cache) {
+            cache.keySet().removeIf(chave -> chave.codMunicipio().equals(evento.codMunicipio()));
+        }
+    }
+
+    private QuadroAreas getOuCarregar(Long codMunicipio) {
+        while (true) {
+            long geracaoLida;
+            synchronized (geracoes) {
+                QuadroAreas quadro = quadros.get(codMunicipio);
+                if (quadro != null) {
+                    return quadro;
+                }
+                geracaoLida = geracoes.getOrDefault(codMunicipio, 0L);
+            }
+
+            // Leitura do banco fora do lock: ele prenderia a carrier thread da virtual thread
+            // durante a consulta
+            QuadroAreas carregado = novoQuadro(codMunicipio);
+            camadaRepository.percorrerPorMunicipio(codMunicipio, feicao -> carregado.definir(
+                    String.valueOf(feicao.getIdtCamadaImovel()), feicao.getCodTema(), feicao.getGeometria()));
+
+            // Uma gravação durante a leitura torna a carga velha: publicada, sobreviveria ao descarte
+            synchronized (geracoes) {
+                if (geracaoLida == geracoes.getOrDefault(codMunicipio, 0L)) {
+                    QuadroAreas existente = quadros.putIfAbsent(codMunicipio, carregado);
+                    return existente != null ? existente : carregado;
+                }
+            }
+        }
+    }
+
+    /**
+     * Quadro vazio numerado depois de todas as revisões já usadas no município e a partir da
+     * revisão gravada das camadas
+     */
+    private QuadroAreas novoQuadro(Long codMunicipio) {
+        long revisaoInicial = camadaRepository.revisao(codMunicipio)[0] << BITS_REVISOES_EM_MEMORIA;
+        return new QuadroAreas(ultimasRevisoes.merge(codMunicipio, revisaoInicial,
+                (ultima, inicial) -> Math.max(ultima + 1, inicial)));
+    }
+
+    /**
+     * Deve ser chamado com o monitor do quadro, ou antes de o quadro ser publicado
+     */
+    private QuadroAreasDTO calcular(Long codMunicipio, QuadroAreas quadro) {
+        if (!quadro.isAlterado()) {
+            synchronized (cache) {
+                QuadroAreasDTO emCache = cache.get(new ChaveQuadro(codMunicipio, quadro.getRevisao()));
+                if (emCache != null) {
+                    return emCache;
+                }
+            }
+        }
+
+        Map<String, Double> areas = quadro.calcular();
+        ultimasRevisoes.merge(codMunicipio, quadro.getRevisao(), Math::max);
+        QuadroAreasDTO resultado = new QuadroAreasDTO(codMunicipio, quadro.getRevisao(), areas, OffsetDateTime.now());
+        synchronized (cache) {
+            cache.put(new ChaveQuadro(codMunicipio, quadro.getRevisao()), resultado);
+        }
+        return resultado;
+    }
+
+    private static String idFeicao(JsonNode feature, int indice) {
+        JsonNode id = feature.get("id");
+        if (id == null || id.isNull()) {
+            id = feature.path("properties").get("id");
+        }
+        return id != null && !id.isNull() ? id.asText() : String.valueOf(indice);
+    }
+
+    private static void validarMunicipio(Long codMunicipio) {
+        if (codMunicipio == null) {
+            throw new IllegalArgumentException("municipalityId não informado");
+        }
+    }
+
+    private record ChaveQuadro(Long codMunicipio, long revisao) {
+    }
+}
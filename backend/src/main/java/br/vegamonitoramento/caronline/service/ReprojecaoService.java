@@ -0,0 +1,127 @@
+package br.vegamonitoramento.caronline.service;
+
+import br.vegamonitoramento.caronline.geometry.AreaGeodesica;
+import br.vegamonitoramento.caronline.geometry.GeoJsonGeometryReader;
+import br.vegamonitoramento.caronline.geometry.GeoJsonGeometryWriter;
+import br.vegamonitoramento.caronline.geometry.Projecao;
+import br.vegamonitoramento.caronline.geometry.ProjecaoAlbers;
+import br.vegamonitoramento.caronline.geometry.Transformacao;
+import br.vegamonitoramento.caronline.importacao.SistemaReferencia;
+import br.vegamonitoramento.caronline.model.dto.AreaRequestDTO;
+import br.vegamonitoramento.caronline.model.dto.AreaResponseDTO;
+import br.vegamonitoramento.caronline.model.dto.ReprojecaoRequestDTO;
+import br.vegamonitoramento.caronline.model.dto.ReprojecaoResponseDTO;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import org.locationtech.jts.geom.Geometry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Conversão de geometrias entre os sistemas de coordenadas usados no CAR e cálculo de áreas
+ * na Albers do IBGE, para que todos os clientes obtenham os mesmos números
+ */
+@Service
+public class ReprojecaoService {
+
+    public static final String ALBERS_BRASIL = "ALBERS_BRASIL";
+
+    private static final String SISTEMA_PADRAO = "EPSG:4326";
+
+    private final ObjectMapper objectMapper;
+    private final GeoJsonGeometryReader geometryReader = new GeoJsonGeometryReader();
+
+    @Autowired
+    public ReprojecaoService(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public ReprojecaoResponseDTO reprojetar(ReprojecaoRequestDTO request) {
+        if (request.getDestino() == null || request.getDestino().isBlank()) {
+            throw new IllegalArgumentException("Sistema de destino não informado");
+        }
+        String origem = sistemaOuPadrao(request.getOrigem());
+        Transformacao transformacao = Transformacao.entre(projecao(origem), projecao(request.getDestino()));
+
+        List<Geometry> geometrias = lerGeometrias(request.getGeometrias());
+        List<JsonNode> convertidas = new ArrayList<>(geometrias.size());
+        for (Geometry geometria : geometrias) {
+            transformacao.aplicar(geometria);
+            convertidas.add(paraGeoJson(geometria));
+        }
+        return new ReprojecaoResponseDTO(origem, request.getDestino(), convertidas);
+    }
+
+    public AreaResponseDTO calcularAreas(AreaRequestDTO request) {
+        Transformacao transformacao = Transformacao.entre(projecao(sistemaOuPadrao(request.getOrigem())),
+                Projecao.GEOGRAFICAS);
+
+        List<Geometry> geometrias = lerGeometrias(request.getGeometrias());
+        List<Double> areas = new ArrayList<>(geometrias.size());
+        double total = 0.0;
+        for (Geometry geometria : geometrias) {
+            // Mesmo cálculo de numArea e do quadro de áreas
+            transformacao.aplicar(geometria);
+            double hectares = AreaGeodesica.hectares(geometria);
+            areas.add(hectares);
+            total += hectares;
+        }
+        return new AreaResponseDTO(areas, total);
+    }
+
+    /**
+     * Projeção do sistema informado: ALBERS_BRASIL, código EPSG ("31983", "EPSG:31983") ou URN
+     * @throws IllegalArgumentException se o sistema não for suportado
+     */
+    static Projecao projecao(String sistema) {
+        String texto = sistema.trim().toUpperCase(Locale.ROOT);
+        if (ALBERS_BRASIL.equals(texto)) {
+            return ProjecaoAlbers.BRASIL;
+        }
+        SistemaReferencia referencia = texto.chars().allMatch(Character::isDigit) && !texto.isEmpty()
+                ? SistemaReferencia.deEpsg(Integer.parseInt(texto))
+                : SistemaReferencia.deNomeCrs(texto);
+        return referencia.projecao();
+    }
+
+    private static String sistemaOuPadrao(String sistema) {
+        return sistema == null || sistema.isBlank() ? SISTEMA_PADRAO : sistema;
+    }
+
+    private List<Geometry> lerGeometrias(List<JsonNode> itens) {
+        if (itens == null) {
+            throw new IllegalArgumentException("Nenhuma geometria informada");
+        }
+
+        List<Geometry> geometrias = new ArrayList<>(itens.size());
+        for (int i = 0; i < itens.size(); i++) {
+            JsonNode item = itens.get(i);
+            // Aceita tanto Features quanto geometrias soltas
+            JsonNode geometria = item != null && "Feature".equals(item.path("type").asText())
+                    ? item.get("geometry")
+                    : item;
+            try {
+                geometrias.add(geometryReader.read(geometria));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Geometria " + i + ": " + e.getMessage(), e);
+            }
+        }
+        return geometrias;
+    }
+
+    private JsonNode paraGeoJson(Geometry geometria) {
+        try (TokenBuffer buffer = new TokenBuffer(objectMapper, false)) {
+            GeoJsonGeometryWriter.write(geometria, buffer);
+            return buffer.asParser().readValueAsTree();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package br.vegamonitoramento.caronline.service;
+
+/**
+ * A revisão em que o cliente se baseou não é mais a atual: outra gravação ocorreu no meio
+ */
+public class RevisaoDesatualizadaException extends RuntimeException {
+
+    private final long revisaoAtual;
+
+    public RevisaoDesatualizadaException(Long codMunicipio, long revisaoBase, long revisaoAtual) {
+        super("As camadas do município " + codMunicipio + " estão na revisão " + revisaoAtual
+                + ", não na " + revisaoBase + "; carregue as alterações e tente novamente");
+        this.revisaoAtual = revisaoAtual;
+    }
+
+    public long getRevisaoAtual() {
+        return revisaoAtual;
+    }
+}
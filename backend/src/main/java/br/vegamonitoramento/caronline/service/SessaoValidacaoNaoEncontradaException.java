@@ -0,0 +1,13 @@
+package br.vegamonitoramento.caronline.service;
+
+import java.util.UUID;
+
+/**
+ * A sessão de validação ao vivo não existe ou expirou por inatividade
+ */
+public class SessaoValidacaoNaoEncontradaException extends RuntimeException {
+
+    public SessaoValidacaoNaoEncontradaException(UUID id) {
+        super("Sessão de validação não encontrada ou expirada: " + id);
+    }
+}
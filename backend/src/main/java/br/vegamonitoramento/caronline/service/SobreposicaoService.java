@@ -0,0 +1,142 @@
+package br.vegamonitoramento.caronline.service;
+
+import br.vegamonitoramento.caronline.geometry.AreaGeodesica;
+import br.vegamonitoramento.caronline.geometry.GeoJsonGeometryReader;
+import br.vegamonitoramento.caronline.geometry.GeoJsonGeometryWriter;
+import br.vegamonitoramento.caronline.geometry.UniaoParalela;
+import br.vegamonitoramento.caronline.metrics.MetricasGeometria;
+import br.vegamonitoramento.caronline.model.dto.ResultadoSobreposicaoDTO;
+import br.vegamonitoramento.caronline.model.dto.SobreposicaoRequestDTO;
+import br.vegamonitoramento.caronline.model.dto.SobreposicaoResponseDTO;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Polygonal;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
+import org.locationtech.jts.operation.overlayng.OverlayNG;
+import org.locationtech.jts.operation.overlayng.OverlayNGRobust;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.IntStream;
+
+/**
+ * Recorte (diferença ou interseção) de várias geometrias por um conjunto de polígonos.
+ * Em vez de aplicar um recorte por polígono, como o frontend fazia, os recortes são unidos
+ * uma única vez e cada alvo passa por uma só operação de overlay.
+ */
+@Service
+public class SobreposicaoService {
+
+    public static final String OPERACAO_DIFERENCA = "difference";
+    public static final String OPERACAO_INTERSECAO = "intersection";
+
+    // A partir deste número de alvos os recortes são feitos em paralelo
+    private static final int LIMITE_PARALELISMO = 8;
+
+    private final ObjectMapper objectMapper;
+    private final MetricasGeometria metricasGeometria;
+    private final GeoJsonGeometryReader geometryReader = new GeoJsonGeometryReader();
+
+    @Autowired
+    public SobreposicaoService(ObjectMapper objectMapper, MetricasGeometria metricasGeometria) {
+        this.objectMapper = objectMapper;
+        this.metricasGeometria = metricasGeometria;
+    }
+
+    public SobreposicaoResponseDTO recortar(SobreposicaoRequestDTO request) {
+        String operacao = request.getOperacao() == null || request.getOperacao().isBlank()
+                ? OPERACAO_DIFERENCA
+                : request.getOperacao().toLowerCase(Locale.ROOT);
+        int codigoOperacao = switch (operacao) {
+            case OPERACAO_DIFERENCA -> OverlayNG.DIFFERENCE;
+            case OPERACAO_INTERSECAO -> OverlayNG.INTERSECTION;
+            default -> throw new IllegalArgumentException("Operação não suportada: " + request.getOperacao());
+        };
+
+        List<Geometry> alvos = lerGeometrias(request.getAlvos(), "alvo");
+        List<Geometry> recortes = lerGeometrias(request.getRecortes(), "recorte");
+        for (int i = 0; i < recortes.size(); i++) {
+            if (!(recortes.get(i) instanceof Polygonal)) {
+                throw new IllegalArgumentException("Recorte " + i + ": a geometria deve ser poligonal");
+            }
+        }
+
+        alvos.forEach(alvo -> metricasGeometria.registrar("sobreposicao_alvo", alvo));
+        recortes.forEach(recorte -> metricasGeometria.registrar("sobreposicao_recorte", recorte));
+
+        Geometry uniao = UniaoParalela.unir(recortes);
+        PreparedGeometry uniaoPreparada = PreparedGeometryFactory.prepare(uniao);
+
+        IntStream indices = IntStream.range(0, alvos.size());
+        if (alvos.size() >= LIMITE_PARALELISMO) {
+            indices = indices.parallel();
+        }
+
+        List<ResultadoSobreposicaoDTO> resultados = indices
+                .mapToObj(i -> recortarAlvo(i, alvos.get(i), uniao, uniaoPreparada, codigoOperacao))
+                .toList();
+
+        return new SobreposicaoResponseDTO(operacao, AreaGeodesica.hectares(uniao), resultados);
+    }
+
+    private ResultadoSobreposicaoDTO recortarAlvo(int indice, Geometry alvo, Geometry uniao,
+                                                  PreparedGeometry uniaoPreparada, int codigoOperacao) {
+        double areaOriginal = AreaGeodesica.hectares(alvo);
+
+        // Casos triviais resolvidos pela geometria preparada, sem overlay
+        Geometry resultado;
+        if (!uniaoPreparada.intersects(alvo)) {
+            resultado = codigoOperacao == OverlayNG.DIFFERENCE ? alvo : null;
+        } else if (uniaoPreparada.covers(alvo)) {
+            resultado = codigoOperacao == OverlayNG.DIFFERENCE ? null : alvo;
+        } else {
+            resultado = OverlayNGRobust.overlay(alvo, uniao, codigoOperacao);
+        }
+
+        if (resultado == null || resultado.isEmpty()) {
+            return new ResultadoSobreposicaoDTO(indice, null, areaOriginal, 0.0);
+        }
+        double areaResultante = resultado == alvo ? areaOriginal : AreaGeodesica.hectares(resultado);
+        return new ResultadoSobreposicaoDTO(indice, paraGeoJson(resultado), areaOriginal, areaResultante);
+    }
+
+    private List<Geometry> lerGeometrias(List<JsonNode> itens, String descricao) {
+        if (itens == null) {
+            throw new IllegalArgumentException("Nenhum " + descricao + " informado");
+        }
+
+        List<Geometry> geometrias = new ArrayList<>(itens.size());
+        for (int i = 0; i < itens.size(); i++) {
+            JsonNode item = itens.get(i);
+            // Aceita tanto Features quanto geometrias soltas
+            JsonNode geometria = item != null && "Feature".equals(item.path("type").asText())
+                    ? item.get("geometry")
+                    : item;
+            try {
+                geometrias.add(geometryReader.read(geometria));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(
+                        Character.toUpperCase(descricao.charAt(0)) + descricao.substring(1) + " " + i + ": "
+                                + e.getMessage(), e);
+            }
+        }
+        return geometrias;
+    }
+
+    private JsonNode paraGeoJson(Geometry geometria) {
+        try (TokenBuffer buffer = new TokenBuffer(objectMapper, false)) {
+            GeoJsonGeometryWriter.write(geometria, buffer);
+            return buffer.asParser().readValueAsTree();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -2,27 +2,120 @@ package br.vegamonitoramento.caronline.service;
 
 import br.vegamonitoramento.caronline.model.dto.TemaGrupoDTO;
 import br.vegamonitoramento.caronline.repository.TemaGrupoRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
 
+@Slf4j
 @Service
 public class TemaGrupoService {
 
     private final TemaGrupoRepository temaGrupoRepository;
+    private final ObjectMapper objectMapper;
+
+    // Catálogo em memória; substituído por inteiro a cada recarga
+    private volatile CatalogoTemaGrupo catalogo;
+    // ReentrantLock em vez de synchronized: a carga consulta o banco, e uma virtual thread
+    // bloqueada dentro de synchronized prende a carrier thread
+    private final ReentrantLock travaCarga = new ReentrantLock();
 
     @Autowired
-    public TemaGrupoService(TemaGrupoRepository temaGrupoRepository) {
+    public TemaGrupoService(TemaGrupoRepository temaGrupoRepository, ObjectMapper objectMapper) {
         this.temaGrupoRepository = temaGrupoRepository;
+        this.objectMapper = objectMapper;
     }
 
     public List<TemaGrupoDTO> getAllTemasGrupos() {
-        return temaGrupoRepository.findAllTemasGrupos();
+        return getCatalogo().getTemas();
     }
-    
+
     public Map<String, List<TemaGrupoDTO>> getAllTemasGruposAgrupados() {
-        return temaGrupoRepository.findAllTemasGruposAgrupados();
+        return getCatalogo().getTemasAgrupados();
+    }
+
+    /**
+     * Id de cada tema pelo código em maiúsculas, usado ao converter as feições recebidas
+     */
+    public Map<String, Long> getIdsTemaPorCodigo() {
+        Map<String, Long> idsTema = new HashMap<>();
+        for (TemaGrupoDTO tema : getAllTemasGrupos()) {
+            if (tema.getCodTema() != null) {
+                idsTema.put(tema.getCodTema().toUpperCase(Locale.ROOT), tema.getIdtTema());
+            }
+        }
+        return idsTema;
+    }
+
+    /**
+     * Retorna o catálogo em memória, carregando-o do banco caso ainda não tenha sido carregado
+     */
+    public CatalogoTemaGrupo getCatalogo() {
+        CatalogoTemaGrupo atual = catalogo;
+        if (atual != null) {
+            return atual;
+        }
+        travaCarga.lock();
+        try {
+            if (catalogo == null) {
+                catalogo = carregarCatalogo();
+            }
+            return catalogo;
+        } finally {
+            travaCarga.unlock();
+        }
+    }
+
+    /**
+     * Recarrega o catálogo a partir do banco. As requisições em andamento continuam
+     * usando a versão anterior até a troca da referência.
+     */
+    public CatalogoTemaGrupo recarregarCatalogo() {
+        travaCarga.lock();
+        try {
+            catalogo = carregarCatalogo();
+            return catalogo;
+        } finally {
+            travaCarga.unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregarCatalogoNaInicializacao() {
+        try {
+            recarregarCatalogo();
+        } catch (Exception e) {
+            // O catálogo será carregado na primeira requisição
+            log.warn("Não foi possível carregar o catálogo de temas e grupos na inicialização: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${caronline.catalogo.intervalo-atualizacao-ms:3600000}",
+            fixedDelayString = "${caronline.catalogo.intervalo-atualizacao-ms:3600000}"
+    )
+    public void atualizarCatalogoAgendado() {
+        try {
+            recarregarCatalogo();
+        } catch (Exception e) {
+            // Mantém a versão anterior em caso de falha
+            log.warn("Falha na atualização agendada do catálogo de temas e grupos: {}", e.getMessage());
+        }
+    }
+
+    private CatalogoTemaGrupo carregarCatalogo() {
+        CatalogoTemaGrupo novo = CatalogoTemaGrupo.of(temaGrupoRepository.findAllTemasGrupos(), objectMapper);
+        log.info("Catálogo de temas e grupos carregado: {} temas, ETag {}",
+                novo.getTemas().size(), novo.getLista().etag());
+        return novo;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,88 @@
+package br.vegamonitoramento.caronline.service;
+
+import br.vegamonitoramento.caronline.repository.TileRepository;
+import br.vegamonitoramento.caronline.tile.CacheTiles;
+import br.vegamonitoramento.caronline.tile.TileCoordenada;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Vector tiles das camadas gravadas, servidos a partir do cache quando possível.
+ * Gravações de camadas invalidam apenas os tiles que cobrem a área alterada.
+ */
+@Slf4j
+@Service
+public class TileService {
+
+    // Camada com todos os temas; as demais camadas têm o nome do codTema em minúsculas
+    public static final String CAMADA_TODOS_TEMAS = "camadas";
+
+    // O nome da camada vira diretório no cache em disco
+    private static final Pattern NOME_CAMADA = Pattern.compile("[a-z0-9_]{1,64}");
+
+    private final TileRepository tileRepository;
+    private final CacheTiles cache;
+    // A geração do cache recomeça a cada inicialização; o instante de início diferencia as ETags
+    private final String inicio = Long.toString(System.currentTimeMillis(), 36);
+
+    @Autowired
+    public TileService(TileRepository tileRepository,
+                       @Value("${caronline.tiles.cache-memoria-bytes:67108864}") long limiteBytesMemoria,
+                       @Value("${caronline.tiles.diretorio-disco:}") String diretorioDisco) {
+        this.tileRepository = tileRepository;
+        this.cache = new CacheTiles(limiteBytesMemoria,
+                StringUtils.hasText(diretorioDisco) ? Path.of(diretorioDisco) : null);
+    }
+
+    /**
+     * ETag dos tiles servidos a partir de agora: muda a cada invalidação do cache. Deve ser lida
+     * antes de {@link #getTile}, para que um tile gerado durante uma invalidação fique com a
+     * ETag anterior e seja baixado de novo na próxima revalidação.
+     */
+    public String getEtag() {
+        return "\"" + inicio + "-" + cache.getGeracao() + "\"";
+    }
+
+    public byte[] getTile(String camada, int z, int x, int y) {
+        if (camada == null || !NOME_CAMADA.matcher(camada).matches()) {
+            throw new IllegalArgumentException("Camada inválida: " + camada);
+        }
+        TileCoordenada tile = new TileCoordenada(camada, z, x, y);
+
+        Optional<byte[]> emCache = cache.get(tile);
+        if (emCache.isPresent()) {
+            return emCache.get();
+        }
+
+        // Geração lida antes da consulta: se as camadas mudarem no meio, o tile não é guardado
+        long geracao = cache.getGeracao();
+        String codTema = CAMADA_TODOS_TEMAS.equals(camada) ? null : camada.toUpperCase(Locale.ROOT);
+        byte[] conteudo = tileRepository.gerarTile(tile, codTema);
+        cache.put(tile, conteudo, geracao);
+        return conteudo;
+    }
+
+    /**
+     * Descarta os tiles afetados somente depois do commit, quando a nova versão já é visível
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void aoAlterarCamadas(CamadasAlteradasEvent evento) {
+        cache.invalidar(evento.extensao());
+        log.debug("Tiles invalidados para o município {} na extensão {}",
+                evento.codMunicipio(), evento.extensao());
+    }
+
+    public void limparCache() {
+        cache.limpar();
+    }
+}
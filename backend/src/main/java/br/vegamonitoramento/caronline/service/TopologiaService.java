@@ -0,0 +1,164 @@
+package br.vegamonitoramento.caronline.service;
+
+import br.vegamonitoramento.caronline.geometry.GeoJsonGeometryWriter;
+import br.vegamonitoramento.caronline.metrics.MetricasGeometria;
+import br.vegamonitoramento.caronline.model.FeicaoCamada;
+import br.vegamonitoramento.caronline.model.dto.ConflitoTopologiaDTO;
+import br.vegamonitoramento.caronline.model.dto.TemaGrupoDTO;
+import br.vegamonitoramento.caronline.model.dto.TopologiaRequestDTO;
+import br.vegamonitoramento.caronline.model.dto.TopologiaResponseDTO;
+import br.vegamonitoramento.caronline.repository.CamadaRepository;
+import br.vegamonitoramento.caronline.topologia.GrupoTopologia;
+import br.vegamonitoramento.caronline.topologia.IndiceTopologia;
+import br.vegamonitoramento.caronline.topologia.RegraTopologia;
+import br.vegamonitoramento.caronline.topologia.VerificadorTopologia;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import lombok.extern.slf4j.Slf4j;
+import org.locationtech.jts.geom.Geometry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Verificação de sobreposições proibidas entre as feições de um imóvel ({@link RegraTopologia}),
+ * sobre as camadas enviadas ou as gravadas do município. Os grupos das regras são resolvidos no
+ * catálogo de temas pelos temas de referência ({@link GrupoTopologia}); se algum faltar, a
+ * aplicação não sobe.
+ */
+@Slf4j
+@Service
+public class TopologiaService {
+
+    private final CamadaRepository camadaRepository;
+    private final CamadaGeoJsonParser camadaGeoJsonParser;
+    private final TemaGrupoService temaGrupoService;
+    private final MetricasGeometria metricasGeometria;
+    private final ObjectMapper objectMapper;
+    private final double areaMinimaM2;
+
+    // Grupos resolvidos da última lista de temas do catálogo; refeitos quando ela é recarregada
+    private volatile GruposResolvidos gruposResolvidos;
+
+    @Autowired
+    public TopologiaService(CamadaRepository camadaRepository,
+                            CamadaGeoJsonParser camadaGeoJsonParser,
+                            TemaGrupoService temaGrupoService,
+                            MetricasGeometria metricasGeometria,
+                            ObjectMapper objectMapper,
+                            @Value("${caronline.topologia.area-minima-m2:1.0}") double areaMinimaM2) {
+        this.camadaRepository = camadaRepository;
+        this.camadaGeoJsonParser = camadaGeoJsonParser;
+        this.temaGrupoService = temaGrupoService;
+        this.metricasGeometria = metricasGeometria;
+        this.objectMapper = objectMapper;
+        this.areaMinimaM2 = areaMinimaM2;
+    }
+
+    /**
+     * Confere os grupos das regras no catálogo: um grupo ausente impede a subida, em vez de
+     * desligar a regra em silêncio. Sem banco, a conferência fica para a primeira verificação.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void conferirGruposNaInicializacao() {
+        List<TemaGrupoDTO> catalogo;
+        try {
+            catalogo = temaGrupoService.getAllTemasGrupos();
+        } catch (DataAccessException e) {
+            log.warn("Catálogo de temas indisponível; grupos de topologia não conferidos: {}", e.getMessage());
+            return;
+        }
+        gruposPorTema(catalogo);
+    }
+
+    public TopologiaResponseDTO verificar(TopologiaRequestDTO request) {
+        List<FeicaoCamada> feicoes = camadaGeoJsonParser.parse(request.getGeoJson());
+        return verificar(request.getMunicipalityId(), feicoes, !Boolean.FALSE.equals(request.getIncluirGeometrias()));
+    }
+
+    /**
+     * Verifica as camadas gravadas do município, na ordem em que são lidas do banco
+     */
+    @Transactional(readOnly = true)
+    public TopologiaResponseDTO verificarGravadas(Long codMunicipio, boolean incluirGeometrias) {
+        if (codMunicipio == null) {
+            throw new IllegalArgumentException("municipalityId não informado");
+        }
+        List<FeicaoCamada> feicoes = new ArrayList<>();
+        camadaRepository.percorrerPorMunicipio(codMunicipio, feicoes::add);
+        return verificar(codMunicipio, feicoes, incluirGeometrias);
+    }
+
+    private TopologiaResponseDTO verificar(Long codMunicipio, List<FeicaoCamada> feicoes, boolean incluirGeometrias) {
+        List<String> temas = new ArrayList<>(feicoes.size());
+        List<Geometry> geometrias = new ArrayList<>(feicoes.size());
+        for (FeicaoCamada feicao : feicoes) {
+            metricasGeometria.registrar("topologia", feicao.getGeometria());
+            temas.add(feicao.getCodTema());
+            geometrias.add(feicao.getGeometria());
+        }
+
+        VerificadorTopologia.Resultado resultado =
+                new VerificadorTopologia(gruposPorTema(), areaMinimaM2).verificar(temas, geometrias);
+
+        Map<String, Double> areaPorRegra = new TreeMap<>();
+        List<ConflitoTopologiaDTO> conflitos = new ArrayList<>(resultado.conflitos().size());
+        for (VerificadorTopologia.Conflito conflito : resultado.conflitos()) {
+            FeicaoCamada a = feicoes.get(conflito.indiceA());
+            FeicaoCamada b = feicoes.get(conflito.indiceB());
+            areaPorRegra.merge(conflito.regra().name(), conflito.areaHectares(), Double::sum);
+            conflitos.add(new ConflitoTopologiaDTO(
+                    conflito.regra().name(), conflito.regra().getMensagem(),
+                    conflito.indiceA(), conflito.indiceB(), a.getCodFeicao(), b.getCodFeicao(),
+                    a.getCodTema(), b.getCodTema(), conflito.areaHectares(),
+                    incluirGeometrias ? paraGeoJson(conflito.sobreposicao()) : null));
+        }
+
+        return new TopologiaResponseDTO(codMunicipio, conflitos.isEmpty(), feicoes.size(),
+                resultado.paresAvaliados(), areaPorRegra, conflitos);
+    }
+
+    /**
+     * Índice vazio com as mesmas regras, para verificar um imóvel feição a feição
+     */
+    public IndiceTopologia criarIndice() {
+        return new IndiceTopologia(gruposPorTema(), areaMinimaM2);
+    }
+
+    private Map<String, GrupoTopologia> gruposPorTema() {
+        return gruposPorTema(temaGrupoService.getAllTemasGrupos());
+    }
+
+    private Map<String, GrupoTopologia> gruposPorTema(List<TemaGrupoDTO> catalogo) {
+        GruposResolvidos atuais = gruposResolvidos;
+        if (atuais == null || atuais.catalogo() != catalogo) {
+            atuais = new GruposResolvidos(catalogo, GrupoTopologia.porTema(catalogo));
+            gruposResolvidos = atuais;
+        }
+        return atuais.porTema();
+    }
+
+    private JsonNode paraGeoJson(Geometry geometria) {
+        try (TokenBuffer buffer = new TokenBuffer(objectMapper, false)) {
+            GeoJsonGeometryWriter.write(geometria, buffer);
+            return buffer.asParser().readValueAsTree();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record GruposResolvidos(List<TemaGrupoDTO> catalogo, Map<String, GrupoTopologia> porTema) {
+    }
+}
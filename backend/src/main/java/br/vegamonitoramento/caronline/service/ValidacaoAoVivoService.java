@@ -0,0 +1,447 @@
+package br.vegamonitoramento.caronline.service;
+
+import br.vegamonitoramento.caronline.geometry.GeoJsonGeometryWriter;
+import br.vegamonitoramento.caronline.model.FeicaoCamada;
+import br.vegamonitoramento.caronline.model.Temas;
+import br.vegamonitoramento.caronline.model.dto.ConflitoTopologiaDTO;
+import br.vegamonitoramento.caronline.model.dto.EventoValidacaoDTO;
+import br.vegamonitoramento.caronline.model.dto.ResultadoFeicaoDTO;
+import br.vegamonitoramento.caronline.model.dto.SessaoValidacaoDTO;
+import br.vegamonitoramento.caronline.model.dto.SessaoValidacaoRequestDTO;
+import br.vegamonitoramento.caronline.topologia.IndiceTopologia;
+import br.vegamonitoramento.caronline.topologia.VerificadorTopologia;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Validação ao vivo enquanto o usuário desenha. Cada sessão guarda em memória as feições do
+ * imóvel, com as sobreposições indexadas ({@link IndiceTopologia}); o cliente envia uma feição
+ * por edição e recebe pelo fluxo de eventos (SSE) o resultado dela e das feições afetadas: as
+ * que tinham ou passaram a ter sobreposição com ela e, quando a área do imóvel muda, as demais,
+ * que dependem da regra de estar dentro do imóvel. Só são enviados os resultados que mudaram.
+ * <p>
+ * As edições de uma sessão são aplicadas uma de cada vez, e os eventos saem na mesma ordem. Sessões
+ * sem uso por {@code expiracao-minutos} são encerradas; ao atingir {@code maximo}, a usada há
+ * mais tempo dá lugar à nova.
+ */
+@Slf4j
+@Service
+public class ValidacaoAoVivoService {
+
+    public static final String EVENTO_FEICAO = "feicao";
+
+    private final CamadaGeoJsonParser camadaGeoJsonParser;
+    private final ValidacaoService validacaoService;
+    private final TopologiaService topologiaService;
+    private final GeometriaReferenciaService geometriaReferenciaService;
+    private final ObjectMapper objectMapper;
+    private final Timer tempoAtualizacao;
+    private final Timer tempoExclusao;
+    private final long expiracaoMs;
+    private final int maximoSessoes;
+
+    private final Map<UUID, Sessao> sessoes = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ValidacaoAoVivoService(CamadaGeoJsonParser camadaGeoJsonParser,
+                                  ValidacaoService validacaoService,
+                                  TopologiaService topologiaService,
+                                  GeometriaReferenciaService geometriaReferenciaService,
+                                  ObjectMapper objectMapper,
+                                  MeterRegistry registry,
+                                  @Value("${caronline.validacao.sessoes.expiracao-minutos:30}") long expiracaoMinutos,
+                                  @Value("${caronline.validacao.sessoes.maximo:500}") int maximoSessoes) {
+        this.camadaGeoJsonParser = camadaGeoJsonParser;
+        this.validacaoService = validacaoService;
+        this.topologiaService = topologiaService;
+        this.geometriaReferenciaService = geometriaReferenciaService;
+        this.objectMapper = objectMapper;
+        this.expiracaoMs = TimeUnit.MINUTES.toMillis(expiracaoMinutos);
+        this.maximoSessoes = maximoSessoes;
+
+        this.tempoAtualizacao = tempoEdicao(registry, "atualizar");
+        this.tempoExclusao = tempoEdicao(registry, "excluir");
+        Gauge.builder("caronline.validacao.sessoes", sessoes, Map::size)
+                .description("Sessões de validação ao vivo abertas")
+                .register(registry);
+    }
+
+    /**
+     * Abre uma sessão para o município, opcionalmente com as feições já desenhadas
+     * @throws IllegalArgumentException se o município não existir ou alguma feição for inválida
+     */
+    public SessaoValidacaoDTO abrir(SessaoValidacaoRequestDTO request) {
+        if (request.getMunicipalityId() == null) {
+            throw new IllegalArgumentException("municipalityId não informado");
+        }
+        GeometriaReferenciaService.MunicipioPreparado municipio =
+                geometriaReferenciaService.getMunicipio(request.getMunicipalityId());
+        if (municipio == null) {
+            throw new IllegalArgumentException("Município não encontrado: " + request.getMunicipalityId());
+        }
+
+        List<FeicaoCamada> iniciais = request.getGeoJson() != null
+                ? camadaGeoJsonParser.parse(request.getGeoJson())
+                : List.of();
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < iniciais.size(); i++) {
+            String codFeicao = iniciais.get(i).getCodFeicao();
+            if (codFeicao == null) {
+                throw new IllegalArgumentException("Feição " + i + ": id não informado");
+            }
+            if (!ids.add(codFeicao)) {
+                throw new IllegalArgumentException("Feição " + i + ": id repetido: " + codFeicao);
+            }
+        }
+
+        Sessao sessao = new Sessao(UUID.randomUUID(), municipio, topologiaService.criarIndice());
+        // Ainda não há cliente conectado: os resultados iniciais vão no estado enviado na conexão
+        iniciais.forEach(feicao -> aplicar(sessao, feicao));
+
+        liberarVaga();
+        sessoes.put(sessao.id, sessao);
+        return new SessaoValidacaoDTO(sessao.id, municipio.municipio().getCodMunicipio(), sessao.feicoes.size(), null);
+    }
+
+    /**
+     * Fluxo de eventos da sessão. Começa pelo resultado de todas as feições, o que também serve
+     * às reconexões automáticas do EventSource; uma nova conexão encerra a anterior.
+     */
+    public SseEmitter conectar(UUID id) {
+        Sessao sessao = obter(id);
+        SseEmitter emissor = new SseEmitter(expiracaoMs);
+        Runnable desconectar = () -> desconectar(sessao, emissor);
+        emissor.onCompletion(desconectar);
+        emissor.onTimeout(desconectar);
+        emissor.onError(erro -> desconectar.run());
+
+        sessao.lock.lock();
+        try {
+            if (sessao.emissor != null) {
+                sessao.emissor.complete();
+            }
+            sessao.emissor = emissor;
+            for (EventoValidacaoDTO evento : sessao.resultados.values()) {
+                enviar(sessao, evento);
+            }
+        } finally {
+            sessao.lock.unlock();
+        }
+        return emissor;
+    }
+
+    /**
+     * Inclui ou substitui a feição (com o membro "id") e envia os resultados que mudaram
+     * @return eventos enviados, o da própria feição primeiro
+     * @throws IllegalArgumentException se a feição for inválida
+     */
+    public List<EventoValidacaoDTO> atualizar(UUID id, JsonNode feature) {
+        Sessao sessao = obter(id);
+        FeicaoCamada feicao = camadaGeoJsonParser.parseFeature(feature);
+        if (feicao.getCodFeicao() == null) {
+            throw new IllegalArgumentException("id da feição não informado");
+        }
+
+        Timer.Sample amostra = Timer.start();
+        sessao.lock.lock();
+        try {
+            List<EventoValidacaoDTO> eventos = aplicar(sessao, feicao);
+            eventos.forEach(evento -> enviar(sessao, evento));
+            return eventos;
+        } finally {
+            sessao.lock.unlock();
+            amostra.stop(tempoAtualizacao);
+        }
+    }
+
+    /**
+     * Retira a feição da sessão; excluir uma feição inexistente não tem efeito
+     * @return eventos enviados: a exclusão e os resultados que mudaram por causa dela
+     */
+    public List<EventoValidacaoDTO> excluir(UUID id, String idFeicao) {
+        Sessao sessao = obter(id);
+        Timer.Sample amostra = Timer.start();
+        sessao.lock.lock();
+        try {
+            FeicaoSessao removida = sessao.feicoes.remove(idFeicao);
+            if (removida == null) {
+                return List.of();
+            }
+            sessao.idsPorIndice.remove(removida.indice());
+            sessao.resultados.remove(idFeicao);
+
+            Set<String> afetadas = new LinkedHashSet<>();
+            for (int indice : sessao.topologia.remover(removida.indice())) {
+                afetadas.add(sessao.idsPorIndice.get(indice));
+            }
+            if (idFeicao.equals(sessao.idImovel)) {
+                escolherImovel(sessao);
+                afetadas.addAll(sessao.feicoes.keySet());
+            }
+
+            List<EventoValidacaoDTO> eventos = new ArrayList<>();
+            eventos.add(new EventoValidacaoDTO(idFeicao, removida.feicao().getCodTema(), true, null, null, null));
+            eventos.addAll(reavaliar(sessao, afetadas, null));
+            eventos.forEach(evento -> enviar(sessao, evento));
+            return eventos;
+        } finally {
+            sessao.lock.unlock();
+            amostra.stop(tempoExclusao);
+        }
+    }
+
+    public void encerrar(UUID id) {
+        Sessao sessao = sessoes.remove(id);
+        if (sessao == null) {
+            throw new SessaoValidacaoNaoEncontradaException(id);
+        }
+        fechar(sessao);
+    }
+
+    /**
+     * Encerra as sessões inativas e mantém abertas as conexões das demais, que proxies
+     * costumam derrubar quando ficam em silêncio
+     */
+    @Scheduled(fixedDelayString = "${caronline.validacao.sessoes.intervalo-verificacao-ms:30000}",
+            initialDelayString = "${caronline.validacao.sessoes.intervalo-verificacao-ms:30000}")
+    public void verificarSessoes() {
+        long limite = System.currentTimeMillis() - expiracaoMs;
+        for (Sessao sessao : sessoes.values()) {
+            if (sessao.ultimoAcesso < limite) {
+                if (sessoes.remove(sessao.id, sessao)) {
+                    fechar(sessao);
+                }
+                continue;
+            }
+            sessao.lock.lock();
+            try {
+                SseEmitter emissor = sessao.emissor;
+                if (emissor != null) {
+                    try {
+                        emissor.send(SseEmitter.event().comment("ping"));
+                    } catch (IOException | IllegalStateException e) {
+                        sessao.emissor = null;
+                    }
+                }
+            } finally {
+                sessao.lock.unlock();
+            }
+        }
+    }
+
+    private List<EventoValidacaoDTO> aplicar(Sessao sessao, FeicaoCamada feicao) {
+        String id = feicao.getCodFeicao();
+        FeicaoSessao anterior = sessao.feicoes.get(id);
+        int indice = anterior != null ? anterior.indice() : sessao.proximoIndice++;
+        sessao.feicoes.put(id, new FeicaoSessao(indice, feicao));
+        sessao.idsPorIndice.put(indice, id);
+
+        Set<String> afetadas = new LinkedHashSet<>();
+        afetadas.add(id);
+        for (int outra : sessao.topologia.atualizar(indice, feicao.getCodTema(), feicao.getGeometria())) {
+            afetadas.add(sessao.idsPorIndice.get(outra));
+        }
+
+        boolean imovel = Temas.AREA_IMOVEL.equals(feicao.getCodTema());
+        if (imovel && (sessao.idImovel == null || sessao.idImovel.equals(id))) {
+            definirImovel(sessao, id);
+            afetadas.addAll(sessao.feicoes.keySet());
+        } else if (!imovel && id.equals(sessao.idImovel)) {
+            escolherImovel(sessao);
+            afetadas.addAll(sessao.feicoes.keySet());
+        }
+        return reavaliar(sessao, afetadas, id);
+    }
+
+    /**
+     * Recalcula o resultado das feições; entram na lista os que mudaram e sempre o da editada
+     */
+    private List<EventoValidacaoDTO> reavaliar(Sessao sessao, Collection<String> ids, String editada) {
+        List<EventoValidacaoDTO> eventos = new ArrayList<>();
+        for (String id : ids) {
+            EventoValidacaoDTO evento = avaliar(sessao, sessao.feicoes.get(id));
+            EventoValidacaoDTO anterior = sessao.resultados.put(id, evento);
+            if (id.equals(editada) || !evento.equals(anterior)) {
+                eventos.add(evento);
+            }
+        }
+        return eventos;
+    }
+
+    private EventoValidacaoDTO avaliar(Sessao sessao, FeicaoSessao feicaoSessao) {
+        FeicaoCamada feicao = feicaoSessao.feicao();
+        ResultadoFeicaoDTO resultado = validacaoService.validarFeicao(0, feicao, sessao.imovel, sessao.municipio);
+
+        List<ConflitoTopologiaDTO> conflitos = new ArrayList<>();
+        for (VerificadorTopologia.Conflito conflito : sessao.topologia.conflitosDe(feicaoSessao.indice())) {
+            FeicaoCamada a = sessao.feicoes.get(sessao.idsPorIndice.get(conflito.indiceA())).feicao();
+            FeicaoCamada b = sessao.feicoes.get(sessao.idsPorIndice.get(conflito.indiceB())).feicao();
+            conflitos.add(new ConflitoTopologiaDTO(conflito.regra().name(), conflito.regra().getMensagem(),
+                    null, null, a.getCodFeicao(), b.getCodFeicao(), a.getCodTema(), b.getCodTema(),
+                    conflito.areaHectares(), paraGeoJson(conflito.sobreposicao())));
+        }
+        conflitos.sort(Comparator.comparing(ConflitoTopologiaDTO::getIdFeicaoA)
+                .thenComparing(ConflitoTopologiaDTO::getIdFeicaoB));
+
+        return new EventoValidacaoDTO(feicao.getCodFeicao(), feicao.getCodTema(), false,
+                resultado.getValido() && conflitos.isEmpty(), resultado.getRegras(), conflitos);
+    }
+
+    private static void definirImovel(Sessao sessao, String id) {
+        sessao.idImovel = id;
+        sessao.imovel = id == null
+                ? null
+                : PreparedGeometryFactory.prepare(sessao.feicoes.get(id).feicao().getGeometria());
+    }
+
+    /**
+     * Como na validação completa, vale a primeira feição da área do imóvel
+     */
+    private static void escolherImovel(Sessao sessao) {
+        definirImovel(sessao, sessao.feicoes.entrySet().stream()
+                .filter(entrada -> Temas.AREA_IMOVEL.equals(entrada.getValue().feicao().getCodTema()))
+                .map(Map.Entry::getKey)
+                .findFirst()
+                .orElse(null));
+    }
+
+    private void enviar(Sessao sessao, EventoValidacaoDTO evento) {
+        SseEmitter emissor = sessao.emissor;
+        if (emissor == null) {
+            return;
+        }
+        try {
+            emissor.send(SseEmitter.event().name(EVENTO_FEICAO).data(evento, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            // Cliente desconectado: os resultados seguem guardados e vão no estado da próxima conexão
+            sessao.emissor = null;
+            log.debug("Fluxo da sessão de validação {} interrompido: {}", sessao.id, e.getMessage());
+        }
+    }
+
+    private static void desconectar(Sessao sessao, SseEmitter emissor) {
+        sessao.lock.lock();
+        try {
+            if (sessao.emissor == emissor) {
+                sessao.emissor = null;
+            }
+        } finally {
+            sessao.lock.unlock();
+        }
+    }
+
+    private static void fechar(Sessao sessao) {
+        sessao.lock.lock();
+        try {
+            if (sessao.emissor != null) {
+                sessao.emissor.complete();
+                sessao.emissor = null;
+            }
+        } finally {
+            sessao.lock.unlock();
+        }
+    }
+
+    private Sessao obter(UUID id) {
+        Sessao sessao = sessoes.get(id);
+        if (sessao == null) {
+            throw new SessaoValidacaoNaoEncontradaException(id);
+        }
+        sessao.ultimoAcesso = System.currentTimeMillis();
+        return sessao;
+    }
+
+    /**
+     * Abre espaço para uma nova sessão encerrando a usada há mais tempo
+     */
+    private void liberarVaga() {
+        while (sessoes.size() >= maximoSessoes) {
+            Sessao maisAntiga = sessoes.values().stream()
+                    .min(Comparator.comparingLong(sessao -> sessao.ultimoAcesso))
+                    .orElse(null);
+            if (maisAntiga == null) {
+                return;
+            }
+            if (sessoes.remove(maisAntiga.id, maisAntiga)) {
+                log.info("Sessão de validação {} encerrada para abrir espaço", maisAntiga.id);
+                fechar(maisAntiga);
+            }
+        }
+    }
+
+    private JsonNode paraGeoJson(Geometry geometria) {
+        try (TokenBuffer buffer = new TokenBuffer(objectMapper, false)) {
+            GeoJsonGeometryWriter.write(geometria, buffer);
+            return buffer.asParser().readValueAsTree();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Timer tempoEdicao(MeterRegistry registry, String operacao) {
+        return Timer.builder("caronline.validacao.sessoes.edicao")
+                .description("Tempo entre receber uma edição e enviar os resultados afetados")
+                .tag("operacao", operacao)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private record FeicaoSessao(int indice, FeicaoCamada feicao) {
+    }
+
+    /**
+     * Estado de uma sessão; tudo, exceto o último acesso, é lido e alterado com o lock
+     */
+    private static final class Sessao {
+
+        private final UUID id;
+        private final GeometriaReferenciaService.MunicipioPreparado municipio;
+        private final IndiceTopologia topologia;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<String, FeicaoSessao> feicoes = new LinkedHashMap<>();
+        private final Map<Integer, String> idsPorIndice = new HashMap<>();
+        private final Map<String, EventoValidacaoDTO> resultados = new LinkedHashMap<>();
+        private int proximoIndice;
+        private String idImovel;
+        private PreparedGeometry imovel;
+        private SseEmitter emissor;
+        private volatile long ultimoAcesso = System.currentTimeMillis();
+
+        Sessao(UUID id, GeometriaReferenciaService.MunicipioPreparado municipio, IndiceTopologia topologia) {
+            this.id = id;
+            this.municipio = municipio;
+            this.topologia = topologia;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package br.vegamonitoramento.caronline.service;
+
+import br.vegamonitoramento.caronline.geometry.AreaGeodesica;
+import br.vegamonitoramento.caronline.metrics.MetricasGeometria;
+import br.vegamonitoramento.caronline.model.FeicaoCamada;
+import br.vegamonitoramento.caronline.model.Temas;
+import br.vegamonitoramento.caronline.model.dto.ResultadoFeicaoDTO;
+import br.vegamonitoramento.caronline.model.dto.ResultadoRegraDTO;
+import br.vegamonitoramento.caronline.model.dto.ValidacaoRequestDTO;
+import br.vegamonitoramento.caronline.model.dto.ValidacaoResponseDTO;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Regras de validação do CAR aplicadas no servidor com JTS
+ * (equivalentes às de services/validations.js no frontend)
+ */
+@Service
+public class ValidacaoService {
+
+    public static final String REGRA_GEOMETRIA_VALIDA = "GEOMETRIA_VALIDA";
+    public static final String REGRA_IMOVEL_INTERSECTA_MUNICIPIO = "IMOVEL_INTERSECTA_MUNICIPIO";
+    public static final String REGRA_IMOVEL_EM_SAO_PAULO = "IMOVEL_EM_SAO_PAULO";
+    public static final String REGRA_GEOMETRIA_DENTRO_IMOVEL = "GEOMETRIA_DENTRO_IMOVEL";
+    public static final String REGRA_GEOMETRIA_NO_MUNICIPIO = "GEOMETRIA_NO_MUNICIPIO";
+
+    // A partir deste tamanho as feições são validadas em paralelo
+    private static final int LIMITE_PARALELISMO = 64;
+
+    private final CamadaGeoJsonParser camadaGeoJsonParser;
+    private final GeometriaReferenciaService geometriaReferenciaService;
+    private final MetricasGeometria metricasGeometria;
+
+    @Autowired
+    public ValidacaoService(CamadaGeoJsonParser camadaGeoJsonParser,
+                            GeometriaReferenciaService geometriaReferenciaService,
+                            MetricasGeometria metricasGeometria) {
+        this.camadaGeoJsonParser = camadaGeoJsonParser;
+        this.geometriaReferenciaService = geometriaReferenciaService;
+        this.metricasGeometria = metricasGeometria;
+    }
+
+    public ValidacaoResponseDTO validar(ValidacaoRequestDTO request) {
+        return validar(request.getMunicipalityId(), camadaGeoJsonParser.parse(request.getGeoJson()));
+    }
+
+    /**
+     * Aplica as regras a feições já convertidas, como as camadas gravadas de um município
+     */
+    public ValidacaoResponseDTO validar(Long municipalityId, List<FeicaoCamada> feicoes) {
+        feicoes.forEach(feicao -> metricasGeometria.registrar("validacao", feicao.getGeometria()));
+
+        // O imóvel é preparado uma única vez e reutilizado por todas as demais feições
+        PreparedGeometry imovel = feicoes.stream()
+                .filter(feicao -> Temas.AREA_IMOVEL.equals(feicao.getCodTema()))
+                .map(feicao -> PreparedGeometryFactory.prepare(feicao.getGeometria()))
+                .findFirst()
+                .orElse(null);
+
+        GeometriaReferenciaService.MunicipioPreparado municipio =
+                geometriaReferenciaService.getMunicipio(municipalityId);
+        if (municipio == null && municipalityId == null && imovel != null) {
+            // Sem município informado, assume aquele que contém a maior parte do imóvel
+            municipio = geometriaReferenciaService.getMunicipiosIntersectados(imovel.getGeometry()).stream()
+                    .findFirst()
+                    .map(GeometriaReferenciaService.IntersecaoMunicipio::municipio)
+                    .orElse(null);
+        }
+        GeometriaReferenciaService.MunicipioPreparado municipioValidacao = municipio;
+
+        IntStream indices = IntStream.range(0, feicoes.size());
+        if (feicoes.size() >= LIMITE_PARALELISMO) {
+            indices = indices.parallel();
+        }
+
+        List<ResultadoFeicaoDTO> resultados = indices
+                .mapToObj(i -> validarFeicao(i, feicoes.get(i), imovel, municipioValidacao))
+                .toList();
+
+        boolean valido = resultados.stream().allMatch(ResultadoFeicaoDTO::getValido);
+        Long codMunicipio = municipio != null
+                ? municipio.municipio().getCodMunicipio()
+                : municipalityId;
+        return new ValidacaoResponseDTO(codMunicipio, valido, resultados);
+    }
+
+    /**
+     * Aplica as regras a uma feição, dados o imóvel já preparado (null se ainda não houver) e o
+     * município. Usada também na validação ao vivo, que reavalia apenas as feições alteradas.
+     */
+    public ResultadoFeicaoDTO validarFeicao(int indice, FeicaoCamada feicao, PreparedGeometry imovel,
+                                            GeometriaReferenciaService.MunicipioPreparado municipio) {
+        Geometry geometria = feicao.getGeometria();
+        List<ResultadoRegraDTO> regras = new ArrayList<>(3);
+
+        regras.add(validarGeometria(geometria));
+
+        if (Temas.AREA_IMOVEL.equals(feicao.getCodTema())) {
+            regras.add(validarImovelIntersectaMunicipio(geometria, municipio));
+            regras.add(validarImovelEmSaoPaulo(geometria));
+        } else {
+            regras.add(validarGeometriaDentroImovel(geometria, imovel));
+        }
+
+        boolean valido = regras.stream().allMatch(ResultadoRegraDTO::getSuccess);
+        return new ResultadoFeicaoDTO(indice, feicao.getCodTema(), valido, regras);
+    }
+
+    /**
+     * Valida uma feição sem a área do imóvel, como na importação de arquivos, em que as feições
+     * chegam em lotes e o imóvel pode nem estar no arquivo: as demais feições são verificadas
+     * contra o município em vez do imóvel.
+     */
+    public ResultadoFeicaoDTO validarFeicaoIsolada(int indice, FeicaoCamada feicao,
+                                                   GeometriaReferenciaService.MunicipioPreparado municipio) {
+        Geometry geometria = feicao.getGeometria();
+        List<ResultadoRegraDTO> regras = new ArrayList<>(3);
+
+        regras.add(validarGeometria(geometria));
+
+        if (Temas.AREA_IMOVEL.equals(feicao.getCodTema())) {
+            regras.add(validarImovelIntersectaMunicipio(geometria, municipio));
+            regras.add(validarImovelEmSaoPaulo(geometria));
+        } else {
+            regras.add(validarGeometriaNoMunicipio(geometria, municipio));
+        }
+
+        boolean valido = regras.stream().allMatch(ResultadoRegraDTO::getSuccess);
+        return new ResultadoFeicaoDTO(indice, feicao.getCodTema(), valido, regras);
+    }
+
+    private static ResultadoRegraDTO validarGeometria(Geometry geometria) {
+        boolean valida = geometria.isValid();
+        return resultado(REGRA_GEOMETRIA_VALIDA, valida,
+                "A geometria possui autointerseções ou anéis inválidos.");
+    }
+
+    private static ResultadoRegraDTO validarImovelIntersectaMunicipio(
+            Geometry geometria, GeometriaReferenciaService.MunicipioPreparado municipio) {
+        if (municipio == null) {
+            return resultado(REGRA_IMOVEL_INTERSECTA_MUNICIPIO, false,
+                    "É necessário selecionar um município antes de desenhar a área do imóvel.");
+        }
+
+        boolean intersecta = municipio.geometria().intersects(geometria);
+        return resultado(REGRA_IMOVEL_INTERSECTA_MUNICIPIO, intersecta,
+                "A área do imóvel deve intersectar o município selecionado.");
+    }
+
+    /**
+     * Mais de 50% da área do imóvel deve estar no estado de São Paulo
+     */
+    private ResultadoRegraDTO validarImovelEmSaoPaulo(Geometry geometria) {
+        PreparedGeometry estado = geometriaReferenciaService.getEstadoPreparado();
+        if (estado == null) {
+            return resultado(REGRA_IMOVEL_EM_SAO_PAULO, false,
+                    "Não foi possível validar a localização em São Paulo.");
+        }
+
+        // Caso comum: imóvel inteiramente no estado, sem calcular interseção
+        if (estado.containsProperly(geometria)) {
+            return resultado(REGRA_IMOVEL_EM_SAO_PAULO, true, null);
+        }
+
+        if (!estado.intersects(geometria)) {
+            return resultado(REGRA_IMOVEL_EM_SAO_PAULO, false,
+                    "A área do imóvel deve estar, ao menos parcialmente, no estado de São Paulo.");
+        }
+
+        double areaTotal = AreaGeodesica.hectares(geometria);
+        double areaNoEstado = AreaGeodesica.hectares(geometriaReferenciaService.getEstado().intersection(geometria));
+        return resultado(REGRA_IMOVEL_EM_SAO_PAULO, areaNoEstado > areaTotal / 2,
+                "A maior parte da área do imóvel deve estar dentro do estado de São Paulo.");
+    }
+
+    private static ResultadoRegraDTO validarGeometriaDentroImovel(Geometry geometria, PreparedGeometry imovel) {
+        if (imovel == null) {
+            return resultado(REGRA_GEOMETRIA_DENTRO_IMOVEL, false,
+                    "É necessário definir a área do imóvel primeiro.");
+        }
+
+        boolean dentro = imovel.covers(geometria);
+        return resultado(REGRA_GEOMETRIA_DENTRO_IMOVEL, dentro,
+                "A geometria deve estar completamente dentro da área do imóvel.");
+    }
+
+    private static ResultadoRegraDTO validarGeometriaNoMunicipio(
+            Geometry geometria, GeometriaReferenciaService.MunicipioPreparado municipio) {
+        if (municipio == null) {
+            return resultado(REGRA_GEOMETRIA_NO_MUNICIPIO, false, "Município não encontrado.");
+        }
+
+        boolean intersecta = municipio.geometria().intersects(geometria);
+        return resultado(REGRA_GEOMETRIA_NO_MUNICIPIO, intersecta,
+                "A geometria deve intersectar o município selecionado.");
+    }
+
+    private static ResultadoRegraDTO resultado(String regra, boolean success, String mensagemFalha) {
+        return new ResultadoRegraDTO(regra, success, success ? null : mensagemFalha);
+    }
+}
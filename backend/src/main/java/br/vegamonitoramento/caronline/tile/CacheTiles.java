@@ -0,0 +1,233 @@
+package br.vegamonitoramento.caronline.tile;
+
+import lombok.extern.slf4j.Slf4j;
+import org.locationtech.jts.geom.Envelope;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Cache de tiles em dois níveis: memória (LRU limitado por bytes) e, opcionalmente, disco.
+ * Tiles vazios também são guardados, para que áreas sem feições não voltem ao banco.
+ */
+@Slf4j
+public class CacheTiles {
+
+    private final long limiteBytesMemoria;
+    private final Path diretorioDisco;
+
+    // LinkedHashMap em ordem de acesso: o primeiro elemento é o menos usado recentemente
+    private final LinkedHashMap<TileCoordenada, byte[]> memoria = new LinkedHashMap<>(1024, 0.75f, true);
+    private long bytesMemoria;
+    // Incrementada a cada invalidação; tiles gerados antes dela são descartados em put()
+    private long geracao;
+
+    /**
+     * @param diretorioDisco diretório do nível em disco, ou null para usar apenas memória
+     */
+    public CacheTiles(long limiteBytesMemoria, Path diretorioDisco) {
+        this.limiteBytesMemoria = limiteBytesMemoria;
+        this.diretorioDisco = diretorioDisco;
+    }
+
+    public Optional<byte[]> get(TileCoordenada tile) {
+        synchronized (this) {
+            byte[] conteudo = memoria.get(tile);
+            if (conteudo != null) {
+                return Optional.of(conteudo);
+            }
+        }
+
+        if (diretorioDisco == null) {
+            return Optional.empty();
+        }
+
+        long geracaoLida = getGeracao();
+        Path arquivo = arquivo(tile);
+        try {
+            byte[] conteudo = Files.readAllBytes(arquivo);
+            synchronized (this) {
+                if (geracaoLida == geracao) {
+                    guardarEmMemoria(tile, conteudo);
+                }
+            }
+            return Optional.of(conteudo);
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException e) {
+            log.warn("Falha ao ler tile {} do disco: {}", arquivo, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    public synchronized long getGeracao() {
+        return geracao;
+    }
+
+    /**
+     * Guarda o tile gerado a partir de dados lidos na geração informada. Se houve
+     * invalidação depois da leitura, o tile pode estar desatualizado e não é guardado.
+     */
+    public void put(TileCoordenada tile, byte[] conteudo, long geracaoLida) {
+        synchronized (this) {
+            if (geracaoLida != geracao) {
+                return;
+            }
+            guardarEmMemoria(tile, conteudo);
+        }
+
+        if (diretorioDisco != null) {
+            Path arquivo = arquivo(tile);
+            try {
+                Files.createDirectories(arquivo.getParent());
+                // Grava num temporário e move, para nunca servir um tile pela metade
+                Path temporario = Files.createTempFile(arquivo.getParent(), "tile", ".tmp");
+                Files.write(temporario, conteudo);
+                Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                log.warn("Falha ao gravar tile {} em disco: {}", arquivo, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Remove, em todas as camadas e zooms, os tiles que intersectam a extensão (WGS84),
+     * incluindo a margem com que são desenhados
+     */
+    public void invalidar(Envelope extensao) {
+        if (extensao == null || extensao.isNull()) {
+            return;
+        }
+
+        // O disco é limpo antes da memória: uma leitura concorrente do disco que ainda
+        // encontre o tile antigo terá começado antes do incremento da geração e será descartada
+        if (diretorioDisco != null && Files.isDirectory(diretorioDisco)) {
+            try (Stream<Path> camadas = Files.list(diretorioDisco)) {
+                camadas.filter(Files::isDirectory).forEach(camada -> invalidarDisco(camada, extensao));
+            } catch (IOException | UncheckedIOException e) {
+                log.warn("Falha ao invalidar tiles em disco: {}", e.getMessage());
+            }
+        }
+
+        synchronized (this) {
+            geracao++;
+            Iterator<Map.Entry<TileCoordenada, byte[]>> iterador = memoria.entrySet().iterator();
+            while (iterador.hasNext()) {
+                Map.Entry<TileCoordenada, byte[]> entrada = iterador.next();
+                if (entrada.getKey().envelopeComMargem().intersects(extensao)) {
+                    bytesMemoria -= entrada.getValue().length;
+                    iterador.remove();
+                }
+            }
+        }
+    }
+
+    public synchronized void limpar() {
+        geracao++;
+        memoria.clear();
+        bytesMemoria = 0;
+        if (diretorioDisco != null) {
+            try {
+                FileSystemUtils.deleteRecursively(diretorioDisco);
+            } catch (IOException e) {
+                log.warn("Falha ao limpar tiles em disco: {}", e.getMessage());
+            }
+        }
+    }
+
+    public synchronized int getQuantidadeMemoria() {
+        return memoria.size();
+    }
+
+    public synchronized long getBytesMemoria() {
+        return bytesMemoria;
+    }
+
+    private synchronized void guardarEmMemoria(TileCoordenada tile, byte[] conteudo) {
+        if (conteudo.length > limiteBytesMemoria) {
+            return;
+        }
+
+        byte[] anterior = memoria.put(tile, conteudo);
+        bytesMemoria += conteudo.length - (anterior != null ? anterior.length : 0);
+
+        Iterator<byte[]> iterador = memoria.values().iterator();
+        while (bytesMemoria > limiteBytesMemoria && iterador.hasNext()) {
+            bytesMemoria -= iterador.next().length;
+            iterador.remove();
+        }
+    }
+
+    /**
+     * Percorre apenas as colunas e linhas de cada zoom cuja extensão, com a margem, toca a extensão
+     */
+    private void invalidarDisco(Path camada, Envelope extensao) {
+        for (int z = 0; z <= TileCoordenada.ZOOM_MAXIMO; z++) {
+            Path diretorioZoom = camada.resolve(Integer.toString(z));
+            if (!Files.isDirectory(diretorioZoom)) {
+                continue;
+            }
+
+            // O tile x cobre [x - margem, x + 1 + margem] em colunas
+            double margem = TileCoordenada.MARGEM_FRACAO;
+            int xMin = TileCoordenada.limitar((int) Math.ceil(
+                    TileCoordenada.colunaFracionaria(extensao.getMinX(), z) - 1 - margem), z);
+            int xMax = TileCoordenada.limitar((int) Math.floor(
+                    TileCoordenada.colunaFracionaria(extensao.getMaxX(), z) + margem), z);
+            int yMin = TileCoordenada.limitar((int) Math.ceil(
+                    TileCoordenada.linhaFracionaria(extensao.getMaxY(), z) - 1 - margem), z);
+            int yMax = TileCoordenada.limitar((int) Math.floor(
+                    TileCoordenada.linhaFracionaria(extensao.getMinY(), z) + margem), z);
+
+            try (Stream<Path> colunas = Files.list(diretorioZoom)) {
+                colunas.forEach(coluna -> {
+                    int x = numero(coluna.getFileName().toString());
+                    if (x < xMin || x > xMax) {
+                        return;
+                    }
+                    try (Stream<Path> linhas = Files.list(coluna)) {
+                        linhas.forEach(arquivo -> {
+                            int y = numero(arquivo.getFileName().toString().replace(".mvt", ""));
+                            if (y >= yMin && y <= yMax) {
+                                try {
+                                    Files.deleteIfExists(arquivo);
+                                } catch (IOException e) {
+                                    throw new UncheckedIOException(e);
+                                }
+                            }
+                        });
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private Path arquivo(TileCoordenada tile) {
+        return diretorioDisco.resolve(tile.camada())
+                .resolve(Integer.toString(tile.z()))
+                .resolve(Integer.toString(tile.x()))
+                .resolve(tile.y() + ".mvt");
+    }
+
+    private static int numero(String nome) {
+        try {
+            return Integer.parseInt(nome);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package br.vegamonitoramento.caronline.tile;
+
+import org.locationtech.jts.geom.Envelope;
+
+/**
+ * Endereço de um tile no esquema XYZ (Web Mercator) para uma camada
+ */
+public record TileCoordenada(String camada, int z, int x, int y) {
+
+    public static final int ZOOM_MAXIMO = 22;
+
+    // Extensão interna do tile e margem (em unidades do tile) com que os tiles são desenhados:
+    // feições na margem aparecem no tile, para não haver emendas entre tiles vizinhos
+    public static final int EXTENSAO = 4096;
+    public static final int MARGEM = 64;
+    public static final double MARGEM_FRACAO = (double) MARGEM / EXTENSAO;
+
+    public TileCoordenada {
+        if (z < 0 || z > ZOOM_MAXIMO) {
+            throw new IllegalArgumentException("Nível de zoom inválido: " + z);
+        }
+        int limite = 1 << z;
+        if (x < 0 || x >= limite || y < 0 || y >= limite) {
+            throw new IllegalArgumentException("Tile fora da grade do zoom " + z + ": " + x + "/" + y);
+        }
+    }
+
+    /**
+     * Extensão do tile em longitude/latitude (WGS84)
+     */
+    public Envelope envelope() {
+        return new Envelope(longitude(x, z), longitude(x + 1, z), latitude(y + 1, z), latitude(y, z));
+    }
+
+    /**
+     * Extensão do tile com a margem de desenho: tudo o que altera o conteúdo do tile
+     */
+    public Envelope envelopeComMargem() {
+        return new Envelope(longitude(x - MARGEM_FRACAO, z), longitude(x + 1 + MARGEM_FRACAO, z),
+                latitude(y + 1 + MARGEM_FRACAO, z), latitude(y - MARGEM_FRACAO, z));
+    }
+
+    public static double longitude(double x, int z) {
+        return x / (1 << z) * 360.0 - 180.0;
+    }
+
+    public static double latitude(double y, int z) {
+        double n = Math.PI * (1 - 2.0 * y / (1 << z));
+        return Math.toDegrees(Math.atan(Math.sinh(n)));
+    }
+
+    public static int coluna(double longitude, int z) {
+        return limitar((int) Math.floor(colunaFracionaria(longitude, z)), z);
+    }
+
+    public static int linha(double latitude, int z) {
+        return limitar((int) Math.floor(linhaFracionaria(latitude, z)), z);
+    }
+
+    /**
+     * Posição da longitude em colunas de tile, sem arredondar
+     */
+    public static double colunaFracionaria(double longitude, int z) {
+        return (longitude + 180.0) / 360.0 * (1 << z);
+    }
+
+    /**
+     * Posição da latitude em linhas de tile, sem arredondar
+     */
+    public static double linhaFracionaria(double latitude, int z) {
+        double rad = Math.toRadians(Math.max(-85.0511, Math.min(85.0511, latitude)));
+        return (1 - Math.log(Math.tan(rad) + 1 / Math.cos(rad)) / Math.PI) / 2 * (1 << z);
+    }
+
+    public static int limitar(int indice, int z) {
+        return Math.max(0, Math.min((1 << z) - 1, indice));
+    }
+}
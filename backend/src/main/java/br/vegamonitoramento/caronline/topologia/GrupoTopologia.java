@@ -0,0 +1,70 @@
+package br.vegamonitoramento.caronline.topologia;
+
+import br.vegamonitoramento.caronline.model.Temas;
+import br.vegamonitoramento.caronline.model.dto.TemaGrupoDTO;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Grupos de temas que participam das {@link RegraTopologia}. Cada grupo é identificado no
+ * catálogo pelo grupo (nomGrupo) de um tema de referência, e não pelo nome do grupo, que é
+ * dado do banco: todos os temas do mesmo grupo do tema de referência entram na regra.
+ */
+public enum GrupoTopologia {
+
+    IMOVEL(Temas.AREA_IMOVEL),
+    COBERTURA_DO_SOLO(Temas.VEGETACAO_NATIVA),
+    SERVIDAO_ADMINISTRATIVA(Temas.AREA_UTILIDADE_PUBLICA),
+    RESERVA_LEGAL(Temas.ARL_PROPOSTA);
+
+    private final String temaReferencia;
+
+    GrupoTopologia(String temaReferencia) {
+        this.temaReferencia = temaReferencia;
+    }
+
+    public String getTemaReferencia() {
+        return temaReferencia;
+    }
+
+    /**
+     * Grupo de topologia de cada tema do catálogo, pelo código em maiúsculas; temas de grupos
+     * sem regra ficam de fora
+     * @throws IllegalStateException se o tema de referência de algum grupo não estiver no
+     * catálogo ou não tiver grupo
+     */
+    public static Map<String, GrupoTopologia> porTema(Collection<TemaGrupoDTO> catalogo) {
+        Map<String, String> nomGrupoPorTema = new HashMap<>();
+        for (TemaGrupoDTO tema : catalogo) {
+            if (tema.getCodTema() != null && tema.getNomGrupo() != null) {
+                nomGrupoPorTema.put(tema.getCodTema().toUpperCase(Locale.ROOT), tema.getNomGrupo());
+            }
+        }
+
+        Map<String, GrupoTopologia> grupoPorNome = new HashMap<>();
+        for (GrupoTopologia grupo : values()) {
+            String nomGrupo = nomGrupoPorTema.get(grupo.temaReferencia);
+            if (nomGrupo == null) {
+                throw new IllegalStateException("Tema " + grupo.temaReferencia + ", de referência do grupo "
+                        + grupo + " nas regras de topologia, não está no catálogo de temas e grupos");
+            }
+            GrupoTopologia outro = grupoPorNome.putIfAbsent(nomGrupo, grupo);
+            if (outro != null) {
+                throw new IllegalStateException("Os grupos " + outro + " e " + grupo
+                        + " das regras de topologia estão no mesmo grupo do catálogo: " + nomGrupo);
+            }
+        }
+
+        Map<String, GrupoTopologia> grupos = new HashMap<>();
+        nomGrupoPorTema.forEach((codTema, nomGrupo) -> {
+            GrupoTopologia grupo = grupoPorNome.get(nomGrupo);
+            if (grupo != null) {
+                grupos.put(codTema, grupo);
+            }
+        });
+        return grupos;
+    }
+}
@@ -0,0 +1,141 @@
+package br.vegamonitoramento.caronline.topologia;
+
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
+import org.locationtech.jts.index.quadtree.Quadtree;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Versão incremental de {@link VerificadorTopologia} para um imóvel em edição: as feições ficam
+ * numa Quadtree, que aceita inclusões e remoções, e cada alteração testa apenas a feição
+ * alterada contra os candidatos do seu envelope. O custo de uma edição depende da vizinhança da
+ * feição, não do tamanho do imóvel.
+ * <p>
+ * Não é thread-safe; quem usa deve serializar as alterações.
+ */
+public final class IndiceTopologia {
+
+    private final VerificadorTopologia verificador;
+    private final Quadtree arvore = new Quadtree();
+    private final Map<Integer, Item> itens = new HashMap<>();
+    // Conflitos de cada feição, pelo índice da outra feição do par
+    private final Map<Integer, Map<Integer, VerificadorTopologia.Conflito>> conflitos = new HashMap<>();
+
+    /**
+     * @param grupoPorTema grupo de cada tema com regra, pelo código em maiúsculas ({@link GrupoTopologia#porTema})
+     * @param areaMinimaM2 sobreposições menores que isto são tratadas como imprecisão do desenho
+     */
+    public IndiceTopologia(Map<String, GrupoTopologia> grupoPorTema, double areaMinimaM2) {
+        this.verificador = new VerificadorTopologia(grupoPorTema, areaMinimaM2);
+    }
+
+    /**
+     * Inclui ou substitui a feição e recalcula os conflitos dela
+     * @return feições cujos conflitos podem ter mudado, incluindo a própria
+     */
+    public Set<Integer> atualizar(int indice, String codTema, Geometry geometria) {
+        Set<Integer> afetadas = remover(indice);
+        afetadas.add(indice);
+
+        GrupoTopologia grupo = verificador.grupoDe(codTema, geometria);
+        if (grupo == null) {
+            return afetadas;
+        }
+        Envelope envelope = geometria.getEnvelopeInternal();
+        PreparedGeometry preparada = null;
+        for (Object candidato : arvore.query(envelope)) {
+            Item outro = (Item) candidato;
+            RegraTopologia regra = RegraTopologia.entre(grupo, outro.grupo());
+            if (regra == null || !envelope.intersects(outro.envelope())) {
+                continue;
+            }
+            if (preparada == null) {
+                preparada = PreparedGeometryFactory.prepare(geometria);
+            }
+            VerificadorTopologia.Conflito conflito =
+                    verificador.conflito(regra, indice, preparada, outro.indice(), outro.geometria());
+            if (conflito != null) {
+                conflitos.computeIfAbsent(indice, i -> new HashMap<>()).put(outro.indice(), conflito);
+                conflitos.computeIfAbsent(outro.indice(), i -> new HashMap<>()).put(indice, conflito);
+                afetadas.add(outro.indice());
+            }
+        }
+
+        Item item = new Item(indice, grupo, geometria, envelope);
+        arvore.insert(envelope, item);
+        itens.put(indice, item);
+        return afetadas;
+    }
+
+    /**
+     * Retira a feição e os conflitos dela
+     * @return feições que tinham conflito com a removida
+     */
+    public Set<Integer> remover(int indice) {
+        Set<Integer> afetadas = new LinkedHashSet<>();
+        Item item = itens.remove(indice);
+        if (item != null) {
+            arvore.remove(item.envelope(), item);
+        }
+        Map<Integer, VerificadorTopologia.Conflito> anteriores = conflitos.remove(indice);
+        if (anteriores != null) {
+            for (Integer outro : anteriores.keySet()) {
+                Map<Integer, VerificadorTopologia.Conflito> doOutro = conflitos.get(outro);
+                doOutro.remove(indice);
+                if (doOutro.isEmpty()) {
+                    conflitos.remove(outro);
+                }
+                afetadas.add(outro);
+            }
+        }
+        return afetadas;
+    }
+
+    /**
+     * Conflitos atuais da feição
+     */
+    public Collection<VerificadorTopologia.Conflito> conflitosDe(int indice) {
+        Map<Integer, VerificadorTopologia.Conflito> daFeicao = conflitos.get(indice);
+        return daFeicao == null ? List.of() : daFeicao.values();
+    }
+
+    // Classe em vez de record: a remoção da Quadtree compara os itens, e a identidade basta
+    private static final class Item {
+
+        private final int indice;
+        private final GrupoTopologia grupo;
+        private final Geometry geometria;
+        private final Envelope envelope;
+
+        Item(int indice, GrupoTopologia grupo, Geometry geometria, Envelope envelope) {
+            this.indice = indice;
+            this.grupo = grupo;
+            this.geometria = geometria;
+            this.envelope = envelope;
+        }
+
+        int indice() {
+            return indice;
+        }
+
+        GrupoTopologia grupo() {
+            return grupo;
+        }
+
+        Geometry geometria() {
+            return geometria;
+        }
+
+        Envelope envelope() {
+            return envelope;
+        }
+    }
+}
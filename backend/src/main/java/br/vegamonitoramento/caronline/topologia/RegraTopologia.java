@@ -0,0 +1,56 @@
+package br.vegamonitoramento.caronline.topologia;
+
+/**
+ * Pares de grupos de temas ({@link GrupoTopologia}) cujas feições não podem se sobrepor.
+ * Encostar é permitido; conflito é interseção com área.
+ */
+public enum RegraTopologia {
+
+    // A cobertura do solo é uma partição do imóvel: cada ponto tem uma única classe
+    COBERTURA_SOBREPOSTA(GrupoTopologia.COBERTURA_DO_SOLO, GrupoTopologia.COBERTURA_DO_SOLO,
+            "Feições de cobertura do solo não podem se sobrepor."),
+
+    COBERTURA_SOBRE_SERVIDAO(GrupoTopologia.COBERTURA_DO_SOLO, GrupoTopologia.SERVIDAO_ADMINISTRATIVA,
+            "A cobertura do solo não pode sobrepor servidões administrativas."),
+
+    SERVIDAO_SOBREPOSTA(GrupoTopologia.SERVIDAO_ADMINISTRATIVA, GrupoTopologia.SERVIDAO_ADMINISTRATIVA,
+            "Servidões administrativas não podem se sobrepor."),
+
+    RESERVA_LEGAL_SOBREPOSTA(GrupoTopologia.RESERVA_LEGAL, GrupoTopologia.RESERVA_LEGAL,
+            "Áreas de reserva legal não podem se sobrepor."),
+
+    IMOVEL_SOBREPOSTO(GrupoTopologia.IMOVEL, GrupoTopologia.IMOVEL,
+            "Os polígonos da área do imóvel não podem se sobrepor.");
+
+    // Regra de cada par de grupos, pelos ordinais, nas duas ordens
+    private static final RegraTopologia[][] POR_PAR =
+            new RegraTopologia[GrupoTopologia.values().length][GrupoTopologia.values().length];
+
+    static {
+        for (RegraTopologia regra : values()) {
+            POR_PAR[regra.grupoA.ordinal()][regra.grupoB.ordinal()] = regra;
+            POR_PAR[regra.grupoB.ordinal()][regra.grupoA.ordinal()] = regra;
+        }
+    }
+
+    private final GrupoTopologia grupoA;
+    private final GrupoTopologia grupoB;
+    private final String mensagem;
+
+    RegraTopologia(GrupoTopologia grupoA, GrupoTopologia grupoB, String mensagem) {
+        this.grupoA = grupoA;
+        this.grupoB = grupoB;
+        this.mensagem = mensagem;
+    }
+
+    public String getMensagem() {
+        return mensagem;
+    }
+
+    /**
+     * Regra que proíbe a sobreposição entre os grupos, em qualquer ordem, ou null se permitida
+     */
+    public static RegraTopologia entre(GrupoTopologia grupo, GrupoTopologia outroGrupo) {
+        return POR_PAR[grupo.ordinal()][outroGrupo.ordinal()];
+    }
+}
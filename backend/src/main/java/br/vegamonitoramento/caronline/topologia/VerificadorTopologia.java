@@ -0,0 +1,158 @@
+package br.vegamonitoramento.caronline.topologia;
+
+import br.vegamonitoramento.caronline.geometry.AreaGeodesica;
+import br.vegamonitoramento.caronline.geometry.Geometrias;
+import br.vegamonitoramento.caronline.model.Temas;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Polygonal;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
+import org.locationtech.jts.geom.util.PolygonExtracter;
+import org.locationtech.jts.index.strtree.STRtree;
+import org.locationtech.jts.operation.overlayng.OverlayNG;
+import org.locationtech.jts.operation.overlayng.OverlayNGRobust;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * Encontra os pares de feições de um imóvel que violam alguma {@link RegraTopologia}.
+ * <p>
+ * Em vez de testar cada feição contra todas as outras, as feições poligonais dos grupos com
+ * regra vão para uma STRtree; cada feição consulta a árvore uma vez pelo seu envelope e só os
+ * candidatos de índice maior, de grupos com regra entre si, são testados (cada par uma vez). A
+ * feição consultante é preparada apenas se tiver candidatos, e o overlay só é calculado quando a
+ * geometria preparada confirma a interseção. Com muitas feições as consultas rodam em paralelo.
+ */
+public final class VerificadorTopologia {
+
+    // A partir deste número de feições as consultas são feitas em paralelo
+    private static final int LIMITE_PARALELISMO = 64;
+
+    private final Map<String, GrupoTopologia> grupoPorTema;
+    private final double areaMinimaM2;
+
+    /**
+     * @param grupoPorTema grupo de cada tema com regra, pelo código em maiúsculas ({@link GrupoTopologia#porTema})
+     * @param areaMinimaM2 sobreposições menores que isto são tratadas como imprecisão do desenho
+     */
+    public VerificadorTopologia(Map<String, GrupoTopologia> grupoPorTema, double areaMinimaM2) {
+        this.grupoPorTema = grupoPorTema;
+        this.areaMinimaM2 = areaMinimaM2;
+    }
+
+    /**
+     * @param temas código do tema de cada feição
+     * @param geometrias geometria de cada feição (WGS84), na mesma ordem
+     */
+    public Resultado verificar(List<String> temas, List<Geometry> geometrias) {
+        int quantidade = geometrias.size();
+        GrupoTopologia[] grupos = new GrupoTopologia[quantidade];
+        STRtree arvore = new STRtree();
+        for (int i = 0; i < quantidade; i++) {
+            GrupoTopologia grupo = grupoDe(temas.get(i), geometrias.get(i));
+            if (grupo != null) {
+                grupos[i] = grupo;
+                arvore.insert(geometrias.get(i).getEnvelopeInternal(), i);
+            }
+        }
+        // Construída antes das consultas paralelas; depois disso a árvore só é lida
+        arvore.build();
+
+        LongAdder pares = new LongAdder();
+        IntStream indices = IntStream.range(0, quantidade).filter(i -> grupos[i] != null);
+        if (quantidade >= LIMITE_PARALELISMO) {
+            indices = indices.parallel();
+        }
+        List<Conflito> conflitos = indices
+                .mapToObj(i -> conflitosDe(i, geometrias, grupos, arvore, pares))
+                .flatMap(List::stream)
+                .sorted(Comparator.comparingInt(Conflito::indiceA).thenComparingInt(Conflito::indiceB))
+                .toList();
+        return new Resultado(conflitos, pares.sum());
+    }
+
+    /**
+     * Grupo com regra de sobreposição da feição, ou null se ela não participa da verificação
+     */
+    GrupoTopologia grupoDe(String codTema, Geometry geometria) {
+        if (codTema == null || !(geometria instanceof Polygonal) || geometria.isEmpty()) {
+            return null;
+        }
+        String tema = codTema.toUpperCase(Locale.ROOT);
+        if (Temas.DERIVADOS.contains(tema)) {
+            return null;
+        }
+        return grupoPorTema.get(tema);
+    }
+
+    private List<Conflito> conflitosDe(int indice, List<Geometry> geometrias, GrupoTopologia[] grupos, STRtree arvore,
+                                       LongAdder pares) {
+        Geometry geometria = geometrias.get(indice);
+        List<?> candidatos = arvore.query(geometria.getEnvelopeInternal());
+
+        List<Conflito> conflitos = new ArrayList<>(0);
+        PreparedGeometry preparada = null;
+        for (Object candidato : candidatos) {
+            int outro = (Integer) candidato;
+            if (outro <= indice) {
+                continue;
+            }
+            RegraTopologia regra = RegraTopologia.entre(grupos[indice], grupos[outro]);
+            if (regra == null) {
+                continue;
+            }
+            pares.increment();
+
+            if (preparada == null) {
+                preparada = PreparedGeometryFactory.prepare(geometria);
+            }
+            Conflito conflito = conflito(regra, indice, preparada, outro, geometrias.get(outro));
+            if (conflito != null) {
+                conflitos.add(conflito);
+            }
+        }
+        return conflitos;
+    }
+
+    /**
+     * Conflito entre as duas feições, ou null se elas apenas encostam ou a sobreposição é
+     * menor que a área mínima
+     */
+    Conflito conflito(RegraTopologia regra, int indice, PreparedGeometry preparada, int outro, Geometry outraGeometria) {
+        if (!preparada.intersects(outraGeometria)) {
+            return null;
+        }
+
+        // Só a parte com área conta; bordas compartilhadas geram linhas e pontos
+        Geometry intersecao = OverlayNGRobust.overlay(preparada.getGeometry(), outraGeometria, OverlayNG.INTERSECTION);
+        Geometry sobreposicao = Geometrias.FACTORY.buildGeometry(PolygonExtracter.getPolygons(intersecao));
+        double areaM2 = AreaGeodesica.metrosQuadrados(sobreposicao);
+        if (areaM2 < areaMinimaM2 || areaM2 <= 0) {
+            return null;
+        }
+        return new Conflito(regra, Math.min(indice, outro), Math.max(indice, outro), sobreposicao, areaM2 / 10_000.0);
+    }
+
+    /**
+     * Sobreposição proibida entre duas feições
+     *
+     * @param indiceA posição da primeira feição (sempre menor que indiceB)
+     * @param sobreposicao parte poligonal da interseção
+     * @param areaHectares área geodésica da sobreposição
+     */
+    public record Conflito(RegraTopologia regra, int indiceA, int indiceB, Geometry sobreposicao,
+                           double areaHectares) {
+    }
+
+    /**
+     * @param paresAvaliados pares com regra cujos envelopes se cruzam (testados com a geometria)
+     */
+    public record Resultado(List<Conflito> conflitos, long paresAvaliados) {
+    }
+}
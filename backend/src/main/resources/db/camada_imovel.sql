@@ -0,0 +1,162 @@
+-- ==============================================================================
+-- Camadas desenhadas no CAR Online
+-- ------------------------------------------------------------------------------
+-- Tabela gravada pelo endpoint POST /api/camadas/salvar. As geometrias chegam
+-- em GeoJSON (WGS84) e são armazenadas em SIRGAS 2000 (EPSG:4674).
+-- ==============================================================================
+
+-- Particionada por município (LIST em cod_municipio): toda consulta da aplicação traz o
+-- município, e o planejador lê só a partição dele e o índice GiST dela. Cada partição é
+-- criada na primeira gravação do município por particao_camada_imovel(). Substituir as camadas
+-- de um município troca a partição inteira (criar_carga_camada_imovel() e
+-- trocar_particao_camada_imovel()); excluí-las esvazia a partição com TRUNCATE, fora de
+-- qualquer outra transação. VACUUM e REINDEX podem ser feitos partição a partição.
+CREATE TABLE IF NOT EXISTS usr_geocar_aplicacao.camada_imovel (
+  idt_camada_imovel   BIGSERIAL,
+  cod_municipio       BIGINT NOT NULL,
+  idt_tema            BIGINT REFERENCES usr_geocar_aplicacao.tema (idt_tema),
+  cod_tema            VARCHAR(100) NOT NULL,
+  nom_tema            VARCHAR(255),
+  num_area            NUMERIC(18, 4),
+  the_geom            GEOMETRY(GEOMETRY, 4674) NOT NULL,
+  dat_criacao         TIMESTAMPTZ NOT NULL DEFAULT now(),
+  dat_atualizacao     TIMESTAMPTZ NOT NULL DEFAULT now(),
+  cod_feicao          VARCHAR(64) NOT NULL DEFAULT gen_random_uuid()::text,
+  cod_hash            CHAR(64),
+  num_revisao         BIGINT NOT NULL DEFAULT 0,
+  -- Chaves únicas de tabela particionada precisam incluir a coluna de partição
+  PRIMARY KEY (cod_municipio, idt_camada_imovel)
+) PARTITION BY LIST (cod_municipio);
+
+-- Criado em cada partição; dentro dela todas as linhas são do mesmo município
+CREATE INDEX IF NOT EXISTS idx_camada_imovel_the_geom
+  ON usr_geocar_aplicacao.camada_imovel USING GIST (the_geom);
+
+-- Partição do município, criada se ainda não existir. A tabela nova, vazia, é anexada com
+-- ATTACH PARTITION, que bloqueia a tabela principal só em SHARE UPDATE EXCLUSIVE: consultas
+-- e gravações dos outros municípios seguem durante a transação que a criou. Não há partição
+-- DEFAULT, que obrigaria a percorrê-la a cada partição nova.
+-- O nome (camada_imovel_<código IBGE>) é repetido em CamadaRepository. Só códigos IBGE de
+-- município (7 dígitos) são aceitos, e o identificador é sempre montado com %I.
+CREATE OR REPLACE FUNCTION usr_geocar_aplicacao.particao_camada_imovel(p_cod_municipio BIGINT)
+RETURNS regclass
+LANGUAGE plpgsql
+AS $$
+DECLARE
+  v_nome TEXT;
+BEGIN
+  IF p_cod_municipio IS NULL OR p_cod_municipio NOT BETWEEN 1000000 AND 9999999 THEN
+    RAISE EXCEPTION 'Código de município inválido: %', p_cod_municipio
+      USING ERRCODE = 'invalid_parameter_value';
+  END IF;
+  v_nome := format('usr_geocar_aplicacao.%I', 'camada_imovel_' || p_cod_municipio);
+
+  IF to_regclass(v_nome) IS NULL THEN
+    -- Primeiras gravações simultâneas do mesmo município: a segunda espera a primeira. Chave
+    -- de 64 bits: o hash do nome da tabela nos 32 bits altos e o código nos baixos
+    PERFORM pg_advisory_xact_lock((hashtext('camada_imovel')::BIGINT << 32) | p_cod_municipio);
+    BEGIN
+      EXECUTE format('CREATE TABLE %s (LIKE usr_geocar_aplicacao.camada_imovel INCLUDING DEFAULTS)', v_nome);
+      EXECUTE format('ALTER TABLE usr_geocar_aplicacao.camada_imovel ATTACH PARTITION %s FOR VALUES IN (%L)',
+                     v_nome, p_cod_municipio);
+    EXCEPTION WHEN duplicate_table OR unique_violation THEN
+      -- Criada por outra transação que terminou enquanto esta esperava
+      NULL;
+    END;
+  END IF;
+  RETURN v_nome::regclass;
+END;
+$$;
+
+-- Tabela de carga para substituir as camadas do município: mesma estrutura e mesmos índices
+-- da partição (LIKE ... INCLUDING INDEXES), mais um CHECK com o município, que dispensa o
+-- ATTACH PARTITION de percorrer as linhas. As feições novas são inseridas nela sem bloquear a
+-- tabela principal; a partição é criada antes, se ainda não existir, para servir de modelo.
+CREATE OR REPLACE FUNCTION usr_geocar_aplicacao.criar_carga_camada_imovel(p_cod_municipio BIGINT)
+RETURNS regclass
+LANGUAGE plpgsql
+AS $$
+DECLARE
+  v_particao regclass := usr_geocar_aplicacao.particao_camada_imovel(p_cod_municipio);
+  v_carga TEXT := format('usr_geocar_aplicacao.%I', 'camada_imovel_' || p_cod_municipio || '_carga');
+BEGIN
+  EXECUTE format('CREATE TABLE %s (LIKE %s INCLUDING DEFAULTS INCLUDING INDEXES, '
+                 'CONSTRAINT camada_imovel_carga_municipio CHECK (cod_municipio = %L))',
+                 v_carga, v_particao, p_cod_municipio);
+  RETURN v_carga::regclass;
+END;
+$$;
+
+-- Troca a partição do município pela tabela de carga: DETACH da antiga, ATTACH da carga e
+-- DROP da antiga. O DETACH bloqueia a tabela principal (ACCESS EXCLUSIVE) até o fim da
+-- transação, que deve terminar logo em seguida; a espera pelo bloqueio é limitada a
+-- p_espera_ms, porque enquanto espera as leituras ficam na fila atrás dele. Sem o bloqueio a
+-- tempo, as linhas são copiadas da carga com DELETE e INSERT, e a função devolve false.
+-- A transação que chamou criar_carga_camada_imovel() já bloqueia as gravações do município
+-- (linha de camada_imovel_revisao), então não há outra carga do mesmo município ao mesmo tempo.
+CREATE OR REPLACE FUNCTION usr_geocar_aplicacao.trocar_particao_camada_imovel(p_cod_municipio BIGINT,
+                                                                           p_espera_ms INTEGER)
+RETURNS BOOLEAN
+LANGUAGE plpgsql
+AS $$
+DECLARE
+  v_nome TEXT := 'camada_imovel_' || p_cod_municipio;
+  v_particao TEXT := format('usr_geocar_aplicacao.%I', 'camada_imovel_' || p_cod_municipio);
+  v_carga TEXT := format('usr_geocar_aplicacao.%I', 'camada_imovel_' || p_cod_municipio || '_carga');
+  v_espera_anterior TEXT := current_setting('lock_timeout');
+  v_trocada BOOLEAN;
+BEGIN
+  PERFORM set_config('lock_timeout', p_espera_ms || 'ms', true);
+  BEGIN
+    EXECUTE format('ALTER TABLE usr_geocar_aplicacao.camada_imovel DETACH PARTITION %s', v_particao);
+    EXECUTE format('ALTER TABLE usr_geocar_aplicacao.camada_imovel ATTACH PARTITION %s FOR VALUES IN (%L)',
+                   v_carga, p_cod_municipio);
+    v_trocada := true;
+  EXCEPTION WHEN lock_not_available THEN
+    v_trocada := false;
+  END;
+  PERFORM set_config('lock_timeout', v_espera_anterior, true);
+
+  IF v_trocada THEN
+    EXECUTE format('DROP TABLE %s', v_particao);
+    EXECUTE format('ALTER TABLE %s RENAME TO %I', v_carga, v_nome);
+    EXECUTE format('ALTER TABLE %s DROP CONSTRAINT camada_imovel_carga_municipio', v_particao);
+  ELSE
+    EXECUTE format('DELETE FROM %s', v_particao);
+    EXECUTE format('INSERT INTO %s SELECT * FROM %s', v_particao, v_carga);
+    EXECUTE format('DROP TABLE %s', v_carga);
+  END IF;
+  RETURN v_trocada;
+END;
+$$;
+
+-- ------------------------------------------------------------------------------
+-- Sincronização incremental (PATCH /api/camadas/{municipio})
+-- ------------------------------------------------------------------------------
+-- Cada feição tem um identificador estável gerado pelo cliente (cod_feicao), o hash
+-- SHA-256 do conteúdo (tema, área e geometria) e a revisão em que foi gravada pela última
+-- vez. A revisão do município é o controle otimista: o cliente informa a revisão em que
+-- se baseou e a gravação só é aceita se ela ainda for a atual.
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_camada_imovel_municipio_feicao
+  ON usr_geocar_aplicacao.camada_imovel (cod_municipio, cod_feicao);
+
+CREATE INDEX IF NOT EXISTS idx_camada_imovel_revisao
+  ON usr_geocar_aplicacao.camada_imovel (num_revisao);
+
+-- Revisão atual do município e a da última substituição completa (POST /salvar);
+-- alterações anteriores a ela exigem recarregar tudo
+CREATE TABLE IF NOT EXISTS usr_geocar_aplicacao.camada_imovel_revisao (
+  cod_municipio         BIGINT PRIMARY KEY,
+  num_revisao           BIGINT NOT NULL,
+  num_revisao_completa  BIGINT NOT NULL,
+  dat_atualizacao       TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+-- Feições excluídas, para que "alterações desde a revisão N" informe também as remoções
+CREATE TABLE IF NOT EXISTS usr_geocar_aplicacao.camada_imovel_exclusao (
+  cod_municipio  BIGINT NOT NULL,
+  cod_feicao     VARCHAR(64) NOT NULL,
+  num_revisao    BIGINT NOT NULL,
+  PRIMARY KEY (cod_municipio, cod_feicao)
+);
@@ -0,0 +1,44 @@
+-- ==============================================================================
+-- Migração da camada_imovel para a tabela particionada por município
+-- ------------------------------------------------------------------------------
+-- Só para bancos criados antes do particionamento (camada_imovel comum, já com as
+-- colunas da sincronização incremental). Executar uma vez, com a aplicação parada,
+-- a partir deste diretório:
+--   psql -v ON_ERROR_STOP=1 -f camada_imovel_particionamento.sql
+-- As feições mantêm identificadores, revisões e datas.
+-- ==============================================================================
+
+BEGIN;
+
+ALTER TABLE usr_geocar_aplicacao.camada_imovel RENAME TO camada_imovel_legado;
+
+-- Os nomes de chave e índices são reaproveitados pela tabela nova
+ALTER TABLE usr_geocar_aplicacao.camada_imovel_legado DROP CONSTRAINT camada_imovel_pkey;
+DROP INDEX IF EXISTS usr_geocar_aplicacao.idx_camada_imovel_municipio;
+DROP INDEX IF EXISTS usr_geocar_aplicacao.idx_camada_imovel_the_geom;
+DROP INDEX IF EXISTS usr_geocar_aplicacao.uk_camada_imovel_municipio_feicao;
+DROP INDEX IF EXISTS usr_geocar_aplicacao.idx_camada_imovel_municipio_revisao;
+
+\ir camada_imovel.sql
+
+SELECT usr_geocar_aplicacao.particao_camada_imovel(m.cod_municipio)
+FROM (SELECT DISTINCT cod_municipio FROM usr_geocar_aplicacao.camada_imovel_legado) AS m;
+
+INSERT INTO usr_geocar_aplicacao.camada_imovel
+  (idt_camada_imovel, cod_municipio, idt_tema, cod_tema, nom_tema, num_area, the_geom,
+   dat_criacao, dat_atualizacao, cod_feicao, cod_hash, num_revisao)
+SELECT idt_camada_imovel, cod_municipio, idt_tema, cod_tema, nom_tema, num_area, the_geom,
+       dat_criacao, dat_atualizacao, cod_feicao, cod_hash, num_revisao
+FROM usr_geocar_aplicacao.camada_imovel_legado;
+
+-- A sequência nova continua de onde a antiga parou
+SELECT setval(pg_get_serial_sequence('usr_geocar_aplicacao.camada_imovel', 'idt_camada_imovel'),
+              (SELECT coalesce(max(idt_camada_imovel), 0) + 1 FROM usr_geocar_aplicacao.camada_imovel_legado),
+              false);
+
+-- Leva junto a sequência antiga, que pertence à coluna da tabela legada
+DROP TABLE usr_geocar_aplicacao.camada_imovel_legado;
+
+COMMIT;
+
+ANALYZE usr_geocar_aplicacao.camada_imovel;
@@ -0,0 +1,20 @@
+-- ==============================================================================
+-- Camadas de referência (hidrografia, unidades de conservação, terras indígenas...)
+-- ------------------------------------------------------------------------------
+-- Carregadas pela equipe de geoprocessamento a partir das bases oficiais e apenas
+-- consultadas pela aplicação (GET /api/referencias/{camada}). Geometrias em
+-- SIRGAS 2000 (EPSG:4674), como as camadas desenhadas.
+-- ==============================================================================
+
+CREATE TABLE IF NOT EXISTS usr_geocar_aplicacao.camada_referencia (
+  idt_camada_referencia  BIGSERIAL PRIMARY KEY,
+  cod_camada             VARCHAR(64) NOT NULL,
+  nom_feicao             VARCHAR(255),
+  the_geom               GEOMETRY(GEOMETRY, 4674) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_camada_referencia_camada
+  ON usr_geocar_aplicacao.camada_referencia (cod_camada);
+
+CREATE INDEX IF NOT EXISTS idx_camada_referencia_the_geom
+  ON usr_geocar_aplicacao.camada_referencia USING GIST (the_geom);
@@ -0,0 +1,43 @@
+-- ==============================================================================
+-- Tarefas assíncronas (/api/jobs)
+-- ------------------------------------------------------------------------------
+-- Estado de cada tarefa, para que a fila sobreviva a reinícios. Cada tarefa pertence
+-- à instância que a enfileirou (cod_instancia), que renova a concessão
+-- (dat_renovacao) enquanto a mantém na fila ou em execução. Ao subir, a instância
+-- retoma as próprias tarefas; as de instâncias cuja concessão venceu são assumidas
+-- por qualquer outra. Uma tarefa interrompida depois de caronline.jobs.maximo-tentativas
+-- execuções é marcada FALHOU em vez de voltar para a fila.
+-- O pedido de cancelamento é gravado (ind_cancelamento), porque pode chegar a uma instância
+-- que não é a dona da tarefa; a dona o lê ao iniciar a tarefa, a cada renovação da concessão
+-- e nos pontos de verificação da execução.
+-- O resultado fica num arquivo no diretório caronline.jobs.diretorio-resultados.
+-- ==============================================================================
+
+CREATE TABLE IF NOT EXISTS usr_geocar_aplicacao.job (
+  idt_job          UUID PRIMARY KEY,
+  des_tipo         VARCHAR(30) NOT NULL,
+  des_faixa        VARCHAR(20) NOT NULL,
+  des_situacao     VARCHAR(20) NOT NULL,
+  cod_municipio    BIGINT,
+  des_formato      VARCHAR(20),
+  num_progresso    NUMERIC(5, 4) NOT NULL DEFAULT 0,
+  des_mensagem     VARCHAR(1000),
+  des_tipo_midia   VARCHAR(100),
+  des_arquivo      VARCHAR(500),
+  num_tentativas   INTEGER NOT NULL DEFAULT 0,
+  ind_cancelamento BOOLEAN NOT NULL DEFAULT false,
+  cod_instancia    VARCHAR(100),
+  dat_renovacao    TIMESTAMPTZ,
+  dat_criacao      TIMESTAMPTZ NOT NULL DEFAULT now(),
+  dat_inicio       TIMESTAMPTZ,
+  dat_fim          TIMESTAMPTZ
+);
+
+CREATE INDEX IF NOT EXISTS idx_job_situacao
+  ON usr_geocar_aplicacao.job (des_situacao, dat_criacao);
+
+-- Bancos criados antes da concessão por instância
+ALTER TABLE usr_geocar_aplicacao.job ADD COLUMN IF NOT EXISTS cod_instancia VARCHAR(100);
+ALTER TABLE usr_geocar_aplicacao.job ADD COLUMN IF NOT EXISTS dat_renovacao TIMESTAMPTZ;
+-- Bancos criados antes do cancelamento gravado
+ALTER TABLE usr_geocar_aplicacao.job ADD COLUMN IF NOT EXISTS ind_cancelamento BOOLEAN NOT NULL DEFAULT false;
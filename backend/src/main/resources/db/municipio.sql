@@ -0,0 +1,26 @@
+-- ==============================================================================
+-- Limites municipais e das unidades da federação (malha municipal do IBGE)
+-- ------------------------------------------------------------------------------
+-- Carregados pela equipe de geoprocessamento a partir da malha oficial do IBGE e
+-- lidos pela aplicação na inicialização, como referência das validações e da
+-- localização de municípios. Geometrias em SIRGAS 2000 (EPSG:4674).
+-- ==============================================================================
+
+CREATE TABLE IF NOT EXISTS usr_geocar_aplicacao.municipio (
+  cod_municipio  BIGINT PRIMARY KEY,
+  nom_municipio  VARCHAR(255) NOT NULL,
+  cod_uf         SMALLINT NOT NULL,
+  the_geom       GEOMETRY(MULTIPOLYGON, 4674) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_municipio_uf
+  ON usr_geocar_aplicacao.municipio (cod_uf);
+
+-- Contorno oficial da UF, e não a união dos municípios carregados: uma carga
+-- incompleta da malha municipal não pode encolher o estado
+CREATE TABLE IF NOT EXISTS usr_geocar_aplicacao.unidade_federacao (
+  cod_uf    SMALLINT PRIMARY KEY,
+  sig_uf    CHAR(2) NOT NULL,
+  nom_uf    VARCHAR(100) NOT NULL,
+  the_geom  GEOMETRY(MULTIPOLYGON, 4674) NOT NULL
+);
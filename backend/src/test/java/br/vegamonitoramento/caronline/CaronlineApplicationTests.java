@@ -3,7 +3,12 @@ package br.vegamonitoramento.caronline;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+// Sem banco no teste: a malha municipal vem da amostra em arquivo
+@SpringBootTest(properties = {
+		"caronline.municipios.geojson=classpath:dados/geojs-35-mun-amostra.json",
+		"caronline.estado.geojson=classpath:dados/uf-35-amostra.json",
+		"caronline.municipios.quantidade-minima=1"
+})
 class CaronlineApplicationTests {
 
 	@Test
@@ -0,0 +1,67 @@
+package br.vegamonitoramento.caronline.config;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ConexaoLimitadaDataSourceTest {
+
+    @Test
+    void limitaConexoesSimultaneasEmCentenasDeVirtualThreads() throws Exception {
+        AtomicInteger abertas = new AtomicInteger();
+        AtomicInteger maximo = new AtomicInteger();
+        DataSource pool = mock(DataSource.class);
+        when(pool.getConnection()).thenAnswer(invocacao -> {
+            maximo.accumulateAndGet(abertas.incrementAndGet(), Math::max);
+            return mock(Connection.class);
+        });
+        ConexaoLimitadaDataSource dataSource = new ConexaoLimitadaDataSource(pool, 5, 10_000);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (int i = 0; i < 500; i++) {
+                tarefas.add(executor.submit(() -> {
+                    try (Connection conexao = dataSource.getConnection()) {
+                        Thread.sleep(1);
+                        abertas.decrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get();
+            }
+        }
+
+        assertThat(maximo.get()).isLessThanOrEqualTo(5);
+        assertThat(dataSource.getPermissoesDisponiveis()).isEqualTo(5);
+    }
+
+    @Test
+    void falhaQuandoAEsperaExcedeOLimite() throws Exception {
+        DataSource pool = mock(DataSource.class);
+        when(pool.getConnection()).thenAnswer(invocacao -> mock(Connection.class));
+        ConexaoLimitadaDataSource dataSource = new ConexaoLimitadaDataSource(pool, 1, 50);
+
+        Connection ocupada = dataSource.getConnection();
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+
+        // close() repetido devolve a permissão uma única vez
+        ocupada.close();
+        ocupada.close();
+        assertThat(dataSource.getPermissoesDisponiveis()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,77 @@
+package br.vegamonitoramento.caronline.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReplicaComFallbackDataSourceTest {
+
+    private final DataSource primario = mock(DataSource.class);
+    private final DataSource replica = mock(DataSource.class);
+
+    private LazyConnectionDataSourceProxy roteamento;
+    private DataSourceTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(primario.getConnection()).thenAnswer(invocacao -> mock(Connection.class));
+        when(replica.getConnection()).thenAnswer(invocacao -> mock(Connection.class));
+
+        // Mesma composição do RoteamentoBancoConfig
+        roteamento = new LazyConnectionDataSourceProxy(primario);
+        roteamento.setReadOnlyDataSource(new ReplicaComFallbackDataSource(replica, primario, 60_000));
+        roteamento.setDefaultAutoCommit(true);
+        roteamento.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        transactionManager = new DataSourceTransactionManager(roteamento);
+    }
+
+    private void executar(boolean somenteLeitura) {
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        transacao.setReadOnly(somenteLeitura);
+        transacao.executeWithoutResult(status -> {
+            try {
+                // O primeiro comando obriga o proxy a obter a conexão física
+                DataSourceUtils.getConnection(roteamento).createStatement();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    @Test
+    void transacoesSomenteLeituraVaoParaReplicaEAsDemaisParaPrimario() throws SQLException {
+        executar(true);
+        verify(replica, times(1)).getConnection();
+        verify(primario, never()).getConnection();
+
+        executar(false);
+        verify(replica, times(1)).getConnection();
+        verify(primario, times(1)).getConnection();
+    }
+
+    @Test
+    void replicaIndisponivelRecorreAoPrimarioSemInsistirDuranteAPausa() throws SQLException {
+        when(replica.getConnection()).thenThrow(new SQLTransientConnectionException("réplica fora do ar"));
+
+        executar(true);
+        executar(true);
+
+        // A segunda leitura nem tenta a réplica
+        verify(replica, times(1)).getConnection();
+        verify(primario, times(2)).getConnection();
+    }
+}
@@ -0,0 +1,129 @@
+package br.vegamonitoramento.caronline.export;
+
+import br.vegamonitoramento.caronline.geometry.Geometrias;
+import br.vegamonitoramento.caronline.geometry.Varint;
+import br.vegamonitoramento.caronline.model.FeicaoCamada;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.geom.Polygon;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CamadasTwkbTest {
+
+    private static Polygon quadradoComFuro(double x, double y) {
+        return Geometrias.FACTORY.createPolygon(
+                Geometrias.FACTORY.createLinearRing(new Coordinate[]{
+                        new Coordinate(x, y), new Coordinate(x + 0.01, y), new Coordinate(x + 0.01, y + 0.01),
+                        new Coordinate(x, y + 0.01), new Coordinate(x, y)}),
+                new LinearRing[]{Geometrias.FACTORY.createLinearRing(new Coordinate[]{
+                        new Coordinate(x + 0.002, y + 0.002), new Coordinate(x + 0.002, y + 0.004),
+                        new Coordinate(x + 0.004, y + 0.004), new Coordinate(x + 0.004, y + 0.002),
+                        new Coordinate(x + 0.002, y + 0.002)})});
+    }
+
+    private static byte[] escrever(List<FeicaoCamada> feicoes) throws Exception {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        try (ExportadorCamadas exportador = FormatoExportacao.TWKB.criarExportador(saida, null)) {
+            for (FeicaoCamada feicao : feicoes) {
+                exportador.escrever(feicao);
+            }
+            exportador.finalizar();
+        }
+        return saida.toByteArray();
+    }
+
+    @Test
+    void idaEVoltaPreservaAtributosEGeometriasNaPrecisaoDoFormato() throws Exception {
+        OffsetDateTime criacao = OffsetDateTime.of(2024, 5, 10, 13, 45, 12, 123_000_000, ZoneOffset.ofHours(-3));
+        Geometry multi = Geometrias.FACTORY.createMultiPolygon(new Polygon[]{
+                quadradoComFuro(-46.812345678, -23.612345678), quadradoComFuro(-46.7, -23.5)});
+        List<FeicaoCamada> feicoes = List.of(
+                new FeicaoCamada(10L, 1L, "AREA_IMOVEL", "Área do Imóvel", new BigDecimal("12.3456"),
+                        quadradoComFuro(-46.8, -23.6), criacao, criacao, "3f6c1e0a-area", null, null),
+                new FeicaoCamada(null, null, "VEGETACAO_NATIVA", null, null, multi, null, null, null, null, null),
+                new FeicaoCamada(null, null, "SEDE_IMOVEL", "Sede", null,
+                        Geometrias.FACTORY.createPoint(new Coordinate(-46.75, -23.55)), null, null, null, null, null));
+
+        byte[] dados = escrever(feicoes);
+        List<FeicaoCamada> lidas = CamadasTwkb.ler(new ByteArrayInputStream(dados),
+                Map.of("AREA_IMOVEL", 1L, "VEGETACAO_NATIVA", 2L));
+
+        assertThat(lidas).hasSize(3);
+        assertThat(lidas.get(0).getIdtCamadaImovel()).isEqualTo(10L);
+        assertThat(lidas.get(0).getNomTema()).isEqualTo("Área do Imóvel");
+        assertThat(lidas.get(0).getNumArea()).isEqualByComparingTo("12.3456");
+        assertThat(lidas.get(0).getDataCriacao().toInstant()).isEqualTo(criacao.toInstant());
+        assertThat(lidas.get(0).getCodFeicao()).isEqualTo("3f6c1e0a-area");
+        assertThat(lidas.get(1).getCodFeicao()).isNull();
+        assertThat(lidas.get(1).getIdtTema()).isEqualTo(2L);
+        assertThat(lidas.get(1).getNomTema()).isNull();
+        assertThat(lidas.get(1).getDataCriacao()).isNull();
+        assertThat(lidas.get(2).getIdtTema()).isNull();
+
+        for (int i = 0; i < feicoes.size(); i++) {
+            Geometry original = feicoes.get(i).getGeometria();
+            Geometry lida = lidas.get(i).getGeometria();
+            assertThat(lida.getGeometryType()).isEqualTo(original.getGeometryType());
+            assertThat(lida.getNumPoints()).isEqualTo(original.getNumPoints());
+            // 7 casas decimais: no máximo meio décimo de milionésimo de grau (~1 cm) por coordenada
+            Coordinate[] esperadas = original.getCoordinates();
+            Coordinate[] obtidas = lida.getCoordinates();
+            for (int j = 0; j < esperadas.length; j++) {
+                assertThat(Math.abs(obtidas[j].x - esperadas[j].x)).isLessThanOrEqualTo(0.5e-7 + 1e-12);
+                assertThat(Math.abs(obtidas[j].y - esperadas[j].y)).isLessThanOrEqualTo(0.5e-7 + 1e-12);
+            }
+        }
+    }
+
+    @Test
+    void corpoForaDoFormatoOuTruncadoEhRejeitado() throws Exception {
+        assertThatThrownBy(() -> CamadasTwkb.ler(new ByteArrayInputStream("{\"type\":1}".getBytes()), Map.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        byte[] dados = escrever(List.of(new FeicaoCamada(null, null, "AREA_IMOVEL", null, null,
+                quadradoComFuro(-46.8, -23.6), null, null, null, null, null)));
+        byte[] truncado = Arrays.copyOf(dados, dados.length - 5);
+        assertThatThrownBy(() -> CamadasTwkb.ler(new ByteArrayInputStream(truncado), Map.of()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Feição 0");
+    }
+
+    @Test
+    void quantidadesQueNaoCabemNoRegistroSaoRecusadasSemAlocar() throws Exception {
+        // Polígono de um anel que declara Integer.MAX_VALUE pontos, em poucos bytes
+        ByteArrayOutputStream registro = new ByteArrayOutputStream();
+        registro.write(new byte[]{0, 1, 'A', 0x03, 0x00, 0x01});
+        Varint.escrever(Integer.MAX_VALUE, registro);
+        registro.write(new byte[]{0, 0, 0, 0});
+
+        ByteArrayOutputStream corpo = new ByteArrayOutputStream();
+        corpo.write(new byte[]{'C', 'A', 'R', 1});
+        Varint.escrever(registro.size(), corpo);
+        registro.writeTo(corpo);
+        Varint.escrever(0, corpo);
+        assertThatThrownBy(() -> CamadasTwkb.ler(new ByteArrayInputStream(corpo.toByteArray()), Map.of()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("bytes restantes");
+
+        // Registro declarado maior que o limite é recusado antes de ser lido
+        ByteArrayOutputStream grande = new ByteArrayOutputStream();
+        grande.write(new byte[]{'C', 'A', 'R', 1});
+        Varint.escrever(CamadasTwkb.TAMANHO_MAXIMO_REGISTRO + 1, grande);
+        assertThatThrownBy(() -> CamadasTwkb.ler(new ByteArrayInputStream(grande.toByteArray()), Map.of()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("máximo");
+    }
+}
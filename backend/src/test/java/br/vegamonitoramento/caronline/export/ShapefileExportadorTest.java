@@ -0,0 +1,106 @@
+package br.vegamonitoramento.caronline.export;
+
+import br.vegamonitoramento.caronline.geometry.Geometrias;
+import br.vegamonitoramento.caronline.model.FeicaoCamada;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShapefileExportadorTest {
+
+    private static FeicaoCamada feicao(long id, String codTema, Geometry geometria) {
+        return new FeicaoCamada(id, null, codTema, "Tema " + codTema, new BigDecimal("12.3456"), geometria,
+                OffsetDateTime.now(), OffsetDateTime.now(), null, null, null);
+    }
+
+    private static Geometry quadrado(double x, double y) {
+        return Geometrias.FACTORY.createPolygon(new Coordinate[]{
+                new Coordinate(x, y), new Coordinate(x + 1, y), new Coordinate(x + 1, y + 1),
+                new Coordinate(x, y + 1), new Coordinate(x, y)});
+    }
+
+    @Test
+    void geraUmShapefilePorTipoComCabecalhosConsistentes() throws Exception {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        try (ExportadorCamadas exportador = FormatoExportacao.SHP.criarExportador(saida, "camadas_1")) {
+            exportador.escrever(feicao(1, "AREA_IMOVEL", quadrado(-47, -23)));
+            exportador.escrever(feicao(2, "VEGETACAO_NATIVA", quadrado(-46.5, -22.5)));
+            exportador.escrever(feicao(3, "SEDE_IMOVEL",
+                    Geometrias.FACTORY.createPoint(new Coordinate(-46.7, -22.7))));
+            exportador.finalizar();
+        }
+
+        Map<String, byte[]> arquivos = new HashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(saida.toByteArray()))) {
+            ZipEntry entrada;
+            while ((entrada = zip.getNextEntry()) != null) {
+                arquivos.put(entrada.getName(), zip.readAllBytes());
+            }
+        }
+
+        assertThat(arquivos).containsKeys(
+                "camadas_1_poligonos.shp", "camadas_1_poligonos.shx", "camadas_1_poligonos.dbf",
+                "camadas_1_poligonos.prj", "camadas_1_pontos.shp", "camadas_1_pontos.dbf");
+
+        byte[] shp = arquivos.get("camadas_1_poligonos.shp");
+        ByteBuffer cabecalho = ByteBuffer.wrap(shp);
+        assertThat(cabecalho.order(ByteOrder.BIG_ENDIAN).getInt(0)).isEqualTo(9994);
+        assertThat(cabecalho.getInt(24) * 2).isEqualTo(shp.length);
+        assertThat(cabecalho.order(ByteOrder.LITTLE_ENDIAN).getInt(32)).isEqualTo(5);
+        assertThat(cabecalho.getDouble(36)).isEqualTo(-47.0);
+
+        byte[] shx = arquivos.get("camadas_1_poligonos.shx");
+        assertThat(shx.length).isEqualTo(100 + 2 * 8);
+
+        ByteBuffer dbf = ByteBuffer.wrap(arquivos.get("camadas_1_poligonos.dbf")).order(ByteOrder.LITTLE_ENDIAN);
+        assertThat(dbf.getInt(4)).isEqualTo(2);
+        int tamanhoCabecalho = dbf.getShort(8);
+        int tamanhoRegistro = dbf.getShort(10);
+        assertThat(arquivos.get("camadas_1_poligonos.dbf").length)
+                .isEqualTo(tamanhoCabecalho + 2 * tamanhoRegistro + 1);
+    }
+
+    @Test
+    void colecaoHeterogeneaEntraNoArquivoDeCadaTipo() throws Exception {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        try (ExportadorCamadas exportador = FormatoExportacao.SHP.criarExportador(saida, "camadas_1")) {
+            exportador.escrever(feicao(1, "AREA_IMOVEL", Geometrias.FACTORY.createGeometryCollection(new Geometry[]{
+                    quadrado(-47, -23), quadrado(-45, -23),
+                    Geometrias.FACTORY.createPoint(new Coordinate(-46.7, -22.7))})));
+            exportador.escrever(feicao(2, "AREA_IMOVEL", Geometrias.FACTORY.createGeometryCollection()));
+            exportador.finalizar();
+        }
+
+        Map<String, byte[]> arquivos = new HashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(saida.toByteArray()))) {
+            ZipEntry entrada;
+            while ((entrada = zip.getNextEntry()) != null) {
+                arquivos.put(entrada.getName(), zip.readAllBytes());
+            }
+        }
+
+        // Os dois polígonos viram um único registro (MultiPolygon); o ponto vai para o arquivo de pontos
+        ByteBuffer poligonos = ByteBuffer.wrap(arquivos.get("camadas_1_poligonos.dbf")).order(ByteOrder.LITTLE_ENDIAN);
+        assertThat(poligonos.getInt(4)).isEqualTo(1);
+        ByteBuffer pontos = ByteBuffer.wrap(arquivos.get("camadas_1_pontos.dbf")).order(ByteOrder.LITTLE_ENDIAN);
+        assertThat(pontos.getInt(4)).isEqualTo(1);
+        // A coleção vazia não tem o que exportar e é informada
+        assertThat(new String(arquivos.get("LEIAME.txt"), StandardCharsets.UTF_8)).endsWith(": 1\n");
+    }
+}
@@ -0,0 +1,59 @@
+package br.vegamonitoramento.caronline.geometry;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Polygon;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GeoJsonGeometryReaderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final GeoJsonGeometryReader reader = new GeoJsonGeometryReader();
+
+    private Geometry ler(String json) throws Exception {
+        return reader.read(objectMapper.readTree(json));
+    }
+
+    @Test
+    void lePoligonoComFuro() throws Exception {
+        Geometry geometria = ler("""
+                {"type": "Polygon", "coordinates": [
+                  [[-47, -23], [-46, -23], [-46, -22], [-47, -22], [-47, -23]],
+                  [[-46.8, -22.8], [-46.2, -22.8], [-46.2, -22.2], [-46.8, -22.8]]
+                ]}
+                """);
+
+        // Geometry implementa o Comparable cru: assertThat(geometria) cairia na sobrecarga de Comparable
+        assertThat(geometria.getGeometryType()).isEqualTo(Geometry.TYPENAME_POLYGON);
+        assertThat(((Polygon) geometria).getNumInteriorRing()).isEqualTo(1);
+        assertThat(geometria.getSRID()).isEqualTo(Geometrias.SRID_GEOJSON);
+        assertThat(geometria.isValid()).isTrue();
+    }
+
+    @Test
+    void fechaAnelAberto() throws Exception {
+        Geometry geometria = ler("""
+                {"type": "MultiPolygon", "coordinates": [[[[-47, -23], [-46, -23], [-46, -22], [-47, -22]]]]}
+                """);
+
+        assertThat(geometria.getGeometryType()).isEqualTo(Geometry.TYPENAME_MULTIPOLYGON);
+        assertThat(geometria.getNumPoints()).isEqualTo(5);
+    }
+
+    @Test
+    void rejeitaTipoDesconhecido() {
+        assertThatThrownBy(() -> ler("{\"type\": \"Circle\", \"coordinates\": [0, 0]}"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejeitaCoordenadaNaoNumerica() {
+        assertThatThrownBy(() -> ler("{\"type\": \"Point\", \"coordinates\": [\"-47\", -23]}"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ler("{\"type\": \"Point\", \"coordinates\": [-47, null]}"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,86 @@
+package br.vegamonitoramento.caronline.geometry;
+
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.algorithm.distance.DiscreteHausdorffDistance;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Polygon;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GeometriaMultiNivelTest {
+
+    /**
+     * Contorno irregular de ~20 km com vértices a cada poucos metros, como um limite municipal
+     */
+    private static Polygon limiteDenso(int vertices) {
+        Random aleatorio = new Random(42);
+        Coordinate[] coordenadas = new Coordinate[vertices + 1];
+        for (int i = 0; i < vertices; i++) {
+            double angulo = 2 * Math.PI * i / vertices;
+            double raio = 0.1 * (1 + 0.2 * Math.sin(7 * angulo) + 0.01 * aleatorio.nextDouble());
+            coordenadas[i] = new Coordinate(-46.6 + raio * Math.cos(angulo), -23.5 + raio * Math.sin(angulo));
+        }
+        coordenadas[vertices] = coordenadas[0];
+        return Geometrias.FACTORY.createPolygon(coordenadas);
+    }
+
+    @Test
+    void niveisReduzemVerticesPreservandoValidade() {
+        Polygon limite = limiteDenso(5_000);
+        GeometriaMultiNivel niveis = GeometriaMultiNivel.de(limite);
+
+        // Geometry implementa o Comparable cru; como Object, a asserção não gera aviso unchecked
+        assertThat((Object) niveis.getOriginal()).isSameAs(limite);
+        int anterior = limite.getNumPoints();
+        for (int nivel = 1; nivel < GeometriaMultiNivel.getQuantidadeNiveis(); nivel++) {
+            Geometry simplificada = niveis.getGeometria(nivel);
+            assertThat(simplificada.isValid()).isTrue();
+            assertThat(simplificada.getNumPoints()).isLessThanOrEqualTo(anterior);
+            // O desvio acumulado não passa de 4/3 da tolerância do nível
+            assertThat(DiscreteHausdorffDistance.distance(limite, simplificada))
+                    .isLessThanOrEqualTo(4.0 / 3 * GeometriaMultiNivel.tolerancia(nivel));
+            anterior = simplificada.getNumPoints();
+        }
+
+        // Zoom de município (10) e de estado (6): pelo menos uma ordem de grandeza a menos
+        assertThat(niveis.getGeometria(GeometriaMultiNivel.nivel(10.0, null)).getNumPoints())
+                .isLessThan(limite.getNumPoints() / 10);
+        assertThat(niveis.getGeometria(GeometriaMultiNivel.nivel(6.0, null)).getNumPoints())
+                .isLessThan(limite.getNumPoints() / 100);
+    }
+
+    @Test
+    void nivelPorZoomOuTolerancia() {
+        assertThat(GeometriaMultiNivel.nivel(null, null)).isZero();
+        assertThat(GeometriaMultiNivel.nivel(18.0, null)).isZero();
+        assertThat(GeometriaMultiNivel.nivel(14.0, null)).isEqualTo(1);
+        assertThat(GeometriaMultiNivel.nivel(9.5, null)).isEqualTo(3);
+        assertThat(GeometriaMultiNivel.nivel(3.0, null)).isEqualTo(5);
+
+        // A tolerância tem precedência e nunca é ultrapassada
+        assertThat(GeometriaMultiNivel.nivel(3.0, 0.0)).isZero();
+        assertThat(GeometriaMultiNivel.tolerancia(GeometriaMultiNivel.nivel(null, 0.001))).isLessThanOrEqualTo(0.001);
+        assertThat(GeometriaMultiNivel.nivel(null, 1.0)).isEqualTo(5);
+
+        assertThatThrownBy(() -> GeometriaMultiNivel.nivel(-1.0, null)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void memoriaEstimadaAcompanhaOsVerticesDeTodosOsNiveis() {
+        Polygon limite = limiteDenso(5_000);
+        long denso = GeometriaMultiNivel.de(limite).bytesEstimados();
+        // Mais que o original sozinho, menos que uma cópia completa por nível
+        assertThat(denso).isGreaterThan(48L * limite.getNumPoints())
+                .isLessThan(48L * limite.getNumPoints() * GeometriaMultiNivel.getQuantidadeNiveis());
+
+        // Quadrado não simplifica: os níveis reaproveitam a instância e contam uma vez
+        Polygon quadrado = (Polygon) Geometrias.FACTORY.toGeometry(
+                new Envelope(-46.6, -46.5, -23.6, -23.5));
+        assertThat(GeometriaMultiNivel.de(quadrado).bytesEstimados()).isLessThan(1_000);
+    }
+}
@@ -0,0 +1,58 @@
+package br.vegamonitoramento.caronline.geometry;
+
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.algorithm.Orientation;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.io.WKTReader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class NormalizacaoGeometriaTest {
+
+    private final NormalizacaoGeometria normalizacao = new NormalizacaoGeometria(1e7);
+    private final WKTReader leitor = new WKTReader(Geometrias.FACTORY);
+
+    @Test
+    void limpaRuidoVerticesRepetidosColinearesEOrientacao() throws Exception {
+        // Anel horário com ruído de ponto flutuante, vértice duplicado, vértice no meio de um
+        // lado e um espinho saindo do canto superior
+        Geometry desenhada = leitor.read("POLYGON ((-46.70000000001 -23.6, -46.7 -23.59, -46.7 -23.59, "
+                + "-46.69 -23.59, -46.69 -23.58, -46.69 -23.59, -46.69 -23.595, -46.69 -23.6, -46.70000000001 -23.6))");
+
+        NormalizacaoGeometria.Resultado resultado = normalizacao.normalizar(desenhada);
+        Polygon poligono = (Polygon) resultado.geometria();
+
+        assertThat(poligono.getNumPoints()).isEqualTo(5);
+        assertThat(poligono.getCoordinates()).extracting(c -> c.x).containsOnly(-46.7, -46.69);
+        assertThat(Orientation.isCCW(poligono.getExteriorRing().getCoordinateSequence())).isTrue();
+        assertThat(poligono.getArea()).isCloseTo(desenhada.getArea(), within(1e-12));
+        assertThat(resultado.correcoes()).containsExactlyInAnyOrder(CorrecaoGeometria.PRECISAO,
+                CorrecaoGeometria.VERTICE_REPETIDO, CorrecaoGeometria.VERTICE_COLINEAR, CorrecaoGeometria.ORIENTACAO);
+
+        NormalizacaoGeometria.Resultado denovo = normalizacao.normalizar(poligono);
+        assertThat(denovo.correcoes()).isEmpty();
+        assertThat(denovo.geometria().equalsExact(poligono)).isTrue();
+    }
+
+    @Test
+    void reparaAutointersecaoEPreservaGeometriasValidas() throws Exception {
+        Geometry gravata = leitor.read("POLYGON ((0 0, 1 1, 1 0, 0 1, 0 0))");
+
+        NormalizacaoGeometria.Resultado reparada = normalizacao.normalizar(gravata);
+
+        assertThat(reparada.geometria().getGeometryType()).isEqualTo(Geometry.TYPENAME_MULTIPOLYGON);
+        assertThat(reparada.geometria().isValid()).isTrue();
+        assertThat(reparada.geometria().getArea()).isCloseTo(0.5, within(1e-12));
+        assertThat(reparada.correcoes()).contains(CorrecaoGeometria.GEOMETRIA_INVALIDA);
+        assertThat(normalizacao.normalizar(reparada.geometria()).correcoes()).isEmpty();
+
+        // Linha que volta sobre o próprio traçado mantém o retorno; sem área, o polígono fica como veio
+        Geometry linha = leitor.read("LINESTRING (0 0, 1 0, 2 0, 1 0)");
+        assertThat(normalizacao.normalizar(linha).geometria().getNumPoints()).isEqualTo(3);
+        Geometry achatado = leitor.read("POLYGON ((0 0, 1 0, 2 0, 0 0))");
+        // Como Object: Geometry implementa o Comparable cru, e a sobrecarga de Comparable gera aviso unchecked
+        assertThat((Object) normalizacao.normalizar(achatado).geometria()).isSameAs(achatado);
+    }
+}
@@ -0,0 +1,72 @@
+package br.vegamonitoramento.caronline.geometry;
+
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Polygon;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class TransformacaoTest {
+
+    @Test
+    void utmIdaEVoltaPreservaCoordenadas() {
+        Transformacao ida = Transformacao.entre(Projecao.GEOGRAFICAS, ProjecaoUtm.de(23, true));
+        Transformacao volta = Transformacao.entre(ProjecaoUtm.de(23, true), Projecao.GEOGRAFICAS);
+        assertThat(Transformacao.entre(Projecao.GEOGRAFICAS, ProjecaoUtm.de(23, true))).isSameAs(ida);
+
+        // Meridiano central no equador, depois São Paulo e um ponto perto da borda do fuso
+        double[] xy = {-45.0, 0.0, -46.63, -23.55, -47.9, -15.8};
+        ida.transformar(xy);
+        assertThat(xy[0]).isCloseTo(500_000.0, within(1e-6));
+        assertThat(xy[1]).isCloseTo(10_000_000.0, within(1e-6));
+        assertThat(xy[2]).isBetween(330_000.0, 340_000.0);
+        assertThat(xy[3]).isBetween(7_390_000.0, 7_400_000.0);
+
+        volta.transformar(xy);
+        assertThat(xy).containsExactly(new double[]{-45.0, 0.0, -46.63, -23.55, -47.9, -15.8}, within(1e-8));
+    }
+
+    @Test
+    void albersIdaEVoltaPreservaCoordenadas() {
+        Transformacao ida = Transformacao.entre(Projecao.GEOGRAFICAS, ProjecaoAlbers.BRASIL);
+        Transformacao volta = Transformacao.entre(ProjecaoAlbers.BRASIL, Projecao.GEOGRAFICAS);
+
+        double[] xy = {-54.0, -12.0, -73.9, 5.2, -34.8, -33.7, -46.63, -23.55};
+        ida.transformar(xy);
+        // A origem da projeção cai no falso leste e falso norte
+        assertThat(xy[0]).isCloseTo(5_000_000.0, within(1e-6));
+        assertThat(xy[1]).isCloseTo(10_000_000.0, within(1e-6));
+
+        volta.transformar(xy);
+        assertThat(xy).containsExactly(new double[]{-54.0, -12.0, -73.9, 5.2, -34.8, -33.7, -46.63, -23.55},
+                within(1e-7));
+    }
+
+    @Test
+    void albersPreservaAreaDoElipsoide() {
+        // Quadrícula de 1° x 1° com os paralelos densificados, já que na cônica eles são arcos
+        int passos = 1_000;
+        Coordinate[] anel = new Coordinate[4 * passos + 1];
+        for (int i = 0; i < passos; i++) {
+            double t = (double) i / passos;
+            anel[i] = new Coordinate(-50 + t, -20);
+            anel[passos + i] = new Coordinate(-49, -20 + t);
+            anel[2 * passos + i] = new Coordinate(-49 - t, -19);
+            anel[3 * passos + i] = new Coordinate(-50, -19 - t);
+        }
+        anel[4 * passos] = anel[0];
+        Polygon quadricula = Geometrias.FACTORY.createPolygon(anel);
+
+        double areaAlbers = Transformacao.entre(Projecao.GEOGRAFICAS, ProjecaoAlbers.BRASIL)
+                .transformada(quadricula).getArea();
+        // Área exata da faixa no elipsoide: a² Δλ (q2 - q1) / 2
+        double areaExata = Grs80.A * Grs80.A * Math.toRadians(1)
+                * (Grs80.q(Math.sin(Math.toRadians(-19))) - Grs80.q(Math.sin(Math.toRadians(-20)))) / 2;
+
+        assertThat(quadricula.getExteriorRing().getCoordinateN(0).x).isEqualTo(-50.0);
+        assertThat(areaAlbers).isCloseTo(areaExata, within(areaExata * 1e-6));
+        // AreaGeodesica mede na mesma projeção: o mesmo número por qualquer caminho
+        assertThat(AreaGeodesica.metrosQuadrados(quadricula)).isCloseTo(areaAlbers, within(areaExata * 1e-9));
+    }
+}
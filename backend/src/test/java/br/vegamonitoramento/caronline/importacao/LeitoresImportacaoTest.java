@@ -0,0 +1,147 @@
+package br.vegamonitoramento.caronline.importacao;
+
+import br.vegamonitoramento.caronline.export.ExportadorCamadas;
+import br.vegamonitoramento.caronline.export.FormatoExportacao;
+import br.vegamonitoramento.caronline.geometry.Geometrias;
+import br.vegamonitoramento.caronline.model.FeicaoCamada;
+import br.vegamonitoramento.caronline.model.dto.TemaGrupoDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.geom.Polygon;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class LeitoresImportacaoTest {
+
+    @TempDir
+    Path diretorio;
+
+    private static LinearRing anel(double x, double y, double lado) {
+        return Geometrias.FACTORY.createLinearRing(new Coordinate[]{
+                new Coordinate(x, y), new Coordinate(x + lado, y), new Coordinate(x + lado, y + lado),
+                new Coordinate(x, y + lado), new Coordinate(x, y)});
+    }
+
+    private static List<FeicaoImportada> lerTudo(FormatoImportacao formato, Path arquivo) throws IOException {
+        List<FeicaoImportada> feicoes = new ArrayList<>();
+        try (LeitorFeicoes leitor = formato.abrir(arquivo, new ObjectMapper())) {
+            FeicaoImportada feicao;
+            while ((feicao = leitor.proxima()) != null) {
+                feicoes.add(feicao);
+            }
+        }
+        return feicoes;
+    }
+
+    @Test
+    void shapefileExportadoEhLidoDeVoltaComFurosEAtributos() throws Exception {
+        Polygon comFuro = Geometrias.FACTORY.createPolygon(anel(-47, -23, 1), new LinearRing[]{anel(-46.8, -22.8, 0.2)});
+        Geometry multi = Geometrias.FACTORY.createMultiPolygon(new Polygon[]{
+                Geometrias.FACTORY.createPolygon(anel(-45, -23, 0.5)), comFuro});
+
+        Path zip = diretorio.resolve("camadas.zip");
+        try (OutputStream saida = Files.newOutputStream(zip);
+             ExportadorCamadas exportador = FormatoExportacao.SHP.criarExportador(saida, "camadas_1")) {
+            exportador.escrever(new FeicaoCamada(1L, null, "AREA_IMOVEL", "Área do Imóvel", new BigDecimal("1.5"),
+                    multi, OffsetDateTime.now(), OffsetDateTime.now(), null, null, null));
+            exportador.escrever(new FeicaoCamada(2L, null, "SEDE_IMOVEL", "Sede", null,
+                    Geometrias.FACTORY.createPoint(new Coordinate(-46.5, -22.5)), null, null, null, null, null));
+            exportador.finalizar();
+        }
+
+        List<FeicaoImportada> feicoes = lerTudo(FormatoImportacao.deNomeArquivo("camadas.ZIP"), zip);
+
+        assertThat(feicoes).hasSize(2).allSatisfy(feicao -> {
+            assertThat(feicao.erro()).isNull();
+            assertThat(feicao.sistemaReferencia()).isEqualTo(SistemaReferencia.WGS84);
+        });
+        FeicaoImportada poligono = feicoes.stream()
+                .filter(feicao -> "AREA_IMOVEL".equals(feicao.atributos().get("COD_TEMA")))
+                .findFirst().orElseThrow();
+        assertThat(poligono.atributos()).containsEntry("NOM_TEMA", "Área do Imóvel")
+                .containsEntry("camada", "camadas_1_poligonos");
+        assertThat(poligono.geometria().equalsTopo(multi)).isTrue();
+        assertThat(poligono.geometria().getArea()).isCloseTo(multi.getArea(), within(1e-12));
+    }
+
+    @Test
+    void kmlUsaPastaEDadosEstendidosComoAtributos() throws Exception {
+        Path kml = diretorio.resolve("imovel.kml");
+        Files.writeString(kml, """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <kml xmlns="http://www.opengis.net/kml/2.2"><Document><name>Imóvel</name>
+                  <Folder><name>APP Nascente</name>
+                    <Placemark><name>Nascente 1</name>
+                      <ExtendedData><Data name="obs"><value>margem</value></Data></ExtendedData>
+                      <Polygon>
+                        <outerBoundaryIs><LinearRing><coordinates>
+                          -47,-23,0 -46,-23,0 -46,-22,0 -47,-22,0 -47,-23,0
+                        </coordinates></LinearRing></outerBoundaryIs>
+                        <innerBoundaryIs><LinearRing><coordinates>
+                          -46.8,-22.8 -46.6,-22.8 -46.6,-22.6 -46.8,-22.6 -46.8,-22.8
+                        </coordinates></LinearRing></innerBoundaryIs>
+                      </Polygon>
+                    </Placemark>
+                  </Folder>
+                </Document></kml>
+                """, StandardCharsets.UTF_8);
+
+        List<FeicaoImportada> feicoes = lerTudo(FormatoImportacao.KML, kml);
+
+        assertThat(feicoes).hasSize(1);
+        FeicaoImportada feicao = feicoes.get(0);
+        assertThat(feicao.atributos()).containsEntry("pasta", "APP Nascente").containsEntry("obs", "margem")
+                .containsEntry("name", "Nascente 1");
+        assertThat(((Polygon) feicao.geometria()).getNumInteriorRing()).isEqualTo(1);
+
+        TemaGrupoDTO nascente = new TemaGrupoDTO(7L, "APP", "App", 4, "APP_NASCENTE",
+                "Área de Preservação Permanente - Nascente", "P", true);
+        MapeamentoTemas mapeamento = new MapeamentoTemas(List.of(nascente), null);
+        assertThat(mapeamento.temaDe(feicao.atributos())).isSameAs(nascente);
+        assertThat(mapeamento.temaDe(Map.of("Tema", "area de preservacao permanente nascente"))).isSameAs(nascente);
+        assertThat(mapeamento.temaDe(Map.of("nome", "outro"))).isNull();
+    }
+
+    @Test
+    void prjUtmSirgasEhConvertidoParaGeograficas() {
+        String prj = "PROJCS[\"SIRGAS_2000_UTM_Zone_23S\",GEOGCS[\"GCS_SIRGAS_2000\",DATUM[\"D_SIRGAS_2000\","
+                + "SPHEROID[\"GRS_1980\",6378137.0,298.257222101]],PRIMEM[\"Greenwich\",0.0],"
+                + "UNIT[\"Degree\",0.0174532925199433]],PROJECTION[\"Transverse_Mercator\"],"
+                + "PARAMETER[\"False_Easting\",500000.0],PARAMETER[\"False_Northing\",10000000.0],"
+                + "PARAMETER[\"Central_Meridian\",-45.0],PARAMETER[\"Scale_Factor\",0.9996],"
+                + "PARAMETER[\"Latitude_Of_Origin\",0.0],UNIT[\"Meter\",1.0]]";
+        SistemaReferencia sistema = SistemaReferencia.dePrj(prj);
+        assertThat(sistema.zonaUtm()).isEqualTo(23);
+        assertThat(sistema.sul()).isTrue();
+
+        // Meridiano central no equador
+        Geometry origem = sistema.paraGeograficas(Geometrias.FACTORY.createPoint(new Coordinate(500000, 10000000)));
+        assertThat(origem.getCoordinate().x).isCloseTo(-45.0, within(1e-9));
+        assertThat(origem.getCoordinate().y).isCloseTo(0.0, within(1e-9));
+
+        // Praça da Sé, em São Paulo
+        Geometry se = sistema.paraGeograficas(Geometrias.FACTORY.createPoint(new Coordinate(333_420, 7_394_890)));
+        assertThat(se.getCoordinate().x).isCloseTo(-46.634, within(0.005));
+        assertThat(se.getCoordinate().y).isCloseTo(-23.550, within(0.005));
+
+        assertThatThrownBy(() -> SistemaReferencia.dePrj("PROJCS[\"SAD_1969_UTM_Zone_23S\",GEOGCS[\"GCS_South_American_1969\"]]"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,34 @@
+package br.vegamonitoramento.caronline.job;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ContextoJobTest {
+
+    @Test
+    void pontoDeVerificacaoLeOCancelamentoGravado() {
+        Job job = new Job();
+        job.setId(UUID.randomUUID());
+        AtomicBoolean gravado = new AtomicBoolean();
+        AtomicInteger consultas = new AtomicInteger();
+        ContextoJob contexto = new ContextoJob(job, tarefa -> { }, tarefa -> {
+            consultas.incrementAndGet();
+            return gravado.get();
+        }, 0);
+
+        contexto.verificarCancelamento();
+        // Pedido gravado por outra instância, sem passar pelo objeto em memória
+        gravado.set(true);
+
+        assertThatThrownBy(contexto::verificarCancelamento).isInstanceOf(JobCanceladoException.class);
+        assertThatThrownBy(() -> contexto.progresso(0.5, "Em execução")).isInstanceOf(JobCanceladoException.class);
+        // Depois de lido, o pedido fica em memória e o banco não é consultado de novo
+        assertThat(consultas.get()).isEqualTo(2);
+    }
+}
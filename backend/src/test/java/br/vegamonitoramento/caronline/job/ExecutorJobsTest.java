@@ -0,0 +1,77 @@
+package br.vegamonitoramento.caronline.job;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExecutorJobsTest {
+
+    @Test
+    void loteNaoOcupaTodasAsVagasEInterativaPassaAFrente() throws Exception {
+        ExecutorJobs executor = new ExecutorJobs(2, 5, 10);
+        CountDownLatch liberar = new CountDownLatch(1);
+        CountDownLatch fim = new CountDownLatch(4);
+        List<String> iniciadas = new CopyOnWriteArrayList<>();
+
+        executor.enfileirar(UUID.randomUUID(), FaixaJob.LOTE, bloqueante("lote-1", iniciadas, liberar, fim));
+        executor.enfileirar(UUID.randomUUID(), FaixaJob.LOTE, bloqueante("lote-2", iniciadas, liberar, fim));
+        // Com duas vagas, o lote fica com uma e a outra continua livre
+        assertThat(executor.getEmExecucao(FaixaJob.LOTE)).isEqualTo(1);
+        assertThat(executor.getAguardando(FaixaJob.LOTE)).isEqualTo(1);
+
+        executor.enfileirar(UUID.randomUUID(), FaixaJob.INTERATIVA, bloqueante("interativa-1", iniciadas, liberar, fim));
+        executor.enfileirar(UUID.randomUUID(), FaixaJob.INTERATIVA, bloqueante("interativa-2", iniciadas, liberar, fim));
+        assertThat(executor.getEmExecucao(FaixaJob.INTERATIVA)).isEqualTo(1);
+        assertThat(executor.getAguardando(FaixaJob.INTERATIVA)).isEqualTo(1);
+
+        liberar.countDown();
+        assertThat(fim.await(10, TimeUnit.SECONDS)).isTrue();
+        // A interativa que aguardava começa antes do lote que chegou primeiro
+        assertThat(iniciadas.indexOf("interativa-2")).isLessThan(iniciadas.indexOf("lote-2"));
+    }
+
+    @Test
+    void recusaFaixaCheiaERemoveTarefaQueNaoComecou() throws Exception {
+        ExecutorJobs executor = new ExecutorJobs(1, 1, 2);
+        CountDownLatch liberar = new CountDownLatch(1);
+        CountDownLatch fim = new CountDownLatch(2);
+        List<String> iniciadas = new CopyOnWriteArrayList<>();
+        UUID removida = UUID.randomUUID();
+
+        executor.enfileirar(UUID.randomUUID(), FaixaJob.INTERATIVA, bloqueante("a", iniciadas, liberar, fim));
+        executor.enfileirar(removida, FaixaJob.INTERATIVA, bloqueante("b", iniciadas, liberar, fim));
+        executor.enfileirar(UUID.randomUUID(), FaixaJob.INTERATIVA, bloqueante("c", iniciadas, liberar, fim));
+        assertThatThrownBy(() -> executor.enfileirar(UUID.randomUUID(), FaixaJob.INTERATIVA, () -> { }))
+                .isInstanceOf(FilaJobsCheiaException.class);
+        // A faixa de lote tem fila própria
+        executor.enfileirar(UUID.randomUUID(), FaixaJob.LOTE, () -> { });
+
+        assertThat(executor.remover(removida)).isTrue();
+        assertThat(executor.remover(removida)).isFalse();
+
+        liberar.countDown();
+        assertThat(fim.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(iniciadas).containsExactly("a", "c");
+    }
+
+    private static Runnable bloqueante(String nome, List<String> iniciadas, CountDownLatch liberar,
+                                       CountDownLatch fim) {
+        return () -> {
+            iniciadas.add(nome);
+            try {
+                liberar.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                fim.countDown();
+            }
+        };
+    }
+}
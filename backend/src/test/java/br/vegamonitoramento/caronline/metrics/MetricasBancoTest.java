@@ -0,0 +1,32 @@
+package br.vegamonitoramento.caronline.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MetricasBancoTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final MetricasBanco metricasBanco = new MetricasBanco(registry, 0, 1000);
+
+    @Test
+    void medirRegistraTempoPorConsultaEResultado() {
+        assertThat(metricasBanco.medir("teste.listar", "SELECT 1", () -> 1)).isEqualTo(1);
+        metricasBanco.medir("teste.listar", "SELECT 1", () -> 2);
+
+        assertThatThrownBy(() -> metricasBanco.medir("teste.listar", "SELECT 1", () -> {
+            throw new QueryTimeoutException("tempo esgotado");
+        })).isInstanceOf(QueryTimeoutException.class);
+
+        Timer sucesso = registry.get(MetricasBanco.METRICA_CONSULTA)
+                .tag("consulta", "teste.listar").tag("resultado", "sucesso").timer();
+        Timer falha = registry.get(MetricasBanco.METRICA_CONSULTA)
+                .tag("consulta", "teste.listar").tag("resultado", "QueryTimeoutException").timer();
+        assertThat(sucesso.count()).isEqualTo(2);
+        assertThat(falha.count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,73 @@
+package br.vegamonitoramento.caronline.quadro;
+
+import br.vegamonitoramento.caronline.geometry.Geometrias;
+import br.vegamonitoramento.caronline.model.Temas;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class QuadroAreasTest {
+
+    private static Geometry retangulo(double x, double y, double largura, double altura) {
+        return Geometrias.FACTORY.toGeometry(new Envelope(x, x + largura, y, y + altura));
+    }
+
+    @Test
+    void calculaTemasDerivadosEAtualizaSomenteOTemaAlterado() {
+        QuadroAreas quadro = new QuadroAreas();
+        quadro.definir("imovel", Temas.AREA_IMOVEL, retangulo(-47.0, -22.0, 0.01, 0.01));
+        // Servidão na faixa oeste (1/4), vegetação na faixa leste (1/2), APP sobre a consolidada
+        quadro.definir("servidao", Temas.AREA_UTILIDADE_PUBLICA, retangulo(-47.0, -22.0, 0.0025, 0.01));
+        quadro.definir("vegetacao", Temas.VEGETACAO_NATIVA, retangulo(-46.995, -22.0, 0.005, 0.01));
+        quadro.definir("consolidada", Temas.AREA_CONSOLIDADA, retangulo(-46.9975, -22.0, 0.0025, 0.005));
+        quadro.definir("app", "APP_RIO_ATE_10", retangulo(-46.9975, -22.0, 0.0025, 0.0025));
+
+        Map<String, Double> areas = quadro.calcular();
+        double imovel = areas.get(Temas.AREA_IMOVEL);
+        assertThat(areas.get(Temas.AREA_SERVIDAO_ADMINISTRATIVA_TOTAL)).isCloseTo(imovel / 4, within(0.01));
+        assertThat(areas.get(Temas.AREA_IMOVEL_LIQUIDA)).isCloseTo(imovel * 3 / 4, within(0.01));
+        assertThat(areas.get(Temas.AREA_NAO_CLASSIFICADA)).isCloseTo(imovel / 8, within(0.01));
+        assertThat(areas.get(Temas.APP_A_RECUPERAR)).isCloseTo(imovel / 16, within(0.01));
+        assertThat(areas.get(Temas.ARL_TOTAL)).isZero();
+        assertThat(quadro.getRevisao()).isEqualTo(1);
+        long recortes = quadro.getRecortes();
+
+        // Uma nova reserva legal recorta apenas a própria feição
+        quadro.definir("arl", Temas.ARL_PROPOSTA, retangulo(-46.995, -22.0, 0.01, 0.01));
+        areas = quadro.calcular();
+        assertThat(quadro.getRecortes()).isEqualTo(recortes + 1);
+        assertThat(areas.get(Temas.ARL_TOTAL)).isCloseTo(imovel / 2, within(0.01));
+        assertThat(areas.get(Temas.AREA_NAO_CLASSIFICADA)).isCloseTo(imovel / 8, within(0.01));
+
+        // Remover a consolidada deixa a APP sobre área não classificada
+        assertThat(quadro.remover("consolidada")).isTrue();
+        areas = quadro.calcular();
+        assertThat(quadro.getRecortes()).isEqualTo(recortes + 1);
+        assertThat(areas.get(Temas.APP_A_RECUPERAR)).isZero();
+        assertThat(areas.get(Temas.AREA_NAO_CLASSIFICADA)).isCloseTo(imovel / 4, within(0.01));
+        assertThat(quadro.getRevisao()).isEqualTo(3);
+
+        // Sem alterações, nada é recalculado nem a revisão muda
+        quadro.calcular();
+        assertThat(quadro.getRevisao()).isEqualTo(3);
+    }
+
+    @Test
+    void trocaDoImovelRecortaNovamenteTodasAsFeicoes() {
+        QuadroAreas quadro = new QuadroAreas();
+        quadro.definir("imovel", Temas.AREA_IMOVEL, retangulo(-47.0, -22.0, 0.01, 0.01));
+        quadro.definir("vegetacao", Temas.VEGETACAO_NATIVA, retangulo(-47.0, -22.0, 0.02, 0.01));
+        double antes = quadro.calcular().get(Temas.VEGETACAO_NATIVA);
+
+        quadro.definir("imovel", Temas.AREA_IMOVEL, retangulo(-47.0, -22.0, 0.02, 0.01));
+        Map<String, Double> areas = quadro.calcular();
+
+        assertThat(areas.get(Temas.VEGETACAO_NATIVA)).isCloseTo(antes * 2, within(0.01));
+        assertThat(areas.get(Temas.AREA_NAO_CLASSIFICADA)).isCloseTo(0.0, within(0.01));
+    }
+}
@@ -0,0 +1,53 @@
+package br.vegamonitoramento.caronline.referencia;
+
+import br.vegamonitoramento.caronline.geometry.Geometrias;
+import br.vegamonitoramento.caronline.tile.TileCoordenada;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheCelulasTest {
+
+    private static final TileCoordenada A = new TileCoordenada("hidrografia", 11, 756, 1161);
+    private static final TileCoordenada B = new TileCoordenada("hidrografia", 11, 757, 1161);
+    private static final TileCoordenada C = new TileCoordenada("hidrografia", 11, 758, 1161);
+
+    @Test
+    void contaAcertosEFaltasEDescartaAMenosUsadaAoPassarDoLimite() {
+        List<FeicaoReferencia> feicoes = List.of(feicao(1));
+        long porCelula = 64 + feicoes.get(0).bytesEstimados();
+        CacheCelulas cache = new CacheCelulas(2 * porCelula);
+
+        assertThat(cache.buscar(List.of(A, B))).isEmpty();
+        cache.guardar(Map.of(A, feicoes, B, feicoes), cache.getGeracao());
+        // Usar A a deixa mais recente que B
+        assertThat(cache.buscar(List.of(A))).containsOnlyKeys(A);
+
+        cache.guardar(Map.of(C, List.of()), cache.getGeracao());
+        assertThat(cache.buscar(List.of(A, B, C))).containsOnlyKeys(A, C);
+        assertThat(cache.getBytes()).isLessThanOrEqualTo(2 * porCelula);
+        assertThat(cache.getAcertos()).isEqualTo(3);
+        assertThat(cache.getFaltas()).isEqualTo(3);
+    }
+
+    @Test
+    void descartaCelulasLidasAntesDeUmaLimpeza() {
+        CacheCelulas cache = new CacheCelulas(1 << 20);
+        long geracao = cache.getGeracao();
+
+        cache.limpar();
+        cache.guardar(Map.of(A, List.of(feicao(1))), geracao);
+
+        assertThat(cache.getQuantidade()).isZero();
+        assertThat(cache.getBytes()).isZero();
+    }
+
+    private static FeicaoReferencia feicao(long id) {
+        return new FeicaoReferencia(id, "Rio " + id, Geometrias.FACTORY.createLineString(new Coordinate[]{
+                new Coordinate(-47.0, -22.9), new Coordinate(-46.9, -22.8), new Coordinate(-46.8, -22.85)}));
+    }
+}
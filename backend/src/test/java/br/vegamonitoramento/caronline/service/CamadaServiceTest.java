@@ -0,0 +1,187 @@
+package br.vegamonitoramento.caronline.service;
+
+import br.vegamonitoramento.caronline.metrics.MetricasGeometria;
+import br.vegamonitoramento.caronline.model.FeicaoCamada;
+import br.vegamonitoramento.caronline.model.dto.SalvarCamadasRequestDTO;
+import br.vegamonitoramento.caronline.model.dto.SalvarCamadasResponseDTO;
+import br.vegamonitoramento.caronline.model.dto.SincronizarCamadasRequestDTO;
+import br.vegamonitoramento.caronline.model.dto.SincronizarCamadasResponseDTO;
+import br.vegamonitoramento.caronline.repository.CamadaRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Envelope;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CamadaServiceTest {
+
+    private static final long MUNICIPIO = 3552809L;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final CamadaRepository camadaRepository = mock(CamadaRepository.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private CamadaService camadaService;
+    private CamadaGeoJsonParser parser;
+
+    @BeforeEach
+    void setUp() {
+        TemaGrupoService temaGrupoService = mock(TemaGrupoService.class);
+        MetricasGeometria metricas = new MetricasGeometria(new SimpleMeterRegistry());
+        NormalizadorGeometrias normalizador = new NormalizadorGeometrias(NormalizadorGeometrias.ESCALA_PADRAO, metricas);
+        parser = new CamadaGeoJsonParser(temaGrupoService, objectMapper, normalizador);
+        GeometriaReferenciaService referencias = mock(GeometriaReferenciaService.class);
+        when(referencias.getMunicipio(MUNICIPIO)).thenReturn(mock(GeometriaReferenciaService.MunicipioPreparado.class));
+        camadaService = new CamadaService(camadaRepository, parser, temaGrupoService, eventPublisher, metricas,
+                normalizador, referencias, mock(PlatformTransactionManager.class));
+        when(camadaRepository.extensaoPorFeicoes(eq(MUNICIPIO), anyCollection())).thenAnswer(invocacao -> new Envelope());
+    }
+
+    private static String feicao(String id, double x) {
+        return ("{\"type\": \"Feature\", \"id\": \"%s\", \"properties\": {\"codTema\": \"AREA_IMOVEL\"}, "
+                + "\"geometry\": {\"type\": \"Polygon\", \"coordinates\": [[[%s, -23.6], [%s, -23.6], [%s, -23.59], [%s, -23.6]]]}}")
+                .formatted(id, x, x + 0.01, x, x);
+    }
+
+    private SincronizarCamadasRequestDTO request(long base, List<String> excluidas, String... features) throws Exception {
+        return new SincronizarCamadasRequestDTO(base, objectMapper.readTree(
+                "{\"type\": \"FeatureCollection\", \"features\": [" + String.join(",", features) + "]}"), excluidas);
+    }
+
+    private String hash(String feature) throws Exception {
+        return HashFeicao.calcular(parser.parseFeature(objectMapper.readTree(feature)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void gravaSomenteFeicoesComConteudoAlteradoEAvancaARevisao() throws Exception {
+        String inalterada = feicao("a", -46.80);
+        Map<String, String> gravados = Map.of("a", hash(inalterada), "b", hash(feicao("b", -46.70)), "c", "hash-antigo");
+        when(camadaRepository.hashesPorMunicipio(MUNICIPIO)).thenReturn(gravados);
+        when(camadaRepository.avancarRevisao(MUNICIPIO, 7)).thenReturn(Optional.of(8L));
+
+        SincronizarCamadasResponseDTO resposta = camadaService.sincronizar(MUNICIPIO,
+                request(7, List.of("c", "inexistente"), inalterada, feicao("b", -46.71), feicao("d", -46.60)));
+
+        assertThat(resposta.getRevisao()).isEqualTo(8L);
+        assertThat(resposta.getGravadas()).isEqualTo(2);
+        assertThat(resposta.getInalteradas()).isEqualTo(1);
+        assertThat(resposta.getExcluidas()).isEqualTo(1);
+        assertThat(resposta.getHashes()).containsOnlyKeys("b", "d");
+
+        ArgumentCaptor<List<FeicaoCamada>> gravadas = ArgumentCaptor.forClass(List.class);
+        verify(camadaRepository).gravarEmLote(eq(MUNICIPIO), gravadas.capture());
+        assertThat(gravadas.getValue()).extracting(FeicaoCamada::getCodFeicao).containsExactly("b", "d");
+        assertThat(gravadas.getValue()).allSatisfy(feicao -> assertThat(feicao.getNumRevisao()).isEqualTo(8L));
+        verify(camadaRepository).excluirFeicoes(MUNICIPIO, Set.of("c"), 8);
+        verify(eventPublisher).publishEvent(any(CamadasAlteradasEvent.class));
+    }
+
+    @Test
+    void revisaoBaseDesatualizadaNaoGravaNada() throws Exception {
+        when(camadaRepository.hashesPorMunicipio(MUNICIPIO)).thenReturn(Map.of());
+        when(camadaRepository.avancarRevisao(MUNICIPIO, 7)).thenReturn(Optional.empty());
+        when(camadaRepository.revisao(MUNICIPIO)).thenReturn(new long[]{9, 1});
+
+        assertThatThrownBy(() -> camadaService.sincronizar(MUNICIPIO, request(7, null, feicao("a", -46.8))))
+                .isInstanceOf(RevisaoDesatualizadaException.class)
+                .extracting(e -> ((RevisaoDesatualizadaException) e).getRevisaoAtual())
+                .isEqualTo(9L);
+        verify(camadaRepository, never()).gravarEmLote(anyLong(), any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void reenvioSemAlteracaoNaoAvancaARevisao() throws Exception {
+        String feature = feicao("a", -46.80);
+        Map<String, String> gravados = Map.of("a", hash(feature));
+        when(camadaRepository.hashesPorMunicipio(MUNICIPIO)).thenReturn(gravados);
+        when(camadaRepository.revisao(MUNICIPIO)).thenReturn(new long[]{7, 1});
+
+        SincronizarCamadasResponseDTO resposta = camadaService.sincronizar(MUNICIPIO, request(7, null, feature));
+
+        assertThat(resposta.getRevisao()).isEqualTo(7L);
+        assertThat(resposta.getInalteradas()).isEqualTo(1);
+        verify(camadaRepository, never()).avancarRevisao(anyLong(), anyLong());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void feicaoSemIdentificadorERejeitada() throws Exception {
+        String semId = feicao("a", -46.8).replace("\"id\": \"a\", ", "");
+
+        assertThatThrownBy(() -> camadaService.sincronizar(MUNICIPIO, request(0, null, semId)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("id não informado");
+    }
+
+    @Test
+    void exclusaoEsvaziaOMunicipioEAvancaARevisaoCompleta() {
+        Envelope extensao = new Envelope(-46.8, -46.7, -23.6, -23.5);
+        when(camadaRepository.extensaoPorMunicipio(MUNICIPIO)).thenReturn(extensao);
+        when(camadaRepository.avancarRevisaoCompleta(MUNICIPIO)).thenReturn(4L);
+
+        SalvarCamadasResponseDTO resposta = camadaService.excluir(MUNICIPIO);
+
+        assertThat(resposta.getRevisao()).isEqualTo(4L);
+        assertThat(resposta.getQuantidadeFeicoes()).isZero();
+        // TRUNCATE fora de transação; o DELETE, na transação da revisão, apaga o que sobrou
+        InOrder ordem = inOrder(camadaRepository);
+        ordem.verify(camadaRepository).esvaziarParticao(MUNICIPIO);
+        ordem.verify(camadaRepository).avancarRevisaoCompleta(MUNICIPIO);
+        ordem.verify(camadaRepository).excluirPorMunicipio(MUNICIPIO);
+        verify(camadaRepository, never()).excluirFeicoes(anyLong(), anyCollection(), anyLong());
+        verify(eventPublisher).publishEvent(new CamadasAlteradasEvent(MUNICIPIO, extensao));
+    }
+
+    @Test
+    void substituicaoTrocaAParticaoDepoisDeAvancarARevisao() throws Exception {
+        when(camadaRepository.extensaoPorMunicipio(MUNICIPIO)).thenReturn(new Envelope());
+        when(camadaRepository.avancarRevisaoCompleta(MUNICIPIO)).thenReturn(2L);
+        SalvarCamadasRequestDTO request = new SalvarCamadasRequestDTO();
+        request.setMunicipalityId(MUNICIPIO);
+        request.setGeoJson(objectMapper.readTree(
+                "{\"type\": \"FeatureCollection\", \"features\": [" + feicao("a", -46.80) + "]}"));
+
+        assertThat(camadaService.salvar(request).getQuantidadeFeicoes()).isEqualTo(1);
+
+        // A revisão bloqueia as outras gravações do município antes de a carga ser criada
+        InOrder ordem = inOrder(camadaRepository);
+        ordem.verify(camadaRepository).avancarRevisaoCompleta(MUNICIPIO);
+        ordem.verify(camadaRepository).substituirMunicipio(eq(MUNICIPIO), anyList());
+        verify(camadaRepository, never()).excluirPorMunicipio(anyLong());
+        verify(camadaRepository, never()).esvaziarParticao(anyLong());
+    }
+
+    @Test
+    void municipioForaDaMalhaNaoChegaAoBanco() {
+        assertThatThrownBy(() -> camadaService.excluir(1L))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Município não encontrado");
+        assertThatThrownBy(() -> camadaService.manter(3599999L, false))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(camadaRepository, never()).esvaziarParticao(anyLong());
+        verify(camadaRepository, never()).manterParticao(anyLong(), eq(false));
+    }
+}
@@ -0,0 +1,75 @@
+package br.vegamonitoramento.caronline.service;
+
+import br.vegamonitoramento.caronline.geometry.Geometrias;
+import br.vegamonitoramento.caronline.repository.MunicipioRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Point;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class GeometriaReferenciaServiceTest {
+
+    private static final long TABOAO_DA_SERRA = 3552809L;
+
+    private GeometriaReferenciaService referencias;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        referencias = new GeometriaReferenciaService(new MunicipioRepository(
+                new DefaultResourceLoader(), new ObjectMapper(), "classpath:dados/geojs-35-mun-amostra.json",
+                "classpath:dados/uf-35-amostra.json"), 1);
+        referencias.recarregar();
+    }
+
+    @Test
+    void localizaMunicipioNoPonto() {
+        Point ponto = referencias.getMunicipio(TABOAO_DA_SERRA).municipio().getGeometria().getInteriorPoint();
+
+        assertThat(referencias.getMunicipioNoPonto(ponto.getX(), ponto.getY()).municipio().getCodMunicipio())
+                .isEqualTo(TABOAO_DA_SERRA);
+        assertThat(referencias.getMunicipioNoPonto(-40.0, -10.0)).isNull();
+    }
+
+    @Test
+    void calculaAreaDeIntersecaoPorMunicipio() {
+        Geometry municipio = referencias.getMunicipio(TABOAO_DA_SERRA).municipio().getGeometria();
+        Geometry trecho = municipio.getInteriorPoint().buffer(0.001);
+
+        List<GeometriaReferenciaService.IntersecaoMunicipio> intersecoes =
+                referencias.getMunicipiosIntersectados(trecho);
+
+        assertThat(intersecoes).hasSize(1);
+        assertThat(intersecoes.get(0).municipio().municipio().getCodMunicipio()).isEqualTo(TABOAO_DA_SERRA);
+        assertThat(intersecoes.get(0).percentual()).isCloseTo(100.0, within(0.001));
+    }
+
+    @Test
+    void contornoDoEstadoNaoDependeDosMunicipiosCarregados() {
+        // Campinas não está na amostra, mas está dentro do contorno da UF
+        Point campinas = Geometrias.FACTORY.createPoint(new Coordinate(-47.06, -22.90));
+
+        assertThat(referencias.getMunicipioNoPonto(campinas.getX(), campinas.getY())).isNull();
+        assertThat(referencias.getEstadoPreparado().covers(campinas)).isTrue();
+    }
+
+    @Test
+    void malhaIncompletaERecusada() {
+        GeometriaReferenciaService incompleta = new GeometriaReferenciaService(new MunicipioRepository(
+                new DefaultResourceLoader(), new ObjectMapper(), "classpath:dados/geojs-35-mun-amostra.json",
+                "classpath:dados/uf-35-amostra.json"), 645);
+
+        assertThatThrownBy(incompleta::recarregar)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("incompleta");
+        assertThat(incompleta.getMunicipio(TABOAO_DA_SERRA)).isNull();
+    }
+}
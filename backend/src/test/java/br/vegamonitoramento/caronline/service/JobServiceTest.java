@@ -0,0 +1,77 @@
+package br.vegamonitoramento.caronline.service;
+
+import br.vegamonitoramento.caronline.job.FaixaJob;
+import br.vegamonitoramento.caronline.job.Job;
+import br.vegamonitoramento.caronline.job.SituacaoJob;
+import br.vegamonitoramento.caronline.job.TipoJob;
+import br.vegamonitoramento.caronline.model.dto.JobRequestDTO;
+import br.vegamonitoramento.caronline.repository.CamadaRepository;
+import br.vegamonitoramento.caronline.repository.JobRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JobServiceTest {
+
+    private static final long MUNICIPIO = 3552809L;
+
+    private final JobRepository jobRepository = mock(JobRepository.class);
+    private final QuadroAreasService quadroAreasService = mock(QuadroAreasService.class);
+
+    private JobService service(Path diretorio) {
+        return new JobService(jobRepository, mock(CamadaRepository.class), mock(CamadaService.class),
+                mock(ValidacaoService.class), mock(TopologiaService.class), quadroAreasService,
+                new ObjectMapper(), mock(PlatformTransactionManager.class),
+                2, 1, 10, diretorio, 24, 1000, 3);
+    }
+
+    @Test
+    void cancelamentoDeTarefaDeOutraInstanciaEGravado(@TempDir Path diretorio) {
+        // Não está na fila deste processo: só existe no banco
+        Job job = new Job();
+        job.setId(UUID.randomUUID());
+        job.setTipo(TipoJob.EXPORTACAO);
+        job.setFaixa(FaixaJob.LOTE);
+        job.setSituacao(SituacaoJob.EXECUTANDO);
+        job.setCodMunicipio(MUNICIPIO);
+        job.setDataCriacao(OffsetDateTime.now());
+        when(jobRepository.buscar(job.getId())).thenReturn(Optional.of(job));
+        when(jobRepository.pedirCancelamento(job.getId())).thenReturn(true);
+
+        Job cancelada = service(diretorio).cancelar(job.getId());
+
+        verify(jobRepository).pedirCancelamento(job.getId());
+        assertThat(cancelada.isCancelamentoPedido()).isTrue();
+        assertThat(cancelada.getSituacao()).isEqualTo(SituacaoJob.EXECUTANDO);
+    }
+
+    @Test
+    void tarefaComCancelamentoGravadoNaoChegaAExecutar(@TempDir Path diretorio) {
+        // O pedido foi gravado por outra instância enquanto a tarefa esperava na fila desta
+        when(jobRepository.isCancelamentoPedido(any())).thenReturn(true);
+        JobRequestDTO request = new JobRequestDTO();
+        request.setTipo("quadro_areas");
+        request.setMunicipalityId(MUNICIPIO);
+
+        Job job = service(diretorio).criar(request);
+
+        verify(jobRepository, timeout(5000)).atualizar(argThat(gravada ->
+                gravada.getId().equals(job.getId()) && gravada.getSituacao() == SituacaoJob.CANCELADO));
+        verify(quadroAreasService, never()).getQuadro(any(), any());
+    }
+}
@@ -0,0 +1,85 @@
+package br.vegamonitoramento.caronline.service;
+
+import br.vegamonitoramento.caronline.metrics.MetricasGeometria;
+import br.vegamonitoramento.caronline.model.dto.QuadroAreasDTO;
+import br.vegamonitoramento.caronline.repository.CamadaRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Envelope;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class QuadroAreasServiceTest {
+
+    private static final long MUNICIPIO = 3552809L;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final CamadaRepository camadaRepository = mock(CamadaRepository.class);
+    private final QuadroAreasService service;
+
+    QuadroAreasServiceTest() {
+        MetricasGeometria metricas = new MetricasGeometria(new SimpleMeterRegistry());
+        CamadaGeoJsonParser parser = new CamadaGeoJsonParser(mock(TemaGrupoService.class), objectMapper,
+                new NormalizadorGeometrias(NormalizadorGeometrias.ESCALA_PADRAO, metricas));
+        when(camadaRepository.revisao(MUNICIPIO)).thenReturn(new long[]{3, 3});
+        service = new QuadroAreasService(camadaRepository, parser, 100);
+    }
+
+    private QuadroAreasDTO carregar(double lado) throws Exception {
+        return service.carregar(MUNICIPIO, objectMapper.readTree(("{\"type\": \"FeatureCollection\", \"features\": ["
+                + "{\"type\": \"Feature\", \"id\": \"imovel\", \"properties\": {\"codTema\": \"area_imovel\"}, "
+                + "\"geometry\": {\"type\": \"Polygon\", \"coordinates\": "
+                + "[[[-46.8, -23.6], [%1$s, -23.6], [%1$s, %2$s], [-46.8, %2$s], [-46.8, -23.6]]]}}]}")
+                .formatted(-46.8 + lado, -23.6 + lado)));
+    }
+
+    @Test
+    void quadroRefeitoNaoReaproveitaRevisoes() throws Exception {
+        QuadroAreasDTO primeiro = carregar(0.01);
+        service.aoAlterarCamadas(new CamadasAlteradasEvent(MUNICIPIO, new Envelope()));
+
+        // Refeito do banco (vazio, no teste): conteúdo diferente, revisão nova
+        QuadroAreasDTO refeito = service.getQuadro(MUNICIPIO, null);
+        assertThat(refeito.getRevisao()).isGreaterThan(primeiro.getRevisao());
+        assertThat(refeito.getAreas()).isNotEqualTo(primeiro.getAreas());
+
+        QuadroAreasDTO recarregado = carregar(0.02);
+        assertThat(recarregado.getRevisao()).isGreaterThan(refeito.getRevisao());
+        // Cada revisão continua identificando o conteúdo com que foi calculada
+        assertThat(service.getQuadro(MUNICIPIO, refeito.getRevisao()).getAreas()).isEqualTo(refeito.getAreas());
+    }
+
+    @Test
+    void revisaoComecaNaRevisaoGravadaDasCamadas() throws Exception {
+        assertThat(carregar(0.01).getRevisao()).isGreaterThanOrEqualTo(3L << QuadroAreasService.BITS_REVISOES_EM_MEMORIA);
+    }
+
+    @Test
+    void cargaFeitaDuranteUmaGravacaoNaoEPublicada() {
+        AtomicBoolean gravou = new AtomicBoolean();
+        doAnswer(invocacao -> {
+            // A gravação termina enquanto a carga ainda lê as camadas anteriores
+            if (gravou.compareAndSet(false, true)) {
+                service.aoAlterarCamadas(new CamadasAlteradasEvent(MUNICIPIO, new Envelope()));
+            }
+            return null;
+        }).when(camadaRepository).percorrerPorMunicipio(eq(MUNICIPIO), any());
+
+        service.getQuadro(MUNICIPIO, null);
+        service.getQuadro(MUNICIPIO, null);
+
+        // A carga velha foi descartada e refeita uma vez; a refeita ficou publicada
+        verify(camadaRepository, times(2)).percorrerPorMunicipio(eq(MUNICIPIO), any());
+    }
+}
@@ -0,0 +1,75 @@
+package br.vegamonitoramento.caronline.service;
+
+import br.vegamonitoramento.caronline.metrics.MetricasGeometria;
+import br.vegamonitoramento.caronline.model.dto.ResultadoSobreposicaoDTO;
+import br.vegamonitoramento.caronline.model.dto.SobreposicaoRequestDTO;
+import br.vegamonitoramento.caronline.model.dto.SobreposicaoResponseDTO;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class SobreposicaoServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SobreposicaoService sobreposicaoService = new SobreposicaoService(
+            objectMapper, new MetricasGeometria(new SimpleMeterRegistry()));
+
+    private JsonNode quadrado(double x, double y, double lado) throws Exception {
+        return objectMapper.readTree(
+                "{\"type\": \"Polygon\", \"coordinates\": [[[%s, %s], [%s, %s], [%s, %s], [%s, %s], [%s, %s]]]}"
+                        .formatted(x, y, x + lado, y, x + lado, y + lado, x, y + lado, x, y));
+    }
+
+    @Test
+    void removeDoAlvoAUniaoDeRecortesSobrepostos() throws Exception {
+        // 10 x 10 células sobrepostas cobrindo a metade oeste do alvo: usa a união paralela
+        List<JsonNode> recortes = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            for (int j = 0; j < 10; j++) {
+                recortes.add(quadrado(-47.0 + i * 0.0009, -22.0 + j * 0.0009, 0.0012));
+            }
+        }
+        List<JsonNode> alvos = List.of(
+                quadrado(-47.0 + 0.0045, -22.0, 0.009),
+                quadrado(-46.9, -22.0, 0.001),
+                quadrado(-47.0 + 0.001, -22.0 + 0.001, 0.001));
+
+        SobreposicaoResponseDTO resposta = sobreposicaoService.recortar(
+                new SobreposicaoRequestDTO(alvos, recortes, null));
+
+        assertThat(resposta.getOperacao()).isEqualTo(SobreposicaoService.OPERACAO_DIFERENCA);
+        List<ResultadoSobreposicaoDTO> resultados = resposta.getResultados();
+
+        // Primeiro alvo: a união vai até x = -47.0 + 0.0093, sobra a faixa leste de 0.0042 de 0.009 de largura
+        ResultadoSobreposicaoDTO parcial = resultados.get(0);
+        assertThat(parcial.getAreaResultanteHectares())
+                .isCloseTo(parcial.getAreaOriginalHectares() * 0.0042 / 0.009, within(0.01));
+        assertThat(parcial.getAreaResultanteHectares()).isLessThan(parcial.getAreaOriginalHectares());
+
+        // Segundo alvo fora dos recortes fica intacto; terceiro é totalmente coberto
+        assertThat(resultados.get(1).getAreaResultanteHectares())
+                .isEqualTo(resultados.get(1).getAreaOriginalHectares());
+        assertThat(resultados.get(2).getGeometria()).isNull();
+        assertThat(resultados.get(2).getAreaResultanteHectares()).isZero();
+    }
+
+    @Test
+    void intersecaoMantemApenasAreaComum() throws Exception {
+        SobreposicaoResponseDTO resposta = sobreposicaoService.recortar(new SobreposicaoRequestDTO(
+                List.of(quadrado(-47.0, -22.0, 0.002)),
+                List.of(quadrado(-47.001, -22.001, 0.002)),
+                "intersection"));
+
+        ResultadoSobreposicaoDTO resultado = resposta.getResultados().get(0);
+        assertThat(resultado.getGeometria().path("type").asText()).isEqualTo("Polygon");
+        assertThat(resultado.getAreaResultanteHectares())
+                .isCloseTo(resultado.getAreaOriginalHectares() / 4, within(0.01));
+    }
+}
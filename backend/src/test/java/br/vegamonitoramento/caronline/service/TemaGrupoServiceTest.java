@@ -0,0 +1,91 @@
+package br.vegamonitoramento.caronline.service;
+
+import br.vegamonitoramento.caronline.model.dto.TemaGrupoDTO;
+import br.vegamonitoramento.caronline.repository.TemaGrupoRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TemaGrupoServiceTest {
+
+    private final TemaGrupoRepository repository = mock(TemaGrupoRepository.class);
+    private final TemaGrupoService service = new TemaGrupoService(repository, new ObjectMapper());
+
+    private static List<TemaGrupoDTO> temas() {
+        return List.of(
+                new TemaGrupoDTO(26L, "IMOVEL", "Imóvel", 1, "AREA_IMOVEL", "Área do Imóvel", "P", true),
+                new TemaGrupoDTO(2L, "COBERTURA_DO_SOLO", "Cobertura do Solo", 2, "VEGETACAO_NATIVA",
+                        "Remanescente de Vegetação Nativa", "P", true),
+                new TemaGrupoDTO(1L, "COBERTURA_DO_SOLO", "Cobertura do Solo", 2, "AREA_CONSOLIDADA",
+                        "Área Consolidada", "P", true));
+    }
+
+    @Test
+    void consultaOBancoApenasUmaVez() {
+        when(repository.findAllTemasGrupos()).thenReturn(temas());
+
+        service.getAllTemasGrupos();
+        service.getAllTemasGruposAgrupados();
+        service.getCatalogo();
+
+        verify(repository, times(1)).findAllTemasGrupos();
+    }
+
+    @Test
+    void agrupaPelaChaveOrdemEGrupo() {
+        when(repository.findAllTemasGrupos()).thenReturn(temas());
+
+        assertThat(service.getAllTemasGruposAgrupados())
+                .containsOnlyKeys("1_IMOVEL", "2_COBERTURA_DO_SOLO");
+        assertThat(service.getAllTemasGruposAgrupados().get("2_COBERTURA_DO_SOLO")).hasSize(2);
+    }
+
+    @Test
+    void etagMudaApenasQuandoOConteudoMuda() {
+        when(repository.findAllTemasGrupos()).thenReturn(temas());
+        String etagInicial = service.getCatalogo().getLista().etag();
+
+        assertThat(service.recarregarCatalogo().getLista().etag()).isEqualTo(etagInicial);
+
+        when(repository.findAllTemasGrupos()).thenReturn(temas().subList(0, 1));
+        assertThat(service.recarregarCatalogo().getLista().etag()).isNotEqualTo(etagInicial);
+    }
+
+    @Test
+    void cargaConcorrenteEmVirtualThreadsNaoPrendeCarrierThread() throws Exception {
+        when(repository.findAllTemasGrupos()).thenAnswer(invocacao -> {
+            // Simula a consulta ao banco bloqueando dentro da trava de carga
+            Thread.sleep(50);
+            return temas();
+        });
+
+        AtomicInteger fixacoes = new AtomicInteger();
+        try (RecordingStream eventos = new RecordingStream()) {
+            eventos.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO);
+            eventos.onEvent("jdk.VirtualThreadPinned", evento -> fixacoes.incrementAndGet());
+            eventos.startAsync();
+
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < 50; i++) {
+                    executor.submit(service::getCatalogo);
+                }
+            }
+            eventos.stop();
+        }
+
+        verify(repository, times(1)).findAllTemasGrupos();
+        assertThat(fixacoes.get()).isZero();
+    }
+}
@@ -0,0 +1,121 @@
+package br.vegamonitoramento.caronline.service;
+
+import br.vegamonitoramento.caronline.metrics.MetricasGeometria;
+import br.vegamonitoramento.caronline.model.dto.ConflitoTopologiaDTO;
+import br.vegamonitoramento.caronline.model.dto.EventoValidacaoDTO;
+import br.vegamonitoramento.caronline.model.dto.ResultadoRegraDTO;
+import br.vegamonitoramento.caronline.model.dto.SessaoValidacaoDTO;
+import br.vegamonitoramento.caronline.model.dto.SessaoValidacaoRequestDTO;
+import br.vegamonitoramento.caronline.model.dto.TemaGrupoDTO;
+import br.vegamonitoramento.caronline.repository.CamadaRepository;
+import br.vegamonitoramento.caronline.repository.MunicipioRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Point;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ValidacaoAoVivoServiceTest {
+
+    private static final long TABOAO_DA_SERRA = 3552809L;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ValidacaoAoVivoService service;
+    private double x;
+    private double y;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        GeometriaReferenciaService referencias = new GeometriaReferenciaService(new MunicipioRepository(
+                new DefaultResourceLoader(), objectMapper, "classpath:dados/geojs-35-mun-amostra.json",
+                "classpath:dados/uf-35-amostra.json"), 1);
+        referencias.recarregar();
+        Point centro = referencias.getMunicipio(TABOAO_DA_SERRA).municipio().getGeometria().getInteriorPoint();
+        x = centro.getX() - 0.001;
+        y = centro.getY() - 0.001;
+
+        TemaGrupoService temaGrupoService = mock(TemaGrupoService.class);
+        when(temaGrupoService.getAllTemasGrupos()).thenReturn(List.of(
+                new TemaGrupoDTO(26L, "IMOVEL", "Imóvel", 1, "AREA_IMOVEL", "Área do Imóvel", "P", true),
+                new TemaGrupoDTO(2L, "COBERTURA_DO_SOLO", "Cobertura do Solo", 2, "VEGETACAO_NATIVA",
+                        "Vegetação Nativa", "P", true),
+                new TemaGrupoDTO(12L, "SERVIDAO_ADMINISTRATIVA", "Servidão Administrativa", 3,
+                        "AREA_UTILIDADE_PUBLICA", "Área de Utilidade Pública", "P", true),
+                new TemaGrupoDTO(20L, "RESERVA_LEGAL", "Reserva Legal", 5, "ARL_PROPOSTA", "ARL Proposta", "P", true)));
+        MetricasGeometria metricas = new MetricasGeometria(new SimpleMeterRegistry());
+        CamadaGeoJsonParser parser = new CamadaGeoJsonParser(temaGrupoService, objectMapper,
+                new NormalizadorGeometrias(NormalizadorGeometrias.ESCALA_PADRAO, metricas));
+        ValidacaoService validacaoService = new ValidacaoService(parser, referencias, metricas);
+        TopologiaService topologiaService = new TopologiaService(mock(CamadaRepository.class), parser,
+                temaGrupoService, metricas, objectMapper, 1.0);
+
+        service = new ValidacaoAoVivoService(parser, validacaoService, topologiaService, referencias, objectMapper,
+                new SimpleMeterRegistry(), 30, 10);
+    }
+
+    private String feicao(String id, String codTema, double dx, double dy, double lado) {
+        double x0 = x + dx;
+        double y0 = y + dy;
+        return ("{\"type\": \"Feature\", \"id\": \"%s\", \"properties\": {\"codTema\": \"%s\"}, \"geometry\": "
+                + "{\"type\": \"Polygon\", \"coordinates\": [[[%s, %s], [%s, %s], [%s, %s], [%s, %s], [%s, %s]]]}}")
+                .formatted(id, codTema, x0, y0, x0 + lado, y0, x0 + lado, y0 + lado, x0, y0 + lado, x0, y0);
+    }
+
+    @Test
+    void reavaliaApenasAsFeicoesAfetadasPelaEdicao() throws Exception {
+        SessaoValidacaoDTO sessao = service.abrir(new SessaoValidacaoRequestDTO(TABOAO_DA_SERRA, objectMapper.readTree(
+                "{\"type\": \"FeatureCollection\", \"features\": [%s, %s, %s]}".formatted(
+                        feicao("imovel", "AREA_IMOVEL", 0, 0, 0.002),
+                        feicao("a", "VEGETACAO_NATIVA", 0.0002, 0.0002, 0.0006),
+                        feicao("c", "VEGETACAO_NATIVA", 0.0012, 0.0012, 0.0006)))));
+        UUID id = sessao.getIdSessao();
+        assertThat(sessao.getFeicoes()).isEqualTo(3);
+
+        // Sobreposição com "a": só as duas entram, "c" e o imóvel não mudam
+        List<EventoValidacaoDTO> eventos = service.atualizar(id,
+                objectMapper.readTree(feicao("b", "VEGETACAO_NATIVA", 0.0005, 0.0005, 0.0004)));
+        assertThat(eventos).extracting(EventoValidacaoDTO::getIdFeicao).containsExactly("b", "a");
+        assertThat(eventos).extracting(EventoValidacaoDTO::getValido).containsExactly(false, false);
+        ConflitoTopologiaDTO conflito = eventos.get(0).getConflitos().get(0);
+        assertThat(conflito.getRegra()).isEqualTo("COBERTURA_SOBREPOSTA");
+        assertThat(conflito.getIdFeicaoA()).isEqualTo("a");
+        assertThat(conflito.getIdFeicaoB()).isEqualTo("b");
+
+        // Imóvel reduzido: "c" fica de fora e passa a falhar
+        eventos = service.atualizar(id, objectMapper.readTree(feicao("imovel", "AREA_IMOVEL", 0, 0, 0.001)));
+        assertThat(eventos).extracting(EventoValidacaoDTO::getIdFeicao).containsExactly("imovel", "c");
+        assertThat(eventos.get(1).getRegras()).extracting(ResultadoRegraDTO::getSuccess).containsExactly(true, false);
+
+        eventos = service.excluir(id, "b");
+        assertThat(eventos).extracting(EventoValidacaoDTO::getIdFeicao).containsExactly("b", "a");
+        assertThat(eventos.get(0).getExcluida()).isTrue();
+        assertThat(eventos.get(1).getValido()).isTrue();
+        assertThat(service.excluir(id, "b")).isEmpty();
+    }
+
+    @Test
+    void sessaoEncerradaNaoAceitaEdicoes() throws Exception {
+        UUID id = service.abrir(new SessaoValidacaoRequestDTO(TABOAO_DA_SERRA, null)).getIdSessao();
+        String feature = feicao("imovel", "AREA_IMOVEL", 0, 0, 0.002);
+
+        assertThat(service.atualizar(id, objectMapper.readTree(feature))).hasSize(1);
+        assertThatThrownBy(() -> service.atualizar(id, objectMapper.readTree(feicao(null, "AREA_IMOVEL", 0, 0, 0.001)
+                .replace("\"id\": \"null\", ", ""))))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        service.encerrar(id);
+        assertThatThrownBy(() -> service.atualizar(id, objectMapper.readTree(feature)))
+                .isInstanceOf(SessaoValidacaoNaoEncontradaException.class);
+        assertThatThrownBy(() -> service.abrir(new SessaoValidacaoRequestDTO(null, null)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,89 @@
+package br.vegamonitoramento.caronline.service;
+
+import br.vegamonitoramento.caronline.metrics.MetricasGeometria;
+import br.vegamonitoramento.caronline.model.dto.ResultadoFeicaoDTO;
+import br.vegamonitoramento.caronline.model.dto.ResultadoRegraDTO;
+import br.vegamonitoramento.caronline.model.dto.ValidacaoRequestDTO;
+import br.vegamonitoramento.caronline.model.dto.ValidacaoResponseDTO;
+import br.vegamonitoramento.caronline.repository.MunicipioRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Point;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class ValidacaoServiceTest {
+
+    private static final long TABOAO_DA_SERRA = 3552809L;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private GeometriaReferenciaService referencias;
+    private ValidacaoService validacaoService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MunicipioRepository municipioRepository = new MunicipioRepository(
+                new DefaultResourceLoader(), objectMapper, "classpath:dados/geojs-35-mun-amostra.json",
+                "classpath:dados/uf-35-amostra.json");
+        referencias = new GeometriaReferenciaService(municipioRepository, 1);
+        referencias.recarregar();
+
+        MetricasGeometria metricas = new MetricasGeometria(new SimpleMeterRegistry());
+        CamadaGeoJsonParser parser = new CamadaGeoJsonParser(mock(TemaGrupoService.class), objectMapper,
+                new NormalizadorGeometrias(NormalizadorGeometrias.ESCALA_PADRAO, metricas));
+        validacaoService = new ValidacaoService(parser, referencias, metricas);
+    }
+
+    private static String quadrado(double x, double y, double lado) {
+        return "{\"type\": \"Polygon\", \"coordinates\": [[[%s, %s], [%s, %s], [%s, %s], [%s, %s], [%s, %s]]]}"
+                .formatted(x, y, x + lado, y, x + lado, y + lado, x, y + lado, x, y);
+    }
+
+    private static String feicao(String codTema, String geometria) {
+        return "{\"type\": \"Feature\", \"geometry\": %s, \"properties\": {\"codTema\": \"%s\"}}"
+                .formatted(geometria, codTema);
+    }
+
+    @Test
+    void validaCadaFeicaoContraImovelMunicipioEEstado() throws Exception {
+        Point centro = referencias.getMunicipio(TABOAO_DA_SERRA).municipio().getGeometria().getInteriorPoint();
+        double x = centro.getX() - 0.001;
+        double y = centro.getY() - 0.001;
+
+        String colecao = "{\"type\": \"FeatureCollection\", \"features\": [%s, %s, %s]}".formatted(
+                feicao("area_imovel", quadrado(x, y, 0.002)),
+                feicao("vegetacao_nativa", quadrado(x + 0.0005, y + 0.0005, 0.001)),
+                feicao("area_consolidada", quadrado(x + 0.0015, y + 0.0015, 0.001)));
+
+        ValidacaoResponseDTO resposta = validacaoService.validar(
+                new ValidacaoRequestDTO(objectMapper.readTree(colecao), TABOAO_DA_SERRA));
+
+        List<ResultadoFeicaoDTO> feicoes = resposta.getFeicoes();
+        assertThat(resposta.getValido()).isFalse();
+        assertThat(feicoes).extracting(ResultadoFeicaoDTO::getValido).containsExactly(true, true, false);
+        assertThat(feicoes.get(0).getRegras()).extracting(ResultadoRegraDTO::getRegra).containsExactly(
+                ValidacaoService.REGRA_GEOMETRIA_VALIDA,
+                ValidacaoService.REGRA_IMOVEL_INTERSECTA_MUNICIPIO,
+                ValidacaoService.REGRA_IMOVEL_EM_SAO_PAULO);
+        assertThat(feicoes.get(2).getRegras().get(1).getMessage())
+                .isEqualTo("A geometria deve estar completamente dentro da área do imóvel.");
+    }
+
+    @Test
+    void exigeImovelParaAsDemaisFeicoes() throws Exception {
+        String colecao = "{\"type\": \"FeatureCollection\", \"features\": [%s]}".formatted(
+                feicao("vegetacao_nativa", quadrado(-46.8, -23.6, 0.001)));
+
+        ValidacaoResponseDTO resposta = validacaoService.validar(
+                new ValidacaoRequestDTO(objectMapper.readTree(colecao), TABOAO_DA_SERRA));
+
+        assertThat(resposta.getFeicoes().get(0).getRegras().get(1).getMessage())
+                .isEqualTo("É necessário definir a área do imóvel primeiro.");
+    }
+}
@@ -0,0 +1,76 @@
+package br.vegamonitoramento.caronline.tile;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.locationtech.jts.geom.Envelope;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheTilesTest {
+
+    // Tiles de Piracicaba e de São Paulo no zoom 12
+    private static final TileCoordenada PIRACICABA = tile(-47.65, -22.72, 12);
+    private static final TileCoordenada SAO_PAULO = tile(-46.63, -23.55, 12);
+
+    private static TileCoordenada tile(double longitude, double latitude, int z) {
+        return new TileCoordenada("camadas", z, TileCoordenada.coluna(longitude, z), TileCoordenada.linha(latitude, z));
+    }
+
+    @Test
+    void invalidaSomenteTilesDaExtensaoAlterada(@TempDir Path diretorio) {
+        CacheTiles cache = new CacheTiles(1024 * 1024, diretorio);
+        cache.put(PIRACICABA, new byte[]{1}, cache.getGeracao());
+        cache.put(SAO_PAULO, new byte[]{2}, cache.getGeracao());
+
+        cache.invalidar(new Envelope(-46.7, -46.6, -23.6, -23.5));
+
+        assertThat(cache.get(PIRACICABA)).hasValue(new byte[]{1});
+        assertThat(cache.get(SAO_PAULO)).isEmpty();
+        assertThat(Files.exists(diretorio.resolve("camadas/12/" + SAO_PAULO.x() + "/" + SAO_PAULO.y() + ".mvt")))
+                .isFalse();
+    }
+
+    @Test
+    void descartaTileGeradoAntesDaInvalidacao() {
+        CacheTiles cache = new CacheTiles(1024 * 1024, null);
+        long geracaoLida = cache.getGeracao();
+
+        cache.invalidar(PIRACICABA.envelope());
+        cache.put(PIRACICABA, new byte[]{1}, geracaoLida);
+
+        assertThat(cache.get(PIRACICABA)).isEmpty();
+    }
+
+    @Test
+    void respeitaLimiteDeMemoria() {
+        CacheTiles cache = new CacheTiles(10, null);
+        cache.put(PIRACICABA, new byte[6], cache.getGeracao());
+        cache.put(SAO_PAULO, new byte[6], cache.getGeracao());
+
+        assertThat(cache.getQuantidadeMemoria()).isEqualTo(1);
+        assertThat(cache.getBytesMemoria()).isEqualTo(6);
+        assertThat(cache.get(SAO_PAULO)).isPresent();
+    }
+
+    @Test
+    void invalidaVizinhoQueDesenhaAFeicaoNaMargem(@TempDir Path diretorio) {
+        CacheTiles cache = new CacheTiles(1024 * 1024, diretorio);
+        TileCoordenada vizinho = new TileCoordenada("camadas", 12, SAO_PAULO.x() + 1, SAO_PAULO.y());
+        TileCoordenada distante = new TileCoordenada("camadas", 12, SAO_PAULO.x() + 2, SAO_PAULO.y());
+        cache.put(vizinho, new byte[]{1}, cache.getGeracao());
+        cache.put(distante, new byte[]{2}, cache.getGeracao());
+
+        // Alteração só dentro de SAO_PAULO, junto à borda leste: cai na margem do vizinho
+        Envelope tile = SAO_PAULO.envelope();
+        double borda = tile.getMaxX() - tile.getWidth() * 0.001;
+        cache.invalidar(new Envelope(borda, borda, tile.centre().y, tile.centre().y));
+
+        assertThat(cache.get(vizinho)).isEmpty();
+        assertThat(Files.exists(diretorio.resolve("camadas/12/" + vizinho.x() + "/" + vizinho.y() + ".mvt")))
+                .isFalse();
+        assertThat(cache.get(distante)).hasValue(new byte[]{2});
+    }
+}
@@ -0,0 +1,119 @@
+package br.vegamonitoramento.caronline.topologia;
+
+import br.vegamonitoramento.caronline.geometry.AreaGeodesica;
+import br.vegamonitoramento.caronline.geometry.Geometrias;
+import br.vegamonitoramento.caronline.model.dto.TemaGrupoDTO;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.assertj.core.api.Assertions.withinPercentage;
+
+class VerificadorTopologiaTest {
+
+    private static final List<TemaGrupoDTO> CATALOGO = List.of(
+            tema("IMOVEL", "AREA_IMOVEL"),
+            tema("COBERTURA_DO_SOLO", "VEGETACAO_NATIVA"),
+            tema("COBERTURA_DO_SOLO", "AREA_CONSOLIDADA"),
+            tema("SERVIDAO_ADMINISTRATIVA", "AREA_UTILIDADE_PUBLICA"),
+            tema("RESERVA_LEGAL", "ARL_PROPOSTA"),
+            tema("APP_E_USO_RESTRITO", "APP_NASCENTE"));
+
+    private static final Map<String, GrupoTopologia> GRUPOS = GrupoTopologia.porTema(CATALOGO);
+
+    private static TemaGrupoDTO tema(String nomGrupo, String codTema) {
+        return new TemaGrupoDTO(null, nomGrupo, nomGrupo, null, codTema, codTema, "P", true);
+    }
+
+    private static Geometry quadrado(double x, double y, double lado) {
+        return Geometrias.FACTORY.createPolygon(new Coordinate[]{
+                new Coordinate(x, y), new Coordinate(x + lado, y), new Coordinate(x + lado, y + lado),
+                new Coordinate(x, y + lado), new Coordinate(x, y)});
+    }
+
+    @Test
+    void encontraSoSobreposicoesComAreaEntreGruposComRegra() {
+        List<String> temas = List.of("VEGETACAO_NATIVA", "AREA_CONSOLIDADA", "AREA_CONSOLIDADA",
+                "APP_NASCENTE", "AREA_UTILIDADE_PUBLICA", "AREA_IMOVEL_LIQUIDA");
+        List<Geometry> geometrias = List.of(
+                quadrado(-47.00, -23.00, 0.01),
+                quadrado(-46.995, -23.00, 0.01),  // metade sobre a vegetação
+                quadrado(-46.98, -23.00, 0.01),   // só encosta na anterior
+                quadrado(-47.00, -23.00, 0.02),   // APP sobre tudo: permitido
+                quadrado(-46.975, -23.00, 0.001), // servidão dentro da consolidada
+                quadrado(-47.00, -23.00, 0.05));  // tema derivado: ignorado
+
+        VerificadorTopologia.Resultado resultado = new VerificadorTopologia(GRUPOS, 1.0).verificar(temas, geometrias);
+
+        assertThat(resultado.conflitos()).extracting(c -> c.regra() + ":" + c.indiceA() + "-" + c.indiceB())
+                .containsExactly("COBERTURA_SOBREPOSTA:0-1", "COBERTURA_SOBRE_SERVIDAO:2-4");
+        VerificadorTopologia.Conflito primeiro = resultado.conflitos().get(0);
+        assertThat(primeiro.areaHectares())
+                .isCloseTo(AreaGeodesica.hectares(quadrado(-46.995, -23.00, 0.005)) * 2, withinPercentage(0.1));
+        assertThat(primeiro.sobreposicao().getArea()).isCloseTo(0.005 * 0.01, within(1e-12));
+    }
+
+    @Test
+    void resultadoIgualAoDaComparacaoDeTodosOsPares() {
+        Random aleatorio = new Random(7);
+        List<String> temas = new ArrayList<>();
+        List<Geometry> geometrias = new ArrayList<>();
+        List<String> codigos = List.of("VEGETACAO_NATIVA", "AREA_CONSOLIDADA", "AREA_UTILIDADE_PUBLICA", "APP_NASCENTE");
+        for (int i = 0; i < 400; i++) {
+            temas.add(codigos.get(aleatorio.nextInt(codigos.size())));
+            geometrias.add(quadrado(-47 + aleatorio.nextDouble() * 0.2, -23 + aleatorio.nextDouble() * 0.2,
+                    0.002 + aleatorio.nextDouble() * 0.01));
+        }
+
+        VerificadorTopologia.Resultado resultado = new VerificadorTopologia(GRUPOS, 1.0).verificar(temas, geometrias);
+
+        Set<String> esperados = new HashSet<>();
+        for (int i = 0; i < geometrias.size(); i++) {
+            for (int j = i + 1; j < geometrias.size(); j++) {
+                GrupoTopologia grupo = GRUPOS.get(temas.get(i));
+                GrupoTopologia outro = GRUPOS.get(temas.get(j));
+                RegraTopologia regra = grupo != null && outro != null ? RegraTopologia.entre(grupo, outro) : null;
+                if (regra != null && AreaGeodesica.metrosQuadrados(geometrias.get(i).intersection(geometrias.get(j))) >= 1.0) {
+                    esperados.add(i + "-" + j);
+                }
+            }
+        }
+        assertThat(esperados).isNotEmpty();
+        assertThat(resultado.conflitos()).extracting(c -> c.indiceA() + "-" + c.indiceB())
+                .containsExactlyInAnyOrderElementsOf(esperados);
+        // O índice descarta a maior parte dos ~80 mil pares
+        assertThat(resultado.paresAvaliados()).isLessThan(geometrias.size() * (geometrias.size() - 1) / 20L);
+    }
+
+    @Test
+    void gruposSaoResolvidosPelosTemasDeReferencia() {
+        // O nome do grupo no catálogo não importa: vale o grupo do tema de referência
+        List<TemaGrupoDTO> renomeado = new ArrayList<>(CATALOGO);
+        renomeado.set(1, tema("COBERTURA", "VEGETACAO_NATIVA"));
+        renomeado.set(2, tema("COBERTURA", "AREA_CONSOLIDADA"));
+
+        Map<String, GrupoTopologia> grupos = GrupoTopologia.porTema(renomeado);
+
+        assertThat(grupos).containsEntry("AREA_CONSOLIDADA", GrupoTopologia.COBERTURA_DO_SOLO)
+                .doesNotContainKey("APP_NASCENTE");
+    }
+
+    @Test
+    void grupoSemTemaDeReferenciaNoCatalogoEErro() {
+        List<TemaGrupoDTO> semReserva = CATALOGO.stream().filter(t -> !t.getCodTema().equals("ARL_PROPOSTA")).toList();
+
+        assertThatThrownBy(() -> GrupoTopologia.porTema(semReserva))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("ARL_PROPOSTA");
+    }
+}
@@ -9,6 +9,8 @@ class LayersService {
    */
   constructor() {
     this.basePath = "/car-online/api/camadas";
+    // Estado da última sincronização por município: revisão e impressão de cada feição
+    this.sincronizacoes = new Map();
   }
 
   /**
@@ -35,10 +37,6 @@ class LayersService {
             feature.properties.numArea = feature.properties.area;
           }
 
-          if (!feature.properties.theGeom) {
-            feature.properties.theGeom = JSON.stringify(feature.geometry);
-          }
-
           if (!feature.properties.dataCriacao) {
             feature.properties.dataCriacao =
               feature.properties.timestamp || new Date().toISOString();
@@ -54,6 +52,96 @@ class LayersService {
     return httpService.post(`${this.basePath}/salvar`, data);
   }
 
+  /**
+   * Envia ao servidor apenas as feições novas, alteradas e excluídas desde a última
+   * sincronização do município. Cada feição precisa do membro "id" estável.
+   * Em caso de conflito (409), recarrega as alterações do servidor e repassa o erro.
+   * @param {String} municipalityId - ID do município
+   * @param {Object} geoJson - FeatureCollection com todas as feições desenhadas
+   * @returns {Promise} Promessa com a resposta do servidor (revisão, gravadas, excluídas)
+   */
+  async syncLayers(municipalityId, geoJson) {
+    const anterior = this.sincronizacoes.get(municipalityId) || {
+      revisao: 0,
+      impressoes: new Map(),
+    };
+    const impressoes = new Map();
+    const alteradas = [];
+
+    for (const feature of geoJson.features) {
+      const impressao = this._impressao(feature);
+      impressoes.set(feature.id, impressao);
+      if (anterior.impressoes.get(feature.id) !== impressao) {
+        alteradas.push(feature);
+      }
+    }
+    const excluidas = [...anterior.impressoes.keys()].filter(
+      (id) => !impressoes.has(id)
+    );
+
+    if (alteradas.length === 0 && excluidas.length === 0) {
+      return { municipalityId, revisao: anterior.revisao, gravadas: 0, excluidas: 0 };
+    }
+
+    try {
+      const resposta = await httpService.patch(
+        `${this.basePath}/${municipalityId}`,
+        {
+          revisaoBase: anterior.revisao,
+          alteradas: { type: "FeatureCollection", features: alteradas },
+          excluidas,
+        }
+      );
+      this.sincronizacoes.set(municipalityId, {
+        revisao: resposta.revisao,
+        impressoes,
+      });
+      return resposta;
+    } catch (error) {
+      if (error.response && error.response.status === 409) {
+        await this.loadChanges(municipalityId);
+      }
+      throw error;
+    }
+  }
+
+  /**
+   * Carrega as alterações desde a última revisão sincronizada do município.
+   * A resposta é uma FeatureCollection com "revisao", "completo" e "excluidas".
+   * @param {String} municipalityId - ID do município
+   * @returns {Promise} Promessa com as alterações
+   */
+  async loadChanges(municipalityId) {
+    const anterior = this.sincronizacoes.get(municipalityId);
+    const alteracoes = await httpService.get(
+      `${this.basePath}/${municipalityId}/alteracoes`,
+      { desde: anterior ? anterior.revisao : 0 }
+    );
+
+    const impressoes =
+      anterior && !alteracoes.completo ? new Map(anterior.impressoes) : new Map();
+    for (const id of alteracoes.excluidas || []) {
+      impressoes.delete(id);
+    }
+    for (const feature of alteracoes.features || []) {
+      impressoes.set(feature.id, this._impressao(feature));
+    }
+    this.sincronizacoes.set(municipalityId, {
+      revisao: alteracoes.revisao,
+      impressoes,
+    });
+    return alteracoes;
+  }
+
+  /**
+   * Conteúdo que identifica uma alteração: tema, área e geometria, sem as datas
+   * @private
+   */
+  _impressao(feature) {
+    const { codTema, nomTema, numArea } = feature.properties || {};
+    return JSON.stringify([codTema, nomTema, numArea, feature.geometry]);
+  }
+
   /**
    * Carrega camadas salvas anteriormente
    * @param {String} municipalityId - ID do município
@@ -74,6 +162,48 @@ class LayersService {
     return httpService.download(`${this.basePath}/exportar`, options);
   }
 
+  /**
+   * Importa camadas de um arquivo (shapefile em .zip, .geojson, .kml ou .kmz). O servidor
+   * responde em NDJSON durante o processamento: uma linha por feição e o resumo no final.
+   * @param {File} file - Arquivo selecionado
+   * @param {String} municipalityId - ID do município
+   * @param {Object} options - codTema (tema padrão), onResult (resultado de cada feição) e onProgress (envio, em %)
+   * @returns {Promise} Promessa com o resumo da importação
+   */
+  async importLayers(file, municipalityId, { codTema, onResult, onProgress } = {}) {
+    const formData = new FormData();
+    formData.append("arquivo", file);
+    let lidos = 0;
+    const consumir = (texto, final) => {
+      const fim = final ? texto.length : texto.lastIndexOf("\n") + 1;
+      const linhas = texto.slice(lidos, fim).split("\n").filter(Boolean);
+      lidos = fim;
+      return linhas.map((linha) => JSON.parse(linha));
+    };
+    const repassar = (linhas) =>
+      linhas.filter((linha) => !linha.resumo).forEach((linha) => onResult && onResult(linha));
+
+    const resposta = await httpService.upload(`${this.basePath}/importar`, formData, {
+      params: { municipalityId, codTema },
+      headers: { Accept: "application/x-ndjson" },
+      responseType: "text",
+      // Arquivos grandes levam minutos; o relatório chega aos poucos
+      timeout: 0,
+      onProgress,
+      onDownloadProgress: (evento) => {
+        const texto = evento.event?.target?.responseText;
+        if (texto) {
+          repassar(consumir(texto, false));
+        }
+      },
+    });
+
+    const restantes = consumir(resposta, true);
+    repassar(restantes);
+    const resumo = restantes.find((linha) => linha.resumo);
+    return resumo ? resumo.resumo : null;
+  }
+
   /**
    * Exclui camadas salvas no servidor
    * @param {String} municipalityId - ID do município